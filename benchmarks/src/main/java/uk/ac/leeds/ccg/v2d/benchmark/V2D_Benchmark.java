@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Vector;
+
+/**
+ * The base for benchmarks of the exact stack. The Order of Magnitude for the
+ * precision and the RoundingMode are parameters so that the cost of greater
+ * precision can be measured. Comparing with the double precision benchmarks in
+ * {@code uk.ac.leeds.ccg.v2d.benchmark.d} measures the cost of exactness.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class V2D_Benchmark {
+
+    /**
+     * The Order of Magnitude for the precision.
+     */
+    @Param({"-3", "-10", "-30"})
+    public int oom;
+
+    /**
+     * The RoundingMode for any rounding.
+     */
+    @Param({"HALF_UP"})
+    public RoundingMode rm;
+
+    /**
+     * The environment.
+     */
+    public V2D_Environment env;
+
+    /**
+     * Initialises {@link #env}.
+     */
+    protected void init() {
+        env = new V2D_Environment(oom, rm);
+    }
+
+    /**
+     * @param c Interleaved coordinate numerators from
+     * {@link V2D_BenchmarkData}.
+     * @return The points.
+     */
+    protected V2D_Point[] getPoints(long[] c) {
+        V2D_Point[] r = new V2D_Point[c.length / 2];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = new V2D_Point(env, valueOf(c[2 * i]),
+                    valueOf(c[2 * i + 1]));
+        }
+        return r;
+    }
+
+    /**
+     * @param c Interleaved coordinate numerators from
+     * {@link V2D_BenchmarkData}.
+     * @return The vectors.
+     */
+    protected V2D_Vector[] getVectors(long[] c) {
+        V2D_Vector[] r = new V2D_Vector[c.length / 2];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = new V2D_Vector(valueOf(c[2 * i]), valueOf(c[2 * i + 1]));
+        }
+        return r;
+    }
+
+    /**
+     * @param n A numerator.
+     * @return n divided by {@link V2D_BenchmarkData#SCALE}.
+     */
+    protected static BigRational valueOf(long n) {
+        return BigRational.valueOf(BigInteger.valueOf(n),
+                BigInteger.valueOf(V2D_BenchmarkData.SCALE));
+    }
+}
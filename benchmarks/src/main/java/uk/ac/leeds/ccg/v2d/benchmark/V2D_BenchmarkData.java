@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import java.util.Random;
+
+/**
+ * Generates the inputs for the benchmarks. Coordinates are generated as
+ * integer numerators of {@link #SCALE} from a seeded {@link Random}, so that
+ * the benchmarks of the exact and double precision stacks are given the same
+ * geometries.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_BenchmarkData {
+
+    /**
+     * The denominator of the coordinates.
+     */
+    public static final int SCALE = 1000;
+
+    /**
+     * The seed for the Random.
+     */
+    public static final long SEED = 0L;
+
+    /**
+     * The range of the coordinate numerators.
+     */
+    public static final int RANGE = 100 * SCALE;
+
+    private V2D_BenchmarkData() {
+    }
+
+    /**
+     * @param n The number of points.
+     * @return The interleaved x and y coordinate numerators of n points
+     * spread uniformly in a square.
+     */
+    public static long[] getPoints(int n) {
+        Random r = new Random(SEED);
+        long[] c = new long[2 * n];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = r.nextInt(RANGE);
+        }
+        return c;
+    }
+
+    /**
+     * @param n The number of line segments.
+     * @return The interleaved coordinate numerators of the start and end
+     * points of n line segments with lengths up to a fifth of the range so
+     * that consecutive segments intersect sometimes.
+     */
+    public static long[] getLineSegments(int n) {
+        return getShapes(n, 2);
+    }
+
+    /**
+     * @param n The number of triangles.
+     * @return The interleaved coordinate numerators of the corners of n
+     * triangles with sides up to a fifth of the range so that consecutive
+     * triangles intersect sometimes.
+     */
+    public static long[] getTriangles(int n) {
+        return getShapes(n, 3);
+    }
+
+    /**
+     * @param n The number of shapes.
+     * @param m The number of points of each shape.
+     * @return The interleaved coordinate numerators of the points of n shapes
+     * each with m points near a random centre. Shapes with coincident points,
+     * or for triangles collinear points, are not returned.
+     */
+    private static long[] getShapes(int n, int m) {
+        Random r = new Random(SEED);
+        long[] c = new long[2 * m * n];
+        int d = RANGE / 10;
+        int s = 0;
+        while (s < n) {
+            int x = d + r.nextInt(RANGE / 4);
+            int y = d + r.nextInt(RANGE / 4);
+            int i = 2 * m * s;
+            for (int p = 0; p < m; p++) {
+                c[i + 2 * p] = x + r.nextInt(2 * d) - d;
+                c[i + 2 * p + 1] = y + r.nextInt(2 * d) - d;
+            }
+            long dx = c[i + 2] - c[i];
+            long dy = c[i + 3] - c[i + 1];
+            if (m == 2) {
+                if (dx != 0L || dy != 0L) {
+                    s++;
+                }
+            } else if (dx * (c[i + 5] - c[i + 1])
+                    - dy * (c[i + 4] - c[i]) != 0L) {
+                s++;
+            }
+        }
+        return c;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import java.io.IOException;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks. This accepts the same arguments as the JMH command
+ * line, but unless a result format and file are given the results are
+ * written as JSON to {@link #RESULT} so that they can be compared across
+ * releases, for example with:
+ * {@code java -jar target/benchmarks.jar -rff ccg-v2d-0.4.json}.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Benchmarks {
+
+    /**
+     * The default name of the results file.
+     */
+    public static final String RESULT = "jmh-result.json";
+
+    private V2D_Benchmarks() {
+    }
+
+    /**
+     * @param args JMH command line arguments.
+     * @throws CommandLineOptionException If the arguments are not valid.
+     * @throws RunnerException If a benchmark fails.
+     * @throws IOException If the help cannot be shown.
+     */
+    public static void main(String[] args) throws CommandLineOptionException,
+            RunnerException, IOException {
+        run(new CommandLineOptions(args), new OptionsBuilder(), RESULT);
+    }
+
+    /**
+     * Runs the benchmarks unless help or a list is asked for.
+     *
+     * @param cl The command line options. These override any options in b.
+     * @param b The options to use unless overridden.
+     * @param result The default name of the results file.
+     * @throws RunnerException If a benchmark fails.
+     * @throws IOException If the help cannot be shown.
+     */
+    public static void run(CommandLineOptions cl, ChainedOptionsBuilder b,
+            String result) throws RunnerException, IOException {
+        if (cl.shouldHelp()) {
+            cl.showHelp();
+            return;
+        }
+        b.parent(cl);
+        if (!cl.getResultFormat().hasValue()) {
+            b.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cl.getResult().hasValue()) {
+            b.result(result);
+        }
+        Runner r = new Runner(b.build());
+        if (cl.shouldList()) {
+            r.list();
+        } else {
+            r.run();
+        }
+    }
+}
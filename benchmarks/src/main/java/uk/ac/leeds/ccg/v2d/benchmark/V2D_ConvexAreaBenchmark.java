@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_ConvexArea;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+
+/**
+ * Benchmarks for V2D_ConvexArea. Each invocation constructs the convex hull
+ * of {@link #size} points.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_ConvexAreaBenchmark extends V2D_Benchmark {
+
+    /**
+     * The number of points.
+     */
+    @Param({"16", "256", "4096"})
+    public int size;
+
+    /**
+     * The points.
+     */
+    V2D_Point[] pts;
+
+    /**
+     * Creates {@link #pts}.
+     */
+    @Setup
+    public void setup() {
+        init();
+        pts = getPoints(V2D_BenchmarkData.getPoints(size));
+    }
+
+    /**
+     * Benchmark for constructing a convex hull.
+     *
+     * @return The convex hull.
+     */
+    @Benchmark
+    public V2D_ConvexArea construct() {
+        return new V2D_ConvexArea(oom, rm, pts);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Orientation;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+
+/**
+ * Benchmarks for V2D_Orientation comparing the filtered orientation test with
+ * the exact evaluation it falls back to. Each invocation tests {@link #size}
+ * triples of points.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_OrientationBenchmark extends V2D_Benchmark {
+
+    /**
+     * The number of points.
+     */
+    @Param({"16", "256"})
+    public int size;
+
+    /**
+     * The points.
+     */
+    V2D_Point[] ps;
+
+    /**
+     * Creates {@link #ps}.
+     */
+    @Setup
+    public void setup() {
+        init();
+        ps = getPoints(V2D_BenchmarkData.getPoints(size));
+    }
+
+    /**
+     * Benchmark for the filtered orientation test.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    public void getOrientation(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(V2D_Orientation.getOrientation(ps[i],
+                    ps[(i + 1) % size], ps[(i + 2) % size], oom, rm));
+        }
+    }
+
+    /**
+     * Benchmark for the exact orientation test.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    public void getOrientationExact(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            V2D_Point a = ps[i];
+            V2D_Point b = ps[(i + 1) % size];
+            V2D_Point c = ps[(i + 2) % size];
+            bh.consume(V2D_Orientation.getOrientationExact(a.getX(oom, rm),
+                    a.getY(oom, rm), b.getX(oom, rm), b.getY(oom, rm),
+                    c.getX(oom, rm), c.getY(oom, rm)));
+        }
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.io.IOException;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_ConvexArea;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Triangle;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Vector;
+
+/**
+ * Benchmarks of the cost of precision for operations of the exact stack. The
+ * {@link #main(String[])} method sweeps {@link #oom} over {@link #OOMS} and
+ * {@link #rm} over {@link #RMS} and adds the JMH GC profiler so that the time
+ * and the allocated bytes per operation ({@code gc.alloc.rate.norm}) are
+ * reported, from which the cheapest oom that meets an accuracy requirement
+ * can be chosen.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PrecisionBenchmark extends V2D_Benchmark {
+
+    /**
+     * The number of operations per invocation.
+     */
+    public static final int N = 64;
+
+    /**
+     * The number of sets of inputs cycled through.
+     */
+    public static final int K = 64;
+
+    /**
+     * The Orders of Magnitude swept over.
+     */
+    public static final String[] OOMS = {"-3", "-5", "-10", "-15", "-20",
+        "-25", "-30", "-40", "-50"};
+
+    /**
+     * The RoundingModes swept over.
+     */
+    public static final String[] RMS = {"HALF_UP", "HALF_EVEN", "DOWN"};
+
+    /**
+     * The default name of the results file.
+     */
+    public static final String RESULT = "jmh-precision.json";
+
+    /**
+     * The vectors of the current set.
+     */
+    V2D_Vector[] vs;
+
+    /**
+     * The angles for rotation.
+     */
+    BigRational[] thetas;
+
+    /**
+     * The points of the current set.
+     */
+    V2D_Point[] ps;
+
+    /**
+     * The triangles of the current set.
+     */
+    V2D_Triangle[] ts;
+
+    /**
+     * The sets of vectors.
+     */
+    V2D_Vector[][] vss;
+
+    /**
+     * The sets of points.
+     */
+    V2D_Point[][] pss;
+
+    /**
+     * The sets of triangles.
+     */
+    V2D_Triangle[][] tss;
+
+    /**
+     * The index of the current set.
+     */
+    int k;
+
+    /**
+     * Creates {@link #K} independent sets of inputs. These are created here
+     * rather than for each invocation so that neither the time nor the
+     * allocation of creating them is included in the measurements.
+     */
+    @Setup(Level.Trial)
+    public void setup() {
+        init();
+        long[] c = V2D_BenchmarkData.getPoints(N);
+        long[] tc = V2D_BenchmarkData.getTriangles(N);
+        Random r = new Random(V2D_BenchmarkData.SEED);
+        thetas = new BigRational[N];
+        for (int i = 0; i < N; i++) {
+            // In the range (0, 2Pi)
+            thetas[i] = valueOf(1 + r.nextInt(6283));
+        }
+        vss = new V2D_Vector[K][];
+        pss = new V2D_Point[K][];
+        tss = new V2D_Triangle[K][];
+        for (int j = 0; j < K; j++) {
+            vss[j] = getVectors(c);
+            pss[j] = getPoints(c);
+            V2D_Point[] p = getPoints(tc);
+            tss[j] = new V2D_Triangle[N];
+            for (int i = 0; i < N; i++) {
+                tss[j][i] = new V2D_Triangle(p[3 * i], p[3 * i + 1],
+                        p[3 * i + 2], oom, rm);
+            }
+        }
+        k = -1;
+    }
+
+    /**
+     * Moves on to the next set of inputs and clears the coordinates that the
+     * points memoise at an oom, so that the benchmarks measure the cost of
+     * the precision rather than cache hits. This allocates nothing. Vectors
+     * and triangles also memoise results, which cannot be cleared, so these
+     * are only reused after {@link #K} invocations.
+     */
+    @Setup(Level.Invocation)
+    public void setupInvocation() {
+        k = (k + 1) % K;
+        vs = vss[k];
+        ps = pss[k];
+        ts = tss[k];
+        for (V2D_Point p : ps) {
+            p.clearCoordinates();
+        }
+    }
+
+    /**
+     * Benchmark for V2D_Vector.getAngle.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void getAngle(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            bh.consume(vs[i].getAngle(vs[(i + 1) % N], oom, rm));
+        }
+    }
+
+    /**
+     * Benchmark for V2D_Vector.rotateN.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void rotateN(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            bh.consume(vs[i].rotateN(thetas[i], V2D_Environment.bd, oom, rm));
+        }
+    }
+
+    /**
+     * Benchmark for V2D_Point.getDistance.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void getDistance(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            bh.consume(ps[i].getDistance(ps[(i + 1) % N], oom, rm));
+        }
+    }
+
+    /**
+     * Benchmark for V2D_Triangle.getIntersect.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    @OperationsPerInvocation(N)
+    public void getIntersect(Blackhole bh) {
+        for (int i = 0; i < N; i++) {
+            bh.consume(ts[i].getIntersect(ts[(i + 1) % N], oom, rm));
+        }
+    }
+
+    /**
+     * Benchmark for constructing a V2D_ConvexArea from {@link #N} points.
+     *
+     * @return The convex hull.
+     */
+    @Benchmark
+    public V2D_ConvexArea construct() {
+        return new V2D_ConvexArea(oom, rm, ps);
+    }
+
+    /**
+     * Runs the sweep. This accepts the same arguments as the JMH command line
+     * and those given override the defaults. For example:
+     * {@code java -cp target/benchmarks.jar
+     * uk.ac.leeds.ccg.v2d.benchmark.V2D_PrecisionBenchmark -p oom=-10,-20}.
+     *
+     * @param args JMH command line arguments.
+     * @throws CommandLineOptionException If the arguments are not valid.
+     * @throws RunnerException If a benchmark fails.
+     * @throws IOException If the help cannot be shown.
+     */
+    public static void main(String[] args) throws CommandLineOptionException,
+            RunnerException, IOException {
+        CommandLineOptions cl = new CommandLineOptions(args);
+        ChainedOptionsBuilder b = new OptionsBuilder();
+        if (cl.getIncludes().isEmpty()) {
+            b.include(V2D_PrecisionBenchmark.class.getName());
+        }
+        if (!cl.getParameter("oom").hasValue()) {
+            b.param("oom", OOMS);
+        }
+        if (!cl.getParameter("rm").hasValue()) {
+            b.param("rm", RMS);
+        }
+        if (cl.getProfilers().isEmpty()) {
+            b.addProfiler(GCProfiler.class);
+        }
+        V2D_Benchmarks.run(cl, b, RESULT);
+    }
+}
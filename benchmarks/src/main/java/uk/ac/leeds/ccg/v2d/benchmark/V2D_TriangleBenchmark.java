@@ -0,0 +1,70 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Triangle;
+
+/**
+ * Benchmarks for V2D_Triangle. Each invocation intersects {@link #size}
+ * pairs of triangles.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_TriangleBenchmark extends V2D_Benchmark {
+
+    /**
+     * The number of triangles.
+     */
+    @Param({"16", "256"})
+    public int size;
+
+    /**
+     * The triangles.
+     */
+    V2D_Triangle[] ts;
+
+    /**
+     * Creates {@link #ts}.
+     */
+    @Setup
+    public void setup() {
+        init();
+        V2D_Point[] p = getPoints(V2D_BenchmarkData.getTriangles(size));
+        ts = new V2D_Triangle[size];
+        for (int i = 0; i < size; i++) {
+            ts[i] = new V2D_Triangle(p[3 * i], p[3 * i + 1], p[3 * i + 2],
+                    oom, rm);
+        }
+    }
+
+    /**
+     * Benchmark for intersecting each triangle with the next.
+     *
+     * @param bh The Blackhole.
+     */
+    @Benchmark
+    public void getIntersect(Blackhole bh) {
+        for (int i = 0; i < size; i++) {
+            bh.consume(ts[i].getIntersect(ts[(i + 1) % size], oom, rm));
+        }
+    }
+}
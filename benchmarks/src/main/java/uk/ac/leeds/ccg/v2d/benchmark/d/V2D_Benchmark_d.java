@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.benchmark.d;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.leeds.ccg.v2d.benchmark.V2D_BenchmarkData;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+
+/**
+ * The base for benchmarks of the double precision stack. These are given the
+ * same geometries as the benchmarks in {@code uk.ac.leeds.ccg.v2d.benchmark}.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public abstract class V2D_Benchmark_d {
+
+    /**
+     * The tolerance within which two vectors are regarded as equal.
+     */
+    public double epsilon = 1d / 10000000d;
+
+    /**
+     * The environment.
+     */
+    public V2D_Environment_d env;
+
+    /**
+     * Initialises {@link #env}.
+     */
+    protected void init() {
+        env = new V2D_Environment_d(epsilon);
+    }
+
+    /**
+     * @param c Interleaved coordinate numerators from
+     * {@link V2D_BenchmarkData}.
+     * @return The points.
+     */
+    protected V2D_Point_d[] getPoints(long[] c) {
+        double d = V2D_BenchmarkData.SCALE;
+        V2D_Point_d[] r = new V2D_Point_d[c.length / 2];
+        for (int i = 0; i < r.length; i++) {
+            r[i] = new V2D_Point_d(env, c[2 * i] / d, c[2 * i + 1] / d);
+        }
+        return r;
+    }
+}
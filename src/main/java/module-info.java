@@ -10,6 +10,7 @@ module uk.ac.leeds.ccg.v2d {
     //requires transitive uk.ac.leeds.ccg.generic;
     requires transitive uk.ac.leeds.ccg.math;
     //requires java.desktop;
+    requires static jdk.incubator.vector;
     
     /**
      * Exports.
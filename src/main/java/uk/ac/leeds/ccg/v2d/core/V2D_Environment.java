@@ -18,10 +18,13 @@ package uk.ac.leeds.ccg.v2d.core;
 import ch.obermuhlner.math.big.BigRational;
 import java.io.Serializable;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_AABB;
 import uk.ac.leeds.ccg.v2d.geometry.V2D_Area;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
 
 /**
  * V2D_Environment
@@ -83,6 +86,23 @@ public class V2D_Environment implements Serializable {
      */
     HashSet<Integer> ids;
     
+    /**
+     * A spatial index of {@link #shapes} kept in sync with {@link #add} and
+     * {@link #remove}.
+     */
+    public V2D_RTree index;
+    
+    /**
+     * For deciding whether collections are processed in parallel.
+     */
+    public V2D_Execution execution;
+    
+    /**
+     * For recording counts and timings of operations. This is disabled by
+     * default.
+     */
+    public V2D_Metrics metrics;
+    
     /**
      * Creates a new instance.
      */
@@ -91,8 +111,20 @@ public class V2D_Environment implements Serializable {
         this.rm = rm;
         shapes = new HashMap<>();
         ids = new HashSet<>();
+        index = new V2D_RTree();
+        execution = new V2D_Execution();
+        metrics = new V2D_Metrics();
     }
     
+    /**
+     * @param env An environment or {@code null}.
+     * @return The execution of {@code env}, or
+     * {@link V2D_Execution#SEQUENTIAL} if {@code env} is {@code null}.
+     */
+    public static V2D_Execution getExecution(V2D_Environment env) {
+        return env == null ? V2D_Execution.SEQUENTIAL : env.execution;
+    }
+
     /**
      * @return The next id that has not yet been used; 
      */
@@ -114,6 +146,7 @@ public class V2D_Environment implements Serializable {
     public int add(V2D_Area shape) {
         int id = getNextID();
         shapes.put(id, shape);
+        index.insert(id, shape.getAABB(oom, rm), oom);
         return id;
     }
     
@@ -122,6 +155,54 @@ public class V2D_Environment implements Serializable {
      */
     public void remove(int id) {
         shapes.remove(id);
+        index.remove(id);
         ids.add(id);
     }
+    
+    /**
+     * Updates {@link #index} for a shape that has been moved or changed.
+     * 
+     * @param id The id of the shape to update.
+     */
+    public void update(int id) {
+        V2D_Area shape = shapes.get(id);
+        if (shape != null) {
+            index.insert(id, shape.getAABB(oom, rm), oom);
+        }
+    }
+    
+    /**
+     * Rebuilds {@link #index} from {@link #shapes} using bulk loading. This is 
+     * quicker than adding shapes one by one when many shapes have been added
+     * or moved.
+     */
+    public void reindex() {
+        index.load(shapes, oom, rm);
+    }
+    
+    /**
+     * @param window The window.
+     * @return The ids of shapes with envelopes intersecting {@code window}.
+     */
+    public ArrayList<Integer> getIds(V2D_AABB window) {
+        return index.query(window, oom);
+    }
+    
+    /**
+     * @param pt The point.
+     * @return The ids of shapes with envelopes intersecting {@code pt}.
+     */
+    public ArrayList<Integer> getIds(V2D_Point pt) {
+        return index.query(pt, oom, rm);
+    }
+    
+    /**
+     * @param pt The point.
+     * @return The id of the shape with the envelope nearest to {@code pt}, 
+     * or {@code null} if there are no shapes.
+     */
+    public Integer getNearestId(V2D_Point pt) {
+        return index.getNearest(V2D_RTree.floor(pt.getX(oom, rm)),
+                V2D_RTree.floor(pt.getY(oom, rm)));
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * An execution policy for deciding whether to process a collection
+ * sequentially or in parallel. Many geometry predicates test a few points,
+ * edges or triangles, and for these the overhead of parallel streams
+ * outweighs any benefit, especially if calling code is already running in
+ * parallel. So collections are only processed in parallel if parallel
+ * processing is enabled and they have at least {@link #threshold} elements.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Execution implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The default for {@link #threshold}.
+     */
+    public static final int DEFAULT_THRESHOLD = 256;
+
+    /**
+     * An instance that always processes sequentially, for geometries without
+     * an environment. Setting {@link #parallel} for this has no effect.
+     */
+    public static final V2D_Execution SEQUENTIAL = new Sequential();
+
+    /**
+     * If {@code false} then collections are always processed sequentially.
+     */
+    public boolean parallel;
+
+    /**
+     * The minimum size of a collection for it to be processed in parallel.
+     */
+    public int threshold;
+
+    /**
+     * Creates a new instance with parallel processing enabled for collections
+     * of at least {@link #DEFAULT_THRESHOLD} elements.
+     */
+    public V2D_Execution() {
+        this(true, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param parallel What {@link #parallel} is set to.
+     * @param threshold What {@link #threshold} is set to.
+     */
+    public V2D_Execution(boolean parallel, int threshold) {
+        this.parallel = parallel;
+        this.threshold = threshold;
+    }
+
+    /**
+     * @param size The size of a collection.
+     * @return {@code true} if a collection of {@code size} elements should be
+     * processed in parallel.
+     */
+    public boolean isParallel(int size) {
+        return parallel && size >= threshold;
+    }
+
+    /**
+     * @param <T> The type of the elements.
+     * @param c The collection.
+     * @return A parallel stream of {@code c} if {@link #isParallel(int)} and
+     * a sequential stream otherwise.
+     */
+    public <T> Stream<T> stream(Collection<T> c) {
+        return isParallel(c.size()) ? c.parallelStream() : c.stream();
+    }
+
+    /**
+     * For {@link #SEQUENTIAL}.
+     */
+    private static class Sequential extends V2D_Execution {
+
+        private static final long serialVersionUID = 1L;
+
+        Sequential() {
+            super(false, DEFAULT_THRESHOLD);
+        }
+
+        @Override
+        public boolean isParallel(int size) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters and timings for the main geometry predicates. An instance
+ * is held by each environment and is disabled by default, in which case each
+ * instrumented call costs a field read and a branch. When {@link #enabled},
+ * the number of calls and the cumulative nanoseconds are recorded for each
+ * operation of each class, along with how often Axis Aligned Bounding Box
+ * tests reject and how often filtered orientation tests fall back to exact
+ * arithmetic. Counters are thread safe so parallel processing can be
+ * measured. Times are inclusive, so the time recorded for one call may
+ * include the times recorded for calls it makes. Use {@link #getSnapshot()}
+ * to read the values.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Metrics implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * For intersects operations.
+     */
+    public static final int INTERSECTS = 0;
+
+    /**
+     * For contains operations.
+     */
+    public static final int CONTAINS = 1;
+
+    /**
+     * For getIntersect operations.
+     */
+    public static final int GET_INTERSECT = 2;
+
+    /**
+     * For getDistance operations.
+     */
+    public static final int GET_DISTANCE = 3;
+
+    /**
+     * The names of the operations indexed by the operation constants.
+     */
+    public static final String[] OPERATIONS = {"intersects", "contains",
+        "getIntersect", "getDistance"};
+
+    /**
+     * Returned by {@link #start()} if not {@link #enabled}.
+     */
+    public static final long DISABLED = Long.MIN_VALUE;
+
+    /**
+     * An instance that never records, for geometries without an environment.
+     * Setting {@link #enabled} for this has no effect.
+     */
+    public static final V2D_Metrics NONE = new None();
+
+    /**
+     * If {@code false} then nothing is recorded.
+     */
+    public boolean enabled;
+
+    /**
+     * For each class, the counts of calls indexed by operation followed by
+     * the cumulative nanoseconds indexed by operation.
+     */
+    private final ConcurrentHashMap<Class<?>, LongAdder[]> counters;
+
+    /**
+     * The number of Axis Aligned Bounding Box tests.
+     */
+    private final LongAdder aabbTests;
+
+    /**
+     * The number of Axis Aligned Bounding Box tests that rejected.
+     */
+    private final LongAdder aabbRejections;
+
+    /**
+     * The number of filtered orientation tests.
+     */
+    private final LongAdder orientationTests;
+
+    /**
+     * The number of filtered orientation tests that used exact arithmetic.
+     */
+    private final LongAdder exactFallbacks;
+
+    /**
+     * Creates a new disabled instance.
+     */
+    public V2D_Metrics() {
+        counters = new ConcurrentHashMap<>();
+        aabbTests = new LongAdder();
+        aabbRejections = new LongAdder();
+        orientationTests = new LongAdder();
+        exactFallbacks = new LongAdder();
+    }
+
+    /**
+     * @return The time now in nanoseconds if {@link #enabled} and
+     * {@link #DISABLED} otherwise.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : DISABLED;
+    }
+
+    /**
+     * Records a call that started at start.
+     *
+     * @param c The class of the call.
+     * @param op The operation of the call.
+     * @param start What {@link #start()} returned at the start of the call.
+     */
+    public void stop(Class<?> c, int op, long start) {
+        if (start != DISABLED) {
+            record(c, op, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @param c The class of the call.
+     * @param op The operation of the call.
+     * @param t The nanoseconds taken by the call.
+     */
+    private void record(Class<?> c, int op, long t) {
+        LongAdder[] a = get(c);
+        a[op].increment();
+        a[OPERATIONS.length + op].add(t);
+    }
+
+    /**
+     * Records a call that started at start.
+     *
+     * @param c The class of the call.
+     * @param op The operation of the call.
+     * @param start What {@link #start()} returned at the start of the call.
+     * @param r The result of the call.
+     * @return r
+     */
+    public boolean stop(Class<?> c, int op, long start, boolean r) {
+        stop(c, op, start);
+        return r;
+    }
+
+    /**
+     * Records a call that started at start.
+     *
+     * @param c The class of the call.
+     * @param op The operation of the call.
+     * @param start What {@link #start()} returned at the start of the call.
+     * @param r The result of the call.
+     * @return r
+     */
+    public double stop(Class<?> c, int op, long start, double r) {
+        stop(c, op, start);
+        return r;
+    }
+
+    /**
+     * Records a call that started at start.
+     *
+     * @param <T> The type of the result.
+     * @param c The class of the call.
+     * @param op The operation of the call.
+     * @param start What {@link #start()} returned at the start of the call.
+     * @param r The result of the call.
+     * @return r
+     */
+    public <T> T stop(Class<?> c, int op, long start, T r) {
+        stop(c, op, start);
+        return r;
+    }
+
+    /**
+     * @param c The class.
+     * @return The counters for c.
+     */
+    private LongAdder[] get(Class<?> c) {
+        return counters.computeIfAbsent(c, k -> {
+            LongAdder[] r = new LongAdder[2 * OPERATIONS.length];
+            for (int i = 0; i < r.length; i++) {
+                r[i] = new LongAdder();
+            }
+            return r;
+        });
+    }
+
+    /**
+     * Records an Axis Aligned Bounding Box test.
+     *
+     * @param intersects The result of the test. If {@code false} the test
+     * rejected.
+     * @return intersects
+     */
+    public boolean aabb(boolean intersects) {
+        if (enabled) {
+            aabb0(intersects);
+        }
+        return intersects;
+    }
+
+    /**
+     * @param intersects The result of the test.
+     */
+    private void aabb0(boolean intersects) {
+        aabbTests.increment();
+        if (!intersects) {
+            aabbRejections.increment();
+        }
+    }
+
+    /**
+     * Records a filtered orientation test.
+     *
+     * @param exact {@code true} if exact arithmetic was needed.
+     */
+    public void orientation(boolean exact) {
+        if (enabled) {
+            orientationTests.increment();
+            if (exact) {
+                exactFallbacks.increment();
+            }
+        }
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        counters.clear();
+        aabbTests.reset();
+        aabbRejections.reset();
+        orientationTests.reset();
+        exactFallbacks.reset();
+    }
+
+    /**
+     * @return A snapshot of the counters.
+     */
+    public Snapshot getSnapshot() {
+        TreeMap<String, long[]> ops = new TreeMap<>();
+        counters.forEach((c, a) -> {
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                long count = a[i].sum();
+                if (count > 0L) {
+                    ops.put(c.getSimpleName() + "." + OPERATIONS[i],
+                            new long[]{count,
+                                a[OPERATIONS.length + i].sum()});
+                }
+            }
+        });
+        return new Snapshot(ops, aabbTests.sum(), aabbRejections.sum(),
+                orientationTests.sum(), exactFallbacks.sum());
+    }
+
+    /**
+     * An immutable copy of the counters of a V2D_Metrics.
+     */
+    public static class Snapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * For each operation keyed by class simple name and operation name
+         * separated by a dot, the count of calls and the cumulative
+         * nanoseconds.
+         */
+        private final Map<String, long[]> ops;
+
+        /**
+         * The number of Axis Aligned Bounding Box tests.
+         */
+        public final long aabbTests;
+
+        /**
+         * The number of Axis Aligned Bounding Box tests that rejected.
+         */
+        public final long aabbRejections;
+
+        /**
+         * The number of filtered orientation tests.
+         */
+        public final long orientationTests;
+
+        /**
+         * The number of filtered orientation tests that used exact
+         * arithmetic.
+         */
+        public final long exactFallbacks;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param ops What {@link #ops} is set to.
+         * @param aabbTests What {@link #aabbTests} is set to.
+         * @param aabbRejections What {@link #aabbRejections} is set to.
+         * @param orientationTests What {@link #orientationTests} is set to.
+         * @param exactFallbacks What {@link #exactFallbacks} is set to.
+         */
+        public Snapshot(TreeMap<String, long[]> ops, long aabbTests,
+                long aabbRejections, long orientationTests,
+                long exactFallbacks) {
+            this.ops = Collections.unmodifiableMap(ops);
+            this.aabbTests = aabbTests;
+            this.aabbRejections = aabbRejections;
+            this.orientationTests = orientationTests;
+            this.exactFallbacks = exactFallbacks;
+        }
+
+        /**
+         * @return The names of the operations that have been called, each
+         * being a class simple name and an operation name separated by a dot,
+         * for example {@code "V2D_Triangle_d.intersects"}.
+         */
+        public Iterable<String> getOperations() {
+            return ops.keySet();
+        }
+
+        /**
+         * @param op The operation name, for example
+         * {@code "V2D_Triangle_d.intersects"}.
+         * @return The number of calls of op.
+         */
+        public long getCalls(String op) {
+            long[] v = ops.get(op);
+            return v == null ? 0L : v[0];
+        }
+
+        /**
+         * @param op The operation name, for example
+         * {@code "V2D_Triangle_d.intersects"}.
+         * @return The cumulative nanoseconds of calls of op.
+         */
+        public long getNanos(String op) {
+            long[] v = ops.get(op);
+            return v == null ? 0L : v[1];
+        }
+
+        /**
+         * @return The proportion of Axis Aligned Bounding Box tests that
+         * rejected, or 0 if there were none.
+         */
+        public double getAABBRejectionRate() {
+            return aabbTests == 0L ? 0d : aabbRejections / (double) aabbTests;
+        }
+
+        /**
+         * @return The proportion of filtered orientation tests that used
+         * exact arithmetic, or 0 if there were none.
+         */
+        public double getExactFallbackRate() {
+            return orientationTests == 0L ? 0d
+                    : exactFallbacks / (double) orientationTests;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(getClass().getSimpleName()).append("(");
+            ops.forEach((k, v) -> sb.append(k).append("=[calls=")
+                    .append(v[0]).append(", nanos=").append(v[1])
+                    .append("], "));
+            sb.append("aabbTests=").append(aabbTests)
+                    .append(", aabbRejections=").append(aabbRejections)
+                    .append(", orientationTests=").append(orientationTests)
+                    .append(", exactFallbacks=").append(exactFallbacks)
+                    .append(")");
+            return sb.toString();
+        }
+    }
+
+    /**
+     * For {@link #NONE}.
+     */
+    private static class None extends V2D_Metrics {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public long start() {
+            return DISABLED;
+        }
+
+        @Override
+        public boolean aabb(boolean intersects) {
+            return intersects;
+        }
+
+        @Override
+        public void orientation(boolean exact) {
+        }
+    }
+}
@@ -0,0 +1,803 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_AABB;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Area;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+
+/**
+ * An R-tree spatial index of shape ids keyed on their Axis Aligned Bounding
+ * Boxes. The tree is organised using double precision envelopes rounded
+ * outwards from the exact envelopes so that any shape that might intersect a
+ * query is a candidate. Each entry also keeps an envelope rounded inwards, and
+ * only candidates in the band between the two are compared exactly using
+ * {@link V2D_AABB#intersects(V2D_AABB, int)}. The tree can be bulk loaded
+ * using Sort-Tile-Recursive (STR) packing and thereafter updated incrementally
+ * using {@link #insert(int, V2D_AABB, int)} and {@link #remove(int)}. The
+ * envelopes are stored when inserted, so if a shape is subsequently translated
+ * or rotated it should be re-indexed.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_RTree implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The default maximum number of entries in a node.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    /**
+     * The maximum number of entries in a node.
+     */
+    protected final int maxEntries;
+
+    /**
+     * The minimum number of entries in a node (other than the root).
+     */
+    protected final int minEntries;
+
+    /**
+     * The root node.
+     */
+    protected Node root;
+
+    /**
+     * For looking up the entry for a shape id.
+     */
+    protected final HashMap<Integer, Entry> entries;
+
+    /**
+     * A box with bounds and a parent node.
+     */
+    protected static abstract class Box implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The minimum x.
+         */
+        double xMin;
+
+        /**
+         * The maximum x.
+         */
+        double xMax;
+
+        /**
+         * The minimum y.
+         */
+        double yMin;
+
+        /**
+         * The maximum y.
+         */
+        double yMax;
+
+        /**
+         * The node this is in.
+         */
+        Node parent;
+
+        /**
+         * @return The area of the box.
+         */
+        double getArea() {
+            return (xMax - xMin) * (yMax - yMin);
+        }
+
+        /**
+         * @param b The box to test for intersection.
+         * @return {@code true} if this intersects {@code b}.
+         */
+        boolean intersects(Box b) {
+            return intersects(b.xMin, b.xMax, b.yMin, b.yMax);
+        }
+
+        /**
+         * @param x0 The minimum x.
+         * @param x1 The maximum x.
+         * @param y0 The minimum y.
+         * @param y1 The maximum y.
+         * @return {@code true} if this intersects the box defined.
+         */
+        boolean intersects(double x0, double x1, double y0, double y1) {
+            return !(x1 < xMin || x0 > xMax || y1 < yMin || y0 > yMax);
+        }
+
+        /**
+         * @param b The box to enlarge with.
+         * @return The increase in area if enlarged to include {@code b}.
+         */
+        double getEnlargement(Box b) {
+            return (Math.max(xMax, b.xMax) - Math.min(xMin, b.xMin))
+                    * (Math.max(yMax, b.yMax) - Math.min(yMin, b.yMin))
+                    - getArea();
+        }
+
+        /**
+         * @param x The x coordinate.
+         * @param y The y coordinate.
+         * @return The squared distance from (x, y) to the box.
+         */
+        double getDistanceSquared(double x, double y) {
+            double dx = x < xMin ? xMin - x : (x > xMax ? x - xMax : 0d);
+            double dy = y < yMin ? yMin - y : (y > yMax ? y - yMax : 0d);
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * @return The x coordinate of the centre.
+         */
+        double getCX() {
+            return (xMin + xMax) / 2d;
+        }
+
+        /**
+         * @return The y coordinate of the centre.
+         */
+        double getCY() {
+            return (yMin + yMax) / 2d;
+        }
+    }
+
+    /**
+     * A leaf entry.
+     */
+    protected static class Entry extends Box {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The shape id.
+         */
+        final int id;
+
+        /**
+         * The exact envelope.
+         */
+        final V2D_AABB aabb;
+
+        /**
+         * The envelope rounded inwards.
+         */
+        final Bounds inner;
+
+        /**
+         * @param id What {@link #id} is set to.
+         * @param aabb What {@link #aabb} is set to.
+         * @param oom The Order of Magnitude for the precision.
+         */
+        Entry(int id, V2D_AABB aabb, int oom) {
+            this.id = id;
+            this.aabb = aabb;
+            Bounds outer = new Bounds(aabb, oom);
+            xMin = outer.xMin;
+            xMax = outer.xMax;
+            yMin = outer.yMin;
+            yMax = outer.yMax;
+            inner = outer.inner;
+        }
+    }
+
+    /**
+     * Double precision bounds rounded outwards from an exact envelope together
+     * with the bounds rounded inwards. The inner bounds are empty if the
+     * envelope is thinner than the double precision spacing.
+     */
+    protected static class Bounds implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The bounds.
+         */
+        final double xMin, xMax, yMin, yMax;
+
+        /**
+         * The bounds rounded inwards or {@code null} for inner bounds.
+         */
+        final Bounds inner;
+
+        /**
+         * @param xMin What {@link #xMin} is set to.
+         * @param xMax What {@link #xMax} is set to.
+         * @param yMin What {@link #yMin} is set to.
+         * @param yMax What {@link #yMax} is set to.
+         */
+        Bounds(double xMin, double xMax, double yMin, double yMax) {
+            this.xMin = xMin;
+            this.xMax = xMax;
+            this.yMin = yMin;
+            this.yMax = yMax;
+            this.inner = null;
+        }
+
+        /**
+         * @param x0 The exact minimum x.
+         * @param x1 The exact maximum x.
+         * @param y0 The exact minimum y.
+         * @param y1 The exact maximum y.
+         */
+        Bounds(BigRational x0, BigRational x1, BigRational y0,
+                BigRational y1) {
+            xMin = floor(x0);
+            xMax = ceiling(x1);
+            yMin = floor(y0);
+            yMax = ceiling(y1);
+            inner = new Bounds(ceiling(x0), floor(x1), ceiling(y0),
+                    floor(y1));
+        }
+
+        /**
+         * @param aabb The exact envelope.
+         * @param oom The Order of Magnitude for the precision.
+         */
+        Bounds(V2D_AABB aabb, int oom) {
+            this(aabb.getXMin(oom), aabb.getXMax(oom), aabb.getYMin(oom),
+                    aabb.getYMax(oom));
+        }
+
+        /**
+         * @param b The bounds to test for intersection.
+         * @return {@code true} if this intersects {@code b}.
+         */
+        boolean intersects(Bounds b) {
+            return !(b.xMax < xMin || b.xMin > xMax || b.yMax < yMin
+                    || b.yMin > yMax);
+        }
+    }
+
+    /**
+     * @param x The number to round.
+     * @return The largest double whose exact binary value is less than or
+     * equal to {@code x}, or {@link Double#NEGATIVE_INFINITY} if there is
+     * none.
+     */
+    public static double floor(BigRational x) {
+        double d = x.toDouble();
+        if (d == Double.POSITIVE_INFINITY) {
+            return Double.MAX_VALUE;
+        } else if (d == Double.NEGATIVE_INFINITY) {
+            return d;
+        }
+        while (d != Double.NEGATIVE_INFINITY
+                && exact(d).compareTo(x) == 1) {
+            d = Math.nextDown(d);
+        }
+        return d;
+    }
+
+    /**
+     * @param x The number to round.
+     * @return The smallest double whose exact binary value is greater than or
+     * equal to {@code x}, or {@link Double#POSITIVE_INFINITY} if there is
+     * none.
+     */
+    public static double ceiling(BigRational x) {
+        double d = x.toDouble();
+        if (d == Double.NEGATIVE_INFINITY) {
+            return -Double.MAX_VALUE;
+        } else if (d == Double.POSITIVE_INFINITY) {
+            return d;
+        }
+        while (d != Double.POSITIVE_INFINITY
+                && exact(d).compareTo(x) == -1) {
+            d = Math.nextUp(d);
+        }
+        return d;
+    }
+
+    /**
+     * {@link BigRational#valueOf(double)} goes via the shortest decimal
+     * string of {@code d}, which is not in general the value of {@code d}.
+     *
+     * @param d A finite double.
+     * @return The exact binary value of {@code d}.
+     */
+    private static BigRational exact(double d) {
+        return BigRational.valueOf(new BigDecimal(d));
+    }
+
+    /**
+     * A node.
+     */
+    protected static class Node extends Box {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * {@code true} if the children are entries.
+         */
+        final boolean leaf;
+
+        /**
+         * The children.
+         */
+        final ArrayList<Box> children;
+
+        /**
+         * @param leaf What {@link #leaf} is set to.
+         */
+        Node(boolean leaf) {
+            this.leaf = leaf;
+            children = new ArrayList<>();
+            setEmpty();
+        }
+
+        /**
+         * Sets the bounds so that any union replaces them.
+         */
+        final void setEmpty() {
+            xMin = Double.POSITIVE_INFINITY;
+            xMax = Double.NEGATIVE_INFINITY;
+            yMin = Double.POSITIVE_INFINITY;
+            yMax = Double.NEGATIVE_INFINITY;
+        }
+
+        /**
+         * @param b The child to add.
+         */
+        void add(Box b) {
+            children.add(b);
+            b.parent = this;
+            expand(b);
+        }
+
+        /**
+         * @param b The box to expand to include.
+         */
+        void expand(Box b) {
+            xMin = Math.min(xMin, b.xMin);
+            xMax = Math.max(xMax, b.xMax);
+            yMin = Math.min(yMin, b.yMin);
+            yMax = Math.max(yMax, b.yMax);
+        }
+
+        /**
+         * Recalculates the bounds from the children.
+         */
+        void recalculate() {
+            setEmpty();
+            for (Box b : children) {
+                expand(b);
+            }
+        }
+    }
+
+    /**
+     * Create a new empty instance with {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public V2D_RTree() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Create a new empty instance.
+     *
+     * @param maxEntries What {@link #maxEntries} is set to. This must be at
+     * least 4.
+     */
+    public V2D_RTree(int maxEntries) {
+        if (maxEntries < 4) {
+            throw new IllegalArgumentException("maxEntries < 4");
+        }
+        this.maxEntries = maxEntries;
+        this.minEntries = Math.max(2, (maxEntries * 2) / 5);
+        this.entries = new HashMap<>();
+        this.root = new Node(true);
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Clears the index and bulk loads it from the shapes using
+     * Sort-Tile-Recursive packing.
+     *
+     * @param shapes The shapes to load.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     */
+    public void load(Map<Integer, ? extends V2D_Area> shapes, int oom,
+            RoundingMode rm) {
+        entries.clear();
+        ArrayList<Box> level = new ArrayList<>(shapes.size());
+        shapes.forEach((id, s) -> {
+            Entry e = new Entry(id, s.getAABB(oom, rm), oom);
+            entries.put(id, e);
+            level.add(e);
+        });
+        if (level.isEmpty()) {
+            root = new Node(true);
+            return;
+        }
+        List<Node> nodes = pack(level, true);
+        while (nodes.size() > 1) {
+            nodes = pack(new ArrayList<>(nodes), false);
+        }
+        root = nodes.get(0);
+        root.parent = null;
+    }
+
+    /**
+     * Packs a level of boxes into nodes using Sort-Tile-Recursive.
+     *
+     * @param boxes The boxes to pack.
+     * @param leaf Whether the nodes to create are leaves.
+     * @return The nodes.
+     */
+    private List<Node> pack(ArrayList<Box> boxes, boolean leaf) {
+        int n = boxes.size();
+        int nNodes = (int) Math.ceil(n / (double) maxEntries);
+        int nSlices = (int) Math.ceil(Math.sqrt(nNodes));
+        int sliceSize = nSlices * maxEntries;
+        boxes.sort(Comparator.comparingDouble(Box::getCX));
+        ArrayList<Node> r = new ArrayList<>(nNodes);
+        for (int i = 0; i < n; i += sliceSize) {
+            List<Box> slice = boxes.subList(i, Math.min(n, i + sliceSize));
+            slice.sort(Comparator.comparingDouble(Box::getCY));
+            for (int j = 0; j < slice.size(); j += maxEntries) {
+                Node node = new Node(leaf);
+                int k1 = Math.min(slice.size(), j + maxEntries);
+                for (int k = j; k < k1; k++) {
+                    node.add(slice.get(k));
+                }
+                r.add(node);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Inserts or replaces the entry for a shape.
+     *
+     * @param id The shape id.
+     * @param aabb The envelope of the shape.
+     * @param oom The Order of Magnitude for the precision.
+     */
+    public void insert(int id, V2D_AABB aabb, int oom) {
+        if (entries.containsKey(id)) {
+            remove(id);
+        }
+        Entry e = new Entry(id, aabb, oom);
+        entries.put(id, e);
+        insert(e);
+    }
+
+    /**
+     * @param e The entry to insert.
+     */
+    private void insert(Entry e) {
+        Node n = root;
+        while (!n.leaf) {
+            Node best = null;
+            double bestEnlargement = Double.POSITIVE_INFINITY;
+            double bestArea = Double.POSITIVE_INFINITY;
+            for (Box b : n.children) {
+                double enlargement = b.getEnlargement(e);
+                double area = b.getArea();
+                if (enlargement < bestEnlargement
+                        || (enlargement == bestEnlargement && area < bestArea)) {
+                    best = (Node) b;
+                    bestEnlargement = enlargement;
+                    bestArea = area;
+                }
+            }
+            n = best;
+        }
+        n.add(e);
+        adjust(n);
+    }
+
+    /**
+     * Splits overflowing nodes and expands bounds from {@code n} up to the
+     * root.
+     *
+     * @param n The node to adjust from.
+     */
+    private void adjust(Node n) {
+        while (n != null) {
+            Node parent = n.parent;
+            if (n.children.size() > maxEntries) {
+                Node sibling = split(n);
+                if (parent == null) {
+                    root = new Node(false);
+                    root.add(n);
+                    root.add(sibling);
+                    return;
+                }
+                parent.add(sibling);
+                parent.recalculate();
+            } else if (parent != null) {
+                parent.expand(n);
+            }
+            n = parent;
+        }
+    }
+
+    /**
+     * Splits {@code n} using a linear split, leaving some children in
+     * {@code n} and moving the rest to a new sibling.
+     *
+     * @param n The node to split.
+     * @return The new sibling.
+     */
+    private Node split(Node n) {
+        ArrayList<Box> cs = new ArrayList<>(n.children);
+        // Pick seeds with the greatest normalised separation.
+        int lxMax = 0, hxMin = 0, lyMax = 0, hyMin = 0;
+        double xMin = Double.POSITIVE_INFINITY;
+        double xMax = Double.NEGATIVE_INFINITY;
+        double yMin = Double.POSITIVE_INFINITY;
+        double yMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < cs.size(); i++) {
+            Box b = cs.get(i);
+            xMin = Math.min(xMin, b.xMin);
+            xMax = Math.max(xMax, b.xMax);
+            yMin = Math.min(yMin, b.yMin);
+            yMax = Math.max(yMax, b.yMax);
+            if (b.xMin > cs.get(lxMax).xMin) {
+                lxMax = i;
+            }
+            if (b.xMax < cs.get(hxMin).xMax) {
+                hxMin = i;
+            }
+            if (b.yMin > cs.get(lyMax).yMin) {
+                lyMax = i;
+            }
+            if (b.yMax < cs.get(hyMin).yMax) {
+                hyMin = i;
+            }
+        }
+        double w = xMax - xMin;
+        double h = yMax - yMin;
+        double sx = w > 0d ? (cs.get(lxMax).xMin - cs.get(hxMin).xMax) / w : 0d;
+        double sy = h > 0d ? (cs.get(lyMax).yMin - cs.get(hyMin).yMax) / h : 0d;
+        int s0, s1;
+        if (sx >= sy) {
+            s0 = hxMin;
+            s1 = lxMax;
+        } else {
+            s0 = hyMin;
+            s1 = lyMax;
+        }
+        if (s0 == s1) {
+            s1 = (s0 == 0) ? 1 : 0;
+        }
+        Node sibling = new Node(n.leaf);
+        n.children.clear();
+        n.setEmpty();
+        n.add(cs.get(s0));
+        sibling.add(cs.get(s1));
+        int remaining = cs.size() - 2;
+        for (int i = 0; i < cs.size(); i++) {
+            if (i == s0 || i == s1) {
+                continue;
+            }
+            Box b = cs.get(i);
+            if (n.children.size() + remaining == minEntries) {
+                n.add(b);
+            } else if (sibling.children.size() + remaining == minEntries) {
+                sibling.add(b);
+            } else {
+                double en = n.getEnlargement(b);
+                double es = sibling.getEnlargement(b);
+                if (en < es || (en == es && n.children.size()
+                        <= sibling.children.size())) {
+                    n.add(b);
+                } else {
+                    sibling.add(b);
+                }
+            }
+            remaining--;
+        }
+        return sibling;
+    }
+
+    /**
+     * Removes the entry for a shape.
+     *
+     * @param id The shape id.
+     * @return {@code true} if there was an entry for {@code id}.
+     */
+    public boolean remove(int id) {
+        Entry e = entries.remove(id);
+        if (e == null) {
+            return false;
+        }
+        Node n = e.parent;
+        n.children.remove(e);
+        e.parent = null;
+        // Condense the tree collecting orphaned entries for reinsertion.
+        ArrayList<Entry> orphans = new ArrayList<>();
+        while (n != root) {
+            Node parent = n.parent;
+            if (n.children.size() < minEntries) {
+                parent.children.remove(n);
+                n.parent = null;
+                collect(n, orphans);
+            } else {
+                n.recalculate();
+            }
+            n = parent;
+        }
+        root.recalculate();
+        while (!root.leaf && root.children.size() == 1) {
+            root = (Node) root.children.get(0);
+            root.parent = null;
+        }
+        if (!root.leaf && root.children.isEmpty()) {
+            root = new Node(true);
+        }
+        for (Entry o : orphans) {
+            insert(o);
+        }
+        return true;
+    }
+
+    /**
+     * @param n The node to collect entries from.
+     * @param r The list to add entries to.
+     */
+    private void collect(Node n, ArrayList<Entry> r) {
+        for (Box b : n.children) {
+            if (n.leaf) {
+                r.add((Entry) b);
+            } else {
+                collect((Node) b, r);
+            }
+        }
+    }
+
+    /**
+     * @param window The window.
+     * @param oom The Order of Magnitude for the precision.
+     * @return The ids of shapes with envelopes intersecting {@code window}.
+     */
+    public ArrayList<Integer> query(V2D_AABB window, int oom) {
+        Bounds w = new Bounds(window, oom);
+        return query(w, e -> e.aabb.intersects(window, oom));
+    }
+
+    /**
+     * @param pt The point.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The ids of shapes with envelopes intersecting {@code pt}.
+     */
+    public ArrayList<Integer> query(V2D_Point pt, int oom, RoundingMode rm) {
+        BigRational x = pt.getX(oom, rm);
+        BigRational y = pt.getY(oom, rm);
+        Bounds w = new Bounds(x, x, y, y);
+        return query(w, e -> e.aabb.intersects(x, y, oom));
+    }
+
+    /**
+     * @param w The bounds of the query.
+     * @param exact For testing candidates exactly.
+     * @return The ids of entries intersecting {@code w} outwardly that either
+     * intersect {@code w} inwardly or pass the {@code exact} test.
+     */
+    private ArrayList<Integer> query(Bounds w,
+            Predicate<Entry> exact) {
+        ArrayList<Integer> r = new ArrayList<>();
+        if (entries.isEmpty()) {
+            return r;
+        }
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node n = stack.pop();
+            for (Box b : n.children) {
+                if (b.intersects(w.xMin, w.xMax, w.yMin, w.yMax)) {
+                    if (n.leaf) {
+                        Entry e = (Entry) b;
+                        if (isCertain(e.inner, w.inner) || exact.test(e)) {
+                            r.add(e.id);
+                        }
+                    } else {
+                        stack.push((Node) b);
+                    }
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param a Inner bounds.
+     * @param b Inner bounds.
+     * @return {@code true} if both are valid and intersect, so the exact
+     * envelopes they were rounded from certainly intersect.
+     */
+    private static boolean isCertain(Bounds a, Bounds b) {
+        return a.xMin <= a.xMax && a.yMin <= a.yMax
+                && b.xMin <= b.xMax && b.yMin <= b.yMax && a.intersects(b);
+    }
+
+    /**
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @return The id of the shape with the envelope nearest to the point or
+     * {@code null} if the index is empty. Distances are calculated using the
+     * double precision envelopes.
+     */
+    public Integer getNearest(double x, double y) {
+        ArrayList<Integer> r = getNearest(x, y, 1);
+        return r.isEmpty() ? null : r.get(0);
+    }
+
+    /**
+     * A best first search for the shapes with envelopes nearest to a point.
+     *
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @param k The number of ids to return.
+     * @return The ids of up to {@code k} shapes with envelopes nearest to the
+     * point ordered from nearest to furthest. Distances are calculated using
+     * the double precision envelopes.
+     */
+    public ArrayList<Integer> getNearest(double x, double y, int k) {
+        ArrayList<Integer> r = new ArrayList<>(k);
+        if (entries.isEmpty() || k < 1) {
+            return r;
+        }
+        PriorityQueue<Candidate> pq = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::d2));
+        pq.add(new Candidate(root.getDistanceSquared(x, y), root));
+        while (!pq.isEmpty() && r.size() < k) {
+            Box b = pq.poll().b();
+            if (b instanceof Entry e) {
+                r.add(e.id);
+            } else {
+                for (Box c : ((Node) b).children) {
+                    pq.add(new Candidate(c.getDistanceSquared(x, y), c));
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * For ordering boxes in a nearest neighbour search.
+     *
+     * @param d2 The squared distance to the box.
+     * @param b The box.
+     */
+    private record Candidate(double d2, Box b) {
+
+    }
+}
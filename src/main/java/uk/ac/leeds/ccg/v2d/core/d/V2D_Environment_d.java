@@ -16,9 +16,23 @@
 package uk.ac.leeds.ccg.v2d.core.d;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_AABB_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Area_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_ConvexArea_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointLocator_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PolygonNoInternalHoles_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Rectangle_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Triangle_d;
 
 /**
  * V2D_Environment
@@ -41,47 +55,221 @@ public class V2D_Environment_d implements Serializable {
     public HashMap<Integer, V2D_Area_d> shapes;
     
     /**
-     * The ids of shapes.
+     * The ids of shapes that have been removed for reuse.
      */
     HashSet<Integer> ids;
     
+    /**
+     * The id to allocate when {@link #ids} is empty.
+     */
+    int nextID;
+    
+    /**
+     * A spatial index of {@link #shapes} kept in sync with {@link #add} and
+     * {@link #remove}.
+     */
+    public V2D_RTree_d index;
+    
+    /**
+     * For deciding whether collections are processed in parallel.
+     */
+    public V2D_Execution execution;
+    
+    /**
+     * For recording counts and timings of operations. This is disabled by
+     * default.
+     */
+    public V2D_Metrics metrics;
+    
     /**
      * Creates a new instance.
      */
     public V2D_Environment_d(double epsilon){
         shapes = new HashMap<>();
         ids = new HashSet<>();
+        index = new V2D_RTree_d();
+        execution = new V2D_Execution();
+        metrics = new V2D_Metrics();
     }
     
     /**
-     * @return The next id that has not yet been used; 
+     * @param env An environment or {@code null}.
+     * @return The execution of {@code env}, or
+     * {@link V2D_Execution#SEQUENTIAL} if {@code env} is {@code null}.
      */
-    public int getNextID() {
+    public static V2D_Execution getExecution(V2D_Environment_d env) {
+        return env == null ? V2D_Execution.SEQUENTIAL : env.execution;
+    }
+
+    /**
+     * Each shape is allocated an id when it is constructed, possibly in
+     * parallel. The id of a removed shape is reused if there is one, otherwise
+     * the id is one that has not been allocated before, so no two shapes
+     * constructed in this environment share an id unless one was removed.
+     *
+     * @return The id allocated.
+     */
+    public synchronized int getNextID() {
         int id;
         if (!ids.isEmpty()) {
             id = ids.iterator().next();
             ids.remove(id);
         } else {
-            id = shapes.size();
+            id = nextID;
+            nextID++;
         }
         return id;
     }
     
     /**
-     * @param shape The shape to be put in {@link #shapes}.
-     * @return The id of the shape allocated. 
+     * @param shape The shape to be put in {@link #shapes} under its id.
+     * @return The id of the shape. 
      */
-    public int add(V2D_Area_d shape) {
-        int id = getNextID();
+    public synchronized int add(V2D_Area_d shape) {
+        int id = shape.getID();
+        V2D_Area_d s = shapes.get(id);
+        if (s != null && s != shape) {
+            throw new RuntimeException("Shape id " + id + " is in use.");
+        }
         shapes.put(id, shape);
+        index.insert(id, shape.getAABB());
         return id;
     }
     
     /**
      * @param id The id of the shape to remove. 
      */
-    public void remove(int id) {
+    public synchronized void remove(int id) {
         shapes.remove(id);
+        index.remove(id);
         ids.add(id);
     }
+    
+    /**
+     * Updates {@link #index} for a shape that has been moved or changed.
+     * 
+     * @param id The id of the shape to update.
+     */
+    public synchronized void update(int id) {
+        V2D_Area_d shape = shapes.get(id);
+        if (shape != null) {
+            index.insert(id, shape.getAABB());
+        }
+    }
+    
+    /**
+     * Rebuilds {@link #index} from {@link #shapes} using bulk loading. This is 
+     * quicker than adding shapes one by one when many shapes have been added
+     * or moved.
+     */
+    public synchronized void reindex() {
+        index.load(shapes);
+    }
+    
+    /**
+     * @param window The window.
+     * @return The ids of shapes with envelopes intersecting {@code window}.
+     */
+    public ArrayList<Integer> getIds(V2D_AABB_d window) {
+        return index.query(window);
+    }
+    
+    /**
+     * @param pt The point.
+     * @return The ids of shapes with envelopes intersecting {@code pt}.
+     */
+    public ArrayList<Integer> getIds(V2D_Point_d pt) {
+        return index.query(pt.getX(), pt.getY());
+    }
+    
+    /**
+     * @param pt The point.
+     * @return The id of the shape with the envelope nearest to {@code pt}, 
+     * or {@code null} if there are no shapes.
+     */
+    public Integer getNearestId(V2D_Point_d pt) {
+        return index.getNearest(pt.getX(), pt.getY());
+    }
+
+    /**
+     * For each point in pts finds the smallest id of the shapes in
+     * {@link #shapes} that contain it. Candidate shapes are found using
+     * {@link #index} and the points are processed in parallel on the common
+     * fork-join pool if {@link #execution} allows. A point locator is built
+     * for each polygon the first time it is a candidate. These are local to
+     * the call, so the polygons are not changed. Other shapes are tested
+     * using their own contains method.
+     *
+     * @param pts The points.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return For each point in pts, the smallest id of the shapes that
+     * contain it, or -1 if no shape contains it.
+     */
+    public int[] getContainingIds(V2D_PointBuffer_d pts, double epsilon) {
+        ConcurrentHashMap<Integer, V2D_PointLocator_d> locators
+                = new ConcurrentHashMap<>();
+        int n = pts.size();
+        int[] r = new int[n];
+        IntStream s = IntStream.range(0, n);
+        if (execution.isParallel(n)) {
+            s = s.parallel();
+        }
+        s.forEach(i -> r[i] = getContainingId(pts.getX(i), pts.getY(i),
+                epsilon, locators));
+        return r;
+    }
+
+    /**
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param locators The point locators of polygons by id which are added
+     * to as needed.
+     * @return The smallest id of the shapes that contain the point, or -1 if
+     * no shape contains it.
+     */
+    private int getContainingId(double x, double y, double epsilon,
+            ConcurrentHashMap<Integer, V2D_PointLocator_d> locators) {
+        int r = -1;
+        for (int id : index.query(x, y)) {
+            if ((r == -1 || id < r) && contains(id, x, y, epsilon,
+                    locators)) {
+                r = id;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param id The id of a shape.
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param locators The point locators of polygons by id which are added
+     * to as needed.
+     * @return {@code true} iff the shape contains the point.
+     */
+    private boolean contains(int id, double x, double y, double epsilon,
+            ConcurrentHashMap<Integer, V2D_PointLocator_d> locators) {
+        V2D_Area_d shape = shapes.get(id);
+        if (shape instanceof V2D_PolygonNoInternalHoles_d p) {
+            return locators.computeIfAbsent(id,
+                    k -> new V2D_PointLocator_d(p)).locate(x, y, epsilon)
+                    == V2D_PointLocator_d.INSIDE;
+        }
+        V2D_Point_d pt = new V2D_Point_d(this, x, y);
+        if (shape instanceof V2D_Triangle_d t) {
+            return t.contains(pt, epsilon);
+        } else if (shape instanceof V2D_ConvexArea_d c) {
+            return c.contains(pt, epsilon);
+        } else if (shape instanceof V2D_Rectangle_d rect) {
+            return rect.intersects(pt, epsilon)
+                    && !V2D_LineSegment_d.intersects(epsilon, pt,
+                            rect.getEdges().values());
+        }
+        return false;
+    }
 }
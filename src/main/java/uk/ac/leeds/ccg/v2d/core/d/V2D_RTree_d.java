@@ -0,0 +1,638 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core.d;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_AABB_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Area_d;
+
+/**
+ * An R-tree spatial index of shape ids keyed on their Axis Aligned Bounding
+ * Boxes. The tree can be bulk loaded using Sort-Tile-Recursive (STR) packing
+ * and thereafter updated incrementally using {@link #insert(int, V2D_AABB_d)}
+ * and {@link #remove(int)}. Queries return the ids of shapes with envelopes
+ * that intersect a window, a point, or that are nearest to a point. The
+ * envelopes are copied when inserted, so if a shape is subsequently translated
+ * or rotated it should be re-indexed.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_RTree_d implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The default maximum number of entries in a node.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 16;
+
+    /**
+     * The maximum number of entries in a node.
+     */
+    protected final int maxEntries;
+
+    /**
+     * The minimum number of entries in a node (other than the root).
+     */
+    protected final int minEntries;
+
+    /**
+     * The root node.
+     */
+    protected Node root;
+
+    /**
+     * For looking up the entry for a shape id.
+     */
+    protected final HashMap<Integer, Entry> entries;
+
+    /**
+     * A box with bounds and a parent node.
+     */
+    protected static abstract class Box implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The minimum x.
+         */
+        double xMin;
+
+        /**
+         * The maximum x.
+         */
+        double xMax;
+
+        /**
+         * The minimum y.
+         */
+        double yMin;
+
+        /**
+         * The maximum y.
+         */
+        double yMax;
+
+        /**
+         * The node this is in.
+         */
+        Node parent;
+
+        /**
+         * @return The area of the box.
+         */
+        double getArea() {
+            return (xMax - xMin) * (yMax - yMin);
+        }
+
+        /**
+         * @param b The box to test for intersection.
+         * @return {@code true} if this intersects {@code b}.
+         */
+        boolean intersects(Box b) {
+            return intersects(b.xMin, b.xMax, b.yMin, b.yMax);
+        }
+
+        /**
+         * @param x0 The minimum x.
+         * @param x1 The maximum x.
+         * @param y0 The minimum y.
+         * @param y1 The maximum y.
+         * @return {@code true} if this intersects the box defined.
+         */
+        boolean intersects(double x0, double x1, double y0, double y1) {
+            return !(x1 < xMin || x0 > xMax || y1 < yMin || y0 > yMax);
+        }
+
+        /**
+         * @param b The box to enlarge with.
+         * @return The increase in area if enlarged to include {@code b}.
+         */
+        double getEnlargement(Box b) {
+            return (Math.max(xMax, b.xMax) - Math.min(xMin, b.xMin))
+                    * (Math.max(yMax, b.yMax) - Math.min(yMin, b.yMin))
+                    - getArea();
+        }
+
+        /**
+         * @param x The x coordinate.
+         * @param y The y coordinate.
+         * @return The squared distance from (x, y) to the box.
+         */
+        double getDistanceSquared(double x, double y) {
+            double dx = x < xMin ? xMin - x : (x > xMax ? x - xMax : 0d);
+            double dy = y < yMin ? yMin - y : (y > yMax ? y - yMax : 0d);
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * @return The x coordinate of the centre.
+         */
+        double getCX() {
+            return (xMin + xMax) / 2d;
+        }
+
+        /**
+         * @return The y coordinate of the centre.
+         */
+        double getCY() {
+            return (yMin + yMax) / 2d;
+        }
+    }
+
+    /**
+     * A leaf entry.
+     */
+    protected static class Entry extends Box {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The shape id.
+         */
+        final int id;
+
+        /**
+         * @param id What {@link #id} is set to.
+         * @param aabb The envelope.
+         */
+        Entry(int id, V2D_AABB_d aabb) {
+            this.id = id;
+            xMin = aabb.getXMin();
+            xMax = aabb.getXMax();
+            yMin = aabb.getYMin();
+            yMax = aabb.getYMax();
+        }
+    }
+
+    /**
+     * A node.
+     */
+    protected static class Node extends Box {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * {@code true} if the children are entries.
+         */
+        final boolean leaf;
+
+        /**
+         * The children.
+         */
+        final ArrayList<Box> children;
+
+        /**
+         * @param leaf What {@link #leaf} is set to.
+         */
+        Node(boolean leaf) {
+            this.leaf = leaf;
+            children = new ArrayList<>();
+            setEmpty();
+        }
+
+        /**
+         * Sets the bounds so that any union replaces them.
+         */
+        final void setEmpty() {
+            xMin = Double.POSITIVE_INFINITY;
+            xMax = Double.NEGATIVE_INFINITY;
+            yMin = Double.POSITIVE_INFINITY;
+            yMax = Double.NEGATIVE_INFINITY;
+        }
+
+        /**
+         * @param b The child to add.
+         */
+        void add(Box b) {
+            children.add(b);
+            b.parent = this;
+            expand(b);
+        }
+
+        /**
+         * @param b The box to expand to include.
+         */
+        void expand(Box b) {
+            xMin = Math.min(xMin, b.xMin);
+            xMax = Math.max(xMax, b.xMax);
+            yMin = Math.min(yMin, b.yMin);
+            yMax = Math.max(yMax, b.yMax);
+        }
+
+        /**
+         * Recalculates the bounds from the children.
+         */
+        void recalculate() {
+            setEmpty();
+            for (Box b : children) {
+                expand(b);
+            }
+        }
+    }
+
+    /**
+     * Create a new empty instance with {@link #DEFAULT_MAX_ENTRIES}.
+     */
+    public V2D_RTree_d() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Create a new empty instance.
+     *
+     * @param maxEntries What {@link #maxEntries} is set to. This must be at
+     * least 4.
+     */
+    public V2D_RTree_d(int maxEntries) {
+        if (maxEntries < 4) {
+            throw new IllegalArgumentException("maxEntries < 4");
+        }
+        this.maxEntries = maxEntries;
+        this.minEntries = Math.max(2, (maxEntries * 2) / 5);
+        this.entries = new HashMap<>();
+        this.root = new Node(true);
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Clears the index and bulk loads it from the shapes using
+     * Sort-Tile-Recursive packing.
+     *
+     * @param shapes The shapes to load.
+     */
+    public void load(Map<Integer, ? extends V2D_Area_d> shapes) {
+        entries.clear();
+        ArrayList<Box> level = new ArrayList<>(shapes.size());
+        shapes.forEach((id, s) -> {
+            Entry e = new Entry(id, s.getAABB());
+            entries.put(id, e);
+            level.add(e);
+        });
+        if (level.isEmpty()) {
+            root = new Node(true);
+            return;
+        }
+        List<Node> nodes = pack(level, true);
+        while (nodes.size() > 1) {
+            nodes = pack(new ArrayList<>(nodes), false);
+        }
+        root = nodes.get(0);
+        root.parent = null;
+    }
+
+    /**
+     * Packs a level of boxes into nodes using Sort-Tile-Recursive.
+     *
+     * @param boxes The boxes to pack.
+     * @param leaf Whether the nodes to create are leaves.
+     * @return The nodes.
+     */
+    private List<Node> pack(ArrayList<Box> boxes, boolean leaf) {
+        int n = boxes.size();
+        int nNodes = (int) Math.ceil(n / (double) maxEntries);
+        int nSlices = (int) Math.ceil(Math.sqrt(nNodes));
+        int sliceSize = nSlices * maxEntries;
+        boxes.sort(Comparator.comparingDouble(Box::getCX));
+        ArrayList<Node> r = new ArrayList<>(nNodes);
+        for (int i = 0; i < n; i += sliceSize) {
+            List<Box> slice = boxes.subList(i, Math.min(n, i + sliceSize));
+            slice.sort(Comparator.comparingDouble(Box::getCY));
+            for (int j = 0; j < slice.size(); j += maxEntries) {
+                Node node = new Node(leaf);
+                int k1 = Math.min(slice.size(), j + maxEntries);
+                for (int k = j; k < k1; k++) {
+                    node.add(slice.get(k));
+                }
+                r.add(node);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Inserts or replaces the entry for a shape.
+     *
+     * @param id The shape id.
+     * @param aabb The envelope of the shape.
+     */
+    public void insert(int id, V2D_AABB_d aabb) {
+        if (entries.containsKey(id)) {
+            remove(id);
+        }
+        Entry e = new Entry(id, aabb);
+        entries.put(id, e);
+        insert(e);
+    }
+
+    /**
+     * @param e The entry to insert.
+     */
+    private void insert(Entry e) {
+        Node n = root;
+        while (!n.leaf) {
+            Node best = null;
+            double bestEnlargement = Double.POSITIVE_INFINITY;
+            double bestArea = Double.POSITIVE_INFINITY;
+            for (Box b : n.children) {
+                double enlargement = b.getEnlargement(e);
+                double area = b.getArea();
+                if (enlargement < bestEnlargement
+                        || (enlargement == bestEnlargement && area < bestArea)) {
+                    best = (Node) b;
+                    bestEnlargement = enlargement;
+                    bestArea = area;
+                }
+            }
+            n = best;
+        }
+        n.add(e);
+        adjust(n);
+    }
+
+    /**
+     * Splits overflowing nodes and expands bounds from {@code n} up to the
+     * root.
+     *
+     * @param n The node to adjust from.
+     */
+    private void adjust(Node n) {
+        while (n != null) {
+            Node parent = n.parent;
+            if (n.children.size() > maxEntries) {
+                Node sibling = split(n);
+                if (parent == null) {
+                    root = new Node(false);
+                    root.add(n);
+                    root.add(sibling);
+                    return;
+                }
+                parent.add(sibling);
+                parent.recalculate();
+            } else if (parent != null) {
+                parent.expand(n);
+            }
+            n = parent;
+        }
+    }
+
+    /**
+     * Splits {@code n} using a linear split, leaving some children in
+     * {@code n} and moving the rest to a new sibling.
+     *
+     * @param n The node to split.
+     * @return The new sibling.
+     */
+    private Node split(Node n) {
+        ArrayList<Box> cs = new ArrayList<>(n.children);
+        // Pick seeds with the greatest normalised separation.
+        int lxMax = 0, hxMin = 0, lyMax = 0, hyMin = 0;
+        double xMin = Double.POSITIVE_INFINITY;
+        double xMax = Double.NEGATIVE_INFINITY;
+        double yMin = Double.POSITIVE_INFINITY;
+        double yMax = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < cs.size(); i++) {
+            Box b = cs.get(i);
+            xMin = Math.min(xMin, b.xMin);
+            xMax = Math.max(xMax, b.xMax);
+            yMin = Math.min(yMin, b.yMin);
+            yMax = Math.max(yMax, b.yMax);
+            if (b.xMin > cs.get(lxMax).xMin) {
+                lxMax = i;
+            }
+            if (b.xMax < cs.get(hxMin).xMax) {
+                hxMin = i;
+            }
+            if (b.yMin > cs.get(lyMax).yMin) {
+                lyMax = i;
+            }
+            if (b.yMax < cs.get(hyMin).yMax) {
+                hyMin = i;
+            }
+        }
+        double w = xMax - xMin;
+        double h = yMax - yMin;
+        double sx = w > 0d ? (cs.get(lxMax).xMin - cs.get(hxMin).xMax) / w : 0d;
+        double sy = h > 0d ? (cs.get(lyMax).yMin - cs.get(hyMin).yMax) / h : 0d;
+        int s0, s1;
+        if (sx >= sy) {
+            s0 = hxMin;
+            s1 = lxMax;
+        } else {
+            s0 = hyMin;
+            s1 = lyMax;
+        }
+        if (s0 == s1) {
+            s1 = (s0 == 0) ? 1 : 0;
+        }
+        Node sibling = new Node(n.leaf);
+        n.children.clear();
+        n.setEmpty();
+        n.add(cs.get(s0));
+        sibling.add(cs.get(s1));
+        int remaining = cs.size() - 2;
+        for (int i = 0; i < cs.size(); i++) {
+            if (i == s0 || i == s1) {
+                continue;
+            }
+            Box b = cs.get(i);
+            if (n.children.size() + remaining == minEntries) {
+                n.add(b);
+            } else if (sibling.children.size() + remaining == minEntries) {
+                sibling.add(b);
+            } else {
+                double en = n.getEnlargement(b);
+                double es = sibling.getEnlargement(b);
+                if (en < es || (en == es && n.children.size()
+                        <= sibling.children.size())) {
+                    n.add(b);
+                } else {
+                    sibling.add(b);
+                }
+            }
+            remaining--;
+        }
+        return sibling;
+    }
+
+    /**
+     * Removes the entry for a shape.
+     *
+     * @param id The shape id.
+     * @return {@code true} if there was an entry for {@code id}.
+     */
+    public boolean remove(int id) {
+        Entry e = entries.remove(id);
+        if (e == null) {
+            return false;
+        }
+        Node n = e.parent;
+        n.children.remove(e);
+        e.parent = null;
+        // Condense the tree collecting orphaned entries for reinsertion.
+        ArrayList<Entry> orphans = new ArrayList<>();
+        while (n != root) {
+            Node parent = n.parent;
+            if (n.children.size() < minEntries) {
+                parent.children.remove(n);
+                n.parent = null;
+                collect(n, orphans);
+            } else {
+                n.recalculate();
+            }
+            n = parent;
+        }
+        root.recalculate();
+        while (!root.leaf && root.children.size() == 1) {
+            root = (Node) root.children.get(0);
+            root.parent = null;
+        }
+        if (!root.leaf && root.children.isEmpty()) {
+            root = new Node(true);
+        }
+        for (Entry o : orphans) {
+            insert(o);
+        }
+        return true;
+    }
+
+    /**
+     * @param n The node to collect entries from.
+     * @param r The list to add entries to.
+     */
+    private void collect(Node n, ArrayList<Entry> r) {
+        for (Box b : n.children) {
+            if (n.leaf) {
+                r.add((Entry) b);
+            } else {
+                collect((Node) b, r);
+            }
+        }
+    }
+
+    /**
+     * @param window The window.
+     * @return The ids of shapes with envelopes intersecting {@code window}.
+     */
+    public ArrayList<Integer> query(V2D_AABB_d window) {
+        return query(window.getXMin(), window.getXMax(), window.getYMin(),
+                window.getYMax());
+    }
+
+    /**
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @return The ids of shapes with envelopes intersecting the point.
+     */
+    public ArrayList<Integer> query(double x, double y) {
+        return query(x, x, y, y);
+    }
+
+    /**
+     * @param xMin The minimum x of the window.
+     * @param xMax The maximum x of the window.
+     * @param yMin The minimum y of the window.
+     * @param yMax The maximum y of the window.
+     * @return The ids of shapes with envelopes intersecting the window.
+     */
+    public ArrayList<Integer> query(double xMin, double xMax, double yMin,
+            double yMax) {
+        ArrayList<Integer> r = new ArrayList<>();
+        if (entries.isEmpty()) {
+            return r;
+        }
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node n = stack.pop();
+            for (Box b : n.children) {
+                if (b.intersects(xMin, xMax, yMin, yMax)) {
+                    if (n.leaf) {
+                        r.add(((Entry) b).id);
+                    } else {
+                        stack.push((Node) b);
+                    }
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @return The id of the shape with the envelope nearest to the point or
+     * {@code null} if the index is empty.
+     */
+    public Integer getNearest(double x, double y) {
+        ArrayList<Integer> r = getNearest(x, y, 1);
+        return r.isEmpty() ? null : r.get(0);
+    }
+
+    /**
+     * A best first search for the shapes with envelopes nearest to a point.
+     *
+     * @param x The x coordinate of a point.
+     * @param y The y coordinate of a point.
+     * @param k The number of ids to return.
+     * @return The ids of up to {@code k} shapes with envelopes nearest to the
+     * point ordered from nearest to furthest.
+     */
+    public ArrayList<Integer> getNearest(double x, double y, int k) {
+        ArrayList<Integer> r = new ArrayList<>(k);
+        if (entries.isEmpty() || k < 1) {
+            return r;
+        }
+        PriorityQueue<Candidate> pq = new PriorityQueue<>(
+                Comparator.comparingDouble(Candidate::d2));
+        pq.add(new Candidate(root.getDistanceSquared(x, y), root));
+        while (!pq.isEmpty() && r.size() < k) {
+            Box b = pq.poll().b();
+            if (b instanceof Entry e) {
+                r.add(e.id);
+            } else {
+                for (Box c : ((Node) b).children) {
+                    pq.add(new Candidate(c.getDistanceSquared(x, y), c));
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * For ordering boxes in a nearest neighbour search.
+     *
+     * @param d2 The squared distance to the box.
+     * @param b The box.
+     */
+    private record Candidate(double d2, Box b) {
+
+    }
+}
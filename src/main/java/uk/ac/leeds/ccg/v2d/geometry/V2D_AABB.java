@@ -673,7 +673,8 @@ public class V2D_AABB implements Serializable {
      * @return {@code true} if this contains {@code s}
      */
     public boolean contains0(V2D_Area s, int oom, RoundingMode rm) {
-        return s.getPoints(oom, rm).values().parallelStream().allMatch(x
+        return V2D_Environment.getExecution(env)
+                .stream(s.getPoints(oom, rm).values()).allMatch(x
                 -> contains(x, oom));
     }
 
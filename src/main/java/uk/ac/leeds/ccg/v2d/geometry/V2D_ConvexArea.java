@@ -24,6 +24,7 @@ import java.util.Iterator;
 import java.util.List;
 import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleBigRational;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * V2D_ConvexArea extends V2D_Area and is for representing a convex area
@@ -150,12 +151,7 @@ public class V2D_ConvexArea extends V2D_Area {
     // ccw returns true if the three points make a counter-clockwise turn
     private static boolean ccw(V2D_Point a, V2D_Point b, V2D_Point c, int oom,
             RoundingMode rm) {
-        BigRational ax = a.getX(oom, rm);
-        BigRational ay = a.getY(oom, rm);
-        return ((b.getX(oom, rm).subtract(ax))
-                .multiply(c.getY(oom, rm).subtract(ay)))
-                .compareTo((b.getY(oom, rm).subtract(ay))
-                        .multiply(c.getX(oom, rm).subtract(ax))) == 1;
+        return V2D_Orientation.getOrientation(a, b, c, oom, rm) == 1;
     }
 
     /**
@@ -245,9 +241,9 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff all the triangles are the same.
      */
     public boolean equals(V2D_ConvexArea c, int oom, RoundingMode rm) {
-        if (points.values().parallelStream().allMatch(x
+        if (execution().stream(points.values()).allMatch(x
                 -> x.equalsAny(c.points.values(), oom, rm))) {
-            return c.points.values().parallelStream().allMatch(x
+            return execution().stream(c.points.values()).allMatch(x
                     -> x.equalsAny(points.values(), oom, rm));
         }
         return false;
@@ -323,8 +319,11 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code p}.
      */
     public boolean intersects(V2D_Point pt, int oom, RoundingMode rm) {
-        return getAABB(oom, rm).contains(pt, oom)
+        long time = metrics().start();
+        boolean r = metrics().aabb(getAABB(oom, rm).contains(pt, oom))
                 && intersects0(pt, oom, rm);
+        return metrics().stop(V2D_ConvexArea.class, V2D_Metrics.INTERSECTS,
+                time, r);
     }
 
     /**
@@ -336,7 +335,7 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code p}.
      */
     public boolean intersects0(V2D_Point pt, int oom, RoundingMode rm) {
-        return getTriangles(oom, rm).parallelStream().anyMatch(x
+        return execution().stream(getTriangles(oom, rm)).anyMatch(x
                 -> x.intersects(pt, oom, rm));
     }
 
@@ -349,8 +348,11 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} contains {@code p}.
      */
     public boolean contains(V2D_Point pt, int oom, RoundingMode rm) {
-        return intersects(pt, oom, rm)
+        long time = metrics().start();
+        boolean r = intersects(pt, oom, rm)
                 && !V2D_LineSegment.intersects(oom, rm, pt, edges.values());
+        return metrics().stop(V2D_ConvexArea.class, V2D_Metrics.CONTAINS,
+                time, r);
     }
 
     /**
@@ -376,8 +378,8 @@ public class V2D_ConvexArea extends V2D_Area {
      */
     public boolean contains(V2D_Triangle t, int oom, RoundingMode rm) {
         return intersects(t, oom, rm)
-                && t.getPoints(oom, rm).values().parallelStream().allMatch(x
-                        -> contains(x, oom, rm));
+                && execution().stream(t.getPoints(oom, rm).values())
+                        .allMatch(x -> contains(x, oom, rm));
 //        return intersects(t, oom, rm)
 //                && !t.getEdges(oom, rm).values().parallelStream().anyMatch(x
 //                        -> V2D_LineSegment.intersects(oom, rm, x,
@@ -394,8 +396,8 @@ public class V2D_ConvexArea extends V2D_Area {
      */
     public boolean contains(V2D_Rectangle r, int oom, RoundingMode rm) {
         return intersects(r, oom, rm)
-                && r.getPoints(oom, rm).values().parallelStream().allMatch(x
-                        -> contains(x, oom, rm));
+                && execution().stream(r.getPoints(oom, rm).values())
+                        .allMatch(x -> contains(x, oom, rm));
     }
     
     /**
@@ -408,8 +410,8 @@ public class V2D_ConvexArea extends V2D_Area {
      */
     public boolean contains(V2D_ConvexArea ch, int oom, RoundingMode rm) {
         return intersects(ch, oom, rm)
-                && ch.getPoints(oom, rm).values().parallelStream().allMatch(x
-                        -> contains(x, oom, rm));
+                && execution().stream(ch.getPoints(oom, rm).values())
+                        .allMatch(x -> contains(x, oom, rm));
 //        return intersects(ch, oom, rm)
 //                && !ch.edges.values().parallelStream().anyMatch(x
 //                        -> V2D_LineSegment.intersects(oom, rm, x,
@@ -438,7 +440,7 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code p}.
      */
     public boolean intersects0(V2D_LineSegment l, int oom, RoundingMode rm) {
-        return getTriangles(oom, rm).parallelStream().anyMatch(x
+        return execution().stream(getTriangles(oom, rm)).anyMatch(x
                 -> x.intersects(l, oom, rm));
     }
 
@@ -464,7 +466,7 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code t}.
      */
     public boolean intersects0(V2D_Triangle t, int oom, RoundingMode rm) {
-        return getTriangles(oom, rm).parallelStream().anyMatch(x
+        return execution().stream(getTriangles(oom, rm)).anyMatch(x
                 -> x.intersects(t, oom, rm));
     }
 
@@ -490,7 +492,7 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code r}.
      */
     public boolean intersects0(V2D_Rectangle r, int oom, RoundingMode rm) {
-        return getTriangles(oom, rm).parallelStream().anyMatch(x
+        return execution().stream(getTriangles(oom, rm)).anyMatch(x
                 -> r.intersects(x, oom, rm));
     }
 
@@ -517,9 +519,9 @@ public class V2D_ConvexArea extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code ch.
      */
     public boolean intersects0(V2D_ConvexArea ch, int oom, RoundingMode rm) {
-        return getTriangles(oom, rm).parallelStream().anyMatch(x
+        return execution().stream(getTriangles(oom, rm)).anyMatch(x
                 -> ch.intersects(x, oom, rm))
-                || ch.getTriangles(oom, rm).parallelStream().anyMatch(x
+                || execution().stream(ch.getTriangles(oom, rm)).anyMatch(x
                         -> intersects(x, oom, rm));
     }
 
@@ -631,7 +633,7 @@ public class V2D_ConvexArea extends V2D_Area {
      * precision.
      */
     public boolean intersects0(V2D_AABB aabb, int oom, RoundingMode rm) {
-        return getTriangles(oom, rm).parallelStream().anyMatch(x
+        return execution().stream(getTriangles(oom, rm)).anyMatch(x
                 -> x.intersects(aabb, oom, rm));
     }
 
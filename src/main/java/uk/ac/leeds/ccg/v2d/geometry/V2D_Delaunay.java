@@ -0,0 +1,964 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+
+/**
+ * For the Delaunay triangulation of a set of points and the Voronoi cells of
+ * the points. This is the same radial sweep as
+ * {@link uk.ac.leeds.ccg.v2d.geometry.d.V2D_Delaunay_d}, but all calculations
+ * are exact so it is robust for any input, although it is slower.
+ *
+ * Triangles are given as triples of point indexes in counter-clockwise order.
+ * Each triangle has three half edges: for the triangle starting at index
+ * {@code t} of {@link #getTriangles()}, half edge {@code t} goes from the
+ * first to the second point, {@code t + 1} from the second to the third, and
+ * {@code t + 2} from the third to the first. The opposite of half edge
+ * {@code e} is given by {@code getHalfedges()[e]} which is {@code -1} for
+ * edges on the convex hull. Duplicate points are not triangulated and if all
+ * the points are collinear there are no triangles.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Delaunay {
+
+    /**
+     * The environment of the points.
+     */
+    public final V2D_Environment env;
+
+    /**
+     * The x coordinates of the points.
+     */
+    private final BigRational[] x;
+
+    /**
+     * The y coordinates of the points.
+     */
+    private final BigRational[] y;
+
+    /**
+     * The triangles as triples of point indexes.
+     */
+    private int[] triangles;
+
+    /**
+     * The opposite half edges.
+     */
+    private int[] halfedges;
+
+    /**
+     * The points on the convex hull in counter-clockwise order.
+     */
+    private int[] hull;
+
+    /**
+     * For each point, a half edge ending at the point. For points on the
+     * convex hull this is the hull edge, so that going around the point starts
+     * and ends on the hull. This is -1 for points that are not triangulated.
+     */
+    private int[] inedges;
+
+    /**
+     * The number of triangle indexes used while building.
+     */
+    private int trianglesLen;
+
+    /**
+     * The previous and next point on the hull while building.
+     */
+    private int[] hullPrev, hullNext;
+
+    /**
+     * A half edge on the hull from each point while building.
+     */
+    private int[] hullTri;
+
+    /**
+     * For quickly finding a point on the hull by angle while building.
+     */
+    private int[] hullHash;
+
+    /**
+     * The start of the hull while building.
+     */
+    private int hullStart;
+
+    /**
+     * The number of points on the hull while building.
+     */
+    private int hullSize;
+
+    /**
+     * The centre for the angles in {@link #hullHash}.
+     */
+    private double cx, cy;
+
+    /**
+     * For the edges to check when legalising.
+     */
+    private int[] edgeStack;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param oom The Order of Magnitude for the precision of the coordinates.
+     * @param rm The RoundingMode for any rounding of the coordinates.
+     * @param points The points to triangulate.
+     */
+    public V2D_Delaunay(int oom, RoundingMode rm, V2D_Point... points) {
+        env = points.length == 0 ? null : points[0].env;
+        int n = points.length;
+        x = new BigRational[n];
+        y = new BigRational[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = points[i].getX(oom, rm);
+            y[i] = points[i].getY(oom, rm);
+        }
+        build();
+    }
+
+    /**
+     * @return The triangles as triples of point indexes in counter-clockwise
+     * order.
+     */
+    public int[] getTriangles() {
+        return triangles;
+    }
+
+    /**
+     * @return The opposite half edges.
+     */
+    public int[] getHalfedges() {
+        return halfedges;
+    }
+
+    /**
+     * @return The indexes of the points on the convex hull in
+     * counter-clockwise order. If the points are collinear, these are all the
+     * unique points in order along the line.
+     */
+    public int[] getHull() {
+        return hull;
+    }
+
+    /**
+     * @return The number of points.
+     */
+    public int getNumberOfPoints() {
+        return x.length;
+    }
+
+    /**
+     * @param i The index of the point.
+     * @return The point.
+     */
+    public V2D_Point getPoint(int i) {
+        return new V2D_Point(env, x[i], y[i]);
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The triangles.
+     */
+    public V2D_Triangle[] getTrianglesArray(int oom, RoundingMode rm) {
+        V2D_Triangle[] r = new V2D_Triangle[triangles.length / 3];
+        for (int t = 0; t < r.length; t++) {
+            r[t] = new V2D_Triangle(getPoint(triangles[3 * t]),
+                    getPoint(triangles[3 * t + 1]),
+                    getPoint(triangles[3 * t + 2]), oom, rm);
+        }
+        return r;
+    }
+
+    /**
+     * @param i The index of the point.
+     * @return The indexes of the points joined to point {@code i} by an edge
+     * of the triangulation, or {@code null} if point {@code i} is a duplicate
+     * that is not triangulated.
+     */
+    public int[] getNeighbours(int i) {
+        if (triangles.length == 0) {
+            // Collinear
+            for (int k = 0; k < hull.length; k++) {
+                if (hull[k] == i) {
+                    if (hull.length == 1) {
+                        return new int[0];
+                    } else if (k == 0) {
+                        return new int[]{hull[1]};
+                    } else if (k == hull.length - 1) {
+                        return new int[]{hull[k - 1]};
+                    } else {
+                        return new int[]{hull[k - 1], hull[k + 1]};
+                    }
+                }
+            }
+            return null;
+        }
+        int e0 = inedges[i];
+        if (e0 == -1) {
+            return null;
+        }
+        int[] r = new int[8];
+        int n = 0;
+        int e = e0;
+        do {
+            if (n + 1 >= r.length) {
+                r = Arrays.copyOf(r, r.length * 2);
+            }
+            r[n++] = triangles[e];
+            int out = next(e);
+            e = halfedges[out];
+            if (e == -1) {
+                r[n++] = triangles[next(out)];
+                break;
+            }
+        } while (e != e0);
+        return Arrays.copyOf(r, n);
+    }
+
+    /**
+     * Calculates the Voronoi cell of a point clipped to a rectangle. The cell
+     * is the rectangle clipped by the perpendicular bisector of each edge
+     * from the point.
+     *
+     * @param i The index of the point.
+     * @param xMin The minimum x of the rectangle.
+     * @param yMin The minimum y of the rectangle.
+     * @param xMax The maximum x of the rectangle.
+     * @param yMax The maximum y of the rectangle.
+     * @return The x and y coordinates of the cell interleaved in
+     * counter-clockwise order, or {@code null} if point {@code i} is a
+     * duplicate. The array is empty if the cell is outside the rectangle.
+     */
+    public BigRational[] getVoronoiCell(int i, BigRational xMin,
+            BigRational yMin, BigRational xMax, BigRational yMax) {
+        int[] ns = getNeighbours(i);
+        if (ns == null) {
+            return null;
+        }
+        BigRational[] c = {xMin, yMin, xMax, yMin, xMax, yMax, xMin, yMax};
+        int m = 4;
+        BigRational px = x[i];
+        BigRational py = y[i];
+        for (int j : ns) {
+            BigRational dx = x[j].subtract(px);
+            BigRational dy = y[j].subtract(py);
+            BigRational mx = px.add(x[j]).divide(2);
+            BigRational my = py.add(y[j]).divide(2);
+            BigRational[] r = new BigRational[2 * (m + 1)];
+            int k = 0;
+            BigRational vx = c[2 * m - 2];
+            BigRational vy = c[2 * m - 1];
+            BigRational sv = vx.subtract(mx).multiply(dx)
+                    .add(vy.subtract(my).multiply(dy));
+            for (int w = 0; w < m; w++) {
+                BigRational wx = c[2 * w];
+                BigRational wy = c[2 * w + 1];
+                BigRational sw = wx.subtract(mx).multiply(dx)
+                        .add(wy.subtract(my).multiply(dy));
+                if (sv.signum() * sw.signum() < 0) {
+                    BigRational f = sv.divide(sv.subtract(sw));
+                    r[k++] = vx.add(wx.subtract(vx).multiply(f));
+                    r[k++] = vy.add(wy.subtract(vy).multiply(f));
+                }
+                if (sw.signum() <= 0) {
+                    r[k++] = wx;
+                    r[k++] = wy;
+                }
+                vx = wx;
+                vy = wy;
+                sv = sw;
+            }
+            c = r;
+            m = k / 2;
+            if (m == 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(c, 2 * m);
+    }
+
+    /**
+     * @param i The index of the point.
+     * @param bounds The bounds to clip the cell to.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The Voronoi cell of point {@code i} clipped to {@code bounds} or
+     * {@code null} if point {@code i} is a duplicate or the cell has no area
+     * within {@code bounds}.
+     */
+    public V2D_ConvexArea getVoronoiCell(int i, V2D_AABB bounds, int oom,
+            RoundingMode rm) {
+        BigRational[] c = getVoronoiCell(i, bounds.getXMin(oom, rm),
+                bounds.getYMin(oom, rm), bounds.getXMax(oom, rm),
+                bounds.getYMax(oom, rm));
+        if (c == null || c.length < 6) {
+            return null;
+        }
+        BigRational a = BigRational.ZERO;
+        for (int k = 2; k < c.length - 2; k += 2) {
+            a = a.add(c[k].subtract(c[0]).multiply(c[k + 3].subtract(c[1])))
+                    .subtract(c[k + 2].subtract(c[0]).multiply(
+                            c[k + 1].subtract(c[1])));
+        }
+        if (a.signum() <= 0) {
+            return null;
+        }
+        V2D_Point[] pts = new V2D_Point[c.length / 2];
+        for (int k = 0; k < pts.length; k++) {
+            pts[k] = new V2D_Point(env, c[2 * k], c[2 * k + 1]);
+        }
+        return new V2D_ConvexArea(oom, rm, pts);
+    }
+
+    /**
+     * Calculates the Voronoi cells of all the points. This is done in parallel
+     * if {@code env.execution} allows.
+     *
+     * @param bounds The bounds to clip the cells to.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The Voronoi cells indexed by point, with {@code null} for
+     * duplicate points and cells with no area within {@code bounds}.
+     */
+    public V2D_ConvexArea[] getVoronoiCells(V2D_AABB bounds, int oom,
+            RoundingMode rm) {
+        int n = getNumberOfPoints();
+        V2D_ConvexArea[] r = new V2D_ConvexArea[n];
+        IntStream s = IntStream.range(0, n);
+        if (V2D_Environment.getExecution(env).isParallel(n)) {
+            s = s.parallel();
+        }
+        s.forEach(i -> r[i] = getVoronoiCell(i, bounds, oom, rm));
+        return r;
+    }
+
+    /**
+     * Builds the triangulation.
+     */
+    private void build() {
+        int n = x.length;
+        triangles = new int[Math.max(2 * n - 5, 0) * 3];
+        halfedges = new int[triangles.length];
+        inedges = new int[n];
+        Arrays.fill(inedges, -1);
+        if (n == 0) {
+            hull = new int[0];
+            return;
+        }
+        BigRational minX = x[0];
+        BigRational minY = y[0];
+        BigRational maxX = x[0];
+        BigRational maxY = y[0];
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            minX = BigRational.min(minX, x[i]);
+            minY = BigRational.min(minY, y[i]);
+            maxX = BigRational.max(maxX, x[i]);
+            maxY = BigRational.max(maxY, y[i]);
+            ids[i] = i;
+        }
+        BigRational bx = minX.add(maxX).divide(2);
+        BigRational by = minY.add(maxY).divide(2);
+        // Seed with the point nearest the centre of the bounds...
+        int i0 = 0;
+        BigRational minDist = dist(bx, by, x[0], y[0]);
+        for (int i = 1; i < n; i++) {
+            BigRational d = dist(bx, by, x[i], y[i]);
+            if (d.compareTo(minDist) < 0) {
+                i0 = i;
+                minDist = d;
+            }
+        }
+        // ...the point nearest that...
+        int i1 = -1;
+        minDist = null;
+        for (int i = 0; i < n; i++) {
+            BigRational d = dist(x[i0], y[i0], x[i], y[i]);
+            if (d.signum() > 0
+                    && (minDist == null || d.compareTo(minDist) < 0)) {
+                i1 = i;
+                minDist = d;
+            }
+        }
+        // ...and the point making the smallest circumcircle with these.
+        int i2 = -1;
+        if (i1 != -1) {
+            BigRational minRadius = null;
+            for (int i = 0; i < n; i++) {
+                if (orient(i0, i1, i) != 0) {
+                    BigRational r = circumradius(i0, i1, i);
+                    if (minRadius == null || r.compareTo(minRadius) < 0) {
+                        i2 = i;
+                        minRadius = r;
+                    }
+                }
+            }
+        }
+        BigRational[] dists = new BigRational[n];
+        if (i2 == -1) {
+            // Collinear: order the points along the line.
+            for (int i = 0; i < n; i++) {
+                BigRational d = x[i].subtract(x[0]);
+                dists[i] = d.signum() != 0 ? d : y[i].subtract(y[0]);
+            }
+            quicksort(ids, dists, 0, n - 1);
+            int[] h = new int[n];
+            int j = 0;
+            BigRational d0 = null;
+            for (int i = 0; i < n; i++) {
+                int id = ids[i];
+                if (d0 == null || dists[id].compareTo(d0) > 0) {
+                    h[j++] = id;
+                    d0 = dists[id];
+                }
+            }
+            hull = Arrays.copyOf(h, j);
+            triangles = new int[0];
+            halfedges = new int[0];
+            return;
+        }
+        if (orient(i0, i1, i2) < 0) {
+            int i = i1;
+            i1 = i2;
+            i2 = i;
+        }
+        // Sort the points by distance from the seed circumcentre.
+        BigRational dx = x[i1].subtract(x[i0]);
+        BigRational dy = y[i1].subtract(y[i0]);
+        BigRational ex = x[i2].subtract(x[i0]);
+        BigRational ey = y[i2].subtract(y[i0]);
+        BigRational bl = dx.multiply(dx).add(dy.multiply(dy));
+        BigRational cl = ex.multiply(ex).add(ey.multiply(ey));
+        BigRational d = dx.multiply(ey).subtract(dy.multiply(ex)).multiply(2);
+        BigRational ccx = x[i0].add(ey.multiply(bl).subtract(dy.multiply(cl))
+                .divide(d));
+        BigRational ccy = y[i0].add(dx.multiply(cl).subtract(ex.multiply(bl))
+                .divide(d));
+        cx = ccx.doubleValue();
+        cy = ccy.doubleValue();
+        for (int i = 0; i < n; i++) {
+            dists[i] = dist(x[i], y[i], ccx, ccy);
+        }
+        quicksort(ids, dists, 0, n - 1);
+        // Initialise the hull with the seed triangle.
+        int hashSize = (int) Math.ceil(Math.sqrt(n));
+        hullPrev = new int[n];
+        hullNext = new int[n];
+        hullTri = new int[n];
+        hullHash = new int[hashSize];
+        Arrays.fill(hullHash, -1);
+        edgeStack = new int[64];
+        hullStart = i0;
+        hullSize = 3;
+        hullNext[i0] = hullPrev[i2] = i1;
+        hullNext[i1] = hullPrev[i0] = i2;
+        hullNext[i2] = hullPrev[i1] = i0;
+        hullTri[i0] = 0;
+        hullTri[i1] = 1;
+        hullTri[i2] = 2;
+        hullHash[hashKey(i0, hashSize)] = i0;
+        hullHash[hashKey(i1, hashSize)] = i1;
+        hullHash[hashKey(i2, hashSize)] = i2;
+        trianglesLen = 0;
+        addTriangle(i0, i1, i2, -1, -1, -1);
+        int ip = -1;
+        for (int k = 0; k < n; k++) {
+            int i = ids[k];
+            if (ip != -1 && x[i].compareTo(x[ip]) == 0
+                    && y[i].compareTo(y[ip]) == 0) {
+                continue;
+            }
+            ip = i;
+            if (i == i0 || i == i1 || i == i2) {
+                continue;
+            }
+            // Find a visible edge on the hull using the hash.
+            int start = 0;
+            int key = hashKey(i, hashSize);
+            for (int j = 0; j < hashSize; j++) {
+                start = hullHash[(key + j) % hashSize];
+                if (start != -1 && start != hullNext[start]) {
+                    break;
+                }
+            }
+            start = hullPrev[start];
+            int e = start;
+            int q = hullNext[e];
+            while (!isVisible(i, e, q)) {
+                e = q;
+                if (e == start) {
+                    e = -1;
+                    break;
+                }
+                q = hullNext[e];
+            }
+            if (e == -1) {
+                // The point is inside the hull or is a duplicate.
+                insertInside(i, hashSize);
+                continue;
+            }
+            // Add the first triangle from the point.
+            int t = addTriangle(e, i, hullNext[e], -1, -1, hullTri[e]);
+            hullTri[i] = legalize(t + 2);
+            hullTri[e] = t;
+            hullSize++;
+            // Walk forward through the hull adding more triangles.
+            int nx = hullNext[e];
+            q = hullNext[nx];
+            while (isVisible(i, nx, q)) {
+                t = addTriangle(nx, i, q, hullTri[i], -1, hullTri[nx]);
+                hullTri[i] = legalize(t + 2);
+                hullNext[nx] = nx;
+                hullSize--;
+                nx = q;
+                q = hullNext[nx];
+            }
+            // Walk backward from the other side adding more triangles.
+            if (e == start) {
+                q = hullPrev[e];
+                while (isVisible(i, q, e)) {
+                    t = addTriangle(q, i, e, -1, hullTri[e], hullTri[q]);
+                    legalize(t + 2);
+                    hullTri[q] = t;
+                    hullNext[e] = e;
+                    hullSize--;
+                    e = q;
+                    q = hullPrev[e];
+                }
+            }
+            // Update the hull.
+            hullStart = hullPrev[i] = e;
+            hullNext[e] = hullPrev[nx] = i;
+            hullNext[i] = nx;
+            hullHash[hashKey(i, hashSize)] = i;
+            hullHash[hashKey(e, hashSize)] = e;
+        }
+        hull = new int[hullSize];
+        for (int i = 0, e = hullStart; i < hullSize; i++) {
+            hull[i] = e;
+            e = hullNext[e];
+        }
+        triangles = Arrays.copyOf(triangles, trianglesLen);
+        halfedges = Arrays.copyOf(halfedges, trianglesLen);
+        for (int e = 0; e < trianglesLen; e++) {
+            int p = triangles[next(e)];
+            if (halfedges[e] == -1 || inedges[p] == -1) {
+                inedges[p] = e;
+            }
+        }
+        hullPrev = null;
+        hullNext = null;
+        hullTri = null;
+        hullHash = null;
+        edgeStack = null;
+    }
+
+    /**
+     * Inserts a point that is inside or on the hull by splitting the triangle
+     * or edge it is on. Duplicate points are not inserted.
+     *
+     * @param p The point.
+     * @param hashSize The size of {@link #hullHash}.
+     */
+    private void insertInside(int p, int hashSize) {
+        // Walk towards the point from a triangle on the hull.
+        int t = hullTri[hullStart] - hullTri[hullStart] % 3;
+        int steps = 0;
+        for (int k = 0; k < 3; k++) {
+            int e = t + k;
+            if (orient(triangles[e], triangles[next(e)], p) < 0) {
+                int f = halfedges[e];
+                if (f == -1) {
+                    return;
+                }
+                t = f - f % 3;
+                k = -1;
+                if (++steps > trianglesLen) {
+                    return;
+                }
+            }
+        }
+        int onEdge = -1;
+        int zeros = 0;
+        for (int k = 0; k < 3; k++) {
+            int e = t + k;
+            if (orient(triangles[e], triangles[next(e)], p) == 0) {
+                onEdge = e;
+                zeros++;
+            }
+        }
+        if (zeros > 1) {
+            // A duplicate.
+            return;
+        }
+        if (zeros == 0) {
+            int a = triangles[t];
+            int b = triangles[t + 1];
+            int c = triangles[t + 2];
+            int hb = halfedges[t + 1];
+            int hc = halfedges[t + 2];
+            triangles[t + 2] = p;
+            int t1 = addTriangle(b, c, p, hb, -1, t + 1);
+            int t2 = addTriangle(c, a, p, hc, t + 2, t1 + 1);
+            if (hb == -1) {
+                hullTri[b] = t1;
+            }
+            if (hc == -1) {
+                hullTri[c] = t2;
+            }
+            legalize(t);
+            legalize(t1);
+            legalize(t2);
+            return;
+        }
+        // Split the edge and the triangles either side.
+        int e = onEdge;
+        int e1 = next(e);
+        int e2 = next(e1);
+        int a = triangles[e];
+        int b = triangles[e1];
+        int c = triangles[e2];
+        int h1 = halfedges[e1];
+        int h2 = halfedges[e2];
+        int f = halfedges[e];
+        triangles[t] = a;
+        triangles[t + 1] = p;
+        triangles[t + 2] = c;
+        link(t + 2, h2);
+        int t2 = addTriangle(p, b, c, -1, h1, t + 1);
+        if (h1 == -1) {
+            hullTri[b] = t2 + 1;
+        }
+        if (h2 == -1) {
+            hullTri[c] = t + 2;
+        }
+        if (f == -1) {
+            // The point is on the hull.
+            halfedges[t] = -1;
+            hullTri[a] = t;
+            hullTri[p] = t2;
+            hullNext[a] = p;
+            hullPrev[p] = a;
+            hullNext[p] = b;
+            hullPrev[b] = p;
+            hullSize++;
+            hullHash[hashKey(p, hashSize)] = p;
+            legalize(t + 2);
+            legalize(t2 + 1);
+            return;
+        }
+        int u = f - f % 3;
+        int f1 = next(f);
+        int f2 = next(f1);
+        int d = triangles[f2];
+        int k1 = halfedges[f1];
+        int k2 = halfedges[f2];
+        triangles[u] = b;
+        triangles[u + 1] = p;
+        triangles[u + 2] = d;
+        link(u, t2);
+        link(u + 2, k2);
+        int t4 = addTriangle(p, a, d, t, k1, u + 1);
+        if (k1 == -1) {
+            hullTri[a] = t4 + 1;
+        }
+        if (k2 == -1) {
+            hullTri[d] = u + 2;
+        }
+        legalize(t + 2);
+        legalize(t2 + 1);
+        legalize(u + 2);
+        legalize(t4 + 1);
+    }
+
+    /**
+     * @param e A half edge.
+     * @return The next half edge in the same triangle.
+     */
+    private static int next(int e) {
+        return e % 3 == 2 ? e - 2 : e + 1;
+    }
+
+    /**
+     * Flips edges until the triangles around half edge {@code a} are
+     * Delaunay.
+     *
+     * @param a The half edge.
+     * @return The half edge that ends where half edge {@code a} started after
+     * any flipping.
+     */
+    private int legalize(int a) {
+        int i = 0;
+        int ar;
+        while (true) {
+            int b = halfedges[a];
+            int a0 = a - a % 3;
+            ar = a0 + (a + 2) % 3;
+            if (b == -1) {
+                if (i == 0) {
+                    break;
+                }
+                a = edgeStack[--i];
+                continue;
+            }
+            int b0 = b - b % 3;
+            int al = a0 + (a + 1) % 3;
+            int bl = b0 + (b + 2) % 3;
+            int p0 = triangles[ar];
+            int pr = triangles[a];
+            int pl = triangles[al];
+            int p1 = triangles[bl];
+            if (inCircle(p0, pr, pl, p1) > 0) {
+                triangles[a] = p1;
+                triangles[b] = p0;
+                int hbl = halfedges[bl];
+                if (hbl == -1) {
+                    // The edge swapped was on the hull.
+                    int e = hullStart;
+                    do {
+                        if (hullTri[e] == bl) {
+                            hullTri[e] = a;
+                            break;
+                        }
+                        e = hullPrev[e];
+                    } while (e != hullStart);
+                }
+                int har = halfedges[ar];
+                if (har == -1) {
+                    // The hull edge from p0 moves.
+                    hullTri[p0] = b;
+                }
+                link(a, hbl);
+                link(b, har);
+                link(ar, bl);
+                if (i == edgeStack.length) {
+                    edgeStack = Arrays.copyOf(edgeStack, i * 2);
+                }
+                edgeStack[i++] = b0 + (b + 1) % 3;
+            } else {
+                if (i == 0) {
+                    break;
+                }
+                a = edgeStack[--i];
+            }
+        }
+        return ar;
+    }
+
+    /**
+     * @param a A half edge.
+     * @param b The opposite half edge or -1.
+     */
+    private void link(int a, int b) {
+        halfedges[a] = b;
+        if (b != -1) {
+            halfedges[b] = a;
+        }
+    }
+
+    /**
+     * @param i0 The first point.
+     * @param i1 The second point.
+     * @param i2 The third point.
+     * @param a The half edge opposite the first to second point edge.
+     * @param b The half edge opposite the second to third point edge.
+     * @param c The half edge opposite the third to first point edge.
+     * @return The index of the triangle added.
+     */
+    private int addTriangle(int i0, int i1, int i2, int a, int b, int c) {
+        int t = trianglesLen;
+        triangles[t] = i0;
+        triangles[t + 1] = i1;
+        triangles[t + 2] = i2;
+        link(t, a);
+        link(t + 1, b);
+        link(t + 2, c);
+        trianglesLen += 3;
+        return t;
+    }
+
+    /**
+     * @param i The point.
+     * @param hashSize The size of {@link #hullHash}.
+     * @return The index in {@link #hullHash} for the angle of the point about
+     * (cx, cy).
+     */
+    private int hashKey(int i, int hashSize) {
+        double dx = x[i].doubleValue() - cx;
+        double dy = y[i].doubleValue() - cy;
+        double p = dx / (Math.abs(dx) + Math.abs(dy));
+        double a = (dy > 0d ? 3d - p : 1d + p) / 4d;
+        return (int) Math.floor(a * hashSize) % hashSize;
+    }
+
+    /**
+     * @param i A point outside the hull.
+     * @param a The start of the hull edge.
+     * @param b The end of the hull edge.
+     * @return {@code true} if the hull edge from a to b is visible from the
+     * point.
+     */
+    private boolean isVisible(int i, int a, int b) {
+        return orient(a, b, i) < 0;
+    }
+
+    /**
+     * @return The squared distance between (ax, ay) and (bx, by).
+     */
+    private static BigRational dist(BigRational ax, BigRational ay,
+            BigRational bx, BigRational by) {
+        BigRational dx = ax.subtract(bx);
+        BigRational dy = ay.subtract(by);
+        return dx.multiply(dx).add(dy.multiply(dy));
+    }
+
+    /**
+     * @param a A point index.
+     * @param b A point index.
+     * @param c A point index that is not collinear with a and b.
+     * @return The squared radius of the circle through a, b and c.
+     */
+    private BigRational circumradius(int a, int b, int c) {
+        BigRational dx = x[b].subtract(x[a]);
+        BigRational dy = y[b].subtract(y[a]);
+        BigRational ex = x[c].subtract(x[a]);
+        BigRational ey = y[c].subtract(y[a]);
+        BigRational bl = dx.multiply(dx).add(dy.multiply(dy));
+        BigRational cl = ex.multiply(ex).add(ey.multiply(ey));
+        BigRational d = dx.multiply(ey).subtract(dy.multiply(ex)).multiply(2);
+        BigRational rx = ey.multiply(bl).subtract(dy.multiply(cl)).divide(d);
+        BigRational ry = dx.multiply(cl).subtract(ex.multiply(bl)).divide(d);
+        return rx.multiply(rx).add(ry.multiply(ry));
+    }
+
+    /**
+     * @param a A point index.
+     * @param b A point index.
+     * @param c A point index.
+     * @return 1 if a, b and c are counter-clockwise, -1 if they are clockwise,
+     * and 0 if they are collinear.
+     */
+    private int orient(int a, int b, int c) {
+        return x[b].subtract(x[a]).multiply(y[c].subtract(y[a]))
+                .subtract(y[b].subtract(y[a]).multiply(x[c].subtract(x[a])))
+                .signum();
+    }
+
+    /**
+     * @param a A point index.
+     * @param b A point index.
+     * @param c A point index.
+     * @param d A point index.
+     * @return 1 if point d is inside the circle through the counter-clockwise
+     * points a, b and c, -1 if it is outside, and 0 if it is on the circle.
+     */
+    private int inCircle(int a, int b, int c, int d) {
+        BigRational adx = x[a].subtract(x[d]);
+        BigRational ady = y[a].subtract(y[d]);
+        BigRational bdx = x[b].subtract(x[d]);
+        BigRational bdy = y[b].subtract(y[d]);
+        BigRational cdx = x[c].subtract(x[d]);
+        BigRational cdy = y[c].subtract(y[d]);
+        BigRational alift = adx.multiply(adx).add(ady.multiply(ady));
+        BigRational blift = bdx.multiply(bdx).add(bdy.multiply(bdy));
+        BigRational clift = cdx.multiply(cdx).add(cdy.multiply(cdy));
+        return alift.multiply(bdx.multiply(cdy).subtract(cdx.multiply(bdy)))
+                .add(blift.multiply(cdx.multiply(ady).subtract(
+                        adx.multiply(cdy))))
+                .add(clift.multiply(adx.multiply(bdy).subtract(
+                        bdx.multiply(ady)))).signum();
+    }
+
+    /**
+     * Sorts ids by dists.
+     *
+     * @param ids The ids to sort.
+     * @param dists The values to sort by indexed by id.
+     * @param left The first index to sort.
+     * @param right The last index to sort.
+     */
+    private static void quicksort(int[] ids, BigRational[] dists, int left,
+            int right) {
+        while (right - left > 20) {
+            int median = (left + right) >>> 1;
+            int i = left + 1;
+            int j = right;
+            swap(ids, median, i);
+            if (dists[ids[left]].compareTo(dists[ids[right]]) > 0) {
+                swap(ids, left, right);
+            }
+            if (dists[ids[i]].compareTo(dists[ids[right]]) > 0) {
+                swap(ids, i, right);
+            }
+            if (dists[ids[left]].compareTo(dists[ids[i]]) > 0) {
+                swap(ids, left, i);
+            }
+            int temp = ids[i];
+            BigRational tempDist = dists[temp];
+            while (true) {
+                do {
+                    i++;
+                } while (dists[ids[i]].compareTo(tempDist) < 0);
+                do {
+                    j--;
+                } while (dists[ids[j]].compareTo(tempDist) > 0);
+                if (j < i) {
+                    break;
+                }
+                swap(ids, i, j);
+            }
+            ids[left + 1] = ids[j];
+            ids[j] = temp;
+            // Recurse on the smaller part and loop on the larger.
+            if (right - i + 1 >= j - left) {
+                quicksort(ids, dists, left, j - 1);
+                left = i;
+            } else {
+                quicksort(ids, dists, i, right);
+                right = j - 1;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            int temp = ids[i];
+            BigRational tempDist = dists[temp];
+            int j = i - 1;
+            while (j >= left && dists[ids[j]].compareTo(tempDist) > 0) {
+                ids[j + 1] = ids[j--];
+            }
+            ids[j + 1] = temp;
+        }
+    }
+
+    /**
+     * @param a The array.
+     * @param i An index.
+     * @param j An index.
+     */
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
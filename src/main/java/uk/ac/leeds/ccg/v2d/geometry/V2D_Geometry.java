@@ -20,6 +20,8 @@ import java.io.Serializable;
 import java.math.RoundingMode;
 import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * For 2D Euclidean geometrical objects. The two dimensions have orthogonal axes
@@ -88,6 +90,22 @@ public abstract class V2D_Geometry implements Serializable {
         this.offset = offset;
     }
 
+    /**
+     * @return The execution of {@link #env}, or
+     * {@link V2D_Execution#SEQUENTIAL} if {@link #env} is {@code null}.
+     */
+    public V2D_Execution execution() {
+        return V2D_Environment.getExecution(env);
+    }
+
+    /**
+     * @return The metrics of {@link #env}, or {@link V2D_Metrics#NONE} if
+     * {@link #env} is {@code null}.
+     */
+    public V2D_Metrics metrics() {
+        return env == null ? V2D_Metrics.NONE : env.metrics;
+    }
+
     /**
      * @param pad The padding.
      * @return A padded description.
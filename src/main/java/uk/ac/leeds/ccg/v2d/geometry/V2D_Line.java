@@ -947,26 +947,11 @@ public class V2D_Line extends V2D_Geometry {
      * line, then so must b for them to be on the same side.
      */
     public boolean isOnSameSide(V2D_Point a, V2D_Point b, int oom, RoundingMode rm) {
-        if (intersects(a, oom, rm) && intersects(b, oom, rm)) {
-            return true;
-        }
         p = getP();
         q = getQ(oom, rm);
-        BigRational x1 = p.getX(oom, rm);
-        BigRational y1 = p.getY(oom, rm);
-        BigRational x2 = q.getX(oom, rm);
-        BigRational y2 = q.getY(oom, rm);
-        BigRational ax = a.getX(oom, rm);
-        BigRational ay = a.getY(oom, rm);
-        BigRational bx = b.getX(oom, rm);
-        BigRational by = b.getY(oom, rm);
-        BigRational y1sy2 = y1.subtract(y2);
-        BigRational x2sx1 = x2.subtract(x1);
-        BigRational p1 = (y1sy2.multiply(ax.subtract(x1))).add(
-                x2sx1.multiply(ay.subtract(y1)));
-        BigRational p2 = (y1sy2.multiply(bx.subtract(x1))).add(
-                ((x2sx1).multiply(by.subtract(y1))));
-        return (p1.multiply(p2)).compareTo(BigRational.ZERO) != -1;
+        int s1 = V2D_Orientation.getOrientation(p, q, a, oom, rm);
+        int s2 = V2D_Orientation.getOrientation(p, q, b, oom, rm);
+        return s1 * s2 != -1;
         //return ((y1-y2)*(ax-x1)+ (x2-x1)*(ay-y1))*((y1-y2)*(bx-x1)+(x2-x1)*(by-y1)) + epsilon >= 0D;
     }
 }
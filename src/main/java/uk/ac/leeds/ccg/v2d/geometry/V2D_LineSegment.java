@@ -20,10 +20,12 @@ import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleBigRational;
 import uk.ac.leeds.ccg.math.number.Math_BigRationalSqrt;
 import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * 2D representation of a finite length line (a line segment). The line begins
@@ -464,7 +466,25 @@ public class V2D_LineSegment extends V2D_FiniteGeometry {
      */
     public static boolean intersects(int oom, RoundingMode rm,
             V2D_LineSegment l, Collection<V2D_LineSegment> ls) {
-        return ls.parallelStream().anyMatch(x -> x.intersects(l, oom, rm));
+        return l.execution().stream(ls)
+                .anyMatch(x -> x.intersects(l, oom, rm));
+    }
+
+    /**
+     * Finds all the pairs of line segments that intersect using a plane sweep
+     * (see {@link V2D_LineSegmentSweep}). This is much faster than testing
+     * every pair for large numbers of line segments.
+     *
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @param ls The line segments.
+     * @return The intersecting pairs given by their index in {@code ls} and
+     * their intersection.
+     */
+    public static ArrayList<V2D_LineSegmentSweep.Intersection>
+            getIntersections(int oom, RoundingMode rm,
+                    List<V2D_LineSegment> ls) {
+        return V2D_LineSegmentSweep.getIntersections(ls, oom, rm);
     }
 
     /**
@@ -490,7 +510,8 @@ public class V2D_LineSegment extends V2D_FiniteGeometry {
      */
     public static boolean intersects(int oom, RoundingMode rm, V2D_Point p,
             Collection<V2D_LineSegment> ls) {
-        return ls.parallelStream().anyMatch(x -> x.intersects(p, oom, rm));
+        return p.execution().stream(ls)
+                .anyMatch(x -> x.intersects(p, oom, rm));
     }
 
     /**
@@ -603,7 +624,24 @@ public class V2D_LineSegment extends V2D_FiniteGeometry {
      */
     public V2D_FiniteGeometry getIntersect(V2D_LineSegment ls, int oom, 
             RoundingMode rm) {
-        if (!getAABB(oom, rm).intersects(ls.getAABB(oom, rm), oom)) {
+        long time = metrics().start();
+        return metrics().stop(V2D_LineSegment.class,
+                V2D_Metrics.GET_INTERSECT, time, getIntersect1(ls, oom, rm));
+    }
+
+    /**
+     * As {@link #getIntersect(V2D_LineSegment, int, RoundingMode)} but
+     * without recording the call in {@link #metrics()}.
+     *
+     * @param ls The line to get intersection with this.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The intersection between {@code this} and {@code l}.
+     */
+    private V2D_FiniteGeometry getIntersect1(V2D_LineSegment ls, int oom,
+            RoundingMode rm) {
+        if (!metrics().aabb(getAABB(oom, rm).intersects(
+                ls.getAABB(oom, rm), oom))) {
             return null;
         }
         BigRational x1 = getP().getX(oom, rm);
@@ -0,0 +1,554 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * For finding all the pairs of line segments in a collection that intersect
+ * using a plane sweep in the manner of Bentley and Ottmann (1979). Events for
+ * the end points of the line segments are processed from left to right and
+ * the line segments crossing the sweep line are kept in order from bottom to
+ * top. Only line segments that are adjacent on the sweep line are tested for
+ * intersection, and where they intersect they are divided at the point of
+ * intersection and new events are added. Collinear overlapping line segments
+ * are divided at the ends of the overlap. So every intersection ends up at a
+ * vertex shared by parts of the intersecting line segments. This runs in
+ * O((n+k) log n) time where n is the number of line segments and k is the
+ * number of intersections.
+ *
+ * The coordinates of the end points are got for the given Order of Magnitude
+ * and RoundingMode, and then everything is calculated exactly.
+ *
+ * The intersection of each pair found is calculated using
+ * {@link V2D_LineSegment#getIntersect(V2D_LineSegment, int, RoundingMode)}.
+ * Pairs for which this is {@code null} are not included.
+ * Line segments of zero length are ignored.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_LineSegmentSweep {
+
+    /**
+     * An intersection between two line segments.
+     */
+    public static class Intersection {
+
+        /**
+         * The index of the first line segment.
+         */
+        public final int i;
+
+        /**
+         * The index of the second line segment, which is greater than
+         * {@link #i}.
+         */
+        public final int j;
+
+        /**
+         * The intersection which is either a point or a line segment.
+         */
+        public final V2D_FiniteGeometry g;
+
+        /**
+         * @param i What {@link #i} is set to.
+         * @param j What {@link #j} is set to.
+         * @param g What {@link #g} is set to.
+         */
+        public Intersection(int i, int j, V2D_FiniteGeometry g) {
+            this.i = i;
+            this.j = j;
+            this.g = g;
+        }
+    }
+
+    /**
+     * The line segments.
+     */
+    private final List<V2D_LineSegment> ls;
+
+    /**
+     * The Order of Magnitude for the precision.
+     */
+    private final int oom;
+
+    /**
+     * The RoundingMode for any rounding.
+     */
+    private final RoundingMode rm;
+
+    /**
+     * The event queue.
+     */
+    private final PriorityQueue<Event> queue;
+
+    /**
+     * For ordering events.
+     */
+    private int nextId;
+
+    /**
+     * The end points and the points of intersection.
+     */
+    private final TreeMap<Vertex, Vertex> vertices;
+
+    /**
+     * The coordinates of the left and then the right end point of each line
+     * segment. Parts of line segments are ordered on the sweep line using
+     * these.
+     */
+    private final BigRational[] ends;
+
+    /**
+     * @param ls What {@link #ls} is set to.
+     * @param oom What {@link #oom} is set to.
+     * @param rm What {@link #rm} is set to.
+     */
+    private V2D_LineSegmentSweep(List<V2D_LineSegment> ls, int oom,
+            RoundingMode rm) {
+        this.ls = ls;
+        this.oom = oom;
+        this.rm = rm;
+        this.queue = new PriorityQueue<>(this::compareEvents);
+        this.ends = new BigRational[ls.size() * 4];
+        this.vertices = new TreeMap<>((a, b) -> compare(a.x, a.y, b.x, b.y));
+    }
+
+    /**
+     * @param ls The line segments.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return All the pairs of line segments in {@code ls} that intersect,
+     * with their intersection. The pairs are given by their index in
+     * {@code ls} and are ordered by the first and then the second index.
+     */
+    public static ArrayList<Intersection> getIntersections(
+            List<V2D_LineSegment> ls, int oom, RoundingMode rm) {
+        V2D_LineSegmentSweep s = new V2D_LineSegmentSweep(ls, oom, rm);
+        return s.sweep();
+    }
+
+    /**
+     * Fills the queue, processes it and then collects the intersections at
+     * each vertex.
+     *
+     * @return The intersections.
+     */
+    private ArrayList<Intersection> sweep() {
+        for (int i = 0; i < ls.size(); i++) {
+            V2D_LineSegment l = ls.get(i);
+            V2D_Point p = l.getP();
+            V2D_Point q = l.getQ(oom, rm);
+            BigRational px = p.getX(oom, rm);
+            BigRational py = p.getY(oom, rm);
+            BigRational qx = q.getX(oom, rm);
+            BigRational qy = q.getY(oom, rm);
+            int c = compare(px, py, qx, qy);
+            if (c == 0) {
+                continue;
+            }
+            Event e1 = new Event(getVertex(px, py), nextId++, i);
+            Event e2 = new Event(getVertex(qx, qy), nextId++, i);
+            e1.other = e2;
+            e2.other = e1;
+            Event le = c > 0 ? e2 : e1;
+            le.left = true;
+            ends[4 * i] = le.x;
+            ends[4 * i + 1] = le.y;
+            ends[4 * i + 2] = le.other.x;
+            ends[4 * i + 3] = le.other.y;
+            queue.add(e1);
+            queue.add(e2);
+        }
+        TreeSet<Event> sweepLine = new TreeSet<>(this::compareSegments);
+        while (!queue.isEmpty()) {
+            Event e = queue.poll();
+            if (e.left) {
+                sweepLine.add(e);
+                Event prev = sweepLine.lower(e);
+                Event next = sweepLine.higher(e);
+                divideThrough(sweepLine, prev, next, e.v);
+                if (next != null) {
+                    possibleIntersection(e, next);
+                }
+                if (prev != null) {
+                    possibleIntersection(prev, e);
+                }
+            } else {
+                Event le = e.other;
+                Event prev = sweepLine.lower(le);
+                Event next = sweepLine.higher(le);
+                divideThrough(sweepLine, prev, next, e.v);
+                if (!sweepLine.remove(le)) {
+                    throw new RuntimeException(
+                            "Line segment not in sweep line.");
+                }
+                if (prev != null && next != null) {
+                    possibleIntersection(prev, next);
+                }
+            }
+        }
+        ArrayList<Intersection> r = new ArrayList<>();
+        HashSet<Long> pairs = new HashSet<>();
+        for (Vertex v : vertices.values()) {
+            addIntersections(v, pairs, r);
+        }
+        r.sort((a, b) -> a.i != b.i ? Integer.compare(a.i, b.i)
+                : Integer.compare(a.j, b.j));
+        return r;
+    }
+
+    /**
+     * Adds the intersections of the line segments with a part ending at a
+     * vertex.
+     *
+     * @param v The vertex.
+     * @param pairs The pairs already found.
+     * @param r The intersections to add to.
+     */
+    private void addIntersections(Vertex v, HashSet<Long> pairs,
+            ArrayList<Intersection> r) {
+        if (v.n < 2) {
+            return;
+        }
+        int[] at = v.segs;
+        int nAt = v.n;
+        Arrays.sort(at, 0, nAt);
+        for (int a = 0; a < nAt; a++) {
+            int i = at[a];
+            if (a > 0 && i == at[a - 1]) {
+                continue;
+            }
+            for (int b = a + 1; b < nAt; b++) {
+                int j = at[b];
+                if (j == at[b - 1]) {
+                    continue;
+                }
+                long pair = ((long) i << 32) | j;
+                if (pairs.add(pair)) {
+                    V2D_FiniteGeometry g = ls.get(i).getIntersect(ls.get(j),
+                            oom, rm);
+                    if (g == null) {
+                        // The line segments are not found to intersect at
+                        // the precision so the pair is checked again at any
+                        // other vertex they share.
+                        pairs.remove(pair);
+                    } else {
+                        r.add(new Intersection(i, j, g));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A point at which parts of line segments end.
+     */
+    private static class Vertex {
+
+        final BigRational x;
+
+        final BigRational y;
+
+        /**
+         * The indexes of the line segments with a part ending here. Indexes
+         * may be repeated.
+         */
+        int[] segs;
+
+        /**
+         * The number of indexes in {@link #segs}.
+         */
+        int n;
+
+        Vertex(BigRational x, BigRational y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        void add(int seg) {
+            if (segs == null) {
+                segs = new int[2];
+            } else if (n == segs.length) {
+                segs = Arrays.copyOf(segs, n * 2);
+            }
+            segs[n++] = seg;
+        }
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The vertex at (x, y) which is created if there is not one.
+     */
+    private Vertex getVertex(BigRational x, BigRational y) {
+        Vertex v = new Vertex(x, y);
+        Vertex c = vertices.putIfAbsent(v, v);
+        return c == null ? v : c;
+    }
+
+    /**
+     * An end point of a line segment or a part of one.
+     */
+    private static class Event {
+
+        /**
+         * For ordering otherwise equal events.
+         */
+        final int id;
+
+        final BigRational x;
+
+        final BigRational y;
+
+        /**
+         * The vertex at (x, y).
+         */
+        final Vertex v;
+
+        /**
+         * The index of the line segment.
+         */
+        final int seg;
+
+        /**
+         * If this is the left end point.
+         */
+        boolean left;
+
+        /**
+         * The event at the other end.
+         */
+        Event other;
+
+        Event(Vertex v, int id, int seg) {
+            this.id = id;
+            this.x = v.x;
+            this.y = v.y;
+            this.v = v;
+            this.seg = seg;
+            v.add(seg);
+        }
+    }
+
+    /**
+     * @return The order of (x0, y0) and (x1, y1) by x then y.
+     */
+    private static int compare(BigRational x0, BigRational y0,
+            BigRational x1, BigRational y1) {
+        int c = x0.compareTo(x1);
+        return c != 0 ? c : y0.compareTo(y1);
+    }
+
+    /**
+     * Orders events from left to right.
+     *
+     * @param e1 An event.
+     * @param e2 Another event.
+     * @return -1 if e1 is processed before e2 and 1 otherwise.
+     */
+    private int compareEvents(Event e1, Event e2) {
+        if (e1.v != e2.v) {
+            return compare(e1.x, e1.y, e2.x, e2.y);
+        }
+        // Same point: right end points are processed first.
+        if (e1.left != e2.left) {
+            return e1.left ? 1 : -1;
+        }
+        int s = e1.seg;
+        int t = e2.seg;
+        int o = e1.left
+                ? side(s, ends[4 * t + 2], ends[4 * t + 3])
+                : side(s, ends[4 * t], ends[4 * t + 1]);
+        if (o != 0) {
+            return -o;
+        }
+        return Integer.compare(e1.id, e2.id);
+    }
+
+    /**
+     * Orders line segments on the sweep line from bottom to top.
+     *
+     * @param le1 The left event of a line segment.
+     * @param le2 The left event of another line segment.
+     * @return -1 if le1 is below le2, 0 if they are the same and 1 otherwise.
+     */
+    private int compareSegments(Event le1, Event le2) {
+        if (le1 == le2) {
+            return 0;
+        }
+        int s = le1.seg;
+        int t = le2.seg;
+        int o2 = side(s, ends[4 * t + 2], ends[4 * t + 3]);
+        if (side(s, ends[4 * t], ends[4 * t + 1]) != 0 || o2 != 0) {
+            // Not collinear.
+            if (le1.v == le2.v) {
+                if (o2 != 0) {
+                    return -o2;
+                }
+                return side(t, ends[4 * s + 2], ends[4 * s + 3]);
+            }
+            if (le1.x.compareTo(le2.x) == 0) {
+                return le1.y.compareTo(le2.y);
+            }
+            if (compareEvents(le1, le2) == 1) {
+                // If le1 starts on le2 use the right end of le1.
+                int o = side(t, le1.x, le1.y);
+                if (o == 0) {
+                    o = side(t, ends[4 * s + 2], ends[4 * s + 3]);
+                }
+                return o > 0 ? 1 : -1;
+            }
+            int o = side(s, le2.x, le2.y);
+            if (o == 0) {
+                o = o2;
+            }
+            return o > 0 ? -1 : 1;
+        }
+        // Collinear: at the same point these are ordered by id.
+        return compareEvents(le1, le2);
+    }
+
+    /**
+     * @param seg The index of a line segment.
+     * @param px The x coordinate of a point.
+     * @param py The y coordinate of a point.
+     * @return 1 if the point is above the line through the line segment, 0
+     * if it is on it and -1 if it is below it.
+     */
+    private int side(int seg, BigRational px, BigRational py) {
+        int i = 4 * seg;
+        return V2D_Overlay.getOrientation(ends[i], ends[i + 1], ends[i + 2],
+                ends[i + 3], px, py);
+    }
+
+    /**
+     * Divides the parts of line segments of {@code le1} and {@code le2} where
+     * the line segments intersect if this is within both parts.
+     *
+     * @param le1 The left event of a part of a line segment.
+     * @param le2 The left event of a part of another line segment.
+     */
+    private void possibleIntersection(Event le1, Event le2) {
+        int s = 4 * le1.seg;
+        int t = 4 * le2.seg;
+        BigRational[] inter = V2D_Overlay.getIntersection(ends[s],
+                ends[s + 1], ends[s + 2], ends[s + 3], ends[t], ends[t + 1],
+                ends[t + 2], ends[t + 3]);
+        if (inter == null) {
+            return;
+        }
+        if (inter.length == 2) {
+            if (isWithin(le1, inter[0], inter[1])
+                    && isWithin(le2, inter[0], inter[1])) {
+                Vertex v = getVertex(inter[0], inter[1]);
+                divide(le1, v);
+                divide(le2, v);
+            }
+            return;
+        }
+        // Collinear overlap: divide at the far end first so that le1 and le2
+        // remain the left parts.
+        Vertex v0 = getVertex(inter[0], inter[1]);
+        Vertex v1 = getVertex(inter[2], inter[3]);
+        if (compare(v0.x, v0.y, v1.x, v1.y) > 0) {
+            Vertex v = v0;
+            v0 = v1;
+            v1 = v;
+        }
+        for (Event le : new Event[]{le1, le2}) {
+            divide(le, v1);
+            divide(le, v0);
+        }
+    }
+
+    /**
+     * Divides the parts of line segments on the sweep line that pass through
+     * {@code v}. These are next to each other on the sweep line, so the
+     * search goes down from {@code below} and up from {@code above} until a
+     * part that does not pass through {@code v} is found.
+     *
+     * @param sweepLine The sweep line.
+     * @param below The left event of the part below an event at {@code v}.
+     * @param above The left event of the part above an event at {@code v}.
+     * @param v The vertex.
+     */
+    private void divideThrough(TreeSet<Event> sweepLine, Event below,
+            Event above, Vertex v) {
+        for (Event o = below; o != null && passesThrough(o, v);
+                o = sweepLine.lower(o)) {
+            divide(o, v);
+        }
+        for (Event o = above; o != null && passesThrough(o, v);
+                o = sweepLine.higher(o)) {
+            divide(o, v);
+        }
+    }
+
+    /**
+     * @param le The left event of a part of a line segment.
+     * @param v A vertex.
+     * @return {@code true} if {@code v} is strictly within the part.
+     */
+    private boolean passesThrough(Event le, Vertex v) {
+        return compare(le.x, le.y, v.x, v.y) < 0
+                && compare(v.x, v.y, le.other.x, le.other.y) < 0
+                && side(le.seg, v.x, v.y) == 0;
+    }
+
+    /**
+     * @param le The left event of a part of a line segment.
+     * @param x The x coordinate of a point on the line segment.
+     * @param y The y coordinate of a point on the line segment.
+     * @return {@code true} if the point is within the part.
+     */
+    private static boolean isWithin(Event le, BigRational x, BigRational y) {
+        return compare(le.x, le.y, x, y) <= 0
+                && compare(x, y, le.other.x, le.other.y) <= 0;
+    }
+
+    /**
+     * Divides the part of a line segment of {@code le} at {@code v} if this
+     * is strictly within it, adding new events to the queue.
+     *
+     * @param le The left event of a part of a line segment.
+     * @param v The vertex to divide at.
+     */
+    private void divide(Event le, Vertex v) {
+        if (compare(le.x, le.y, v.x, v.y) >= 0
+                || compare(v.x, v.y, le.other.x, le.other.y) >= 0) {
+            return;
+        }
+        Event r = new Event(v, nextId++, le.seg);
+        Event l = new Event(v, nextId++, le.seg);
+        l.left = true;
+        r.other = le;
+        l.other = le.other;
+        le.other.other = l;
+        le.other = r;
+        queue.add(l);
+        queue.add(r);
+    }
+}
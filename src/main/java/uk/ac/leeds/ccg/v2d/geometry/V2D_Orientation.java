@@ -0,0 +1,166 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.RoundingMode;
+
+/**
+ * For calculating the orientation of three points (which side of a line
+ * through two points a third point is on). The orientation is the sign of the
+ * determinant {@code (bx-ax)(cy-ay) - (by-ay)(cx-ax)}. This is first evaluated
+ * using double precision arithmetic and a forward error bound in the manner of
+ * Shewchuk's filtered predicates. Only if the magnitude of the double result
+ * is within the error bound is the determinant evaluated exactly using
+ * BigRational arithmetic, so the result is always exact.
+ *
+ * The coordinates converted to double are themselves rounded, so the bound
+ * used is more conservative than Shewchuk's bound for double inputs. The
+ * conversion {@link BigRational#toDouble()} has a relative error of less than
+ * {@code 2^-50}, each difference and product adds a relative error of at most
+ * {@code 2^-53} and the error in the result is bounded by
+ * {@code 2.5 * 2^-50 * ((|bx|+|ax|)(|cy|+|ay|) + (|by|+|ay|)(|cx|+|ax|))}
+ * ignoring higher order terms. {@link #ERR} rounds this up to {@code 2^-48}.
+ * The conversions of the coordinates of points are cached with the
+ * coordinates, so repeated tests with the same points do not repeat them.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Orientation {
+
+    /**
+     * The relative error bound for the double evaluation.
+     */
+    protected static final double ERR = 0x1p-48;
+
+    /**
+     * Below this the double evaluation may suffer from underflow and so the
+     * exact evaluation is used.
+     */
+    protected static final double TINY = 0x1p-900;
+
+    /**
+     * Create a new instance.
+     */
+    public V2D_Orientation() {
+    }
+
+    /**
+     * @param a Point.
+     * @param b Point.
+     * @param c Point.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return 1 if {@code a}, {@code b}, {@code c} make a counter-clockwise
+     * turn, -1 if they make a clockwise turn and 0 if they are collinear.
+     * Whether the exact evaluation is needed is recorded in the metrics of
+     * the environment of {@code a}.
+     */
+    public static int getOrientation(V2D_Point a, V2D_Point b, V2D_Point c,
+            int oom, RoundingMode rm) {
+        int s = getOrientationFiltered(a.getXDouble(oom, rm),
+                a.getYDouble(oom, rm), b.getXDouble(oom, rm),
+                b.getYDouble(oom, rm), c.getXDouble(oom, rm),
+                c.getYDouble(oom, rm));
+        a.metrics().orientation(s == 0);
+        if (s == 0) {
+            return getOrientationExact(a.getX(oom, rm), a.getY(oom, rm),
+                    b.getX(oom, rm), b.getY(oom, rm), c.getX(oom, rm),
+                    c.getY(oom, rm));
+        }
+        return s;
+    }
+
+    /**
+     * @param ax The x coordinate of a.
+     * @param ay The y coordinate of a.
+     * @param bx The x coordinate of b.
+     * @param by The y coordinate of b.
+     * @param cx The x coordinate of c.
+     * @param cy The y coordinate of c.
+     * @return 1 if {@code a}, {@code b}, {@code c} make a counter-clockwise
+     * turn, -1 if they make a clockwise turn and 0 if they are collinear.
+     */
+    public static int getOrientation(BigRational ax, BigRational ay,
+            BigRational bx, BigRational by, BigRational cx, BigRational cy) {
+        int s = getOrientationFiltered(ax, ay, bx, by, cx, cy);
+        if (s == 0) {
+            return getOrientationExact(ax, ay, bx, by, cx, cy);
+        }
+        return s;
+    }
+
+    /**
+     * @param ax The x coordinate of a.
+     * @param ay The y coordinate of a.
+     * @param bx The x coordinate of b.
+     * @param by The y coordinate of b.
+     * @param cx The x coordinate of c.
+     * @param cy The y coordinate of c.
+     * @return The orientation calculated using double arithmetic if the error
+     * bound shows that it is correct, otherwise 0 in which case the exact
+     * evaluation is needed.
+     */
+    public static int getOrientationFiltered(BigRational ax, BigRational ay,
+            BigRational bx, BigRational by, BigRational cx, BigRational cy) {
+        return getOrientationFiltered(ax.toDouble(), ay.toDouble(),
+                bx.toDouble(), by.toDouble(), cx.toDouble(), cy.toDouble());
+    }
+
+    /**
+     * @param axd The x coordinate of a converted using
+     * {@link BigRational#toDouble()}.
+     * @param ayd The y coordinate of a converted likewise.
+     * @param bxd The x coordinate of b converted likewise.
+     * @param byd The y coordinate of b converted likewise.
+     * @param cxd The x coordinate of c converted likewise.
+     * @param cyd The y coordinate of c converted likewise.
+     * @return The orientation calculated using double arithmetic if the error
+     * bound shows that it is correct, otherwise 0 in which case the exact
+     * evaluation is needed.
+     */
+    public static int getOrientationFiltered(double axd, double ayd,
+            double bxd, double byd, double cxd, double cyd) {
+        double l = (bxd - axd) * (cyd - ayd);
+        double r = (byd - ayd) * (cxd - axd);
+        double det = l - r;
+        double axa = Math.abs(axd);
+        double aya = Math.abs(ayd);
+        double sum = (Math.abs(bxd) + axa) * (Math.abs(cyd) + aya)
+                + (Math.abs(byd) + aya) * (Math.abs(cxd) + axa);
+        if (sum >= TINY && sum < Double.POSITIVE_INFINITY
+                && Math.abs(det) > sum * ERR) {
+            return det > 0d ? 1 : -1;
+        }
+        return 0;
+    }
+
+    /**
+     * @param ax The x coordinate of a.
+     * @param ay The y coordinate of a.
+     * @param bx The x coordinate of b.
+     * @param by The y coordinate of b.
+     * @param cx The x coordinate of c.
+     * @param cy The y coordinate of c.
+     * @return The orientation calculated using BigRational arithmetic.
+     */
+    public static int getOrientationExact(BigRational ax, BigRational ay,
+            BigRational bx, BigRational by, BigRational cx, BigRational cy) {
+        return (bx.subtract(ax).multiply(cy.subtract(ay))).compareTo(
+                by.subtract(ay).multiply(cx.subtract(ax)));
+    }
+}
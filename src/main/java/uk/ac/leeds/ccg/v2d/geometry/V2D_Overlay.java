@@ -0,0 +1,1335 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+
+/**
+ * For computing the intersection, union, difference and symmetric difference
+ * (xor) of polygons. This is an implementation of the plane sweep algorithm
+ * of Martinez, Rueda and Feito (2009) "A new algorithm for computing Boolean
+ * operations on polygons". Polygons may have internal holes. Edges are
+ * subdivided where they intersect and each subdivided edge is then labelled
+ * as in or out of the result as the sweep line passes over it. The labelled
+ * edges are then connected into rings. This runs in O((n+k) log n) time where
+ * n is the number of edges and k is the number of edge intersections.
+ *
+ * All calculations are done using BigRational arithmetic. Orientation tests
+ * use {@link V2D_Orientation} and intersection points are calculated
+ * exactly, so unlike {@link uk.ac.leeds.ccg.v2d.geometry.d.V2D_Overlay_d}
+ * there is no tolerance and results do not have slivers or gaps where edges
+ * of the inputs coincide. The only rounding is in getting the coordinates of
+ * input polygon points for the given Order of Magnitude; the methods taking
+ * rings of BigRational coordinates do no rounding at all.
+ *
+ * Rings are interpreted with the even-odd rule, so internal holes (and any
+ * polygons in these) are handled simply as further rings. Results are
+ * returned as polygons with their external edge points in clockwise order
+ * and with any internal holes as {@link V2D_Polygon#internalHoles}.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Overlay {
+
+    /**
+     * The Boolean operations.
+     */
+    public enum Operation {
+        /**
+         * For the area in both.
+         */
+        INTERSECTION,
+        /**
+         * For the area in either.
+         */
+        UNION,
+        /**
+         * For the area in the subject and not in the clipping.
+         */
+        DIFFERENCE,
+        /**
+         * For the area in one but not the other (symmetric difference).
+         */
+        XOR
+    }
+
+    /**
+     * Create a new instance.
+     */
+    public V2D_Overlay() {
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of both {@code a} and {@code b}.
+     */
+    public static ArrayList<V2D_Polygon> getIntersection(
+            V2D_PolygonNoInternalHoles a, V2D_PolygonNoInternalHoles b,
+            int oom, RoundingMode rm) {
+        return apply(List.of(a), List.of(b), Operation.INTERSECTION, oom, rm);
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of either {@code a} or
+     * {@code b}.
+     */
+    public static ArrayList<V2D_Polygon> getUnion(
+            V2D_PolygonNoInternalHoles a, V2D_PolygonNoInternalHoles b,
+            int oom, RoundingMode rm) {
+        return apply(List.of(a), List.of(b), Operation.UNION, oom, rm);
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of {@code a} not in {@code b}.
+     */
+    public static ArrayList<V2D_Polygon> getDifference(
+            V2D_PolygonNoInternalHoles a, V2D_PolygonNoInternalHoles b,
+            int oom, RoundingMode rm) {
+        return apply(List.of(a), List.of(b), Operation.DIFFERENCE, oom, rm);
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of {@code a} or {@code b} but
+     * not both.
+     */
+    public static ArrayList<V2D_Polygon> getXor(
+            V2D_PolygonNoInternalHoles a, V2D_PolygonNoInternalHoles b,
+            int oom, RoundingMode rm) {
+        return apply(List.of(a), List.of(b), Operation.XOR, oom, rm);
+    }
+
+    /**
+     * Dissolves polygons into the polygons covering their union.
+     *
+     * @param ps The polygons. These may overlap.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of any of {@code ps}.
+     */
+    public static ArrayList<V2D_Polygon> getUnion(
+            Collection<? extends V2D_PolygonNoInternalHoles> ps, int oom,
+            RoundingMode rm) {
+        ArrayList<V2D_PolygonNoInternalHoles> l = new ArrayList<>(ps);
+        if (l.size() < 2) {
+            return apply(l, List.of(), Operation.UNION, oom, rm);
+        }
+        // Union halves so that each edge takes part in O(log n) sweeps.
+        int m = l.size() / 2;
+        return apply(getUnion(l.subList(0, m), oom, rm),
+                getUnion(l.subList(m, l.size()), oom, rm),
+                Operation.UNION, oom, rm);
+    }
+
+    /**
+     * Applies a Boolean operation. The polygons in {@code subject} should not
+     * overlap each other and nor should those in {@code clipping}.
+     *
+     * @param subject The subject polygons.
+     * @param clipping The clipping polygons.
+     * @param op The operation.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons resulting from applying {@code op}.
+     */
+    public static ArrayList<V2D_Polygon> apply(
+            Collection<? extends V2D_PolygonNoInternalHoles> subject,
+            Collection<? extends V2D_PolygonNoInternalHoles> clipping,
+            Operation op, int oom, RoundingMode rm) {
+        V2D_Environment env = null;
+        for (var p : subject) {
+            env = p.env;
+        }
+        for (var p : clipping) {
+            env = p.env;
+        }
+        if (env == null) {
+            return new ArrayList<>();
+        }
+        ArrayList<BigRational[]> s = new ArrayList<>();
+        for (var p : subject) {
+            addRings(p, s, oom, rm);
+        }
+        ArrayList<BigRational[]> c = new ArrayList<>();
+        for (var p : clipping) {
+            addRings(p, c, oom, rm);
+        }
+        return toPolygons(env, apply(s, c, op), oom, rm);
+    }
+
+    /**
+     * Applies a Boolean operation to rings given as arrays of interleaved x
+     * and y coordinates. Rings are not closed, i.e. the first point is not
+     * repeated at the end.
+     *
+     * @param subject The subject rings.
+     * @param clipping The clipping rings.
+     * @param op The operation.
+     * @return The resulting rings. Exterior rings list the indexes of their
+     * holes in {@link Ring#holes}.
+     */
+    public static ArrayList<Ring> apply(List<BigRational[]> subject,
+            List<BigRational[]> clipping, Operation op) {
+        Sweep sweep = new Sweep(op);
+        BigRational[] sb = sweep.fill(subject, true);
+        BigRational[] cb = sweep.fill(clipping, false);
+        if (sb == null || cb == null
+                || sb[0].compareTo(cb[2]) == 1 || cb[0].compareTo(sb[2]) == 1
+                || sb[1].compareTo(cb[3]) == 1
+                || cb[1].compareTo(sb[3]) == 1) {
+            // An input is empty or the inputs are disjoint.
+            return switch (op) {
+                case INTERSECTION ->
+                    new ArrayList<>();
+                case DIFFERENCE ->
+                    getRings(subject);
+                default -> {
+                    ArrayList<BigRational[]> all = new ArrayList<>(subject);
+                    all.addAll(clipping);
+                    yield getRings(all);
+                }
+            };
+        }
+        ArrayList<SweepEvent> sorted = sweep.subdivide(
+                BigRational.min(sb[2], cb[2]), sb[2]);
+        return sweep.connect(sorted);
+    }
+
+    /**
+     * @param rings Rings that do not overlap.
+     * @return The rings with holes identified.
+     */
+    private static ArrayList<Ring> getRings(List<BigRational[]> rings) {
+        // The union with nothing keeps every edge.
+        Sweep sweep = new Sweep(Operation.UNION);
+        sweep.fill(rings, true);
+        return sweep.connect(sweep.subdivide(null, null));
+    }
+
+    /**
+     * A ring of the result.
+     */
+    public static class Ring {
+
+        /**
+         * The interleaved x and y coordinates of the points of the ring.
+         */
+        public BigRational[] xy;
+
+        /**
+         * The index of the ring this is a hole of, or -1 if this is not a
+         * hole.
+         */
+        public int holeOf;
+
+        /**
+         * The indexes of the rings that are holes of this.
+         */
+        public final ArrayList<Integer> holes;
+
+        /**
+         * @param xy What {@link #xy} is set to.
+         * @param holeOf What {@link #holeOf} is set to.
+         */
+        public Ring(BigRational[] xy, int holeOf) {
+            this.xy = xy;
+            this.holeOf = holeOf;
+            this.holes = new ArrayList<>();
+        }
+
+        /**
+         * @return {@code true} if this is an exterior ring.
+         */
+        public boolean isExterior() {
+            return holeOf < 0;
+        }
+    }
+
+    /**
+     * Adds the rings of {@code p} to {@code rings}.
+     *
+     * @param p The polygon.
+     * @param rings The rings to add to.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     */
+    static void addRings(V2D_PolygonNoInternalHoles p,
+            List<BigRational[]> rings, int oom, RoundingMode rm) {
+        rings.add(getRing(p, oom, rm));
+        if (p instanceof V2D_Polygon pih && pih.internalHoles != null) {
+            for (var h : pih.internalHoles.values()) {
+                addRings(h, rings, oom, rm);
+            }
+        }
+    }
+
+    /**
+     * @param p The polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The external edge points of {@code p} as interleaved x and y
+     * coordinates.
+     */
+    private static BigRational[] getRing(V2D_PolygonNoInternalHoles p,
+            int oom, RoundingMode rm) {
+        HashMap<Integer, V2D_Point> pts = p.getPoints(oom, rm);
+        BigRational[] r = new BigRational[pts.size() * 2];
+        int i = 0;
+        for (int k = 0; k < pts.size(); k++) {
+            V2D_Point pt = pts.get(k);
+            r[i++] = pt.getX(oom, rm);
+            r[i++] = pt.getY(oom, rm);
+        }
+        return r;
+    }
+
+    /**
+     * @param env The environment.
+     * @param rings The rings.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons.
+     */
+    private static ArrayList<V2D_Polygon> toPolygons(V2D_Environment env,
+            ArrayList<Ring> rings, int oom, RoundingMode rm) {
+        ArrayList<V2D_Polygon> r = new ArrayList<>();
+        for (Ring ring : rings) {
+            if (ring.isExterior()) {
+                V2D_Point[] pts = getPoints(env, ring.xy);
+                if (pts.length < 3) {
+                    continue;
+                }
+                HashMap<Integer, V2D_PolygonNoInternalHoles> holes
+                        = new HashMap<>();
+                for (int h : ring.holes) {
+                    V2D_Point[] hpts = getPoints(env, rings.get(h).xy);
+                    if (hpts.length > 2) {
+                        holes.put(holes.size(),
+                                new V2D_PolygonNoInternalHoles(hpts, oom, rm));
+                    }
+                }
+                r.add(new V2D_Polygon(pts, holes, oom, rm));
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param env The environment.
+     * @param xy The interleaved coordinates of a ring.
+     * @return The points of the ring in clockwise order with points that are
+     * collinear with their neighbours removed.
+     */
+    private static V2D_Point[] getPoints(V2D_Environment env,
+            BigRational[] xy) {
+        int n = xy.length / 2;
+        ArrayList<BigRational[]> l = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            l.add(new BigRational[]{xy[2 * i], xy[2 * i + 1]});
+        }
+        boolean removed = true;
+        while (removed && l.size() > 2) {
+            removed = false;
+            for (int i = 0; i < l.size() && l.size() > 2; i++) {
+                BigRational[] a = l.get((i + l.size() - 1) % l.size());
+                BigRational[] b = l.get(i);
+                BigRational[] c = l.get((i + 1) % l.size());
+                if (getOrientation(a[0], a[1], c[0], c[1], b[0], b[1]) == 0
+                        && isInBox(a[0], a[1], c[0], c[1], b[0], b[1])) {
+                    l.remove(i);
+                    i--;
+                    removed = true;
+                }
+            }
+        }
+        BigRational area = BigRational.ZERO;
+        for (int i = 0; i < l.size(); i++) {
+            BigRational[] a = l.get(i);
+            BigRational[] b = l.get((i + 1) % l.size());
+            area = area.add(a[0].multiply(b[1]).subtract(b[0].multiply(a[1])));
+        }
+        boolean ccw = area.compareTo(BigRational.ZERO) == 1;
+        V2D_Point[] r = new V2D_Point[l.size()];
+        for (int i = 0; i < r.length; i++) {
+            // Reverse counter-clockwise rings.
+            BigRational[] p = l.get(ccw ? r.length - 1 - i : i);
+            r[i] = new V2D_Point(env, p[0], p[1]);
+        }
+        return r;
+    }
+
+    /**
+     * @param p0x The x coordinate of p0.
+     * @param p0y The y coordinate of p0.
+     * @param p1x The x coordinate of p1.
+     * @param p1y The y coordinate of p1.
+     * @param p2x The x coordinate of p2.
+     * @param p2y The y coordinate of p2.
+     * @return 1 if p0 p1 p2 are in counter-clockwise order, -1 if they are in
+     * clockwise order and 0 if they are collinear.
+     */
+    static int getOrientation(BigRational p0x, BigRational p0y,
+            BigRational p1x, BigRational p1y, BigRational p2x,
+            BigRational p2y) {
+        return V2D_Orientation.getOrientation(p0x, p0y, p1x, p1y, p2x, p2y);
+    }
+
+    /**
+     * @param p0x The x coordinate of p0.
+     * @param p0y The y coordinate of p0.
+     * @param p1x The x coordinate of p1.
+     * @param p1y The y coordinate of p1.
+     * @param p2x The x coordinate of p2.
+     * @param p2y The y coordinate of p2.
+     * @return Twice the signed area of the triangle p0 p1 p2 which is
+     * positive if these are in counter-clockwise order.
+     */
+    static BigRational signedArea(BigRational p0x, BigRational p0y,
+            BigRational p1x, BigRational p1y, BigRational p2x,
+            BigRational p2y) {
+        return p0x.subtract(p2x).multiply(p1y.subtract(p2y)).subtract(
+                p1x.subtract(p2x).multiply(p0y.subtract(p2y)));
+    }
+
+    /**
+     * @return {@code true} if (px, py) is in the box with corners
+     * (x0, y0) and (x1, y1).
+     */
+    static boolean isInBox(BigRational x0, BigRational y0, BigRational x1,
+            BigRational y1, BigRational px, BigRational py) {
+        return BigRational.min(x0, x1).compareTo(px) != 1
+                && px.compareTo(BigRational.max(x0, x1)) != 1
+                && BigRational.min(y0, y1).compareTo(py) != 1
+                && py.compareTo(BigRational.max(y0, y1)) != 1;
+    }
+
+    /**
+     * Calculates the intersection of two line segments exactly.
+     *
+     * @return {@code null} if the line segments do not intersect, a point
+     * {x, y} if they intersect at a point, and two points
+     * {x0, y0, x1, y1} if they overlap.
+     */
+    static BigRational[] getIntersection(BigRational a1x, BigRational a1y,
+            BigRational a2x, BigRational a2y, BigRational b1x,
+            BigRational b1y, BigRational b2x, BigRational b2y) {
+        return getIntersection(a1x, a1y, a2x, a2y, b1x, b1y, b2x, b2y,
+                new BigRational[]{a1x, a1y, a2x, a2y},
+                new BigRational[]{b1x, b1y, b2x, b2y});
+    }
+
+    /**
+     * As {@link #getIntersection(BigRational, BigRational, BigRational,
+     * BigRational, BigRational, BigRational, BigRational, BigRational)} for
+     * line segments a and b that are parts of the line segments {@code la}
+     * and {@code lb}. Orientations are tested against and crossing points
+     * are calculated from {@code la} and {@code lb}, so the coordinates of a
+     * crossing point are no bigger than those calculated from the input
+     * edges however many times these have been divided.
+     *
+     * @param la The line segment {x0, y0, x1, y1} that a is part of.
+     * @param lb The line segment {x0, y0, x1, y1} that b is part of.
+     * @return {@code null} if the line segments do not intersect, a point
+     * {x, y} if they intersect at a point, and two points
+     * {x0, y0, x1, y1} if they overlap.
+     */
+    static BigRational[] getIntersection(BigRational a1x, BigRational a1y,
+            BigRational a2x, BigRational a2y, BigRational b1x,
+            BigRational b1y, BigRational b2x, BigRational b2y,
+            BigRational[] la, BigRational[] lb) {
+        int d1 = getOrientation(la[0], la[1], la[2], la[3], b1x, b1y);
+        int d2 = getOrientation(la[0], la[1], la[2], la[3], b2x, b2y);
+        if (d1 == 0 && d2 == 0) {
+            return overlap(a1x, a1y, a2x, a2y, b1x, b1y, b2x, b2y);
+        }
+        if (d1 == 0 && isInBox(a1x, a1y, a2x, a2y, b1x, b1y)) {
+            return new BigRational[]{b1x, b1y};
+        }
+        if (d2 == 0 && isInBox(a1x, a1y, a2x, a2y, b2x, b2y)) {
+            return new BigRational[]{b2x, b2y};
+        }
+        int d3 = getOrientation(lb[0], lb[1], lb[2], lb[3], a1x, a1y);
+        int d4 = getOrientation(lb[0], lb[1], lb[2], lb[3], a2x, a2y);
+        if (d3 == 0 && isInBox(b1x, b1y, b2x, b2y, a1x, a1y)) {
+            return new BigRational[]{a1x, a1y};
+        }
+        if (d4 == 0 && isInBox(b1x, b1y, b2x, b2y, a2x, a2y)) {
+            return new BigRational[]{a2x, a2y};
+        }
+        if (d1 == d2 || d1 == 0 || d2 == 0 || d3 == d4 || d3 == 0
+                || d4 == 0) {
+            return null;
+        }
+        BigRational s3 = signedArea(lb[0], lb[1], lb[2], lb[3], la[0],
+                la[1]);
+        BigRational s4 = signedArea(lb[0], lb[1], lb[2], lb[3], la[2],
+                la[3]);
+        BigRational s = s3.divide(s3.subtract(s4));
+        return new BigRational[]{
+            la[0].add(s.multiply(la[2].subtract(la[0]))).reduce(),
+            la[1].add(s.multiply(la[3].subtract(la[1]))).reduce()};
+    }
+
+    /**
+     * Calculates the intersection of two collinear line segments.
+     *
+     * @return {@code null} if the line segments do not intersect, a point
+     * {x, y} if they touch at a point, and two points {x0, y0, x1, y1}
+     * ordered along a if they overlap.
+     */
+    static BigRational[] overlap(BigRational a1x, BigRational a1y,
+            BigRational a2x, BigRational a2y, BigRational b1x,
+            BigRational b1y, BigRational b2x, BigRational b2y) {
+        // Compare positions along the axis a varies most in.
+        boolean useX = a2x.subtract(a1x).abs().compareTo(
+                a2y.subtract(a1y).abs()) != -1;
+        BigRational a1v = useX ? a1x : a1y;
+        BigRational a2v = useX ? a2x : a2y;
+        boolean pos = a2v.compareTo(a1v) == 1;
+        BigRational pa2 = pos ? a2v.subtract(a1v) : a1v.subtract(a2v);
+        BigRational pb1 = (useX ? b1x : b1y).subtract(a1v);
+        BigRational pb2 = (useX ? b2x : b2y).subtract(a1v);
+        if (!pos) {
+            pb1 = pb1.negate();
+            pb2 = pb2.negate();
+        }
+        boolean b1lo = pb1.compareTo(pb2) != 1;
+        BigRational lo = b1lo ? pb1 : pb2;
+        BigRational hi = b1lo ? pb2 : pb1;
+        if (hi.compareTo(BigRational.ZERO) == -1
+                || lo.compareTo(pa2) == 1) {
+            return null;
+        }
+        BigRational[] p0 = lo.compareTo(BigRational.ZERO) == 1
+                ? (b1lo ? new BigRational[]{b1x, b1y}
+                        : new BigRational[]{b2x, b2y})
+                : new BigRational[]{a1x, a1y};
+        BigRational[] p1 = hi.compareTo(pa2) == -1
+                ? (b1lo ? new BigRational[]{b2x, b2y}
+                        : new BigRational[]{b1x, b1y})
+                : new BigRational[]{a2x, a2y};
+        if (p0[0].compareTo(p1[0]) == 0 && p0[1].compareTo(p1[1]) == 0) {
+            return p0;
+        }
+        return new BigRational[]{p0[0], p0[1], p1[0], p1[1]};
+    }
+
+    /**
+     * The types of edge.
+     */
+    private enum EdgeType {
+        NORMAL, NON_CONTRIBUTING, SAME_TRANSITION, DIFFERENT_TRANSITION
+    }
+
+    /**
+     * An end point of an edge.
+     */
+    static class SweepEvent {
+
+        /**
+         * For ordering otherwise equal edges.
+         */
+        final int id;
+
+        final BigRational x;
+
+        final BigRational y;
+
+        /**
+         * The end points {x0, y0, x1, y1} of the input edge this edge is part
+         * of ordered from left to right. Orientations are tested against
+         * this and intersection points are calculated from it, so the size
+         * of the coordinates of intersection points does not grow as edges
+         * are divided.
+         */
+        final BigRational[] line;
+
+        /**
+         * If this is the left end point of the edge.
+         */
+        boolean left;
+
+        /**
+         * The event at the other end of the edge.
+         */
+        SweepEvent other;
+
+        /**
+         * If the edge is from the subject.
+         */
+        final boolean isSubject;
+
+        int contourId;
+
+        EdgeType type = EdgeType.NORMAL;
+
+        /**
+         * If the edge is an in-out transition for its polygon for a vertical
+         * ray from below.
+         */
+        boolean inOut;
+
+        /**
+         * As {@link #inOut} for the closest edge of the other polygon below.
+         */
+        boolean otherInOut;
+
+        /**
+         * The closest edge below in the result.
+         */
+        SweepEvent prevInResult;
+
+        /**
+         * 0 if not in the result, 1 if the transition is out-in and -1 if the
+         * transition is in-out.
+         */
+        int resultTransition;
+
+        /**
+         * The position in the order events are processed.
+         */
+        int pos;
+
+        /**
+         * The index of the result ring the edge is in or -1.
+         */
+        int ringId = -1;
+
+        SweepEvent(int id, BigRational x, BigRational y, BigRational[] line,
+                boolean left, SweepEvent other, boolean isSubject) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.line = line;
+            this.left = left;
+            this.other = other;
+            this.isSubject = isSubject;
+        }
+
+        boolean isBelow(BigRational px, BigRational py) {
+            return getOrientation(line[0], line[1], line[2], line[3], px, py)
+                    > 0;
+        }
+
+        boolean isAbove(BigRational px, BigRational py) {
+            return !isBelow(px, py);
+        }
+
+        boolean isVertical() {
+            return x.compareTo(other.x) == 0;
+        }
+
+        boolean inResult() {
+            return resultTransition != 0;
+        }
+
+        boolean isAt(BigRational px, BigRational py) {
+            return x.compareTo(px) == 0 && y.compareTo(py) == 0;
+        }
+
+        boolean equalsPoint(SweepEvent e) {
+            return isAt(e.x, e.y);
+        }
+
+        /**
+         * @param px The x coordinate of a point.
+         * @param py The y coordinate of a point.
+         * @return {@code true} if the point is on the line through the edge.
+         */
+        boolean isOnLine(BigRational px, BigRational py) {
+            return getOrientation(line[0], line[1], line[2], line[3], px, py)
+                    == 0;
+        }
+    }
+
+    /**
+     * Orders events from left to right.
+     *
+     * @param e1 An event.
+     * @param e2 Another event.
+     * @return -1 if e1 is processed before e2 and 1 otherwise.
+     */
+    static int compareEvents(SweepEvent e1, SweepEvent e2) {
+        int c = e1.x.compareTo(e2.x);
+        if (c != 0) {
+            return c > 0 ? 1 : -1;
+        }
+        c = e1.y.compareTo(e2.y);
+        if (c != 0) {
+            return c > 0 ? 1 : -1;
+        }
+        // Same point: right end points are processed first.
+        if (e1.left != e2.left) {
+            return e1.left ? 1 : -1;
+        }
+        if (!e1.isOnLine(e2.other.x, e2.other.y)) {
+            // The event of the lower edge is processed first.
+            return e1.isBelow(e2.other.x, e2.other.y) ? -1 : 1;
+        }
+        if (e1.isSubject != e2.isSubject) {
+            return e1.isSubject ? -1 : 1;
+        }
+        return Integer.compare(e1.id, e2.id);
+    }
+
+    /**
+     * Orders the edges in the sweep line from bottom to top. The order is
+     * calculated exactly from {@link SweepEvent#line} and the end points of
+     * the edges, and all crossings left of the sweep line are divided before
+     * it moves on, so the order of two edges does not change while they are
+     * in the sweep line.
+     *
+     * @param le1 The left event of an edge.
+     * @param le2 The left event of another edge.
+     * @return -1 if le1 is below le2, 0 if they are the same and 1 otherwise.
+     */
+    static int compareSegments(SweepEvent le1, SweepEvent le2) {
+        if (le1 == le2) {
+            return 0;
+        }
+        if (!le1.isOnLine(le2.x, le2.y)
+                || !le1.isOnLine(le2.other.x, le2.other.y)) {
+            // Not collinear.
+            if (le1.equalsPoint(le2)) {
+                return le1.isBelow(le2.other.x, le2.other.y) ? -1 : 1;
+            }
+            if (le1.x.compareTo(le2.x) == 0) {
+                return le1.y.compareTo(le2.y) < 0 ? -1 : 1;
+            }
+            if (compareEvents(le1, le2) == 1) {
+                // If le1 starts on le2 use the other end of le1.
+                if (le2.isOnLine(le1.x, le1.y)) {
+                    return le2.isAbove(le1.other.x, le1.other.y) ? -1 : 1;
+                }
+                return le2.isAbove(le1.x, le1.y) ? -1 : 1;
+            }
+            if (le1.isOnLine(le2.x, le2.y)) {
+                return le1.isBelow(le2.other.x, le2.other.y) ? -1 : 1;
+            }
+            return le1.isBelow(le2.x, le2.y) ? -1 : 1;
+        }
+        if (le1.isSubject != le2.isSubject) {
+            return le1.isSubject ? -1 : 1;
+        }
+        // Collinear edges of the same polygon are ordered by where they start
+        // and then by contour and id. None of these change when an edge is
+        // divided, so the order of edges in the sweep line does not either.
+        if (le1.equalsPoint(le2) && le1.contourId != le2.contourId) {
+            return le1.contourId > le2.contourId ? 1 : -1;
+        }
+        return compareEvents(le1, le2) == 1 ? 1 : -1;
+    }
+
+    /**
+     * The state of a sweep.
+     */
+    private static class Sweep {
+
+        final Operation op;
+
+        final PriorityQueue<SweepEvent> queue;
+
+        int nextId;
+
+        int contourId;
+
+        Sweep(Operation op) {
+            this.op = op;
+            this.queue = new PriorityQueue<>(V2D_Overlay::compareEvents);
+        }
+
+        /**
+         * Adds events for the edges of the rings to the queue.
+         *
+         * @param rings The rings.
+         * @param isSubject If the rings are from the subject.
+         * @return The bounds {xmin, ymin, xmax, ymax} of the rings or
+         * {@code null} if there are no points.
+         */
+        BigRational[] fill(List<BigRational[]> rings, boolean isSubject) {
+            BigRational[] b = null;
+            for (BigRational[] ring : rings) {
+                contourId++;
+                int n = ring.length / 2;
+                for (int i = 0; i < n; i++) {
+                    BigRational x1 = ring[2 * i];
+                    BigRational y1 = ring[2 * i + 1];
+                    int j = (i + 1) % n;
+                    BigRational x2 = ring[2 * j];
+                    BigRational y2 = ring[2 * j + 1];
+                    if (b == null) {
+                        b = new BigRational[]{x1, y1, x1, y1};
+                    } else {
+                        b[0] = BigRational.min(b[0], x1);
+                        b[1] = BigRational.min(b[1], y1);
+                        b[2] = BigRational.max(b[2], x1);
+                        b[3] = BigRational.max(b[3], y1);
+                    }
+                    if (x1.compareTo(x2) == 0 && y1.compareTo(y2) == 0) {
+                        continue;
+                    }
+                    int c = x1.compareTo(x2);
+                    boolean forward = c < 0 || (c == 0
+                            && y1.compareTo(y2) < 0);
+                    BigRational[] line = forward
+                            ? new BigRational[]{x1, y1, x2, y2}
+                            : new BigRational[]{x2, y2, x1, y1};
+                    SweepEvent e1 = new SweepEvent(nextId++, x1, y1, line,
+                            forward, null, isSubject);
+                    SweepEvent e2 = new SweepEvent(nextId++, x2, y2, line,
+                            !forward, e1, isSubject);
+                    e1.other = e2;
+                    e1.contourId = contourId;
+                    e2.contourId = contourId;
+                    queue.add(e1);
+                    queue.add(e2);
+                }
+            }
+            return b;
+        }
+
+        /**
+         * Subdivides edges where they intersect and labels them.
+         *
+         * @param rightBound The smaller of the maximum x of the subject and
+         * clipping, or {@code null} if the whole sweep is needed.
+         * @param subjectRightBound The maximum x of the subject, or
+         * {@code null} if the whole sweep is needed.
+         * @return The events in the order processed.
+         */
+        ArrayList<SweepEvent> subdivide(BigRational rightBound,
+                BigRational subjectRightBound) {
+            TreeSet<SweepEvent> sweepLine
+                    = new TreeSet<>(V2D_Overlay::compareSegments);
+            ArrayList<SweepEvent> sorted = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                SweepEvent e = queue.poll();
+                sorted.add(e);
+                if ((op == Operation.INTERSECTION && rightBound != null
+                        && e.x.compareTo(rightBound) == 1)
+                        || (op == Operation.DIFFERENCE
+                        && subjectRightBound != null
+                        && e.x.compareTo(subjectRightBound) == 1)) {
+                    break;
+                }
+                if (e.left) {
+                    sweepLine.add(e);
+                    SweepEvent prev = sweepLine.lower(e);
+                    SweepEvent next = sweepLine.higher(e);
+                    computeFields(e, prev);
+                    if (next != null) {
+                        if (possibleIntersection(e, next) == 2) {
+                            computeFields(e, prev);
+                            computeFields(next, e);
+                        }
+                    }
+                    if (prev != null) {
+                        if (possibleIntersection(prev, e) == 2) {
+                            computeFields(prev, sweepLine.lower(prev));
+                            computeFields(e, prev);
+                        }
+                    }
+                } else {
+                    SweepEvent le = e.other;
+                    SweepEvent prev = sweepLine.lower(le);
+                    SweepEvent next = sweepLine.higher(le);
+                    if (!sweepLine.remove(le)) {
+                        throw new RuntimeException("Edge not in sweep line.");
+                    }
+                    if (prev != null && next != null) {
+                        possibleIntersection(prev, next);
+                    }
+                }
+            }
+            return sorted;
+        }
+
+        /**
+         * Calculates the in-out fields of {@code e} given the closest edge
+         * below.
+         *
+         * @param e The event.
+         * @param prev The left event of the closest edge below.
+         */
+        void computeFields(SweepEvent e, SweepEvent prev) {
+            if (prev == null) {
+                e.inOut = false;
+                e.otherInOut = true;
+            } else {
+                if (e.isSubject == prev.isSubject) {
+                    e.inOut = !prev.inOut;
+                    e.otherInOut = prev.otherInOut;
+                } else {
+                    e.inOut = !prev.otherInOut;
+                    e.otherInOut = prev.isVertical() ? !prev.inOut
+                            : prev.inOut;
+                }
+                e.prevInResult = (!inResult(prev) || prev.isVertical())
+                        ? prev.prevInResult : prev;
+            }
+            e.resultTransition = inResult(e) ? getResultTransition(e) : 0;
+        }
+
+        /**
+         * @param e The event.
+         * @return If the edge of {@code e} is in the result.
+         */
+        boolean inResult(SweepEvent e) {
+            return switch (e.type) {
+                case NORMAL ->
+                    switch (op) {
+                        case INTERSECTION ->
+                            !e.otherInOut;
+                        case UNION ->
+                            e.otherInOut;
+                        case DIFFERENCE ->
+                            (e.isSubject && e.otherInOut)
+                            || (!e.isSubject && !e.otherInOut);
+                        case XOR ->
+                            true;
+                    };
+                case SAME_TRANSITION ->
+                    op == Operation.INTERSECTION || op == Operation.UNION;
+                case DIFFERENT_TRANSITION ->
+                    op == Operation.DIFFERENCE;
+                case NON_CONTRIBUTING ->
+                    false;
+            };
+        }
+
+        /**
+         * @param e The event.
+         * @return 1 if the result is entered crossing the edge of {@code e}
+         * upwards and -1 if it is left.
+         */
+        int getResultTransition(SweepEvent e) {
+            boolean thisIn = !e.inOut;
+            // For overlapping edges e is the lower of the two so the other
+            // polygon is on the same side as e for SAME_TRANSITION and the
+            // other side for DIFFERENT_TRANSITION.
+            if (e.type == EdgeType.SAME_TRANSITION) {
+                return thisIn ? 1 : -1;
+            }
+            if (e.type == EdgeType.DIFFERENT_TRANSITION) {
+                return e.isSubject == thisIn ? 1 : -1;
+            }
+            boolean thatIn = !e.otherInOut;
+            boolean isIn = switch (op) {
+                case INTERSECTION ->
+                    thisIn && thatIn;
+                case UNION ->
+                    thisIn || thatIn;
+                case XOR ->
+                    thisIn ^ thatIn;
+                case DIFFERENCE ->
+                    e.isSubject ? thisIn && !thatIn : thatIn && !thisIn;
+            };
+            return isIn ? 1 : -1;
+        }
+
+        /**
+         * Subdivides the edges of {@code se1} and {@code se2} if they
+         * intersect.
+         *
+         * @param se1 The left event of an edge.
+         * @param se2 The left event of another edge.
+         * @return 0 if there is no subdivision, 1 if the edges cross, 2 if
+         * the edges overlap and share a left end point and 3 if the edges
+         * otherwise overlap.
+         */
+        int possibleIntersection(SweepEvent se1, SweepEvent se2) {
+            BigRational[] inter = getIntersection(se1.x, se1.y, se1.other.x,
+                    se1.other.y, se2.x, se2.y, se2.other.x, se2.other.y,
+                    se1.line, se2.line);
+            if (inter == null) {
+                return 0;
+            }
+            if (inter.length == 2) {
+                BigRational ix = inter[0];
+                BigRational iy = inter[1];
+                if (se1.equalsPoint(se2) || se1.other.equalsPoint(se2.other)) {
+                    return 0;
+                }
+                if (!se1.isAt(ix, iy) && !se1.other.isAt(ix, iy)) {
+                    divide(se1, ix, iy);
+                }
+                if (!se2.isAt(ix, iy) && !se2.other.isAt(ix, iy)) {
+                    divide(se2, ix, iy);
+                }
+                return 1;
+            }
+            if (se1.isSubject == se2.isSubject) {
+                // Overlapping edges of the same polygon are not supported.
+                return 0;
+            }
+            ArrayList<SweepEvent> events = new ArrayList<>(4);
+            boolean leftCoincide = false;
+            boolean rightCoincide = false;
+            if (se1.equalsPoint(se2)) {
+                leftCoincide = true;
+            } else if (compareEvents(se1, se2) == 1) {
+                events.add(se2);
+                events.add(se1);
+            } else {
+                events.add(se1);
+                events.add(se2);
+            }
+            if (se1.other.equalsPoint(se2.other)) {
+                rightCoincide = true;
+            } else if (compareEvents(se1.other, se2.other) == 1) {
+                events.add(se2.other);
+                events.add(se1.other);
+            } else {
+                events.add(se1.other);
+                events.add(se2.other);
+            }
+            if (leftCoincide) {
+                se2.type = EdgeType.NON_CONTRIBUTING;
+                se1.type = (se2.inOut == se1.inOut)
+                        ? EdgeType.SAME_TRANSITION
+                        : EdgeType.DIFFERENT_TRANSITION;
+                if (!rightCoincide) {
+                    divide(events.get(1).other, events.get(0).x,
+                            events.get(0).y);
+                }
+                return 2;
+            }
+            if (rightCoincide) {
+                divide(events.get(0), events.get(1).x, events.get(1).y);
+                return 3;
+            }
+            if (events.get(0) != events.get(3).other) {
+                // Neither edge contains the other.
+                divide(events.get(0), events.get(1).x, events.get(1).y);
+                divide(events.get(1), events.get(2).x, events.get(2).y);
+                return 3;
+            }
+            // One edge contains the other.
+            divide(events.get(0), events.get(1).x, events.get(1).y);
+            divide(events.get(3).other, events.get(2).x, events.get(2).y);
+            return 3;
+        }
+
+        /**
+         * Divides the edge of {@code se} at (x, y) adding new events to the
+         * queue.
+         *
+         * @param se The left event of an edge.
+         * @param x The x coordinate of the point to divide at.
+         * @param y The y coordinate of the point to divide at.
+         */
+        void divide(SweepEvent se, BigRational x, BigRational y) {
+            SweepEvent r = new SweepEvent(nextId++, x, y, se.line, false, se,
+                    se.isSubject);
+            SweepEvent l = new SweepEvent(nextId++, x, y, se.line, true,
+                    se.other, se.isSubject);
+            r.contourId = se.contourId;
+            l.contourId = se.contourId;
+            se.other.other = l;
+            se.other = r;
+            queue.add(l);
+            queue.add(r);
+        }
+
+        /**
+         * Connects the edges in the result into rings. Each edge is directed
+         * so that the result is on its right, so exterior rings are clockwise
+         * and holes are counter-clockwise. At each point the next edge is the
+         * first going counter-clockwise from the edge arrived along, so rings
+         * that touch at a point are separated. Each hole is then assigned to
+         * a polygon using the closest edge in the result below its first
+         * edge.
+         *
+         * @param sorted The events in the order they were processed.
+         * @return The rings.
+         */
+        ArrayList<Ring> connect(ArrayList<SweepEvent> sorted) {
+            TreeMap<BigRational[], ArrayList<Edge>> out
+                    = new TreeMap<>(POINT_ORDER);
+            ArrayList<Edge> edges = new ArrayList<>();
+            for (int i = 0; i < sorted.size(); i++) {
+                SweepEvent e = sorted.get(i);
+                e.pos = i;
+                if (e.left && e.inResult()) {
+                    Edge edge = e.resultTransition > 0
+                            ? new Edge(e.other.x, e.other.y, e.x, e.y, e)
+                            : new Edge(e.x, e.y, e.other.x, e.other.y, e);
+                    edges.add(edge);
+                    out.computeIfAbsent(new BigRational[]{edge.x0, edge.y0},
+                            k -> new ArrayList<>()).add(edge);
+                }
+            }
+            ArrayList<Ring> rings = new ArrayList<>();
+            ArrayList<SweepEvent> firsts = new ArrayList<>();
+            for (Edge start : edges) {
+                if (start.e.ringId >= 0) {
+                    continue;
+                }
+                int ringId = rings.size();
+                ArrayList<BigRational> xy = new ArrayList<>();
+                SweepEvent first = start.e;
+                Edge edge = start;
+                while (true) {
+                    edge.e.ringId = ringId;
+                    xy.add(edge.x0);
+                    xy.add(edge.y0);
+                    if (edge.e.pos < first.pos) {
+                        first = edge.e;
+                    }
+                    Edge next = getNext(edge, out);
+                    if (next == null || next == start || next.e.ringId >= 0) {
+                        break;
+                    }
+                    edge = next;
+                }
+                rings.add(new Ring(xy.toArray(BigRational[]::new), -1));
+                firsts.add(first);
+            }
+            // Assign holes to polygons in the order they were swept.
+            Integer[] order = new Integer[rings.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(
+                    firsts.get(a).pos, firsts.get(b).pos));
+            boolean[] isHole = new boolean[rings.size()];
+            for (int i = 0; i < isHole.length; i++) {
+                isHole[i] = getArea(rings.get(i).xy).compareTo(
+                        BigRational.ZERO) == 1;
+            }
+            for (int i : order) {
+                if (isHole[i]) {
+                    Ring ring = rings.get(i);
+                    SweepEvent prev = firsts.get(i).prevInResult;
+                    int parent = -1;
+                    if (prev != null && prev.ringId >= 0) {
+                        parent = isHole[prev.ringId]
+                                ? rings.get(prev.ringId).holeOf
+                                : prev.ringId;
+                    }
+                    if (parent < 0) {
+                        parent = getContaining(ring, rings, isHole);
+                    }
+                    if (parent >= 0) {
+                        ring.holeOf = parent;
+                        rings.get(parent).holes.add(i);
+                    } else {
+                        ring.holeOf = i;
+                    }
+                }
+            }
+            return rings;
+        }
+
+        /**
+         * @param edge The edge arrived along.
+         * @param out The edges going out from each point.
+         * @return The first edge going counter-clockwise from {@code edge}
+         * around its end point.
+         */
+        Edge getNext(Edge edge, TreeMap<BigRational[], ArrayList<Edge>> out) {
+            ArrayList<Edge> cs = out.get(new BigRational[]{edge.x1, edge.y1});
+            if (cs == null) {
+                return null;
+            }
+            BigRational rx = edge.x0.subtract(edge.x1);
+            BigRational ry = edge.y0.subtract(edge.y1);
+            Edge r = null;
+            for (Edge c : cs) {
+                if (r == null || compareTurn(rx, ry, c, r) < 0) {
+                    r = c;
+                }
+            }
+            return r;
+        }
+
+        /**
+         * Compares edges by the counter-clockwise angle, in (0, 2pi], they
+         * turn through from a direction.
+         *
+         * @param rx The x component of the direction.
+         * @param ry The y component of the direction.
+         * @param a An edge.
+         * @param b Another edge.
+         * @return -1 if the angle to {@code a} is less than that to {@code b},
+         * 0 if they are the same and 1 otherwise.
+         */
+        int compareTurn(BigRational rx, BigRational ry, Edge a, Edge b) {
+            BigRational ax = a.x1.subtract(a.x0);
+            BigRational ay = a.y1.subtract(a.y0);
+            BigRational bx = b.x1.subtract(b.x0);
+            BigRational by = b.y1.subtract(b.y0);
+            int ha = getHalf(rx, ry, ax, ay);
+            int hb = getHalf(rx, ry, bx, by);
+            if (ha != hb) {
+                return ha < hb ? -1 : 1;
+            }
+            return -ax.multiply(by).compareTo(ay.multiply(bx));
+        }
+
+        /**
+         * @return 0 if the counter-clockwise angle from (rx, ry) to (dx, dy)
+         * is in (0, pi] and 1 if it is in (pi, 2pi].
+         */
+        int getHalf(BigRational rx, BigRational ry, BigRational dx,
+                BigRational dy) {
+            int cross = rx.multiply(dy).compareTo(ry.multiply(dx));
+            if (cross != 0) {
+                return cross > 0 ? 0 : 1;
+            }
+            int dot = rx.multiply(dx).add(ry.multiply(dy)).compareTo(
+                    BigRational.ZERO);
+            return dot < 0 ? 0 : 1;
+        }
+
+        /**
+         * For assigning a hole if this cannot be done using the sweep.
+         *
+         * @param hole The hole.
+         * @param rings The rings.
+         * @param isHole Which of the rings are holes.
+         * @return The index of the smallest exterior ring containing the
+         * midpoint of the first edge of {@code hole} or -1 if there is none.
+         */
+        int getContaining(Ring hole, ArrayList<Ring> rings, boolean[] isHole) {
+            int n = hole.xy.length / 2;
+            if (n < 2) {
+                return -1;
+            }
+            BigRational px = hole.xy[0].add(hole.xy[2]).divide(2);
+            BigRational py = hole.xy[1].add(hole.xy[3]).divide(2);
+            int r = -1;
+            BigRational min = null;
+            for (int i = 0; i < rings.size(); i++) {
+                if (!isHole[i]) {
+                    BigRational[] xy = rings.get(i).xy;
+                    BigRational area = getArea(xy).negate();
+                    if ((min == null || area.compareTo(min) == -1)
+                            && contains(xy, px, py)) {
+                        min = area;
+                        r = i;
+                    }
+                }
+            }
+            return r;
+        }
+    }
+
+    /**
+     * @param xy The interleaved coordinates of a ring.
+     * @return The signed area of the ring which is positive if the ring is
+     * counter-clockwise.
+     */
+    static BigRational getArea(BigRational[] xy) {
+        int n = xy.length / 2;
+        BigRational a = BigRational.ZERO;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            a = a.add(xy[2 * i].multiply(xy[2 * j + 1]).subtract(
+                    xy[2 * j].multiply(xy[2 * i + 1])));
+        }
+        return a.divide(2);
+    }
+
+    /**
+     * @param xy The interleaved coordinates of a ring.
+     * @param px The x coordinate of the point.
+     * @param py The y coordinate of the point.
+     * @return {@code true} if the point is inside the ring using the
+     * crossing number.
+     */
+    static boolean contains(BigRational[] xy, BigRational px,
+            BigRational py) {
+        int n = xy.length / 2;
+        boolean r = false;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            BigRational xi = xy[2 * i];
+            BigRational yi = xy[2 * i + 1];
+            BigRational xj = xy[2 * j];
+            BigRational yj = xy[2 * j + 1];
+            if ((yi.compareTo(py) == 1) != (yj.compareTo(py) == 1)) {
+                // Which side of the edge from j to i the point is on.
+                int o = getOrientation(xj, yj, xi, yi, px, py);
+                if (yi.compareTo(yj) == 1 ? o > 0 : o < 0) {
+                    r = !r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * For using points as keys ordered by x then y.
+     */
+    private static final Comparator<BigRational[]> POINT_ORDER = (a, b) -> {
+        int c = a[0].compareTo(b[0]);
+        return c != 0 ? c : a[1].compareTo(b[1]);
+    };
+
+    /**
+     * An edge of the result directed so that the result is on its right.
+     */
+    private static class Edge {
+
+        final BigRational x0;
+
+        final BigRational y0;
+
+        final BigRational x1;
+
+        final BigRational y1;
+
+        /**
+         * The left event of the edge.
+         */
+        final SweepEvent e;
+
+        Edge(BigRational x0, BigRational y0, BigRational x1, BigRational y1,
+                SweepEvent e) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.e = e;
+        }
+    }
+}
@@ -17,6 +17,7 @@ package uk.ac.leeds.ccg.v2d.geometry;
 
 import ch.obermuhlner.math.big.BigRational;
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -26,6 +27,7 @@ import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleBigRational;
 import uk.ac.leeds.ccg.math.number.Math_BigRationalSqrt;
 import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * A point is defined by two vectors: {@link #offset} and {@link #rel}. Adding
@@ -49,6 +51,82 @@ public class V2D_Point extends V2D_FiniteGeometry {
      */
     public V2D_Vector rel;
 
+    /**
+     * For storing the x coordinate calculated for the last Order of Magnitude
+     * and RoundingMode. This is reset to {@code null} if the point is moved.
+     */
+    private transient Coordinate xc;
+
+    /**
+     * For storing the y coordinate calculated for the last Order of Magnitude
+     * and RoundingMode. This is reset to {@code null} if the point is moved.
+     */
+    private transient Coordinate yc;
+
+    /**
+     * For storing a coordinate together with the Order of Magnitude and
+     * RoundingMode used to calculate it. The coordinate is immutable so that a
+     * cached coordinate can be safely read by multiple threads. Its double
+     * approximation is calculated when first needed and then kept.
+     */
+    private static final class Coordinate {
+
+        /**
+         * The coordinate.
+         */
+        final BigRational value;
+
+        /**
+         * The Order of Magnitude for the precision.
+         */
+        final int oom;
+
+        /**
+         * The RoundingMode.
+         */
+        final RoundingMode rm;
+
+        /**
+         * The double approximation of {@link #value} or {@code NaN} if this
+         * has not yet been calculated.
+         */
+        private volatile double approx;
+
+        /**
+         * @param value What {@link #value} is set to.
+         * @param oom What {@link #oom} is set to.
+         * @param rm What {@link #rm} is set to.
+         */
+        Coordinate(BigRational value, int oom, RoundingMode rm) {
+            this.value = value;
+            this.oom = oom;
+            this.rm = rm;
+            approx = Double.NaN;
+        }
+
+        /**
+         * @param oom The Order of Magnitude for the precision.
+         * @param rm The RoundingMode.
+         * @return {@code true} if this was calculated using {@code oom} and
+         * {@code rm}.
+         */
+        boolean isFor(int oom, RoundingMode rm) {
+            return this.oom == oom && this.rm == rm;
+        }
+
+        /**
+         * @return The double approximation of {@link #value}.
+         */
+        double getApprox() {
+            double r = approx;
+            if (Double.isNaN(r)) {
+                r = value.toDouble();
+                approx = r;
+            }
+            return r;
+        }
+    }
+
     /**
      * Create a new instance.
      *
@@ -57,6 +135,8 @@ public class V2D_Point extends V2D_FiniteGeometry {
     public V2D_Point(V2D_Point p) {
         super(p.env, new V2D_Vector(p.offset));
         rel = new V2D_Vector(p.rel);
+        xc = p.xc;
+        yc = p.yc;
     }
 
     /**
@@ -228,7 +308,7 @@ public class V2D_Point extends V2D_FiniteGeometry {
      * {@code this}.
      */
     public boolean equalsAll(Collection<V2D_Point> ps, int oom, RoundingMode rm) {
-        return ps.parallelStream().allMatch(x -> equals(x, oom, rm));
+        return execution().stream(ps).allMatch(x -> equals(x, oom, rm));
     }
 
     /**
@@ -242,7 +322,7 @@ public class V2D_Point extends V2D_FiniteGeometry {
      * {@code this}.
      */
     public boolean equalsAny(Collection<V2D_Point> ps, int oom, RoundingMode rm) {
-        return ps.parallelStream().anyMatch(x -> equals(x, oom, rm));
+        return execution().stream(ps).anyMatch(x -> equals(x, oom, rm));
     }
 
     @Override
@@ -267,7 +347,32 @@ public class V2D_Point extends V2D_FiniteGeometry {
      * @return The x component of {@link #rel} with {@link #offset} applied.
      */
     public BigRational getX(int oom, RoundingMode rm) {
-        return rel.getDX(oom, rm).add(offset.getDX(oom, rm));
+        return getXC(oom, rm).value;
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode if rounding is needed.
+     * @return {@code getX(oom, rm).toDouble()} which is cached with the
+     * coordinate.
+     */
+    public double getXDouble(int oom, RoundingMode rm) {
+        return getXC(oom, rm).getApprox();
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode if rounding is needed.
+     * @return {@link #xc} calculated if necessary.
+     */
+    private Coordinate getXC(int oom, RoundingMode rm) {
+        Coordinate c = xc;
+        if (c == null || !c.isFor(oom, rm)) {
+            c = new Coordinate(rel.getDX(oom, rm).add(offset.getDX(oom, rm)),
+                    oom, rm);
+            xc = c;
+        }
+        return c;
     }
 
     /**
@@ -276,7 +381,32 @@ public class V2D_Point extends V2D_FiniteGeometry {
      * @return The y component of {@link #rel} with {@link #offset} applied.
      */
     public BigRational getY(int oom, RoundingMode rm) {
-        return rel.getDY(oom, rm).add(offset.getDY(oom, rm));
+        return getYC(oom, rm).value;
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the application of {@link #offset}.
+     * @param rm The RoundingMode if rounding is needed.
+     * @return {@code getY(oom, rm).toDouble()} which is cached with the
+     * coordinate.
+     */
+    public double getYDouble(int oom, RoundingMode rm) {
+        return getYC(oom, rm).getApprox();
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the application of {@link #offset}.
+     * @param rm The RoundingMode if rounding is needed.
+     * @return {@link #yc} calculated if necessary.
+     */
+    private Coordinate getYC(int oom, RoundingMode rm) {
+        Coordinate c = yc;
+        if (c == null || !c.isFor(oom, rm)) {
+            c = new Coordinate(rel.getDY(oom, rm).add(offset.getDY(oom, rm)),
+                    oom, rm);
+            yc = c;
+        }
+        return c;
     }
 
     /**
@@ -327,10 +457,16 @@ public class V2D_Point extends V2D_FiniteGeometry {
      * @return The distance from {@code pv} to this.
      */
     public Math_BigRationalSqrt getDistance(int oom, RoundingMode rm, V2D_Point p) {
+        long time = metrics().start();
+        Math_BigRationalSqrt r;
         if (this.equals(p, oom, rm)) {
-            return Math_BigRationalSqrt.ZERO;
+            r = Math_BigRationalSqrt.ZERO;
+        } else {
+            r = new Math_BigRationalSqrt(getDistanceSquared(p, oom, rm), oom,
+                    rm);
         }
-        return new Math_BigRationalSqrt(getDistanceSquared(p, oom, rm), oom, rm);
+        return metrics().stop(V2D_Point.class, V2D_Metrics.GET_DISTANCE,
+                time, r);
     }
 
     /**
@@ -342,11 +478,16 @@ public class V2D_Point extends V2D_FiniteGeometry {
      * @return The distance from {@code pv} to this.
      */
     public BigRational getDistance(V2D_Point p, int oom, RoundingMode rm) {
+        long time = metrics().start();
+        BigRational r;
         if (this.equals(p, oom, rm)) {
-            return BigRational.ZERO;
+            r = BigRational.ZERO;
+        } else {
+            r = new Math_BigRationalSqrt(getDistanceSquared(p, oom - 6, rm),
+                    oom, rm).getSqrt(oom, rm);
         }
-        return new Math_BigRationalSqrt(getDistanceSquared(p, oom - 6, rm), oom, rm)
-                .getSqrt(oom, rm);
+        return metrics().stop(V2D_Point.class, V2D_Metrics.GET_DISTANCE,
+                time, r);
     }
 
     /**
@@ -420,6 +561,7 @@ public class V2D_Point extends V2D_FiniteGeometry {
         if (!offset.equals(this.offset, oom, rm)) {
             rel = getVector(oom, rm).subtract(offset, oom, rm);
             this.offset = offset;
+            clearCoordinates();
         }
     }
 
@@ -435,6 +577,29 @@ public class V2D_Point extends V2D_FiniteGeometry {
         //offset = getVector(e.oom).subtract(v, e.oom);
         offset = offset.subtract(rel, oom, rm).add(this.rel, oom, rm);
         this.rel = rel;
+        clearCoordinates();
+    }
+
+    /**
+     * Translate (move relative to the origin).
+     *
+     * @param v Vector.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode.
+     */
+    @Override
+    public void translate(V2D_Vector v, int oom, RoundingMode rm) {
+        super.translate(v, oom, rm);
+        clearCoordinates();
+    }
+
+    /**
+     * Clears the cached coordinates. This needs calling if {@link #rel} or 
+     * {@link #offset} are changed.
+     */
+    public void clearCoordinates() {
+        xc = null;
+        yc = null;
     }
     
     @Override
@@ -463,7 +628,10 @@ public class V2D_Point extends V2D_FiniteGeometry {
     }
 
     /**
-     * A collection method for getting unique points.
+     * A collection method for getting unique points. Points are hashed on
+     * their coordinates calculated using {@code oom} and {@code rm}, so this
+     * takes linear time. The first of any equal points is retained and the
+     * order is otherwise preserved.
      *
      * @param pts The points to derive a unique list from.
      * @param oom The Order of Magnitude for the precision.
@@ -472,35 +640,62 @@ public class V2D_Point extends V2D_FiniteGeometry {
      */
     public static ArrayList<V2D_Point> getUnique(List<V2D_Point> pts,
             int oom, RoundingMode rm) {
-//        System.out.println("Before unique");
-//        for (int i = 0; i < pts.size(); i++) {
-//            System.out.println("i=" + i);
-//            System.out.println(pts.get(i).toStringSimple(""));
-//        }
-        HashSet<Integer> indexes = new HashSet<>();
+        HashSet<Key> keys = new HashSet<>();
         ArrayList<V2D_Point> r = new ArrayList<>();
-        for (int i = 0; i < pts.size(); i++) {
-            if (!indexes.contains(i)) {
-                V2D_Point p = pts.get(i);
+        for (V2D_Point p : pts) {
+            if (keys.add(new Key(p.getX(oom, rm), p.getY(oom, rm)))) {
                 r.add(p);
-                for (int j = i + 1; j < pts.size(); j++) {
-                    if (!indexes.contains(j)) {
-                        V2D_Point p2 = pts.get(j);
-                        if (p.equals(p2, oom, rm)) {
-                            indexes.add(j);
-                        }
-                    }
-                }
             }
         }
-//        System.out.println("After unique");
-//        for (int i = 0; i < r.size(); i++) {
-//            System.out.println("i=" + i);
-//            System.out.println(r.get(i).toStringSimple(""));
-//        }
         return r;
     }
 
+    /**
+     * A key for hashing points on their coordinates. The coordinates are
+     * stored as reduced numerators and denominators so that equal values have
+     * equal keys however the BigRational values were derived.
+     *
+     * @param xn The x numerator.
+     * @param xd The x denominator.
+     * @param yn The y numerator.
+     * @param yd The y denominator.
+     */
+    private record Key(BigInteger xn, BigInteger xd, BigInteger yn,
+            BigInteger yd) {
+
+        /**
+         * @param x The x coordinate.
+         * @param y The y coordinate.
+         */
+        Key(BigRational x, BigRational y) {
+            this(getNumerator(x), getDenominator(x), getNumerator(y),
+                    getDenominator(y));
+        }
+
+        /**
+         * @param v The value.
+         * @return The numerator of {@code v} in lowest terms.
+         */
+        static BigInteger getNumerator(BigRational v) {
+            BigInteger n = v.getNumeratorBigInteger();
+            return n.divide(n.gcd(v.getDenominatorBigInteger()));
+        }
+
+        /**
+         * @param v The value.
+         * @return The positive denominator of {@code v} in lowest terms.
+         */
+        static BigInteger getDenominator(BigRational v) {
+            BigInteger d = v.getDenominatorBigInteger();
+            BigInteger n = v.getNumeratorBigInteger();
+            if (n.signum() == 0) {
+                return BigInteger.ONE;
+            }
+            d = d.divide(n.gcd(d));
+            return d;
+        }
+    }
+
     /**
      * @param p The point to compare this with
      * @param oom The Order of Magnitude for the precision.
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+
+/**
+ * For locating points relative to a polygon that may have holes in
+ * O(log^2 n) time. The plane is divided into vertical slabs at the x
+ * coordinates of the vertices. No edges cross within a slab, so the edges
+ * that span a slab can be ordered from bottom to top (see Dobkin and Lipton
+ * (1976) Multidimensional Searching Problems, SIAM Journal on Computing 5).
+ * Storing every edge in every slab it spans can need O(n^2) memory for
+ * jagged boundaries, so instead the slabs are the leaves of a segment tree
+ * and each edge is stored in the O(log n) nodes that together cover the
+ * slabs it spans (see de Berg et al. (2008) Computational Geometry:
+ * Algorithms and Applications, Chapter 10). The edges in a node all span the
+ * node, so they too can be ordered from bottom to top. A point is located by
+ * a binary search for its slab and then a binary search in each node from
+ * the slab up to the root for the number of edges below it: if the total is
+ * odd then the point is inside. All the calculations are exact.
+ *
+ * This is for answering many queries against the same polygon. Building
+ * takes O(n log^2 n) time and O(n log n) memory.
+ *
+ * Rings are given as interleaved x and y coordinates. The first ring is the
+ * exterior and any others are holes. The polygon is expected to be valid
+ * (see {@link V2D_PolygonNoInternalHoles#isValid(int, RoundingMode)}).
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PointLocator {
+
+    /**
+     * Returned by {@link #locate(BigRational, BigRational)} for points
+     * outside.
+     */
+    public static final int OUTSIDE = -1;
+
+    /**
+     * Returned by {@link #locate(BigRational, BigRational)} for points on an
+     * edge.
+     */
+    public static final int BOUNDARY = 0;
+
+    /**
+     * Returned by {@link #locate(BigRational, BigRational)} for points
+     * inside.
+     */
+    public static final int INSIDE = 1;
+
+    /**
+     * The x coordinates of the slab boundaries in ascending order.
+     */
+    private final BigRational[] xs;
+
+    /**
+     * The number of leaves in the segment tree. This is a power of two and
+     * leaf {@code s} is node {@code size + s} for slab {@code s}. The
+     * children of node {@code i} are nodes {@code 2 * i} and
+     * {@code 2 * i + 1}.
+     */
+    private final int size;
+
+    /**
+     * The edges in node {@code i} are at indexes {@code nodes[i]} to
+     * {@code nodes[i + 1] - 1} of {@link #nodeEdges}.
+     */
+    private final int[] nodes;
+
+    /**
+     * The indexes of the edges in each node ordered from bottom to top.
+     */
+    private final int[] nodeEdges;
+
+    /**
+     * The coordinates of the non-vertical edges with the first end point
+     * being the one with the smaller x coordinate.
+     */
+    private final BigRational[] ex0, ey0, ex1, ey1;
+
+    /**
+     * The vertical edges at slab boundary {@code b} are at indexes
+     * {@code verticals[b]} to {@code verticals[b + 1] - 1} of {@link #vy0}
+     * and {@link #vy1}.
+     */
+    private final int[] verticals;
+
+    /**
+     * The minimum and maximum y coordinates of the vertical edges.
+     */
+    private final BigRational[] vy0, vy1;
+
+    /**
+     * Create a new instance for the polygon.
+     *
+     * @param p The polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     */
+    public V2D_PointLocator(V2D_PolygonNoInternalHoles p, int oom,
+            RoundingMode rm) {
+        this(p.env, getRings(p, oom, rm));
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param env The environment used to decide whether to sort the edges in
+     * the nodes in parallel. If {@code null} then this is done sequentially.
+     * @param rings The rings.
+     */
+    public V2D_PointLocator(V2D_Environment env, List<BigRational[]> rings) {
+        int n = 0;
+        for (BigRational[] r : rings) {
+            n += r.length / 2;
+        }
+        BigRational[] x = new BigRational[n];
+        BigRational[][] e = new BigRational[4][n];
+        BigRational[][] v = new BigRational[3][n];
+        int ne = 0;
+        int nv = 0;
+        int nx = 0;
+        for (BigRational[] r : rings) {
+            int m = r.length / 2;
+            for (int i = 0; i < m; i++) {
+                int j = (i + 1) % m;
+                BigRational x0 = r[2 * i];
+                BigRational y0 = r[2 * i + 1];
+                BigRational x1 = r[2 * j];
+                BigRational y1 = r[2 * j + 1];
+                x[nx++] = x0;
+                int c = x0.compareTo(x1);
+                if (c == 0) {
+                    if (y0.compareTo(y1) != 0) {
+                        v[0][nv] = x0;
+                        v[1][nv] = BigRational.min(y0, y1);
+                        v[2][nv] = BigRational.max(y0, y1);
+                        nv++;
+                    }
+                } else if (c < 0) {
+                    setEdge(e, ne++, x0, y0, x1, y1);
+                } else {
+                    setEdge(e, ne++, x1, y1, x0, y0);
+                }
+            }
+        }
+        xs = distinct(x, nx);
+        int m = xs.length;
+        ex0 = Arrays.copyOf(e[0], ne);
+        ey0 = Arrays.copyOf(e[1], ne);
+        ex1 = Arrays.copyOf(e[2], ne);
+        ey1 = Arrays.copyOf(e[3], ne);
+        // Vertical edges by slab boundary.
+        verticals = new int[m + 1];
+        int[] vb = new int[nv];
+        for (int i = 0; i < nv; i++) {
+            vb[i] = Arrays.binarySearch(xs, v[0][i]);
+            verticals[vb[i] + 1]++;
+        }
+        for (int b = 0; b < m; b++) {
+            verticals[b + 1] += verticals[b];
+        }
+        vy0 = new BigRational[nv];
+        vy1 = new BigRational[nv];
+        int[] c = Arrays.copyOf(verticals, m);
+        for (int i = 0; i < nv; i++) {
+            int k = c[vb[i]]++;
+            vy0[k] = v[1][i];
+            vy1[k] = v[2][i];
+        }
+        // Edges by node.
+        int ns = Math.max(m - 1, 1);
+        size = Integer.highestOneBit(ns) == ns ? ns
+                : Integer.highestOneBit(ns) << 1;
+        int nn = 2 * size;
+        nodes = new int[nn + 1];
+        int[] s0 = new int[ne];
+        int[] s1 = new int[ne];
+        for (int i = 0; i < ne; i++) {
+            s0[i] = Arrays.binarySearch(xs, ex0[i]) + size;
+            s1[i] = Arrays.binarySearch(xs, ex1[i]) + size;
+            for (int l = s0[i], r = s1[i]; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    nodes[l++ + 1]++;
+                }
+                if ((r & 1) == 1) {
+                    nodes[--r + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < nn; i++) {
+            nodes[i + 1] += nodes[i];
+        }
+        nodeEdges = new int[nodes[nn]];
+        c = Arrays.copyOf(nodes, nn);
+        for (int i = 0; i < ne; i++) {
+            for (int l = s0[i], r = s1[i]; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    nodeEdges[c[l++]++] = i;
+                }
+                if ((r & 1) == 1) {
+                    nodeEdges[c[--r]++] = i;
+                }
+            }
+        }
+        IntStream is = IntStream.range(1, nn);
+        if (V2D_Environment.getExecution(env).isParallel(nodeEdges.length)) {
+            is = is.parallel();
+        }
+        is.forEach(i -> sort(i));
+    }
+
+    /**
+     * @param p The polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The rings of {@code p}.
+     */
+    private static List<BigRational[]> getRings(V2D_PolygonNoInternalHoles p,
+            int oom, RoundingMode rm) {
+        List<BigRational[]> r = new ArrayList<>();
+        V2D_Overlay.addRings(p, r, oom, rm);
+        return r;
+    }
+
+    /**
+     * Sets the coordinates of edge {@code i}.
+     */
+    private static void setEdge(BigRational[][] e, int i, BigRational x0,
+            BigRational y0, BigRational x1, BigRational y1) {
+        e[0][i] = x0;
+        e[1][i] = y0;
+        e[2][i] = x1;
+        e[3][i] = y1;
+    }
+
+    /**
+     * @param x The values.
+     * @param n The number of values of {@code x} to use.
+     * @return The distinct values in ascending order.
+     */
+    private static BigRational[] distinct(BigRational[] x, int n) {
+        BigRational[] r = Arrays.copyOf(x, n);
+        Arrays.sort(r);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m == 0 || r[i].compareTo(r[m - 1]) != 0) {
+                r[m++] = r[i];
+            }
+        }
+        return Arrays.copyOf(r, m);
+    }
+
+    /**
+     * Orders the edges in node {@code i} from bottom to top by their y
+     * coordinate in the middle of the slabs covered by the node.
+     *
+     * @param i The node.
+     */
+    private void sort(int i) {
+        int o = nodes[i];
+        int n = nodes[i + 1] - o;
+        if (n < 2) {
+            return;
+        }
+        int l = i;
+        int r = i;
+        while (l < size) {
+            l = 2 * l;
+            r = 2 * r + 1;
+        }
+        BigRational xm = xs[l - size].add(
+                xs[Math.min(r - size + 1, xs.length - 1)]).divide(2);
+        BigRational[] k = new BigRational[n];
+        Integer[] is = new Integer[n];
+        for (int j = 0; j < n; j++) {
+            k[j] = getY(nodeEdges[o + j], xm);
+            is[j] = j;
+        }
+        Arrays.sort(is, Comparator.comparing(j -> k[j]));
+        int[] es = Arrays.copyOfRange(nodeEdges, o, o + n);
+        for (int j = 0; j < n; j++) {
+            nodeEdges[o + j] = es[is[j]];
+        }
+    }
+
+    /**
+     * @param e The edge.
+     * @param x The x coordinate.
+     * @return The y coordinate of the line of edge {@code e} at {@code x}.
+     */
+    private BigRational getY(int e, BigRational x) {
+        return ey0[e].add(x.subtract(ex0[e]).multiply(ey1[e].subtract(ey0[e]))
+                .divide(ex1[e].subtract(ex0[e])));
+    }
+
+    /**
+     * Translates this. The order of the edges in each node is unchanged.
+     *
+     * @param v The vector to translate by.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     */
+    public void translate(V2D_Vector v, int oom, RoundingMode rm) {
+        BigRational dx = v.getDX(oom, rm);
+        BigRational dy = v.getDY(oom, rm);
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = xs[i].add(dx);
+        }
+        for (int i = 0; i < ex0.length; i++) {
+            ex0[i] = ex0[i].add(dx);
+            ey0[i] = ey0[i].add(dy);
+            ex1[i] = ex1[i].add(dx);
+            ey1[i] = ey1[i].add(dy);
+        }
+        for (int i = 0; i < vy0.length; i++) {
+            vy0[i] = vy0[i].add(dy);
+            vy1[i] = vy1[i].add(dy);
+        }
+    }
+
+    /**
+     * @return The number of slabs.
+     */
+    public int getNumberOfSlabs() {
+        return Math.max(xs.length - 1, 0);
+    }
+
+    /**
+     * @return The total number of edges stored in all the nodes.
+     */
+    public int getSize() {
+        return nodeEdges.length;
+    }
+
+    /**
+     * Identify if the polygon is intersected by {@code pt}.
+     *
+     * @param pt The point.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return {@code true} iff {@code pt} is inside or on an edge.
+     */
+    public boolean intersects(V2D_Point pt, int oom, RoundingMode rm) {
+        return locate(pt.getX(oom, rm), pt.getY(oom, rm)) != OUTSIDE;
+    }
+
+    /**
+     * Identify if the polygon contains {@code pt}.
+     *
+     * @param pt The point.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return {@code true} iff {@code pt} is inside and not on an edge.
+     */
+    public boolean contains(V2D_Point pt, int oom, RoundingMode rm) {
+        return locate(pt.getX(oom, rm), pt.getY(oom, rm)) == INSIDE;
+    }
+
+    /**
+     * Locates a point.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @return {@link #INSIDE}, {@link #BOUNDARY} or {@link #OUTSIDE}.
+     */
+    public int locate(BigRational x, BigRational y) {
+        int m = xs.length;
+        if (m < 2 || x.compareTo(xs[0]) < 0 || x.compareTo(xs[m - 1]) > 0) {
+            return OUTSIDE;
+        }
+        int b = Arrays.binarySearch(xs, x);
+        if (b >= 0) {
+            // On a slab boundary, so test the slabs either side and any
+            // vertical edges.
+            for (int i = verticals[b]; i < verticals[b + 1]; i++) {
+                if (y.compareTo(vy0[i]) >= 0 && y.compareTo(vy1[i]) <= 0) {
+                    return BOUNDARY;
+                }
+            }
+            int r = OUTSIDE;
+            if (b > 0) {
+                r = locate(b - 1, x, y);
+            }
+            if (r != BOUNDARY && b < m - 1) {
+                r = locate(b, x, y);
+            }
+            return r;
+        }
+        return locate(-b - 2, x, y);
+    }
+
+    /**
+     * @param s The slab.
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @return {@link #INSIDE}, {@link #BOUNDARY} or {@link #OUTSIDE} for the
+     * point using the edges in the nodes from slab {@code s} to the root.
+     */
+    private int locate(int s, BigRational x, BigRational y) {
+        int c = 0;
+        for (int i = size + s; i > 0; i >>= 1) {
+            int lo = nodes[i];
+            int hi = nodes[i + 1];
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (orient(nodeEdges[mid], x, y) > 0) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (lo < nodes[i + 1] && orient(nodeEdges[lo], x, y) == 0) {
+                return BOUNDARY;
+            }
+            c += lo - nodes[i];
+        }
+        return c % 2 == 1 ? INSIDE : OUTSIDE;
+    }
+
+    /**
+     * @param e The edge.
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @return 1 if the point is above edge {@code e}, -1 if it is below and 0
+     * if it is on the line of the edge.
+     */
+    private int orient(int e, BigRational x, BigRational y) {
+        return ex1[e].subtract(ex0[e]).multiply(y.subtract(ey0[e]))
+                .subtract(ey1[e].subtract(ey0[e]).multiply(x.subtract(ex0[e])))
+                .signum();
+    }
+}
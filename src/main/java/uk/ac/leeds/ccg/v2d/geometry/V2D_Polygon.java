@@ -17,9 +17,11 @@ package uk.ac.leeds.ccg.v2d.geometry;
 
 import ch.obermuhlner.math.big.BigRational;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.HashMap;
 import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleBigRational;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * V2D_Polygon extends V2D_PolygonNoInternalHoles and is also defined by a
@@ -111,9 +113,23 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
         }
         return internalHolesEdges;
     }
+
+    @Override
+    protected ArrayList<HashMap<Integer, V2D_LineSegment>> getRings(int oom,
+            RoundingMode rm) {
+        ArrayList<HashMap<Integer, V2D_LineSegment>> r = super.getRings(oom,
+                rm);
+        if (internalHoles != null) {
+            for (int i = 0; i < internalHoles.size(); i++) {
+                r.add(internalHoles.get(i).getEdges(oom, rm));
+            }
+        }
+        return r;
+    }
     
     /**
-     * Identify if {@code this} intersects {@code pt}.
+     * Identify if {@code this} intersects {@code pt}. If {@link #locator}
+     * has been built then it is used.
      *
      * @param pt The point to test for intersection.
      * @param oom The Order of Magnitude for the precision.
@@ -122,13 +138,22 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     @Override
     public boolean intersects(V2D_Point pt, int oom, RoundingMode rm) {
-        return super.intersects(pt, oom, rm)
-                && !internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(pt, oom, rm));
+        long time = metrics().start();
+        boolean r;
+        if (locator != null) {
+            r = aabbIntersects(pt.getAABB(oom, rm), oom, rm)
+                    && locator.intersects(pt, oom, rm);
+        } else {
+            r = super.intersects(pt, oom, rm)
+                    && !internalHolesContains(pt, oom, rm);
+        }
+        return metrics().stop(V2D_Polygon.class, V2D_Metrics.INTERSECTS,
+                time, r);
     }
 
     /**
-     * Identify if {@code this} contains {@code pt}.
+     * Identify if {@code this} contains {@code pt}. If {@link #locator} has
+     * been built then it is used.
      *
      * @param pt The point to test for containment.
      * @param oom The Order of Magnitude for the precision.
@@ -137,8 +162,17 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     @Override
     public boolean contains(V2D_Point pt, int oom, RoundingMode rm) {
-        return super.contains(pt, oom, rm)
-                && !internalHolesContains(pt, oom, rm);
+        long time = metrics().start();
+        boolean r;
+        if (locator != null) {
+            r = aabbIntersects(pt.getAABB(oom, rm), oom, rm)
+                    && locator.contains(pt, oom, rm);
+        } else {
+            r = super.contains(pt, oom, rm)
+                    && !internalHolesContains(pt, oom, rm);
+        }
+        return metrics().stop(V2D_Polygon.class, V2D_Metrics.CONTAINS,
+                time, r);
     }
 
     /**
@@ -150,8 +184,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      * @return {@code true} iff {@link #internalHoles} contains {@code pt}.
      */
     public boolean internalHolesContains(V2D_Point pt, int oom, RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.contains(pt, oom, rm));
+        return getHoles(internalHoles.values(), pt.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.contains(pt, oom, rm));
     }
 
     /**
@@ -163,8 +197,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      * @return {@code true} iff {@link #internalHoles} intersects {@code pt}.
      */
     public boolean internalHolesIntersects(V2D_Point pt, int oom, RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.intersects(pt, oom, rm));
+        return getHoles(internalHoles.values(), pt.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.intersects(pt, oom, rm));
     }
 
     /**
@@ -190,8 +224,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      * @return {@code true} iff {@link #internalHoles} contains {@code l}.
      */
     public boolean internalHolesContains(V2D_LineSegment l, int oom, RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.contains(l, oom, rm));
+        return getHoles(internalHoles.values(), l.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.contains(l, oom, rm));
     }
 
     /**
@@ -203,8 +237,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      * @return {@code true} iff {@link #internalHoles} intersects {@code l}.
      */
     public boolean internalHolesIntersects(V2D_LineSegment l, int oom, RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.intersects(l, oom, rm));
+        return getHoles(internalHoles.values(), l.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.intersects(l, oom, rm));
     }
 
     /**
@@ -245,8 +279,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     public boolean internalHolesContains(V2D_Triangle t, int oom,
             RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.contains(t, oom, rm));
+        return getHoles(internalHoles.values(), t.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.contains(t, oom, rm));
     }
 
     /**
@@ -259,8 +293,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     public boolean internalHolesIntersects(V2D_Triangle t, int oom,
             RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.intersects(t, oom, rm));
+        return getHoles(internalHoles.values(), t.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.intersects(t, oom, rm));
     }
 
     /**
@@ -301,8 +335,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     public boolean internalHolesContains(V2D_Rectangle r, int oom,
             RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.contains(r, oom, rm));
+        return getHoles(internalHoles.values(), r.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.contains(r, oom, rm));
     }
 
     /**
@@ -315,8 +349,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     public boolean internalHolesIntersects(V2D_Rectangle r, int oom,
             RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.intersects(r, oom, rm));
+        return getHoles(internalHoles.values(), r.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.intersects(r, oom, rm));
     }
 
     /**
@@ -357,8 +391,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     public boolean internalHolesContains(V2D_ConvexArea ch, int oom,
             RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.contains(ch, oom, rm));
+        return getHoles(internalHoles.values(), ch.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.contains(ch, oom, rm));
     }
 
     /**
@@ -371,8 +405,8 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
      */
     public boolean internalHolesIntersects(V2D_ConvexArea ch, int oom,
             RoundingMode rm) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                -> x.intersects(ch, oom, rm));
+        return getHoles(internalHoles.values(), ch.getAABB(oom, rm), oom,
+                rm).anyMatch(x -> x.intersects(ch, oom, rm));
     }
 
     /**
@@ -390,32 +424,37 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
     }
 
     /**
-     * This sums all the areas irrespective of any overlaps.
-     *
-     * @return The area of the triangle (rounded).
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The area of the external edges less the area of each internal
+     * hole.
      */
     @Override
-    public double getArea() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getArea(oom));
-//        }
-//        return sum;
+    protected BigRational calculateArea(int oom, RoundingMode rm) {
+        BigRational r = super.calculateArea(oom, rm);
+        if (internalHoles != null) {
+            for (var h : internalHoles.values()) {
+                r = r.subtract(h.getArea(oom, rm));
+            }
+        }
+        return r;
     }
 
     /**
-     * This sums all the perimeters irrespective of any overlaps.
-     *
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The sum of the lengths of the external edges and the edges of
+     * each internal hole.
      */
     @Override
-    public double getPerimeter() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getPerimeter(oom));
-//        }
-//        return sum;
+    protected BigRational calculatePerimeter(int oom, RoundingMode rm) {
+        BigRational r = super.calculatePerimeter(oom, rm);
+        if (internalHoles != null) {
+            for (var h : internalHoles.values()) {
+                r = r.add(h.getPerimeter(oom, rm));
+            }
+        }
+        return r;
     }
 
     @Override
@@ -471,6 +510,9 @@ public class V2D_Polygon extends V2D_PolygonNoInternalHoles {
     public int addInternalHole(V2D_Polygon p) {
         int pid = internalHoles.size();
         internalHoles.put(pid, p);
+        if (locator != null) {
+            locator = new V2D_PointLocator(this, env.oom, env.rm);
+        }
         return pid;
     }
 }
@@ -20,8 +20,10 @@ import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.stream.Stream;
 import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleBigRational;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * Defined by a V2D_ConvexArea and a collection of non edge sharing 
@@ -46,6 +48,47 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      */
     public HashMap<Integer, V2D_PolygonNoInternalHoles> externalHoles;
 
+    /**
+     * For storing the area calculated for the last Order of Magnitude and
+     * RoundingMode. This is reset to {@code null} if the polygon is moved.
+     */
+    private transient Measure area;
+
+    /**
+     * For storing the perimeter calculated for the last Order of Magnitude
+     * and RoundingMode. This is reset to {@code null} if the polygon is moved.
+     */
+    private transient Measure perimeter;
+
+    /**
+     * For locating points in O(log n) time. This is only built if
+     * {@link #getPointLocator(int, RoundingMode)} is called, after which it
+     * is used to answer {@link #intersects(V2D_Point, int, RoundingMode)} and
+     * {@link #contains(V2D_Point, int, RoundingMode)}.
+     */
+    protected transient V2D_PointLocator locator;
+
+    /**
+     * For storing a measure together with the Order of Magnitude and
+     * RoundingMode used to calculate it.
+     *
+     * @param value The measure.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode.
+     */
+    private record Measure(BigRational value, int oom, RoundingMode rm) {
+
+        /**
+         * @param oom The Order of Magnitude for the precision.
+         * @param rm The RoundingMode.
+         * @return {@code true} if this was calculated using {@code oom} and
+         * {@code rm}.
+         */
+        boolean isFor(int oom, RoundingMode rm) {
+            return this.oom == oom && this.rm == rm;
+        }
+    }
+
     /**
      * Create a new instance that is a shallow copy of the polygon.
      *
@@ -305,6 +348,89 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
         return externalHoles;
     }
 
+    /**
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The edges of each ring with the external edges first.
+     */
+    protected ArrayList<HashMap<Integer, V2D_LineSegment>> getRings(int oom,
+            RoundingMode rm) {
+        ArrayList<HashMap<Integer, V2D_LineSegment>> r = new ArrayList<>();
+        r.add(getEdges(oom, rm));
+        return r;
+    }
+
+    /**
+     * Identify if this is valid. For this each ring of edges must have at
+     * least three edges, and no edge may intersect another except where
+     * adjacent edges of a ring meet at their shared end point.
+     *
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return {@code true} iff this is valid.
+     */
+    public boolean isValid(int oom, RoundingMode rm) {
+        return getValidityErrors(oom, rm).isEmpty();
+    }
+
+    /**
+     * Finds what makes this invalid (see {@link #isValid(int, RoundingMode)}).
+     * The edges are tested using a plane sweep (see
+     * {@link V2D_LineSegmentSweep}), so this runs in O((n+k) log n) time
+     * where n is the number of edges and k is the number of intersections.
+     * Ring 0 is the external edges and any other rings are internal holes.
+     *
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return A description of each error found which is empty if this is
+     * valid.
+     */
+    public ArrayList<String> getValidityErrors(int oom, RoundingMode rm) {
+        ArrayList<String> r = new ArrayList<>();
+        ArrayList<HashMap<Integer, V2D_LineSegment>> rings = getRings(oom, rm);
+        ArrayList<V2D_LineSegment> ls = new ArrayList<>();
+        // For each edge the ring index, the edge key and the ring size.
+        ArrayList<int[]> ids = new ArrayList<>();
+        for (int i = 0; i < rings.size(); i++) {
+            HashMap<Integer, V2D_LineSegment> ring = rings.get(i);
+            if (ring.size() < 3) {
+                r.add("Ring " + i + " has " + ring.size() + " edges");
+            }
+            for (var e : ring.entrySet()) {
+                ls.add(e.getValue());
+                ids.add(new int[]{i, e.getKey(), ring.size()});
+            }
+        }
+        for (var x : V2D_LineSegment.getIntersections(oom, rm, ls)) {
+            int[] a = ids.get(x.i);
+            int[] b = ids.get(x.j);
+            if (a[0] == b[0] && x.g instanceof V2D_Point) {
+                int d = Math.abs(a[1] - b[1]);
+                if (d == 1 || d == a[2] - 1) {
+                    continue;
+                }
+            }
+            r.add("Edge " + a[1] + " of ring " + a[0] + " intersects edge "
+                    + b[1] + " of ring " + b[0] + " at " + x.g.toString());
+        }
+        return r;
+    }
+
+    /**
+     * Triangulates this in O(n log n) time (see {@link V2D_Triangulator}).
+     *
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The triangles as triples of indexes. The indexes are into the
+     * points of this in key order followed by the points of any internal
+     * holes in key order.
+     */
+    public int[] getTriangulation(int oom, RoundingMode rm) {
+        ArrayList<BigRational[]> rings = new ArrayList<>();
+        V2D_Overlay.addRings(this, rings, oom, rm);
+        return V2D_Triangulator.getTriangles(rings);
+    }
+
     @Override
     public V2D_Point[] getPointsArray(int oom, RoundingMode rm) {
         return points.values().toArray(new V2D_Point[points.size()]);
@@ -325,7 +451,58 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
     }
 
     /**
-     * Identify if this is intersected by pt.
+     * Builds {@link #locator} if it has not already been built. This takes
+     * O(n log n) time or longer for large and complicated polygons, so is
+     * worthwhile if many points are to be tested against this.
+     *
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return {@link #locator}.
+     */
+    public V2D_PointLocator getPointLocator(int oom, RoundingMode rm) {
+        if (locator == null) {
+            locator = new V2D_PointLocator(this, oom, rm);
+        }
+        return locator;
+    }
+
+    /**
+     * Identify if the Axis Aligned Bounding Box of this intersects
+     * {@code aabb}. This is tested before anything more expensive so that
+     * geometries far from this are rejected early.
+     *
+     * @param aabb The envelope to test for intersection.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return {@code true} iff the envelopes intersect.
+     */
+    protected boolean aabbIntersects(V2D_AABB aabb, int oom,
+            RoundingMode rm) {
+        return metrics().aabb(getAABB(oom, rm).intersects(aabb, oom));
+    }
+
+    /**
+     * For getting a stream of those holes with an Axis Aligned Bounding Box
+     * that intersects {@code aabb}. Holes that are far from the geometry
+     * being tested are then not tested any further.
+     *
+     * @param holes The holes.
+     * @param aabb The envelope of the geometry being tested.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The holes that might intersect a geometry with envelope
+     * {@code aabb}.
+     */
+    protected Stream<V2D_PolygonNoInternalHoles> getHoles(
+            Collection<V2D_PolygonNoInternalHoles> holes, V2D_AABB aabb,
+            int oom, RoundingMode rm) {
+        return execution().stream(holes).filter(x -> metrics().aabb(
+                x.getAABB(oom, rm).intersects(aabb, oom)));
+    }
+
+    /**
+     * Identify if this is intersected by pt. If {@link #locator} has been
+     * built then it is used.
      *
      * @param pt The point to test for intersection with.
      * @param oom The Order of Magnitude for the precision.
@@ -333,14 +510,27 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is an intersection.
      */
     public boolean intersects(V2D_Point pt, int oom, RoundingMode rm) {
-        return ch.intersects(pt, oom, rm)
-                && (!V2D_LineSegment.intersects(oom, rm, pt, ch.edges.values())
-                && !externalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(pt, oom, rm)));
+        long time = metrics().start();
+        boolean r;
+        if (!aabbIntersects(pt.getAABB(oom, rm), oom, rm)) {
+            r = false;
+        } else if (locator != null) {
+            r = locator.intersects(pt, oom, rm);
+        } else {
+            r = ch.intersects(pt, oom, rm)
+                    && (!V2D_LineSegment.intersects(oom, rm, pt,
+                            ch.edges.values())
+                    && !getHoles(externalHoles.values(),
+                            pt.getAABB(oom, rm), oom, rm)
+                            .anyMatch(x -> x.contains(pt, oom, rm)));
+        }
+        return metrics().stop(V2D_PolygonNoInternalHoles.class,
+                V2D_Metrics.INTERSECTS, time, r);
     }
 
     /**
-     * Identify if this contains pt.
+     * Identify if this contains pt. If {@link #locator} has been built then
+     * it is used.
      *
      * @param pt The point to test for containment.
      * @param oom The Order of Magnitude for the precision.
@@ -348,8 +538,18 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is an intersection.
      */
     public boolean contains(V2D_Point pt, int oom, RoundingMode rm) {
-        return intersects(pt, oom, rm)
-                && !V2D_LineSegment.intersects(oom, rm, pt, edges.values());
+        long time = metrics().start();
+        boolean r;
+        if (locator != null) {
+            r = aabbIntersects(pt.getAABB(oom, rm), oom, rm)
+                    && locator.contains(pt, oom, rm);
+        } else {
+            r = intersects(pt, oom, rm)
+                    && !V2D_LineSegment.intersects(oom, rm, pt,
+                            edges.values());
+        }
+        return metrics().stop(V2D_PolygonNoInternalHoles.class,
+                V2D_Metrics.CONTAINS, time, r);
     }
 
     /**
@@ -361,7 +561,8 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is an intersection.
      */
     public boolean contains(V2D_LineSegment ls, int oom, RoundingMode rm) {
-        return contains(ls.getP(), oom, rm)
+        return aabbIntersects(ls.getAABB(oom, rm), oom, rm)
+                && contains(ls.getP(), oom, rm)
                 && contains(ls.getQ(oom, rm), oom, rm);
     }
 
@@ -374,7 +575,8 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_Triangle t, int oom, RoundingMode rm) {
-        return contains(t.getP(oom, rm), oom, rm)
+        return aabbIntersects(t.getAABB(oom, rm), oom, rm)
+                && contains(t.getP(oom, rm), oom, rm)
                 && contains(t.getQ(oom, rm), oom, rm)
                 && contains(t.getR(oom, rm), oom, rm);
     }
@@ -388,7 +590,8 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_Rectangle r, int oom, RoundingMode rm) {
-        return contains(r.getP(oom, rm), oom, rm)
+        return aabbIntersects(r.getAABB(oom, rm), oom, rm)
+                && contains(r.getP(oom, rm), oom, rm)
                 && contains(r.getQ(oom, rm), oom, rm)
                 && contains(r.getR(oom, rm), oom, rm)
                 && contains(r.getS(oom, rm), oom, rm);
@@ -403,6 +606,9 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_AABB aabb, int oom, RoundingMode rm) {
+        if (!aabbIntersects(aabb, oom, rm)) {
+            return false;
+        }
         BigRational xmin = aabb.getXMin(oom);
         BigRational xmax = aabb.getXMax(oom);
         BigRational ymin = aabb.getYMin(oom);
@@ -422,9 +628,10 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_ConvexArea ch, int oom, RoundingMode rm) {
-        return this.ch.intersects(ch, oom, rm)
-                && ch.getPoints(oom, rm).values().parallelStream().allMatch(x
-                        -> contains(x, oom, rm));
+        return aabbIntersects(ch.getAABB(oom, rm), oom, rm)
+                && this.ch.intersects(ch, oom, rm)
+                && execution().stream(ch.getPoints(oom, rm).values())
+                        .allMatch(x -> contains(x, oom, rm));
     }
 
     /**
@@ -436,9 +643,10 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff {@code this} contains {@code p}.
      */
     public boolean contains(V2D_PolygonNoInternalHoles p, int oom, RoundingMode rm) {
-        return ch.intersects(p.ch, oom, rm)
-                && p.getPoints(oom, rm).values().parallelStream().allMatch(x
-                        -> contains(x, oom, rm));
+        return aabbIntersects(p.getAABB(oom, rm), oom, rm)
+                && ch.intersects(p.ch, oom, rm)
+                && execution().stream(p.getPoints(oom, rm).values())
+                        .allMatch(x -> contains(x, oom, rm));
     }
 
     /**
@@ -450,11 +658,13 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is an intersection.
      */
     public boolean intersects(V2D_LineSegment l, int oom, RoundingMode rm) {
-        return ch.intersects(l, oom, rm)
+        V2D_AABB aabb = l.getAABB(oom, rm);
+        return aabbIntersects(aabb, oom, rm)
+                && ch.intersects(l, oom, rm)
                 && (V2D_LineSegment.intersects(oom, rm, l,
                         edges.values())
-                || !externalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(l, oom, rm)));
+                || !getHoles(externalHoles.values(), aabb, oom, rm)
+                        .anyMatch(x -> x.contains(l, oom, rm)));
     }
 
     /**
@@ -466,7 +676,8 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff there is an intersection.
      */
     public boolean intersects(V2D_Triangle t, int oom, RoundingMode rm) {
-        return ch.intersects(t, oom, rm)
+        return aabbIntersects(t.getAABB(oom, rm), oom, rm)
+                && ch.intersects(t, oom, rm)
                 && intersects0(t, oom, rm);
     }
 
@@ -485,11 +696,11 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
         return (intersects(tp, oom, rm)
                 || intersects(tq, oom, rm)
                 || intersects(tr, oom, rm))
-                || (t.getEdges(oom, rm).values().parallelStream().anyMatch(x
-                        -> V2D_LineSegment.intersects(oom, rm, x,
+                || (execution().stream(t.getEdges(oom, rm).values())
+                        .anyMatch(x -> V2D_LineSegment.intersects(oom, rm, x,
                         edges.values())))
-                && !(externalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(tp, oom, rm)
+                && !(getHoles(externalHoles.values(), t.getAABB(oom, rm),
+                        oom, rm).anyMatch(x -> x.contains(tp, oom, rm)
                 && x.contains(tq, oom, rm)
                 && x.contains(tr, oom, rm)));
     }
@@ -503,7 +714,8 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff the geometry is intersected by {@code ch.
      */
     public boolean intersects(V2D_Rectangle r, int oom, RoundingMode rm) {
-        return ch.intersects(r, oom, rm)
+        return aabbIntersects(r.getAABB(oom, rm), oom, rm)
+                && ch.intersects(r, oom, rm)
                 && (intersects0(r.getPQR(), oom, rm)
                 || intersects0(r.getRSP(), oom, rm));
     }
@@ -517,18 +729,19 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      * @return {@code true} iff this is intersected by {@code ch}.
      */
     public boolean intersects(V2D_ConvexArea ch, int oom, RoundingMode rm) {
-        return this.ch.intersects(ch, oom, rm)
+        return aabbIntersects(ch.getAABB(oom, rm), oom, rm)
+                && this.ch.intersects(ch, oom, rm)
                 && /**
                  * If any of the edges intersect or if one geometry contains the
                  * other, there is an intersection.
                  */
-                edges.values().parallelStream().anyMatch(x
+                (execution().stream(edges.values()).anyMatch(x
                         -> V2D_LineSegment.intersects(oom, rm, x,
                         ch.getEdges(oom, rm).values()))
-                || ch.getPoints(oom, rm).values().parallelStream().anyMatch(x
-                        -> intersects(x, oom, rm))
-                || getPoints(oom, rm).values().parallelStream().anyMatch(x
-                        -> ch.intersects(x, oom, rm));
+                || execution().stream(ch.getPoints(oom, rm).values())
+                        .anyMatch(x -> intersects(x, oom, rm))
+                || execution().stream(getPoints(oom, rm).values()).anyMatch(x
+                        -> ch.intersects(x, oom, rm)));
     }
 
     /**
@@ -541,55 +754,178 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
      */
     public boolean intersects(V2D_PolygonNoInternalHoles p, int oom,
             RoundingMode rm) {
-        return p.ch.intersects(p.ch, oom, rm)
+        return aabbIntersects(p.getAABB(oom, rm), oom, rm)
+                && ch.intersects(p.ch, oom, rm)
                 && /**
                  * If any of the edges intersect or if one polygon contains the
                  * other, there is an intersection.
                  */
-                edges.values().parallelStream().anyMatch(x
+                (execution().stream(edges.values()).anyMatch(x
                         -> V2D_LineSegment.intersects(oom, rm, x,
                         p.edges.values()))
-                || getPoints(oom, rm).values().parallelStream().anyMatch(x
+                || execution().stream(getPoints(oom, rm).values()).anyMatch(x
                         -> p.intersects(x, oom, rm))
-                || p.getPoints(oom, rm).values().parallelStream().anyMatch(x
-                        -> intersects(x, oom, rm));
+                || execution().stream(p.getPoints(oom, rm).values())
+                        .anyMatch(x -> intersects(x, oom, rm)));
     }
 
     /**
-     * This sums all the areas irrespective of any overlaps.
+     * Calculates the area using the shoelace formula. This is exact and is
+     * stored until the polygon is moved.
      *
-     * @return The area of the triangle (rounded).
-     */
-    //@Override
-    public double getArea() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getArea(oom));
-//        }
-//        return sum;
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The area.
+     */
+    public BigRational getArea(int oom, RoundingMode rm) {
+        Measure m = area;
+        if (m == null || !m.isFor(oom, rm)) {
+            m = new Measure(calculateArea(oom, rm), oom, rm);
+            area = m;
+        }
+        return m.value();
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The area calculated using the shoelace formula.
+     */
+    protected BigRational calculateArea(int oom, RoundingMode rm) {
+        return getArea(getPoints(oom, rm), oom, rm);
+    }
+
+    /**
+     * @param pts The points of a ring in order.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The area of the ring calculated using the shoelace formula.
+     */
+    protected static BigRational getArea(HashMap<Integer, V2D_Point> pts,
+            int oom, RoundingMode rm) {
+        int n = pts.size();
+        if (n < 3) {
+            return BigRational.ZERO;
+        }
+        // Coordinates are taken relative to the first point.
+        V2D_Point p0 = pts.get(0);
+        BigRational x0 = p0.getX(oom, rm);
+        BigRational y0 = p0.getY(oom, rm);
+        BigRational sum = BigRational.ZERO;
+        BigRational xa = BigRational.ZERO;
+        BigRational ya = BigRational.ZERO;
+        for (int i = 1; i < n; i++) {
+            V2D_Point p = pts.get(i);
+            BigRational xb = p.getX(oom, rm).subtract(x0);
+            BigRational yb = p.getY(oom, rm).subtract(y0);
+            sum = sum.add(xa.multiply(yb)).subtract(xb.multiply(ya));
+            xa = xb;
+            ya = yb;
+        }
+        return sum.abs().divide(2);
     }
 
     /**
-     * This sums all the perimeters irrespective of any overlaps.
+     * Calculates the perimeter as the sum of the lengths of the edges. This is
+     * stored until the polygon is moved.
      *
-     * @return The total length of the external edges.
-     */
-    //@Override
-    public double getPerimeter() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getPerimeter(oom));
-//        }
-//        return sum;
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The perimeter.
+     */
+    public BigRational getPerimeter(int oom, RoundingMode rm) {
+        Measure m = perimeter;
+        if (m == null || !m.isFor(oom, rm)) {
+            m = new Measure(calculatePerimeter(oom, rm), oom, rm);
+            perimeter = m;
+        }
+        return m.value();
+    }
+
+    /**
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The sum of the lengths of the edges.
+     */
+    protected BigRational calculatePerimeter(int oom, RoundingMode rm) {
+        return getPerimeter(getEdges(oom, rm), oom, rm);
+    }
+
+    /**
+     * @param edges The edges.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The sum of the lengths of the edges. Each length is calculated
+     * with enough extra precision for the sum to be accurate to {@code oom}.
+     */
+    protected static BigRational getPerimeter(
+            HashMap<Integer, V2D_LineSegment> edges, int oom,
+            RoundingMode rm) {
+        int oomn = oom - 2 - Integer.toString(edges.size()).length();
+        BigRational sum = BigRational.ZERO;
+        for (V2D_LineSegment l : edges.values()) {
+            sum = sum.add(l.getLength(oomn, rm).getSqrt(oomn, rm));
+        }
+        return sum;
+    }
+
+    /**
+     * @param p The polygon to intersect with.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of both {@code this} and
+     * {@code p}.
+     */
+    public ArrayList<V2D_Polygon> getIntersection(V2D_PolygonNoInternalHoles p,
+            int oom, RoundingMode rm) {
+        return V2D_Overlay.getIntersection(this, p, oom, rm);
+    }
+
+    /**
+     * @param p The polygon to merge with.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of either {@code this} or
+     * {@code p}.
+     */
+    public ArrayList<V2D_Polygon> getUnion(V2D_PolygonNoInternalHoles p,
+            int oom, RoundingMode rm) {
+        return V2D_Overlay.getUnion(this, p, oom, rm);
+    }
+
+    /**
+     * @param p The polygon to clip with.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of {@code this} not in
+     * {@code p}.
+     */
+    public ArrayList<V2D_Polygon> getDifference(V2D_PolygonNoInternalHoles p,
+            int oom, RoundingMode rm) {
+        return V2D_Overlay.getDifference(this, p, oom, rm);
+    }
+
+    /**
+     * @param p The other polygon.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode for any rounding.
+     * @return The polygons covering the area of {@code this} or {@code p} but
+     * not both.
+     */
+    public ArrayList<V2D_Polygon> getXor(V2D_PolygonNoInternalHoles p,
+            int oom, RoundingMode rm) {
+        return V2D_Overlay.getXor(this, p, oom, rm);
     }
 
     @Override
     public void translate(V2D_Vector v, int oom, RoundingMode rm) {
+        // The envelope is that of ch, so it is translated with ch.
+        en = null;
         super.translate(v, oom, rm);
-        if (en != null) {
-            en.translate(v, oom, rm);
+        area = null;
+        perimeter = null;
+        if (locator != null) {
+            locator.translate(v, oom, rm);
         }
         ch.translate(v, oom, rm);
         if (edges != null) {
@@ -661,6 +997,9 @@ public class V2D_PolygonNoInternalHoles extends V2D_Area {
     public int addExternalHole(V2D_PolygonNoInternalHoles p) {
         int pid = externalHoles.size();
         externalHoles.put(pid, p);
+        if (locator != null) {
+            locator = new V2D_PointLocator(this, env.oom, env.rm);
+        }
         return pid;
     }
 }
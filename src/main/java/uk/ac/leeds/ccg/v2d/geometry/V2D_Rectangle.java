@@ -259,7 +259,7 @@ public class V2D_Rectangle extends V2D_Area {
      * @return True iff there is an intersection.
      */
     public boolean intersects(int oom, RoundingMode rm, Collection<V2D_LineSegment> ls) {
-        return ls.parallelStream().anyMatch(x -> intersects(x, oom, rm));
+        return execution().stream(ls).anyMatch(x -> intersects(x, oom, rm));
     }
 
     /**
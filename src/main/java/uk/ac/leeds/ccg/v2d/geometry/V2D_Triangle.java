@@ -25,6 +25,7 @@ import uk.ac.leeds.ccg.math.arithmetic.Math_BigDecimal;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleBigRational;
 import uk.ac.leeds.ccg.math.number.Math_BigRationalSqrt;
 import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 import uk.ac.leeds.ccg.v2d.geometry.light.V2D_VTriangle;
 
 /**
@@ -614,10 +615,11 @@ public class V2D_Triangle extends V2D_Area {
      * @return True iff there is an intersection.
      */
     public boolean intersects(V2D_Point pt, int oom, RoundingMode rm) {
-        if (getAABB(oom, rm).contains(pt, oom)) {
-            return intersects0(pt, oom, rm);
-        }
-        return false;
+        long time = metrics().start();
+        boolean r = metrics().aabb(getAABB(oom, rm).contains(pt, oom))
+                && intersects0(pt, oom, rm);
+        return metrics().stop(V2D_Triangle.class, V2D_Metrics.INTERSECTS,
+                time, r);
     }
 
     /**
@@ -629,12 +631,13 @@ public class V2D_Triangle extends V2D_Area {
      * @return True iff pt is in the triangle and not on the edge.
      */
     public boolean contains(V2D_Point pt, int oom, RoundingMode rm) {
-        if (intersects(pt, oom, rm)) {
-            return !(getPQ(oom, rm).intersects(pt, oom, rm)
-                    || getQR(oom, rm).intersects(pt, oom, rm)
-                    || getRP(oom, rm).intersects(pt, oom, rm));
-        }
-        return false;
+        long time = metrics().start();
+        boolean r = intersects(pt, oom, rm)
+                && !(getPQ(oom, rm).intersects(pt, oom, rm)
+                || getQR(oom, rm).intersects(pt, oom, rm)
+                || getRP(oom, rm).intersects(pt, oom, rm));
+        return metrics().stop(V2D_Triangle.class, V2D_Metrics.CONTAINS,
+                time, r);
     }
 
     /**
@@ -672,7 +675,7 @@ public class V2D_Triangle extends V2D_Area {
      * @return {@code true} iff {@code this} is intersected by {@code t}.
      */
     public boolean contains(V2D_Triangle t, int oom, RoundingMode rm) {
-        return t.getPoints(oom, rm).values().parallelStream().allMatch(x
+        return execution().stream(t.getPoints(oom, rm).values()).allMatch(x
                 -> contains(x, oom, rm));
     }
 
@@ -719,7 +722,7 @@ public class V2D_Triangle extends V2D_Area {
                 || intersects0(l.getQ(oom, rm), oom, rm)) {
             return true;
         }
-        return getEdges(oom, rm).values().parallelStream().anyMatch(x
+        return execution().stream(getEdges(oom, rm).values()).anyMatch(x
                 -> x.intersects(l, oom, rm));
     }
 
@@ -761,21 +764,22 @@ public class V2D_Triangle extends V2D_Area {
     }
 
     /**
-     * https://en.wikipedia.org/wiki/Heron%27s_formula
+     * Calculates the area using the shoelace formula which is exact.
      *
      * @param oom The Order of Magnitude for the precision.
      * @param rm The RoundingMode if rounding is needed.
      * @return The area of the triangle.
      */
     public BigRational getArea(int oom, RoundingMode rm) {
-        BigRational a = getPQ(oom, rm).getLength(oom, rm).getSqrt(oom, rm);
-        BigRational b = getQR(oom, rm).getLength(oom, rm).getSqrt(oom, rm);
-        BigRational c = getRP(oom, rm).getLength(oom, rm).getSqrt(oom, rm);
-        BigRational p1 = (a.add(b).add(c)).divide(2);
-        BigRational p2 = (b.add(c).subtract(a)).divide(2);
-        BigRational p3 = (a.subtract(b).add(c)).divide(2);
-        BigRational p4 = (a.add(b).subtract(c)).divide(2);
-        return new Math_BigRationalSqrt(p1.multiply(p2).multiply(p3).multiply(p4), oom, rm).getSqrt(oom, rm);
+        V2D_Point tp = getP(oom, rm);
+        V2D_Point tq = getQ(oom, rm);
+        V2D_Point tr = getR(oom, rm);
+        BigRational px = tp.getX(oom, rm);
+        BigRational py = tp.getY(oom, rm);
+        return tq.getX(oom, rm).subtract(px).multiply(
+                tr.getY(oom, rm).subtract(py)).subtract(
+                tr.getX(oom, rm).subtract(px).multiply(
+                        tq.getY(oom, rm).subtract(py))).abs().divide(2);
     }
 
     /**
@@ -1005,8 +1009,23 @@ public class V2D_Triangle extends V2D_Area {
      */
     public V2D_FiniteGeometry getIntersect(V2D_Triangle t, int oom,
             RoundingMode rm) {
+        long time = metrics().start();
+        return metrics().stop(V2D_Triangle.class, V2D_Metrics.GET_INTERSECT,
+                time, getIntersect0(t, oom, rm));
+    }
+
+    /**
+     * @param t The triangle intersect with this.
+     * @param oom The Order of Magnitude for the precision.
+     * @param rm The RoundingMode if rounding is needed.
+     * @return The intersection between {@code t} and {@code this} or
+     * {@code null} if there is no intersection.
+     */
+    private V2D_FiniteGeometry getIntersect0(V2D_Triangle t, int oom,
+            RoundingMode rm) {
         int oomn2 = oom - 2;
-        if (getAABB(oom, rm).intersects(t.getAABB(oomn2, rm), oomn2)) {
+        if (metrics().aabb(getAABB(oom, rm).intersects(
+                t.getAABB(oomn2, rm), oomn2))) {
             /**
              * Get intersections between the triangle edges. If there are none,
              * then either this returns t or vice versa. If there are some, then
@@ -1213,7 +1232,7 @@ public class V2D_Triangle extends V2D_Area {
      * @return {@code true} iff {@code this} is equal to {@code t}.
      */
     public boolean equals(V2D_Triangle t, int oom, RoundingMode rm) {
-        return getPoints(oom, rm).values().parallelStream().allMatch(x
+        return execution().stream(getPoints(oom, rm).values()).allMatch(x
                 -> x.equalsAny(t.getPoints(oom, rm).values(), oom, rm));
 //        V2D_Point tp = t.getP(oom, rm);
 //        V2D_Point thisp = getP(oom, rm);
@@ -0,0 +1,568 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * For triangulating a polygon that may have holes in O(n log n) time. A plane
+ * sweep from top to bottom adds diagonals to partition the polygon into
+ * y-monotone pieces, and each piece is then triangulated in linear time (see
+ * de Berg et al. (2008) Computational Geometry: Algorithms and Applications,
+ * Chapter 3). The diagonals added at split and merge vertices join holes to
+ * the rest of the polygon, so holes need no separate bridging.
+ *
+ * Rings are given as interleaved x and y coordinates. The first ring is the
+ * exterior and any others are holes. Vertices are indexed in the order of the
+ * rings, so the first vertex of the second ring has an index equal to the
+ * number of vertices in the first ring. The polygon is expected to be valid
+ * (see {@link V2D_PolygonNoInternalHoles#isValid(int, java.math.RoundingMode)}).
+ * Rings with less than three vertices or no area are ignored. All
+ * calculations are exact.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Triangulator {
+
+    /**
+     * Vertex types.
+     */
+    private static final byte START = 0, END = 1, SPLIT = 2, MERGE = 3,
+            REGULAR = 4;
+
+    /**
+     * The x coordinates of the vertices.
+     */
+    private final BigRational[] x;
+
+    /**
+     * The y coordinates of the vertices.
+     */
+    private final BigRational[] y;
+
+    /**
+     * The next vertex in each ring going round so that the interior is on the
+     * left. This is -1 for vertices of ignored rings.
+     */
+    private final int[] next;
+
+    /**
+     * The previous vertex in each ring.
+     */
+    private final int[] prev;
+
+    /**
+     * The vertex types.
+     */
+    private final byte[] types;
+
+    /**
+     * The diagonals as pairs of vertex indexes.
+     */
+    private int[] diagonals;
+
+    /**
+     * The number of diagonals.
+     */
+    private int nDiagonals;
+
+    /**
+     * The triangles as triples of vertex indexes.
+     */
+    private int[] triangles;
+
+    /**
+     * The number of vertex indexes in {@link #triangles}.
+     */
+    private int nTriangles;
+
+    /**
+     * For the x and y coordinates of the vertex being searched for in the
+     * sweep line.
+     */
+    private BigRational probeX, probeY;
+
+    /**
+     * Used in the sweep line to represent the vertex being searched for.
+     */
+    private static final int PROBE = -1;
+
+    /**
+     * @param rings The rings.
+     */
+    private V2D_Triangulator(List<BigRational[]> rings) {
+        int n = 0;
+        for (BigRational[] r : rings) {
+            n += r.length / 2;
+        }
+        x = new BigRational[n];
+        y = new BigRational[n];
+        next = new int[n];
+        prev = new int[n];
+        types = new byte[n];
+        Arrays.fill(next, -1);
+        Arrays.fill(prev, -1);
+        int o = 0;
+        for (int i = 0; i < rings.size(); i++) {
+            BigRational[] r = rings.get(i);
+            int m = r.length / 2;
+            for (int k = 0; k < m; k++) {
+                x[o + k] = r[2 * k];
+                y[o + k] = r[2 * k + 1];
+            }
+            int a = V2D_Overlay.getArea(r).signum();
+            if (m > 2 && a != 0) {
+                // The exterior is made counter-clockwise and holes clockwise.
+                boolean reverse = (i == 0) == (a < 0);
+                for (int k = 0; k < m; k++) {
+                    int kn = o + (k + 1) % m;
+                    if (reverse) {
+                        next[kn] = o + k;
+                        prev[o + k] = kn;
+                    } else {
+                        next[o + k] = kn;
+                        prev[kn] = o + k;
+                    }
+                }
+            }
+            o += m;
+        }
+        diagonals = new int[16];
+        triangles = new int[Math.max(3, 3 * n)];
+    }
+
+    /**
+     * @param rings The rings as interleaved x and y coordinates with the
+     * exterior first and then any holes.
+     * @return The triangles as triples of vertex indexes. The vertices of each
+     * triangle are in the same rotational order as the exterior ring.
+     */
+    public static int[] getTriangles(List<BigRational[]> rings) {
+        if (rings.isEmpty()) {
+            return new int[0];
+        }
+        V2D_Triangulator t = new V2D_Triangulator(rings);
+        t.partition();
+        t.triangulate();
+        int[] r = Arrays.copyOf(t.triangles, t.nTriangles);
+        if (V2D_Overlay.getArea(rings.get(0)).signum() < 0) {
+            for (int i = 0; i < r.length; i += 3) {
+                int v = r[i + 1];
+                r[i + 1] = r[i + 2];
+                r[i + 2] = v;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param a A vertex index.
+     * @param b Another vertex index.
+     * @return A negative number if a is before b in the sweep from top to
+     * bottom, and left to right for vertices at the same height.
+     */
+    private int compare(int a, int b) {
+        int c = y[b].compareTo(y[a]);
+        if (c != 0) {
+            return c;
+        }
+        c = x[a].compareTo(x[b]);
+        return c != 0 ? c : Integer.compare(a, b);
+    }
+
+    /**
+     * @return 1 if p0 p1 p2 are in counter-clockwise order, -1 if they are in
+     * clockwise order and 0 if they are collinear.
+     */
+    private int orient(int p0, int p1, int p2) {
+        return V2D_Overlay.getOrientation(x[p0], y[p0], x[p1], y[p1], x[p2],
+                y[p2]);
+    }
+
+    /**
+     * @param e An edge given by the index of its first vertex.
+     * @param px The x coordinate of a point.
+     * @param py The y coordinate of a point.
+     * @return 1 if the point is to the right of the line through the edge, 0
+     * if it is on it and -1 otherwise.
+     */
+    private int side(int e, BigRational px, BigRational py) {
+        int u = upper(e);
+        int l = u == e ? next[e] : e;
+        return V2D_Overlay.getOrientation(x[u], y[u], x[l], y[l], px, py);
+    }
+
+    /**
+     * @param e An edge given by the index of its first vertex.
+     * @return The upper vertex of the edge.
+     */
+    private int upper(int e) {
+        return compare(e, next[e]) < 0 ? e : next[e];
+    }
+
+    /**
+     * Orders edges crossing the sweep line from left to right.
+     *
+     * @param a An edge or {@link #PROBE}.
+     * @param b Another edge or {@link #PROBE}.
+     * @return A negative number if a is left of b.
+     */
+    private int compareEdges(int a, int b) {
+        if (a == b) {
+            return 0;
+        }
+        if (b == PROBE) {
+            return side(a, probeX, probeY) >= 0 ? -1 : 1;
+        }
+        if (a == PROBE) {
+            return -compareEdges(b, a);
+        }
+        int ua = upper(a);
+        int ub = upper(b);
+        if (compare(ua, ub) > 0) {
+            return -compareEdges(b, a);
+        }
+        // ub is at or below ua, so compare using it.
+        int s = side(a, x[ub], y[ub]);
+        if (s == 0) {
+            int lb = ub == b ? next[b] : b;
+            s = side(a, x[lb], y[lb]);
+        }
+        if (s == 0) {
+            return Integer.compare(a, b);
+        }
+        return s > 0 ? -1 : 1;
+    }
+
+    /**
+     * Adds diagonals so that the polygon is partitioned into y-monotone
+     * pieces.
+     */
+    private void partition() {
+        int n = x.length;
+        Integer[] order = new Integer[n];
+        int nv = 0;
+        for (int v = 0; v < n; v++) {
+            if (next[v] != -1) {
+                order[nv++] = v;
+                int p = prev[v];
+                int q = next[v];
+                boolean pb = compare(p, v) > 0;
+                boolean qb = compare(q, v) > 0;
+                boolean convex = orient(p, v, q) > 0;
+                if (pb && qb) {
+                    types[v] = convex ? START : SPLIT;
+                } else if (!pb && !qb) {
+                    types[v] = convex ? END : MERGE;
+                } else {
+                    types[v] = REGULAR;
+                }
+            }
+        }
+        Arrays.sort(order, 0, nv, this::compare);
+        int[] helper = new int[n];
+        TreeSet<Integer> sweepLine = new TreeSet<>(this::compareEdges);
+        for (int i = 0; i < nv; i++) {
+            int v = order[i];
+            int e = prev[v];
+            switch (types[v]) {
+                case START -> {
+                    sweepLine.add(v);
+                    helper[v] = v;
+                }
+                case END -> {
+                    if (types[helper[e]] == MERGE) {
+                        addDiagonal(v, helper[e]);
+                    }
+                    sweepLine.remove(e);
+                }
+                case SPLIT -> {
+                    Integer j = getLeft(sweepLine, v);
+                    if (j != null) {
+                        addDiagonal(v, helper[j]);
+                        helper[j] = v;
+                    }
+                    sweepLine.add(v);
+                    helper[v] = v;
+                }
+                case MERGE -> {
+                    if (types[helper[e]] == MERGE) {
+                        addDiagonal(v, helper[e]);
+                    }
+                    sweepLine.remove(e);
+                    Integer j = getLeft(sweepLine, v);
+                    if (j != null) {
+                        if (types[helper[j]] == MERGE) {
+                            addDiagonal(v, helper[j]);
+                        }
+                        helper[j] = v;
+                    }
+                }
+                default -> {
+                    if (compare(e, v) < 0) {
+                        // The interior is to the right.
+                        if (types[helper[e]] == MERGE) {
+                            addDiagonal(v, helper[e]);
+                        }
+                        sweepLine.remove(e);
+                        sweepLine.add(v);
+                        helper[v] = v;
+                    } else {
+                        Integer j = getLeft(sweepLine, v);
+                        if (j != null) {
+                            if (types[helper[j]] == MERGE) {
+                                addDiagonal(v, helper[j]);
+                            }
+                            helper[j] = v;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param sweepLine The sweep line.
+     * @param v A vertex.
+     * @return The edge in the sweep line directly left of v.
+     */
+    private Integer getLeft(TreeSet<Integer> sweepLine, int v) {
+        probeX = x[v];
+        probeY = y[v];
+        return sweepLine.lower(PROBE);
+    }
+
+    /**
+     * @param a A vertex.
+     * @param b Another vertex.
+     */
+    private void addDiagonal(int a, int b) {
+        if (2 * nDiagonals + 2 > diagonals.length) {
+            diagonals = Arrays.copyOf(diagonals, diagonals.length * 2);
+        }
+        diagonals[2 * nDiagonals] = a;
+        diagonals[2 * nDiagonals + 1] = b;
+        nDiagonals++;
+    }
+
+    /**
+     * Triangulates each y-monotone piece. The pieces are found by walking
+     * round the edges and diagonals keeping the interior on the left.
+     */
+    private void triangulate() {
+        int n = x.length;
+        // For each vertex the adjacent vertices in counter-clockwise order.
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (next[v] != -1) {
+                offsets[v + 1] = 2;
+            }
+        }
+        for (int i = 0; i < 2 * nDiagonals; i++) {
+            offsets[diagonals[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] adj = new int[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int v = 0; v < n; v++) {
+            if (next[v] != -1) {
+                adj[fill[v]++] = next[v];
+                adj[fill[v]++] = prev[v];
+            }
+        }
+        for (int i = 0; i < nDiagonals; i++) {
+            int a = diagonals[2 * i];
+            int b = diagonals[2 * i + 1];
+            adj[fill[a]++] = b;
+            adj[fill[b]++] = a;
+        }
+        for (int v = 0; v < n; v++) {
+            if (offsets[v + 1] - offsets[v] > 2) {
+                sortAround(v, adj, offsets[v], offsets[v + 1]);
+            }
+        }
+        boolean[] visited = new boolean[adj.length];
+        int[] face = new int[8];
+        for (int v = 0; v < n; v++) {
+            for (int s = offsets[v]; s < offsets[v + 1]; s++) {
+                // Edges to the previous vertex have the interior on the
+                // right.
+                if (visited[s] || adj[s] == prev[v]) {
+                    continue;
+                }
+                int m = 0;
+                int a = v;
+                int slot = s;
+                while (!visited[slot]) {
+                    visited[slot] = true;
+                    if (m == face.length) {
+                        face = Arrays.copyOf(face, m * 2);
+                    }
+                    face[m++] = a;
+                    int b = adj[slot];
+                    // Turn to the next edge clockwise from b to a.
+                    int k = offsets[b];
+                    int deg = offsets[b + 1] - k;
+                    int i = 0;
+                    while (adj[k + i] != a) {
+                        i++;
+                    }
+                    slot = k + (i + deg - 1) % deg;
+                    a = b;
+                }
+                triangulateMonotone(face, m);
+            }
+        }
+    }
+
+    /**
+     * Sorts the vertices adjacent to v counter-clockwise around it.
+     *
+     * @param v The vertex.
+     * @param adj The adjacent vertices.
+     * @param from The first index in adj to sort.
+     * @param to The index after the last to sort.
+     */
+    private void sortAround(int v, int[] adj, int from, int to) {
+        Integer[] a = new Integer[to - from];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = adj[from + i];
+        }
+        Arrays.sort(a, (p, q) -> {
+            BigRational px = x[p].subtract(x[v]);
+            BigRational py = y[p].subtract(y[v]);
+            BigRational qx = x[q].subtract(x[v]);
+            BigRational qy = y[q].subtract(y[v]);
+            int hp = py.signum() > 0 || (py.signum() == 0 && px.signum() > 0)
+                    ? 0 : 1;
+            int hq = qy.signum() > 0 || (qy.signum() == 0 && qx.signum() > 0)
+                    ? 0 : 1;
+            if (hp != hq) {
+                return hp - hq;
+            }
+            return -px.multiply(qy).compareTo(py.multiply(qx));
+        });
+        for (int i = 0; i < a.length; i++) {
+            adj[from + i] = a[i];
+        }
+    }
+
+    /**
+     * Triangulates a y-monotone piece.
+     *
+     * @param f The vertices of the piece in counter-clockwise order.
+     * @param m The number of vertices.
+     */
+    private void triangulateMonotone(int[] f, int m) {
+        if (m < 3) {
+            return;
+        }
+        if (m == 3) {
+            addTriangle(f[0], f[1], f[2]);
+            return;
+        }
+        int top = 0;
+        int bottom = 0;
+        for (int i = 1; i < m; i++) {
+            if (compare(f[i], f[top]) < 0) {
+                top = i;
+            }
+            if (compare(f[i], f[bottom]) > 0) {
+                bottom = i;
+            }
+        }
+        // Merge the left chain (forward from the top) with the right chain
+        // (backward from the top) into sweep order.
+        int[] u = new int[m];
+        boolean[] left = new boolean[m];
+        int li = top;
+        int ri = (top + m - 1) % m;
+        u[0] = f[top];
+        left[0] = true;
+        li = (li + 1) % m;
+        for (int k = 1; k < m; k++) {
+            if (li != bottom && (ri == bottom || compare(f[li], f[ri]) < 0)) {
+                u[k] = f[li];
+                left[k] = true;
+                li = (li + 1) % m;
+            } else {
+                u[k] = f[ri];
+                left[k] = false;
+                ri = (ri + m - 1) % m;
+            }
+        }
+        // The last is the bottom which is reached from both chains.
+        u[m - 1] = f[bottom];
+        int[] stack = new int[m];
+        int sp = 0;
+        stack[sp++] = 0;
+        stack[sp++] = 1;
+        for (int j = 2; j < m - 1; j++) {
+            if (left[j] != left[stack[sp - 1]]) {
+                while (sp > 1) {
+                    int a = stack[--sp];
+                    addTriangle(u[j], u[a], u[stack[sp - 1]]);
+                }
+                sp = 0;
+                stack[sp++] = j - 1;
+                stack[sp++] = j;
+            } else {
+                int last = stack[--sp];
+                while (sp > 0) {
+                    int top2 = stack[sp - 1];
+                    int o = left[j]
+                            ? orient(u[top2], u[last], u[j])
+                            : orient(u[j], u[last], u[top2]);
+                    if (o <= 0) {
+                        break;
+                    }
+                    addTriangle(u[j], u[last], u[top2]);
+                    last = top2;
+                    sp--;
+                }
+                stack[sp++] = last;
+                stack[sp++] = j;
+            }
+        }
+        while (sp > 1) {
+            int a = stack[--sp];
+            addTriangle(u[m - 1], u[a], u[stack[sp - 1]]);
+        }
+    }
+
+    /**
+     * Adds a triangle in counter-clockwise order.
+     */
+    private void addTriangle(int a, int b, int c) {
+        if (nTriangles + 3 > triangles.length) {
+            triangles = Arrays.copyOf(triangles, triangles.length * 2);
+        }
+        if (orient(a, b, c) < 0) {
+            int t = b;
+            b = c;
+            c = t;
+        }
+        triangles[nTriangles++] = a;
+        triangles[nTriangles++] = b;
+        triangles[nTriangles++] = c;
+    }
+}
@@ -575,7 +575,8 @@ public class V2D_AABB_d implements Serializable {
      * @return {@code true} if this intersects with {@code pl}
      */
     public boolean contains0(V2D_Area_d s) {
-        return s.getPoints().values().parallelStream().allMatch(x
+        return V2D_Environment_d.getExecution(env)
+                .stream(s.getPoints().values()).allMatch(x
                 -> contains(x));
     }
 
@@ -53,8 +53,27 @@ public abstract class V2D_Area_d extends V2D_FiniteGeometry_d {
      * @param offset What {@link #offset} is set to.
      */
     public V2D_Area_d(V2D_Environment_d env, V2D_Vector_d offset) {
+        this(env, offset, env.getNextID());
+    }
+
+    /**
+     * Creates a new instance with a given id. This is for rebuilding a shape
+     * that keeps the id of the shape it replaces.
+     *
+     * @param env What {@link #env} is set to.
+     * @param offset What {@link #offset} is set to.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_Area_d(V2D_Environment_d env, V2D_Vector_d offset, int id) {
         super(env, offset);
-        this.id = env.getNextID();
+        this.id = id;
+    }
+
+    /**
+     * @return {@link #id}.
+     */
+    public int getID() {
+        return id;
     }
 
     /**
@@ -21,6 +21,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * V2D_ConvexArea_d extends V2D_Area_d and is for representing a convex area
@@ -102,7 +103,20 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @param points A non-empty list of points in a plane given by n.
      */
     public V2D_ConvexArea_d(double epsilon, List<V2D_Point_d> points) {
-        super(points.get(0).env, V2D_Vector_d.ZERO);
+        this(epsilon, points, points.get(0).env.getNextID());
+    }
+
+    /**
+     * Create a new instance with a given id.
+     *
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param points A non-empty list of points in a plane given by n.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_ConvexArea_d(double epsilon, List<V2D_Point_d> points,
+            int id) {
+        super(points.get(0).env, V2D_Vector_d.ZERO, id);
         ArrayList<V2D_Point_d> h = new ArrayList<>();
         ArrayList<V2D_Point_d> uniquePoints = V2D_Point_d.getUnique(
                 points, epsilon);
@@ -240,9 +254,9 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff all the triangles are the same.
      */
     public boolean equals(V2D_ConvexArea_d c, double epsilon) {
-        if (points.values().parallelStream().allMatch(x
+        if (execution().stream(points.values()).allMatch(x
                 -> x.equalsAny(c.points.values(), epsilon))) {
-            return c.points.values().parallelStream().allMatch(x
+            return execution().stream(c.points.values()).allMatch(x
                     -> x.equalsAny(points.values(), epsilon));
         }
         return false;
@@ -318,8 +332,11 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code p}.
      */
     public boolean intersects(V2D_Point_d pt, double epsilon) {
-        return getAABB().intersects(pt)
+        long time = metrics().start();
+        boolean r = metrics().aabb(getAABB().intersects(pt))
                 && intersects0(pt, epsilon);
+        return metrics().stop(V2D_ConvexArea_d.class,
+                V2D_Metrics.INTERSECTS, time, r);
     }
 
     /**
@@ -332,7 +349,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code p}.
      */
     public boolean intersects0(V2D_Point_d pt, double epsilon) {
-        return getTriangles().parallelStream().anyMatch(x
+        return execution().stream(getTriangles()).anyMatch(x
                 -> x.intersects(pt, epsilon));
     }
 
@@ -345,9 +362,12 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} contains {@code p}.
      */
     public boolean contains(V2D_Point_d pt, double epsilon) {
-        return intersects(pt, epsilon)
+        long time = metrics().start();
+        boolean r = intersects(pt, epsilon)
                 && !V2D_LineSegment_d.intersects(epsilon, pt,
                         edges.values());
+        return metrics().stop(V2D_ConvexArea_d.class, V2D_Metrics.CONTAINS,
+                time, r);
     }
 
     /**
@@ -374,7 +394,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      */
     public boolean contains(V2D_Triangle_d t, double epsilon) {
         return intersects(t, epsilon)
-                && t.getPoints().values().parallelStream().allMatch(x
+                && execution().stream(t.getPoints().values()).allMatch(x
                         -> contains(x, epsilon));
 //        return intersects(t, epsilon)
 //                && !t.getEdges().values().parallelStream().anyMatch(x
@@ -392,7 +412,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      */
     public boolean contains(V2D_Rectangle_d r, double epsilon) {
         return intersects(r, epsilon)
-                && r.getPoints().values().parallelStream().allMatch(x
+                && execution().stream(r.getPoints().values()).allMatch(x
                         -> contains(x, epsilon));
     }
 
@@ -406,7 +426,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      */
     public boolean contains(V2D_ConvexArea_d ch, double epsilon) {
         return intersects(ch, epsilon)
-                && ch.getPoints().values().parallelStream().allMatch(x
+                && execution().stream(ch.getPoints().values()).allMatch(x
                         -> contains(x, epsilon));
 //        return intersects(ch, epsilon)
 //                && !ch.getEdges().values().parallelStream().anyMatch(x
@@ -436,7 +456,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code l}.
      */
     public boolean intersects0(V2D_LineSegment_d l, double epsilon) {
-        return getTriangles().parallelStream().anyMatch(x
+        return execution().stream(getTriangles()).anyMatch(x
                 -> x.intersects(l, epsilon));
     }
 
@@ -462,7 +482,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code t}.
      */
     public boolean intersects0(V2D_Triangle_d t, double epsilon) {
-        return getTriangles().parallelStream().anyMatch(x
+        return execution().stream(getTriangles()).anyMatch(x
                 -> x.intersects0(t, epsilon));
     }
 
@@ -488,7 +508,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code r}.
      */
     public boolean intersects0(V2D_Rectangle_d r, double epsilon) {
-        return getTriangles().parallelStream().anyMatch(x
+        return execution().stream(getTriangles()).anyMatch(x
                 -> r.intersects(x, epsilon));
     }
 
@@ -515,9 +535,9 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code ch}.
      */
     public boolean intersects0(V2D_ConvexArea_d ch, double epsilon) {
-        return getTriangles().parallelStream().anyMatch(x
+        return execution().stream(getTriangles()).anyMatch(x
                 -> ch.intersects0(x, epsilon))
-                || ch.getTriangles().parallelStream().anyMatch(x
+                || execution().stream(ch.getTriangles()).anyMatch(x
                         -> intersects0(x, epsilon));
     }
 
@@ -626,7 +646,7 @@ public class V2D_ConvexArea_d extends V2D_Area_d {
      * precision.
      */
     public boolean intersects0(V2D_AABB_d aabb, double epsilon) {
-        return getTriangles().parallelStream().anyMatch(x
+        return execution().stream(getTriangles()).anyMatch(x
                     -> x.intersects(aabb, epsilon));
     }
     
@@ -0,0 +1,1092 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+
+/**
+ * For the Delaunay triangulation of a set of points and the Voronoi cells of
+ * the points. The triangulation is built in O(n log n) time using a radial
+ * sweep: points are added in order of distance from the circumcentre of a
+ * seed triangle, each is joined to the part of the convex hull it can see,
+ * and edges are flipped until the triangulation is Delaunay (see Sinclair
+ * (2016) S-hull: a fast radial sweep-hull routine for Delaunay triangulation,
+ * arXiv:1604.01428). Arrays are used throughout so that millions of points
+ * can be triangulated in seconds.
+ *
+ * The orientation and in-circle tests are calculated in double precision and
+ * only recalculated exactly if the result may be wrong due to rounding (see
+ * Shewchuk (1997) Adaptive Precision Floating-Point Arithmetic and Fast
+ * Robust Geometric Predicates, Discrete and Computational Geometry 18).
+ *
+ * Triangles are given as triples of point indexes in counter-clockwise order.
+ * Each triangle has three half edges: for the triangle starting at index
+ * {@code t} of {@link #getTriangles()}, half edge {@code t} goes from the
+ * first to the second point, {@code t + 1} from the second to the third, and
+ * {@code t + 2} from the third to the first. The opposite of half edge
+ * {@code e} is given by {@code getHalfedges()[e]} which is {@code -1} for
+ * edges on the convex hull. Duplicate points are not triangulated and if all
+ * the points are collinear there are no triangles.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Delaunay_d {
+
+    /**
+     * Half the difference between 1 and the next double.
+     */
+    private static final double EPS = Math.ulp(1d) / 2d;
+
+    /**
+     * The error bound for {@link #orient(double, double, double, double,
+     * double, double)}.
+     */
+    private static final double ORIENT_BOUND = (3d + 16d * EPS) * EPS;
+
+    /**
+     * The error bound for {@link #inCircle(int, int, int, int)}.
+     */
+    private static final double INCIRCLE_BOUND = (10d + 96d * EPS) * EPS;
+
+    /**
+     * The environment of the points.
+     */
+    public final V2D_Environment_d env;
+
+    /**
+     * The x and y coordinates of the points interleaved.
+     */
+    private final double[] coords;
+
+    /**
+     * The triangles as triples of point indexes.
+     */
+    private int[] triangles;
+
+    /**
+     * The opposite half edges.
+     */
+    private int[] halfedges;
+
+    /**
+     * The points on the convex hull in counter-clockwise order.
+     */
+    private int[] hull;
+
+    /**
+     * For each point, a half edge ending at the point. For points on the
+     * convex hull this is the hull edge, so that going around the point starts
+     * and ends on the hull. This is -1 for points that are not triangulated.
+     */
+    private int[] inedges;
+
+    /**
+     * The number of triangle indexes used while building.
+     */
+    private int trianglesLen;
+
+    /**
+     * The previous and next point on the hull while building.
+     */
+    private int[] hullPrev, hullNext;
+
+    /**
+     * A half edge on the hull from each point while building.
+     */
+    private int[] hullTri;
+
+    /**
+     * For quickly finding a point on the hull by angle while building.
+     */
+    private int[] hullHash;
+
+    /**
+     * The start of the hull while building.
+     */
+    private int hullStart;
+
+    /**
+     * The number of points on the hull while building.
+     */
+    private int hullSize;
+
+    /**
+     * The centre for the angles in {@link #hullHash}.
+     */
+    private double cx, cy;
+
+    /**
+     * For the edges to check when legalising.
+     */
+    private int[] edgeStack;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param points The points to triangulate.
+     */
+    public V2D_Delaunay_d(V2D_Point_d... points) {
+        this(points.length == 0 ? null : points[0].env, getCoords(points));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param env What {@link #env} is set to.
+     * @param coords The x and y coordinates of the points interleaved.
+     */
+    public V2D_Delaunay_d(V2D_Environment_d env, double[] coords) {
+        this.env = env;
+        this.coords = coords;
+        build();
+    }
+
+    /**
+     * @param coords The x and y coordinates of the points interleaved.
+     * @return The triangles as triples of point indexes in counter-clockwise
+     * order.
+     */
+    public static int[] getTriangles(double[] coords) {
+        return new V2D_Delaunay_d(null, coords).triangles;
+    }
+
+    /**
+     * @param points The points.
+     * @return The x and y coordinates of the points interleaved.
+     */
+    private static double[] getCoords(V2D_Point_d[] points) {
+        double[] r = new double[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            r[2 * i] = points[i].getX();
+            r[2 * i + 1] = points[i].getY();
+        }
+        return r;
+    }
+
+    /**
+     * @return The triangles as triples of point indexes in counter-clockwise
+     * order.
+     */
+    public int[] getTriangles() {
+        return triangles;
+    }
+
+    /**
+     * @return The opposite half edges.
+     */
+    public int[] getHalfedges() {
+        return halfedges;
+    }
+
+    /**
+     * @return The indexes of the points on the convex hull in
+     * counter-clockwise order. If the points are collinear, these are all the
+     * unique points in order along the line.
+     */
+    public int[] getHull() {
+        return hull;
+    }
+
+    /**
+     * @return The number of points.
+     */
+    public int getNumberOfPoints() {
+        return coords.length / 2;
+    }
+
+    /**
+     * @param i The index of the point.
+     * @return The point.
+     */
+    public V2D_Point_d getPoint(int i) {
+        return new V2D_Point_d(env, coords[2 * i], coords[2 * i + 1]);
+    }
+
+    /**
+     * @return The triangles.
+     */
+    public V2D_Triangle_d[] getTrianglesArray() {
+        V2D_Triangle_d[] r = new V2D_Triangle_d[triangles.length / 3];
+        for (int t = 0; t < r.length; t++) {
+            r[t] = new V2D_Triangle_d(getPoint(triangles[3 * t]),
+                    getPoint(triangles[3 * t + 1]),
+                    getPoint(triangles[3 * t + 2]));
+        }
+        return r;
+    }
+
+    /**
+     * @param i The index of the point.
+     * @return The indexes of the points joined to point {@code i} by an edge
+     * of the triangulation, or {@code null} if point {@code i} is a duplicate
+     * that is not triangulated.
+     */
+    public int[] getNeighbours(int i) {
+        if (triangles.length == 0) {
+            // Collinear
+            for (int k = 0; k < hull.length; k++) {
+                if (hull[k] == i) {
+                    if (hull.length == 1) {
+                        return new int[0];
+                    } else if (k == 0) {
+                        return new int[]{hull[1]};
+                    } else if (k == hull.length - 1) {
+                        return new int[]{hull[k - 1]};
+                    } else {
+                        return new int[]{hull[k - 1], hull[k + 1]};
+                    }
+                }
+            }
+            return null;
+        }
+        int e0 = inedges[i];
+        if (e0 == -1) {
+            return null;
+        }
+        int[] r = new int[8];
+        int n = 0;
+        int e = e0;
+        do {
+            if (n + 1 >= r.length) {
+                r = Arrays.copyOf(r, r.length * 2);
+            }
+            r[n++] = triangles[e];
+            int out = next(e);
+            e = halfedges[out];
+            if (e == -1) {
+                r[n++] = triangles[next(out)];
+                break;
+            }
+        } while (e != e0);
+        return Arrays.copyOf(r, n);
+    }
+
+    /**
+     * Calculates the Voronoi cell of a point clipped to a rectangle. The cell
+     * is the rectangle clipped by the perpendicular bisector of each edge
+     * from the point.
+     *
+     * @param i The index of the point.
+     * @param xMin The minimum x of the rectangle.
+     * @param yMin The minimum y of the rectangle.
+     * @param xMax The maximum x of the rectangle.
+     * @param yMax The maximum y of the rectangle.
+     * @return The x and y coordinates of the cell interleaved in
+     * counter-clockwise order, or {@code null} if point {@code i} is a
+     * duplicate. The array is empty if the cell is outside the rectangle.
+     */
+    public double[] getVoronoiCell(int i, double xMin, double yMin,
+            double xMax, double yMax) {
+        int[] ns = getNeighbours(i);
+        if (ns == null) {
+            return null;
+        }
+        double[] c = {xMin, yMin, xMax, yMin, xMax, yMax, xMin, yMax};
+        int m = 4;
+        double px = coords[2 * i];
+        double py = coords[2 * i + 1];
+        for (int j : ns) {
+            double qx = coords[2 * j];
+            double qy = coords[2 * j + 1];
+            double dx = qx - px;
+            double dy = qy - py;
+            double mx = (px + qx) / 2d;
+            double my = (py + qy) / 2d;
+            double[] r = new double[2 * (m + 1)];
+            int k = 0;
+            double vx = c[2 * m - 2];
+            double vy = c[2 * m - 1];
+            double sv = (vx - mx) * dx + (vy - my) * dy;
+            for (int w = 0; w < m; w++) {
+                double wx = c[2 * w];
+                double wy = c[2 * w + 1];
+                double sw = (wx - mx) * dx + (wy - my) * dy;
+                if ((sv < 0d && sw > 0d) || (sv > 0d && sw < 0d)) {
+                    double f = sv / (sv - sw);
+                    r[k++] = vx + (wx - vx) * f;
+                    r[k++] = vy + (wy - vy) * f;
+                }
+                if (sw <= 0d) {
+                    r[k++] = wx;
+                    r[k++] = wy;
+                }
+                vx = wx;
+                vy = wy;
+                sv = sw;
+            }
+            c = r;
+            m = k / 2;
+            if (m == 0) {
+                break;
+            }
+        }
+        return Arrays.copyOf(c, 2 * m);
+    }
+
+    /**
+     * @param i The index of the point.
+     * @param bounds The bounds to clip the cell to.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The Voronoi cell of point {@code i} clipped to {@code bounds} or
+     * {@code null} if point {@code i} is a duplicate or the cell has no area
+     * within {@code bounds}.
+     */
+    public V2D_ConvexArea_d getVoronoiCell(int i, V2D_AABB_d bounds,
+            double epsilon) {
+        double[] c = getVoronoiCell(i, bounds.getXMin(), bounds.getYMin(),
+                bounds.getXMax(), bounds.getYMax());
+        if (c == null || c.length < 6) {
+            return null;
+        }
+        double a = 0d;
+        for (int k = 2; k < c.length - 2; k += 2) {
+            a += (c[k] - c[0]) * (c[k + 3] - c[1])
+                    - (c[k + 2] - c[0]) * (c[k + 1] - c[1]);
+        }
+        if (!(a > 0d)) {
+            return null;
+        }
+        V2D_Point_d[] pts = new V2D_Point_d[c.length / 2];
+        for (int k = 0; k < pts.length; k++) {
+            pts[k] = new V2D_Point_d(env, c[2 * k], c[2 * k + 1]);
+        }
+        return new V2D_ConvexArea_d(epsilon, pts);
+    }
+
+    /**
+     * Calculates the Voronoi cells of all the points. This is done in parallel
+     * if {@code env.execution} allows.
+     *
+     * @param bounds The bounds to clip the cells to.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The Voronoi cells indexed by point, with {@code null} for
+     * duplicate points and cells with no area within {@code bounds}.
+     */
+    public V2D_ConvexArea_d[] getVoronoiCells(V2D_AABB_d bounds,
+            double epsilon) {
+        int n = getNumberOfPoints();
+        V2D_ConvexArea_d[] r = new V2D_ConvexArea_d[n];
+        IntStream s = IntStream.range(0, n);
+        if (V2D_Environment_d.getExecution(env).isParallel(n)) {
+            s = s.parallel();
+        }
+        s.forEach(i -> r[i] = getVoronoiCell(i, bounds, epsilon));
+        return r;
+    }
+
+    /**
+     * Builds the triangulation.
+     */
+    private void build() {
+        int n = coords.length / 2;
+        triangles = new int[Math.max(2 * n - 5, 0) * 3];
+        halfedges = new int[triangles.length];
+        inedges = new int[n];
+        Arrays.fill(inedges, -1);
+        if (n == 0) {
+            hull = new int[0];
+            return;
+        }
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            double x = coords[2 * i];
+            double y = coords[2 * i + 1];
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            ids[i] = i;
+        }
+        double bx = (minX + maxX) / 2d;
+        double by = (minY + maxY) / 2d;
+        // Seed with the point nearest the centre of the bounds...
+        int i0 = 0;
+        double minDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double d = dist(bx, by, coords[2 * i], coords[2 * i + 1]);
+            if (d < minDist) {
+                i0 = i;
+                minDist = d;
+            }
+        }
+        double i0x = coords[2 * i0];
+        double i0y = coords[2 * i0 + 1];
+        // ...the point nearest that...
+        int i1 = -1;
+        minDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            double d = dist(i0x, i0y, coords[2 * i], coords[2 * i + 1]);
+            if (d > 0d && d < minDist) {
+                i1 = i;
+                minDist = d;
+            }
+        }
+        // ...and the point making the smallest circumcircle with these.
+        int i2 = -1;
+        if (i1 != -1) {
+            double i1x = coords[2 * i1];
+            double i1y = coords[2 * i1 + 1];
+            double minRadius = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double x = coords[2 * i];
+                double y = coords[2 * i + 1];
+                double r = circumradius(i0x, i0y, i1x, i1y, x, y);
+                if (r < minRadius
+                        && orient(i0x, i0y, i1x, i1y, x, y) != 0d) {
+                    i2 = i;
+                    minRadius = r;
+                }
+            }
+        }
+        double[] dists = new double[n];
+        if (i2 == -1) {
+            // Collinear: order the points along the line.
+            for (int i = 0; i < n; i++) {
+                double d = coords[2 * i] - coords[0];
+                dists[i] = d != 0d ? d : coords[2 * i + 1] - coords[1];
+            }
+            quicksort(ids, dists, 0, n - 1);
+            int[] h = new int[n];
+            int j = 0;
+            double d0 = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                int id = ids[i];
+                if (dists[id] > d0) {
+                    h[j++] = id;
+                    d0 = dists[id];
+                }
+            }
+            hull = Arrays.copyOf(h, j);
+            triangles = new int[0];
+            halfedges = new int[0];
+            return;
+        }
+        double i1x = coords[2 * i1];
+        double i1y = coords[2 * i1 + 1];
+        double i2x = coords[2 * i2];
+        double i2y = coords[2 * i2 + 1];
+        if (orient(i0x, i0y, i1x, i1y, i2x, i2y) < 0d) {
+            int i = i1;
+            double x = i1x;
+            double y = i1y;
+            i1 = i2;
+            i1x = i2x;
+            i1y = i2y;
+            i2 = i;
+            i2x = x;
+            i2y = y;
+        }
+        // Sort the points by distance from the seed circumcentre.
+        double dx = i1x - i0x;
+        double dy = i1y - i0y;
+        double ex = i2x - i0x;
+        double ey = i2y - i0y;
+        double bl = dx * dx + dy * dy;
+        double cl = ex * ex + ey * ey;
+        double d = 0.5d / (dx * ey - dy * ex);
+        cx = i0x + (ey * bl - dy * cl) * d;
+        cy = i0y + (dx * cl - ex * bl) * d;
+        for (int i = 0; i < n; i++) {
+            dists[i] = dist(coords[2 * i], coords[2 * i + 1], cx, cy);
+        }
+        quicksort(ids, dists, 0, n - 1);
+        // Initialise the hull with the seed triangle.
+        int hashSize = (int) Math.ceil(Math.sqrt(n));
+        hullPrev = new int[n];
+        hullNext = new int[n];
+        hullTri = new int[n];
+        hullHash = new int[hashSize];
+        Arrays.fill(hullHash, -1);
+        edgeStack = new int[64];
+        hullStart = i0;
+        hullSize = 3;
+        hullNext[i0] = hullPrev[i2] = i1;
+        hullNext[i1] = hullPrev[i0] = i2;
+        hullNext[i2] = hullPrev[i1] = i0;
+        hullTri[i0] = 0;
+        hullTri[i1] = 1;
+        hullTri[i2] = 2;
+        hullHash[hashKey(i0x, i0y, hashSize)] = i0;
+        hullHash[hashKey(i1x, i1y, hashSize)] = i1;
+        hullHash[hashKey(i2x, i2y, hashSize)] = i2;
+        trianglesLen = 0;
+        addTriangle(i0, i1, i2, -1, -1, -1);
+        double xp = 0d;
+        double yp = 0d;
+        for (int k = 0; k < n; k++) {
+            int i = ids[k];
+            double x = coords[2 * i];
+            double y = coords[2 * i + 1];
+            if (k > 0 && x == xp && y == yp) {
+                continue;
+            }
+            xp = x;
+            yp = y;
+            if (i == i0 || i == i1 || i == i2) {
+                continue;
+            }
+            // Find a visible edge on the hull using the hash.
+            int start = 0;
+            int key = hashKey(x, y, hashSize);
+            for (int j = 0; j < hashSize; j++) {
+                start = hullHash[(key + j) % hashSize];
+                if (start != -1 && start != hullNext[start]) {
+                    break;
+                }
+            }
+            start = hullPrev[start];
+            int e = start;
+            int q = hullNext[e];
+            while (!isVisible(x, y, e, q)) {
+                e = q;
+                if (e == start) {
+                    e = -1;
+                    break;
+                }
+                q = hullNext[e];
+            }
+            if (e == -1) {
+                /*
+                 * The point is inside the hull due to rounding in the order
+                 * of distances, or is a duplicate.
+                 */
+                insertInside(i, hashSize);
+                continue;
+            }
+            // Add the first triangle from the point.
+            int t = addTriangle(e, i, hullNext[e], -1, -1, hullTri[e]);
+            hullTri[i] = legalize(t + 2);
+            hullTri[e] = t;
+            hullSize++;
+            // Walk forward through the hull adding more triangles.
+            int nx = hullNext[e];
+            q = hullNext[nx];
+            while (isVisible(x, y, nx, q)) {
+                t = addTriangle(nx, i, q, hullTri[i], -1, hullTri[nx]);
+                hullTri[i] = legalize(t + 2);
+                hullNext[nx] = nx;
+                hullSize--;
+                nx = q;
+                q = hullNext[nx];
+            }
+            // Walk backward from the other side adding more triangles.
+            if (e == start) {
+                q = hullPrev[e];
+                while (isVisible(x, y, q, e)) {
+                    t = addTriangle(q, i, e, -1, hullTri[e], hullTri[q]);
+                    legalize(t + 2);
+                    hullTri[q] = t;
+                    hullNext[e] = e;
+                    hullSize--;
+                    e = q;
+                    q = hullPrev[e];
+                }
+            }
+            // Update the hull.
+            hullStart = hullPrev[i] = e;
+            hullNext[e] = hullPrev[nx] = i;
+            hullNext[i] = nx;
+            hullHash[hashKey(x, y, hashSize)] = i;
+            hullHash[hashKey(coords[2 * e], coords[2 * e + 1], hashSize)] = e;
+        }
+        hull = new int[hullSize];
+        for (int i = 0, e = hullStart; i < hullSize; i++) {
+            hull[i] = e;
+            e = hullNext[e];
+        }
+        triangles = Arrays.copyOf(triangles, trianglesLen);
+        halfedges = Arrays.copyOf(halfedges, trianglesLen);
+        for (int e = 0; e < trianglesLen; e++) {
+            int p = triangles[next(e)];
+            if (halfedges[e] == -1 || inedges[p] == -1) {
+                inedges[p] = e;
+            }
+        }
+        hullPrev = null;
+        hullNext = null;
+        hullTri = null;
+        hullHash = null;
+        edgeStack = null;
+    }
+
+    /**
+     * Inserts a point that is inside or on the hull by splitting the triangle
+     * or edge it is on. Duplicate points are not inserted.
+     *
+     * @param p The point.
+     * @param hashSize The size of {@link #hullHash}.
+     */
+    private void insertInside(int p, int hashSize) {
+        double x = coords[2 * p];
+        double y = coords[2 * p + 1];
+        // Walk towards the point from a triangle on the hull.
+        int t = hullTri[hullStart] - hullTri[hullStart] % 3;
+        int steps = 0;
+        for (int k = 0; k < 3; k++) {
+            int e = t + k;
+            if (orient(coords[2 * triangles[e]],
+                    coords[2 * triangles[e] + 1],
+                    coords[2 * triangles[next(e)]],
+                    coords[2 * triangles[next(e)] + 1], x, y) < 0d) {
+                int f = halfedges[e];
+                if (f == -1) {
+                    return;
+                }
+                t = f - f % 3;
+                k = -1;
+                if (++steps > trianglesLen) {
+                    return;
+                }
+            }
+        }
+        int onEdge = -1;
+        int zeros = 0;
+        for (int k = 0; k < 3; k++) {
+            int e = t + k;
+            if (orient(coords[2 * triangles[e]],
+                    coords[2 * triangles[e] + 1],
+                    coords[2 * triangles[next(e)]],
+                    coords[2 * triangles[next(e)] + 1], x, y) == 0d) {
+                onEdge = e;
+                zeros++;
+            }
+        }
+        if (zeros > 1) {
+            // A duplicate.
+            return;
+        }
+        if (zeros == 0) {
+            int a = triangles[t];
+            int b = triangles[t + 1];
+            int c = triangles[t + 2];
+            int hb = halfedges[t + 1];
+            int hc = halfedges[t + 2];
+            triangles[t + 2] = p;
+            int t1 = addTriangle(b, c, p, hb, -1, t + 1);
+            int t2 = addTriangle(c, a, p, hc, t + 2, t1 + 1);
+            if (hb == -1) {
+                hullTri[b] = t1;
+            }
+            if (hc == -1) {
+                hullTri[c] = t2;
+            }
+            legalize(t);
+            legalize(t1);
+            legalize(t2);
+            return;
+        }
+        // Split the edge and the triangles either side.
+        int e = onEdge;
+        int e1 = next(e);
+        int e2 = next(e1);
+        int a = triangles[e];
+        int b = triangles[e1];
+        int c = triangles[e2];
+        int h1 = halfedges[e1];
+        int h2 = halfedges[e2];
+        int f = halfedges[e];
+        triangles[t] = a;
+        triangles[t + 1] = p;
+        triangles[t + 2] = c;
+        link(t + 2, h2);
+        int t2 = addTriangle(p, b, c, -1, h1, t + 1);
+        if (h1 == -1) {
+            hullTri[b] = t2 + 1;
+        }
+        if (h2 == -1) {
+            hullTri[c] = t + 2;
+        }
+        if (f == -1) {
+            // The point is on the hull.
+            halfedges[t] = -1;
+            hullTri[a] = t;
+            hullTri[p] = t2;
+            hullNext[a] = p;
+            hullPrev[p] = a;
+            hullNext[p] = b;
+            hullPrev[b] = p;
+            hullSize++;
+            hullHash[hashKey(x, y, hashSize)] = p;
+            legalize(t + 2);
+            legalize(t2 + 1);
+            return;
+        }
+        int u = f - f % 3;
+        int f1 = next(f);
+        int f2 = next(f1);
+        int d = triangles[f2];
+        int k1 = halfedges[f1];
+        int k2 = halfedges[f2];
+        triangles[u] = b;
+        triangles[u + 1] = p;
+        triangles[u + 2] = d;
+        link(u, t2);
+        link(u + 2, k2);
+        int t4 = addTriangle(p, a, d, t, k1, u + 1);
+        if (k1 == -1) {
+            hullTri[a] = t4 + 1;
+        }
+        if (k2 == -1) {
+            hullTri[d] = u + 2;
+        }
+        legalize(t + 2);
+        legalize(t2 + 1);
+        legalize(u + 2);
+        legalize(t4 + 1);
+    }
+
+    /**
+     * @param e A half edge.
+     * @return The next half edge in the same triangle.
+     */
+    private static int next(int e) {
+        return e % 3 == 2 ? e - 2 : e + 1;
+    }
+
+    /**
+     * Flips edges until the triangles around half edge {@code a} are
+     * Delaunay.
+     *
+     * @param a The half edge.
+     * @return The half edge that ends where half edge {@code a} started after
+     * any flipping.
+     */
+    private int legalize(int a) {
+        int i = 0;
+        int ar;
+        while (true) {
+            int b = halfedges[a];
+            int a0 = a - a % 3;
+            ar = a0 + (a + 2) % 3;
+            if (b == -1) {
+                if (i == 0) {
+                    break;
+                }
+                a = edgeStack[--i];
+                continue;
+            }
+            int b0 = b - b % 3;
+            int al = a0 + (a + 1) % 3;
+            int bl = b0 + (b + 2) % 3;
+            int p0 = triangles[ar];
+            int pr = triangles[a];
+            int pl = triangles[al];
+            int p1 = triangles[bl];
+            if (inCircle(p0, pr, pl, p1) > 0d) {
+                triangles[a] = p1;
+                triangles[b] = p0;
+                int hbl = halfedges[bl];
+                if (hbl == -1) {
+                    // The edge swapped was on the hull.
+                    int e = hullStart;
+                    do {
+                        if (hullTri[e] == bl) {
+                            hullTri[e] = a;
+                            break;
+                        }
+                        e = hullPrev[e];
+                    } while (e != hullStart);
+                }
+                int har = halfedges[ar];
+                if (har == -1) {
+                    // The hull edge from p0 moves.
+                    hullTri[p0] = b;
+                }
+                link(a, hbl);
+                link(b, har);
+                link(ar, bl);
+                if (i == edgeStack.length) {
+                    edgeStack = Arrays.copyOf(edgeStack, i * 2);
+                }
+                edgeStack[i++] = b0 + (b + 1) % 3;
+            } else {
+                if (i == 0) {
+                    break;
+                }
+                a = edgeStack[--i];
+            }
+        }
+        return ar;
+    }
+
+    /**
+     * @param a A half edge.
+     * @param b The opposite half edge or -1.
+     */
+    private void link(int a, int b) {
+        halfedges[a] = b;
+        if (b != -1) {
+            halfedges[b] = a;
+        }
+    }
+
+    /**
+     * @param i0 The first point.
+     * @param i1 The second point.
+     * @param i2 The third point.
+     * @param a The half edge opposite the first to second point edge.
+     * @param b The half edge opposite the second to third point edge.
+     * @param c The half edge opposite the third to first point edge.
+     * @return The index of the triangle added.
+     */
+    private int addTriangle(int i0, int i1, int i2, int a, int b, int c) {
+        int t = trianglesLen;
+        triangles[t] = i0;
+        triangles[t + 1] = i1;
+        triangles[t + 2] = i2;
+        link(t, a);
+        link(t + 1, b);
+        link(t + 2, c);
+        trianglesLen += 3;
+        return t;
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param hashSize The size of {@link #hullHash}.
+     * @return The index in {@link #hullHash} for the angle of (x, y) about
+     * (cx, cy).
+     */
+    private int hashKey(double x, double y, int hashSize) {
+        double dx = x - cx;
+        double dy = y - cy;
+        double p = dx / (Math.abs(dx) + Math.abs(dy));
+        double a = (dy > 0d ? 3d - p : 1d + p) / 4d;
+        return (int) Math.floor(a * hashSize) % hashSize;
+    }
+
+    /**
+     * @param x The x coordinate of a point outside the hull.
+     * @param y The y coordinate of a point outside the hull.
+     * @param a The start of the hull edge.
+     * @param b The end of the hull edge.
+     * @return {@code true} if the hull edge from a to b is visible from the
+     * point.
+     */
+    private boolean isVisible(double x, double y, int a, int b) {
+        return orient(coords[2 * a], coords[2 * a + 1],
+                coords[2 * b], coords[2 * b + 1], x, y) < 0d;
+    }
+
+    /**
+     * @return The squared distance between (ax, ay) and (bx, by).
+     */
+    private static double dist(double ax, double ay, double bx, double by) {
+        double dx = ax - bx;
+        double dy = ay - by;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @return The squared radius of the circle through (ax, ay), (bx, by) and
+     * (cx, cy) which is infinite or NaN if they are collinear.
+     */
+    private static double circumradius(double ax, double ay, double bx,
+            double by, double cx, double cy) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double ex = cx - ax;
+        double ey = cy - ay;
+        double bl = dx * dx + dy * dy;
+        double cl = ex * ex + ey * ey;
+        double d = 0.5d / (dx * ey - dy * ex);
+        double x = (ey * bl - dy * cl) * d;
+        double y = (dx * cl - ex * bl) * d;
+        return x * x + y * y;
+    }
+
+    /**
+     * @return A positive value if (ax, ay), (bx, by) and (cx, cy) are
+     * counter-clockwise, a negative value if they are clockwise, and zero if
+     * they are collinear. The sign is exact.
+     */
+    private static double orient(double ax, double ay, double bx, double by,
+            double cx, double cy) {
+        double detleft = (ax - cx) * (by - cy);
+        double detright = (ay - cy) * (bx - cx);
+        double det = detleft - detright;
+        double detsum;
+        if (detleft > 0d) {
+            if (detright <= 0d) {
+                return det;
+            }
+            detsum = detleft + detright;
+        } else if (detleft < 0d) {
+            if (detright >= 0d) {
+                return det;
+            }
+            detsum = -detleft - detright;
+        } else {
+            return det;
+        }
+        if (Math.abs(det) >= ORIENT_BOUND * detsum) {
+            return det;
+        }
+        BigDecimal acx = sub(ax, cx);
+        BigDecimal bcy = sub(by, cy);
+        BigDecimal acy = sub(ay, cy);
+        BigDecimal bcx = sub(bx, cx);
+        return acx.multiply(bcy).subtract(acy.multiply(bcx)).signum();
+    }
+
+    /**
+     * @param a A point index.
+     * @param b A point index.
+     * @param c A point index.
+     * @param d A point index.
+     * @return A positive value if point d is inside the circle through the
+     * counter-clockwise points a, b and c, a negative value if it is outside,
+     * and zero if it is on the circle. The sign is exact.
+     */
+    private double inCircle(int a, int b, int c, int d) {
+        double ax = coords[2 * a];
+        double ay = coords[2 * a + 1];
+        double bx = coords[2 * b];
+        double by = coords[2 * b + 1];
+        double cx = coords[2 * c];
+        double cy = coords[2 * c + 1];
+        double dx = coords[2 * d];
+        double dy = coords[2 * d + 1];
+        double adx = ax - dx;
+        double bdx = bx - dx;
+        double cdx = cx - dx;
+        double ady = ay - dy;
+        double bdy = by - dy;
+        double cdy = cy - dy;
+        double bdxcdy = bdx * cdy;
+        double cdxbdy = cdx * bdy;
+        double alift = adx * adx + ady * ady;
+        double cdxady = cdx * ady;
+        double adxcdy = adx * cdy;
+        double blift = bdx * bdx + bdy * bdy;
+        double adxbdy = adx * bdy;
+        double bdxady = bdx * ady;
+        double clift = cdx * cdx + cdy * cdy;
+        double det = alift * (bdxcdy - cdxbdy)
+                + blift * (cdxady - adxcdy)
+                + clift * (adxbdy - bdxady);
+        double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * alift
+                + (Math.abs(cdxady) + Math.abs(adxcdy)) * blift
+                + (Math.abs(adxbdy) + Math.abs(bdxady)) * clift;
+        if (Math.abs(det) > INCIRCLE_BOUND * permanent) {
+            return det;
+        }
+        BigDecimal adxe = sub(ax, dx);
+        BigDecimal bdxe = sub(bx, dx);
+        BigDecimal cdxe = sub(cx, dx);
+        BigDecimal adye = sub(ay, dy);
+        BigDecimal bdye = sub(by, dy);
+        BigDecimal cdye = sub(cy, dy);
+        BigDecimal alifte = adxe.multiply(adxe).add(adye.multiply(adye));
+        BigDecimal blifte = bdxe.multiply(bdxe).add(bdye.multiply(bdye));
+        BigDecimal clifte = cdxe.multiply(cdxe).add(cdye.multiply(cdye));
+        return alifte.multiply(bdxe.multiply(cdye).subtract(
+                cdxe.multiply(bdye)))
+                .add(blifte.multiply(cdxe.multiply(adye).subtract(
+                        adxe.multiply(cdye))))
+                .add(clifte.multiply(adxe.multiply(bdye).subtract(
+                        bdxe.multiply(adye)))).signum();
+    }
+
+    /**
+     * @return {@code a - b} calculated exactly.
+     */
+    private static BigDecimal sub(double a, double b) {
+        return new BigDecimal(a).subtract(new BigDecimal(b));
+    }
+
+    /**
+     * Sorts ids by dists.
+     *
+     * @param ids The ids to sort.
+     * @param dists The values to sort by indexed by id.
+     * @param left The first index to sort.
+     * @param right The last index to sort.
+     */
+    private static void quicksort(int[] ids, double[] dists, int left,
+            int right) {
+        while (right - left > 20) {
+            int median = (left + right) >>> 1;
+            int i = left + 1;
+            int j = right;
+            swap(ids, median, i);
+            if (dists[ids[left]] > dists[ids[right]]) {
+                swap(ids, left, right);
+            }
+            if (dists[ids[i]] > dists[ids[right]]) {
+                swap(ids, i, right);
+            }
+            if (dists[ids[left]] > dists[ids[i]]) {
+                swap(ids, left, i);
+            }
+            int temp = ids[i];
+            double tempDist = dists[temp];
+            while (true) {
+                do {
+                    i++;
+                } while (dists[ids[i]] < tempDist);
+                do {
+                    j--;
+                } while (dists[ids[j]] > tempDist);
+                if (j < i) {
+                    break;
+                }
+                swap(ids, i, j);
+            }
+            ids[left + 1] = ids[j];
+            ids[j] = temp;
+            // Recurse on the smaller part and loop on the larger.
+            if (right - i + 1 >= j - left) {
+                quicksort(ids, dists, left, j - 1);
+                left = i;
+            } else {
+                quicksort(ids, dists, i, right);
+                right = j - 1;
+            }
+        }
+        for (int i = left + 1; i <= right; i++) {
+            int temp = ids[i];
+            double tempDist = dists[temp];
+            int j = i - 1;
+            while (j >= left && dists[ids[j]] > tempDist) {
+                ids[j + 1] = ids[j--];
+            }
+            ids[j + 1] = temp;
+        }
+    }
+
+    /**
+     * @param a The array.
+     * @param i An index.
+     * @param j An index.
+     */
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
@@ -16,6 +16,8 @@
 package uk.ac.leeds.ccg.v2d.geometry.d;
 
 import java.io.Serializable;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
 
 /**
@@ -86,6 +88,22 @@ public abstract class V2D_Geometry_d implements Serializable {
         this.offset = offset;
     }
 
+    /**
+     * @return The execution of {@link #env}, or
+     * {@link V2D_Execution#SEQUENTIAL} if {@link #env} is {@code null}.
+     */
+    public V2D_Execution execution() {
+        return V2D_Environment_d.getExecution(env);
+    }
+
+    /**
+     * @return The metrics of {@link #env}, or {@link V2D_Metrics#NONE} if
+     * {@link #env} is {@code null}.
+     */
+    public V2D_Metrics metrics() {
+        return env == null ? V2D_Metrics.NONE : env.metrics;
+    }
+
     /**
      * @param pad The padding.
      * @return A padded description.
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The SIMD parts of the calculations in {@link V2D_Kernels_d}. This is only
+ * loaded if the {@code jdk.incubator.vector} module is available. Each method
+ * processes whole vectors of elements from {@code from} and returns the index
+ * of the first element not processed, for the remainder to be processed with
+ * scalar arithmetic. The arithmetic is done in the same order as the scalar
+ * arithmetic so the results are the same.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+class V2D_KernelsSIMD_d {
+
+    /**
+     * The preferred species.
+     */
+    private static final VectorSpecies<Double> S
+            = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Create a new instance.
+     */
+    private V2D_KernelsSIMD_d() {
+    }
+
+    /**
+     * @return The number of double lanes in a vector.
+     */
+    static int getLanes() {
+        return S.length();
+    }
+
+    /**
+     * @param from The index of the first element (inclusive).
+     * @param to The index of the last element (exclusive).
+     * @return The index after the last whole vector of elements.
+     */
+    private static int bound(int from, int to) {
+        return from + S.loopBound(Math.max(0, to - from));
+    }
+
+    /**
+     * See {@link V2D_Kernels_d#translate}.
+     */
+    static int translate(double[] x, double[] y, int from, int to, double dx,
+            double dy) {
+        int i = from;
+        for (int e = bound(from, to); i < e; i += S.length()) {
+            DoubleVector.fromArray(S, x, i).add(dx).intoArray(x, i);
+            DoubleVector.fromArray(S, y, i).add(dy).intoArray(y, i);
+        }
+        return i;
+    }
+
+    /**
+     * See {@link V2D_Kernels_d#rotateN}.
+     */
+    static int rotateN(double[] x, double[] y, int from, int to, double px,
+            double py, double cos, double sin) {
+        int i = from;
+        for (int e = bound(from, to); i < e; i += S.length()) {
+            DoubleVector dx = DoubleVector.fromArray(S, x, i).sub(px);
+            DoubleVector dy = DoubleVector.fromArray(S, y, i).sub(py);
+            dx.mul(cos).add(dy.mul(sin)).add(px).intoArray(x, i);
+            dy.mul(cos).sub(dx.mul(sin)).add(py).intoArray(y, i);
+        }
+        return i;
+    }
+
+    /**
+     * See {@link V2D_Kernels_d#getDotProducts}.
+     */
+    static int getDotProducts(double[] ax, double[] ay, double[] bx,
+            double[] by, int from, int to, double[] r) {
+        int i = from;
+        for (int e = bound(from, to); i < e; i += S.length()) {
+            DoubleVector x = DoubleVector.fromArray(S, ax, i)
+                    .mul(DoubleVector.fromArray(S, bx, i));
+            DoubleVector y = DoubleVector.fromArray(S, ay, i)
+                    .mul(DoubleVector.fromArray(S, by, i));
+            x.add(y).intoArray(r, i);
+        }
+        return i;
+    }
+
+    /**
+     * See {@link V2D_Kernels_d#getDeterminants}.
+     */
+    static int getDeterminants(double[] ax, double[] ay, double[] bx,
+            double[] by, int from, int to, double[] r) {
+        int i = from;
+        for (int e = bound(from, to); i < e; i += S.length()) {
+            DoubleVector p = DoubleVector.fromArray(S, ax, i)
+                    .mul(DoubleVector.fromArray(S, by, i));
+            DoubleVector q = DoubleVector.fromArray(S, ay, i)
+                    .mul(DoubleVector.fromArray(S, bx, i));
+            p.sub(q).intoArray(r, i);
+        }
+        return i;
+    }
+
+    /**
+     * See {@link V2D_Kernels_d#getDistances}.
+     */
+    static int getDistances(double[] x, double[] y, int from, int to,
+            double px, double py, double[] r) {
+        int i = from;
+        for (int e = bound(from, to); i < e; i += S.length()) {
+            DoubleVector dx = DoubleVector.fromArray(S, x, i).sub(px);
+            DoubleVector dy = DoubleVector.fromArray(S, y, i).sub(py);
+            dx.mul(dx).add(dy.mul(dy)).sqrt().intoArray(r, i);
+        }
+        return i;
+    }
+
+    /**
+     * See {@link V2D_Kernels_d#getOrientations}.
+     */
+    static int getOrientations(double[] x, double[] y, int from, int to,
+            double ax, double ay, double abx, double aby, double epsilon,
+            int[] r) {
+        int i = from;
+        for (int e = bound(from, to); i < e; i += S.length()) {
+            DoubleVector d = DoubleVector.fromArray(S, y, i).sub(ay).mul(abx)
+                    .sub(DoubleVector.fromArray(S, x, i).sub(ax).mul(aby));
+            long p = d.compare(VectorOperators.GT, epsilon).toLong();
+            long n = d.compare(VectorOperators.LT, -epsilon).toLong();
+            for (int j = 0; j < S.length(); j++) {
+                r[i + j] = (int) ((p >>> j) & 1L) - (int) ((n >>> j) & 1L);
+            }
+        }
+        return i;
+    }
+}
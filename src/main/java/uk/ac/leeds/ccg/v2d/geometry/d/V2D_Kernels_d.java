@@ -0,0 +1,223 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+
+/**
+ * Bulk arithmetic over coordinate arrays. These do the same calculations as
+ * {@link V2D_Vector_d} and {@link V2D_Point_d} but for many vectors or points
+ * at once and without creating any objects. Where the
+ * {@code jdk.incubator.vector} module is available (the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}) the bulk of each calculation is
+ * done using SIMD instructions and the remainder is done with scalar
+ * arithmetic. Otherwise all the calculation is done with scalar arithmetic.
+ * The results are the same either way.
+ *
+ * Each method works on the elements of the arrays from index {@code from}
+ * (inclusive) to index {@code to} (exclusive).
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Kernels_d {
+
+    /**
+     * Whether SIMD instructions are used.
+     */
+    public static final boolean SIMD = isSIMDAvailable();
+
+    /**
+     * Create a new instance.
+     */
+    private V2D_Kernels_d() {
+    }
+
+    /**
+     * @return {@code true} iff the {@code jdk.incubator.vector} module can be
+     * used and there is more than one double lane in a vector.
+     */
+    private static boolean isSIMDAvailable() {
+        try {
+            return V2D_KernelsSIMD_d.getLanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Translate points.
+     *
+     * @param x The x coordinates which are updated.
+     * @param y The y coordinates which are updated.
+     * @param from The index of the first point (inclusive).
+     * @param to The index of the last point (exclusive).
+     * @param dx The amount to translate in the x direction.
+     * @param dy The amount to translate in the y direction.
+     */
+    public static void translate(double[] x, double[] y, int from, int to,
+            double dx, double dy) {
+        int i = SIMD ? V2D_KernelsSIMD_d.translate(x, y, from, to, dx, dy)
+                : from;
+        for (; i < to; i++) {
+            x[i] += dx;
+            y[i] += dy;
+        }
+    }
+
+    /**
+     * Rotate points about ({@code px}, {@code py}) in the same way as
+     * {@link V2D_Point_d#rotate(V2D_Point_d, double)}.
+     *
+     * @param x The x coordinates which are updated.
+     * @param y The y coordinates which are updated.
+     * @param from The index of the first point (inclusive).
+     * @param to The index of the last point (exclusive).
+     * @param px The x coordinate of the point to rotate about.
+     * @param py The y coordinate of the point to rotate about.
+     * @param theta The angle of rotation.
+     */
+    public static void rotate(double[] x, double[] y, int from, int to,
+            double px, double py, double theta) {
+        theta = Math_AngleDouble.normalise(theta);
+        if (theta != 0d) {
+            rotateN(x, y, from, to, px, py, theta);
+        }
+    }
+
+    /**
+     * Rotate points about ({@code px}, {@code py}) in the same way as
+     * {@link V2D_Point_d#rotateN(V2D_Point_d, double)}.
+     *
+     * @param x The x coordinates which are updated.
+     * @param y The y coordinates which are updated.
+     * @param from The index of the first point (inclusive).
+     * @param to The index of the last point (exclusive).
+     * @param px The x coordinate of the point to rotate about.
+     * @param py The y coordinate of the point to rotate about.
+     * @param theta The angle of rotation in radians theta &gt; 0 &amp;&amp;
+     * theta &lt; 2Pi.
+     */
+    public static void rotateN(double[] x, double[] y, int from, int to,
+            double px, double py, double theta) {
+        double cos = Math.cos(theta);
+        double sin = Math.sin(theta);
+        int i = SIMD ? V2D_KernelsSIMD_d.rotateN(x, y, from, to, px, py, cos,
+                sin) : from;
+        for (; i < to; i++) {
+            double dx = x[i] - px;
+            double dy = y[i] - py;
+            x[i] = dx * cos + dy * sin + px;
+            y[i] = dy * cos - dx * sin + py;
+        }
+    }
+
+    /**
+     * Calculates dot products as {@link V2D_Vector_d#getDotProduct}.
+     *
+     * @param ax The dx of the first vectors.
+     * @param ay The dy of the first vectors.
+     * @param bx The dx of the second vectors.
+     * @param by The dy of the second vectors.
+     * @param from The index of the first vector (inclusive).
+     * @param to The index of the last vector (exclusive).
+     * @param r The array in which the dot products are stored.
+     */
+    public static void getDotProducts(double[] ax, double[] ay, double[] bx,
+            double[] by, int from, int to, double[] r) {
+        int i = SIMD ? V2D_KernelsSIMD_d.getDotProducts(ax, ay, bx, by, from,
+                to, r) : from;
+        for (; i < to; i++) {
+            r[i] = ax[i] * bx[i] + ay[i] * by[i];
+        }
+    }
+
+    /**
+     * Calculates determinants (the 2D cross products) as
+     * {@link V2D_Vector_d#getDeterminant}.
+     *
+     * @param ax The dx of the first vectors.
+     * @param ay The dy of the first vectors.
+     * @param bx The dx of the second vectors.
+     * @param by The dy of the second vectors.
+     * @param from The index of the first vector (inclusive).
+     * @param to The index of the last vector (exclusive).
+     * @param r The array in which the determinants are stored.
+     */
+    public static void getDeterminants(double[] ax, double[] ay, double[] bx,
+            double[] by, int from, int to, double[] r) {
+        int i = SIMD ? V2D_KernelsSIMD_d.getDeterminants(ax, ay, bx, by, from,
+                to, r) : from;
+        for (; i < to; i++) {
+            r[i] = ax[i] * by[i] - ay[i] * bx[i];
+        }
+    }
+
+    /**
+     * Calculates the distances of points to ({@code px}, {@code py}) as
+     * {@link V2D_Point_d#getDistance(V2D_Point_d)}.
+     *
+     * @param x The x coordinates.
+     * @param y The y coordinates.
+     * @param from The index of the first point (inclusive).
+     * @param to The index of the last point (exclusive).
+     * @param px The x coordinate of the point to calculate distances to.
+     * @param py The y coordinate of the point to calculate distances to.
+     * @param r The array in which the distances are stored.
+     */
+    public static void getDistances(double[] x, double[] y, int from, int to,
+            double px, double py, double[] r) {
+        int i = SIMD ? V2D_KernelsSIMD_d.getDistances(x, y, from, to, px, py,
+                r) : from;
+        for (; i < to; i++) {
+            double dx = x[i] - px;
+            double dy = y[i] - py;
+            r[i] = Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    /**
+     * Calculates the orientations of points relative to the line through
+     * ({@code ax}, {@code ay}) and ({@code bx}, {@code by}). This is the sign
+     * of the determinant {@code (bx-ax)(y-ay) - (by-ay)(x-ax)}.
+     *
+     * @param x The x coordinates.
+     * @param y The y coordinates.
+     * @param from The index of the first point (inclusive).
+     * @param to The index of the last point (exclusive).
+     * @param ax The x coordinate of a.
+     * @param ay The y coordinate of a.
+     * @param bx The x coordinate of b.
+     * @param by The y coordinate of b.
+     * @param epsilon The tolerance within which a determinant is regarded as
+     * zero.
+     * @param r The array in which the orientations are stored: 1 if a, b and
+     * the point make a counter-clockwise turn, -1 if they make a clockwise
+     * turn and 0 if they are collinear.
+     */
+    public static void getOrientations(double[] x, double[] y, int from,
+            int to, double ax, double ay, double bx, double by,
+            double epsilon, int[] r) {
+        double abx = bx - ax;
+        double aby = by - ay;
+        int i = SIMD ? V2D_KernelsSIMD_d.getOrientations(x, y, from, to, ax,
+                ay, abx, aby, epsilon, r) : from;
+        for (; i < to; i++) {
+            double d = abx * (y[i] - ay) - aby * (x[i] - ax);
+            r[i] = d > epsilon ? 1 : d < -epsilon ? -1 : 0;
+        }
+    }
+}
@@ -0,0 +1,704 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * For finding all the pairs of line segments in a collection that intersect
+ * using a plane sweep in the manner of Bentley and Ottmann (1979). Events for
+ * the end points of the line segments are processed from left to right and
+ * the line segments crossing the sweep line are kept in order from bottom to
+ * top. Only line segments that are adjacent on the sweep line are tested for
+ * intersection, and where they intersect they are divided at the point of
+ * intersection and new events are added. Collinear overlapping line segments
+ * are divided at the ends of the overlap. So every intersection ends up at a
+ * vertex shared by parts of the intersecting line segments. This runs in
+ * O((n+k) log n) time where n is the number of line segments and k is the
+ * number of intersections.
+ *
+ * Points of intersection are calculated from the line segments rather than
+ * from the parts of them, using
+ * {@link V2D_Overlay_d#getIntersection(double, double, double, double, double, double, double, double, double)}
+ * which rounds the exact point of intersection once. So where more than two
+ * line segments intersect at a point, each pair gives the same vertex. The
+ * parts are also placed on the sweep line using the line segments, so the
+ * order does not depend on rounding in the vertices. Once placed, a part is
+ * given a rank between those of its neighbours and the sweep line is ordered
+ * by rank. Rounded points of intersection can make the order given by the
+ * geometry inconsistent for parts that are not next to each other, but the
+ * order by rank is always consistent.
+ *
+ * The intersection of each pair found is calculated using
+ * {@link V2D_LineSegment_d#getIntersect(double, V2D_LineSegment_d)}.
+ * Pairs for which this is {@code null} are not included.
+ * Line segments of zero length are ignored.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_LineSegmentSweep_d {
+
+    /**
+     * An intersection between two line segments.
+     */
+    public static class Intersection {
+
+        /**
+         * The index of the first line segment.
+         */
+        public final int i;
+
+        /**
+         * The index of the second line segment, which is greater than
+         * {@link #i}.
+         */
+        public final int j;
+
+        /**
+         * The intersection which is either a point or a line segment.
+         */
+        public final V2D_FiniteGeometry_d g;
+
+        /**
+         * @param i What {@link #i} is set to.
+         * @param j What {@link #j} is set to.
+         * @param g What {@link #g} is set to.
+         */
+        public Intersection(int i, int j, V2D_FiniteGeometry_d g) {
+            this.i = i;
+            this.j = j;
+            this.g = g;
+        }
+    }
+
+    /**
+     * The line segments.
+     */
+    private final List<V2D_LineSegment_d> ls;
+
+    /**
+     * The tolerance within which two vectors are regarded as equal.
+     */
+    private final double epsilon;
+
+    /**
+     * The event queue.
+     */
+    private final PriorityQueue<Event> queue;
+
+    /**
+     * For ordering events.
+     */
+    private int nextId;
+
+    /**
+     * The end points and the points of intersection.
+     */
+    private final HashMap<Vertex, Vertex> vertices;
+
+    /**
+     * The coordinates of the left and then the right end point of each line
+     * segment. Parts of line segments are ordered on the sweep line using
+     * these rather than their own end points, so that the order does not
+     * depend on rounding in the points of intersection.
+     */
+    private final double[] ends;
+
+    /**
+     * For each line segment {@link #epsilon} multiplied by its length.
+     */
+    private final double[] tolerances;
+
+    /**
+     * The difference between the ranks of parts of line segments next to
+     * each other on the sweep line when they are ranked again.
+     */
+    private static final long GAP = 1L << 32;
+
+    /**
+     * @param ls What {@link #ls} is set to.
+     * @param epsilon What {@link #epsilon} is set to.
+     */
+    private V2D_LineSegmentSweep_d(List<V2D_LineSegment_d> ls,
+            double epsilon) {
+        this.ls = ls;
+        this.epsilon = epsilon;
+        this.queue = new PriorityQueue<>(this::compareEvents);
+        this.ends = new double[ls.size() * 4];
+        this.tolerances = new double[ls.size()];
+        this.vertices = new HashMap<>();
+    }
+
+    /**
+     * @param ls The line segments.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return All the pairs of line segments in {@code ls} that intersect,
+     * with their intersection. The pairs are given by their index in
+     * {@code ls} and are ordered by the first and then the second index.
+     */
+    public static ArrayList<Intersection> getIntersections(
+            List<V2D_LineSegment_d> ls, double epsilon) {
+        V2D_LineSegmentSweep_d s = new V2D_LineSegmentSweep_d(ls, epsilon);
+        return s.sweep();
+    }
+
+    /**
+     * Fills the queue, processes it and then collects the intersections at
+     * each vertex.
+     *
+     * @return The intersections.
+     */
+    private ArrayList<Intersection> sweep() {
+        for (int i = 0; i < ls.size(); i++) {
+            V2D_LineSegment_d l = ls.get(i);
+            V2D_Point_d p = l.getP();
+            V2D_Point_d q = l.getQ();
+            double px = p.getX();
+            double py = p.getY();
+            double qx = q.getX();
+            double qy = q.getY();
+            if (px == qx && py == qy) {
+                continue;
+            }
+            Event e1 = new Event(getVertex(px, py), nextId++, i);
+            Event e2 = new Event(getVertex(qx, qy), nextId++, i);
+            e1.other = e2;
+            e2.other = e1;
+            Event le = e1;
+            if (px > qx || (px == qx && py > qy)) {
+                le = e2;
+            }
+            le.left = true;
+            ends[4 * i] = le.x;
+            ends[4 * i + 1] = le.y;
+            ends[4 * i + 2] = le.other.x;
+            ends[4 * i + 3] = le.other.y;
+            tolerances[i] = epsilon * Math.hypot(qx - px, qy - py);
+            queue.add(e1);
+            queue.add(e2);
+        }
+        TreeSet<Event> sweepLine = new TreeSet<>(this::compareRanks);
+        while (!queue.isEmpty()) {
+            Event e = queue.poll();
+            if (e.left) {
+                Event prev = sweepLine.lower(e);
+                Event next = sweepLine.higher(e);
+                rank(sweepLine, e, prev, next);
+                sweepLine.add(e);
+                divideThrough(sweepLine, prev, next, e.v);
+                if (next != null) {
+                    possibleIntersection(e, next);
+                }
+                if (prev != null) {
+                    possibleIntersection(prev, e);
+                }
+            } else {
+                Event le = e.other;
+                Event prev = sweepLine.lower(le);
+                Event next = sweepLine.higher(le);
+                divideThrough(sweepLine, prev, next, e.v);
+                if (!sweepLine.remove(le)) {
+                    throw new RuntimeException(
+                            "Line segment not in sweep line.");
+                }
+                if (prev != null && next != null) {
+                    possibleIntersection(prev, next);
+                }
+            }
+        }
+        ArrayList<Intersection> r = new ArrayList<>();
+        HashSet<Long> pairs = new HashSet<>();
+        for (Vertex v : vertices.values()) {
+            addIntersections(v, pairs, r);
+        }
+        r.sort((a, b) -> a.i != b.i ? Integer.compare(a.i, b.i)
+                : Integer.compare(a.j, b.j));
+        return r;
+    }
+
+    /**
+     * Adds the intersections of the line segments with a part ending at a
+     * vertex.
+     *
+     * @param v The vertex.
+     * @param pairs The pairs already found.
+     * @param r The intersections to add to.
+     */
+    private void addIntersections(Vertex v, HashSet<Long> pairs,
+            ArrayList<Intersection> r) {
+        if (v.n < 2) {
+            return;
+        }
+        int[] at = v.segs;
+        int nAt = v.n;
+        Arrays.sort(at, 0, nAt);
+        for (int a = 0; a < nAt; a++) {
+            int i = at[a];
+            if (a > 0 && i == at[a - 1]) {
+                continue;
+            }
+            for (int b = a + 1; b < nAt; b++) {
+                int j = at[b];
+                if (j == at[b - 1]) {
+                    continue;
+                }
+                long pair = ((long) i << 32) | j;
+                if (pairs.add(pair)) {
+                    V2D_FiniteGeometry_d g = ls.get(i).getIntersect(epsilon,
+                            ls.get(j));
+                    if (g == null) {
+                        // The vertex is a rounded point so the pair is
+                        // checked again at any other vertex they share.
+                        pairs.remove(pair);
+                    } else {
+                        r.add(new Intersection(i, j, g));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * A point at which parts of line segments end.
+     */
+    private static class Vertex {
+
+        final double x;
+
+        final double y;
+
+        /**
+         * The indexes of the line segments with a part ending here. Indexes
+         * may be repeated.
+         */
+        int[] segs;
+
+        /**
+         * The number of indexes in {@link #segs}.
+         */
+        int n;
+
+        Vertex(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+
+        void add(int seg) {
+            if (segs == null) {
+                segs = new int[2];
+            } else if (n == segs.length) {
+                segs = Arrays.copyOf(segs, n * 2);
+            }
+            segs[n++] = seg;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Vertex v && x == v.x && y == v.y;
+        }
+
+        @Override
+        public int hashCode() {
+            // Adding 0 makes -0 into 0.
+            return 31 * Double.hashCode(x + 0d) + Double.hashCode(y + 0d);
+        }
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The vertex at (x, y) which is created if there is not one.
+     */
+    private Vertex getVertex(double x, double y) {
+        Vertex v = new Vertex(x, y);
+        Vertex c = vertices.putIfAbsent(v, v);
+        return c == null ? v : c;
+    }
+
+    /**
+     * An end point of a line segment or a part of one.
+     */
+    private static class Event {
+
+        /**
+         * For ordering otherwise equal events.
+         */
+        final int id;
+
+        final double x;
+
+        final double y;
+
+        /**
+         * The vertex at (x, y).
+         */
+        final Vertex v;
+
+        /**
+         * The index of the line segment.
+         */
+        final int seg;
+
+        /**
+         * If this is the left end point.
+         */
+        boolean left;
+
+        /**
+         * The event at the other end.
+         */
+        Event other;
+
+        /**
+         * If this is a left event on the sweep line, its position there.
+         */
+        long rank;
+
+        /**
+         * If {@link #rank} is set.
+         */
+        boolean ranked;
+
+        Event(Vertex v, int id, int seg) {
+            this.id = id;
+            this.x = v.x;
+            this.y = v.y;
+            this.v = v;
+            this.seg = seg;
+            v.add(seg);
+        }
+
+        boolean isAt(double px, double py) {
+            return x == px && y == py;
+        }
+
+        boolean equalsPoint(Event e) {
+            return isAt(e.x, e.y);
+        }
+    }
+
+    /**
+     * Orders events from left to right.
+     *
+     * @param e1 An event.
+     * @param e2 Another event.
+     * @return -1 if e1 is processed before e2 and 1 otherwise.
+     */
+    private int compareEvents(Event e1, Event e2) {
+        if (e1.x != e2.x) {
+            return e1.x > e2.x ? 1 : -1;
+        }
+        if (e1.y != e2.y) {
+            return e1.y > e2.y ? 1 : -1;
+        }
+        // Same point: right end points are processed first.
+        if (e1.left != e2.left) {
+            return e1.left ? 1 : -1;
+        }
+        int s = e1.seg;
+        int t = e2.seg;
+        double a = e1.left
+                ? side(s, ends[4 * t + 2], ends[4 * t + 3])
+                : side(s, ends[4 * t], ends[4 * t + 1]);
+        if (a != 0d) {
+            return a > 0d ? -1 : 1;
+        }
+        return Integer.compare(e1.id, e2.id);
+    }
+
+    /**
+     * Orders line segments on the sweep line from bottom to top.
+     *
+     * @param le1 The left event of a line segment.
+     * @param le2 The left event of another line segment.
+     * @return -1 if le1 is below le2, 0 if they are the same and 1 otherwise.
+     */
+    private int compareSegments(Event le1, Event le2) {
+        if (le1 == le2) {
+            return 0;
+        }
+        int s = le1.seg;
+        int t = le2.seg;
+        double a2 = side(s, ends[4 * t + 2], ends[4 * t + 3]);
+        if (side(s, ends[4 * t], ends[4 * t + 1]) != 0d || a2 != 0d) {
+            // Not collinear.
+            if (le1.v == le2.v) {
+                if (a2 != 0d) {
+                    return a2 > 0d ? -1 : 1;
+                }
+                return side(t, ends[4 * s + 2], ends[4 * s + 3]) > 0d ? 1
+                        : -1;
+            }
+            if (le1.x == le2.x) {
+                return le1.y < le2.y ? -1 : 1;
+            }
+            if (compareEvents(le1, le2) == 1) {
+                // If le1 starts on le2 use the right end of le1.
+                double a = side(t, le1.x, le1.y);
+                if (isOn(t, a)) {
+                    a = side(t, ends[4 * s + 2], ends[4 * s + 3]);
+                }
+                return a > 0d ? 1 : -1;
+            }
+            double a = side(s, le2.x, le2.y);
+            if (isOn(s, a)) {
+                a = a2;
+            }
+            return a > 0d ? -1 : 1;
+        }
+        // Collinear: at the same point these are ordered by id.
+        return compareEvents(le1, le2);
+    }
+
+    /**
+     * Orders line segments on the sweep line by rank. A left event that is
+     * not yet ranked is placed using
+     * {@link #compareSegments(Event, Event)}.
+     *
+     * @param le1 The left event of a line segment.
+     * @param le2 The left event of another line segment.
+     * @return -1 if le1 is below le2, 0 if they are the same and 1 otherwise.
+     */
+    private int compareRanks(Event le1, Event le2) {
+        if (le1 == le2) {
+            return 0;
+        }
+        if (le1.ranked && le2.ranked) {
+            return Long.compare(le1.rank, le2.rank);
+        }
+        return compareSegments(le1, le2);
+    }
+
+    /**
+     * Sets the rank of {@code le} to be between those of {@code prev} and
+     * {@code next}. If there is no rank between these, all the parts on the
+     * sweep line are ranked again, which keeps their order.
+     *
+     * @param sweepLine The sweep line.
+     * @param le The left event of a part to add to the sweep line.
+     * @param prev The left event of the part that will be below {@code le}.
+     * @param next The left event of the part that will be above {@code le}.
+     */
+    private static void rank(TreeSet<Event> sweepLine, Event le, Event prev,
+            Event next) {
+        boolean full;
+        if (prev == null) {
+            full = next != null && next.rank < Long.MIN_VALUE + GAP;
+        } else if (next == null) {
+            full = prev.rank > Long.MAX_VALUE - GAP;
+        } else {
+            full = next.rank - prev.rank < 2;
+        }
+        if (full) {
+            long r = -(sweepLine.size() / 2) * GAP;
+            for (Event o : sweepLine) {
+                o.rank = r;
+                r += GAP;
+            }
+        }
+        if (prev == null) {
+            le.rank = next == null ? 0L : next.rank - GAP;
+        } else if (next == null) {
+            le.rank = prev.rank + GAP;
+        } else {
+            le.rank = prev.rank + (next.rank - prev.rank) / 2;
+        }
+        le.ranked = true;
+    }
+
+    /**
+     * @param seg The index of a line segment.
+     * @param px The x coordinate of a point.
+     * @param py The y coordinate of a point.
+     * @return Twice the signed area of the triangle formed by the left and
+     * right end points of the line segment and the point, which is positive
+     * if the point is above the line segment.
+     */
+    private double side(int seg, double px, double py) {
+        int i = 4 * seg;
+        return signedArea(ends[i], ends[i + 1], ends[i + 2], ends[i + 3], px,
+                py);
+    }
+
+    /**
+     * @param seg The index of a line segment.
+     * @param a The result of {@link #side(int, double, double)} for a point.
+     * @return {@code true} if the point is within {@link #epsilon} of the
+     * line through the line segment.
+     */
+    private boolean isOn(int seg, double a) {
+        return Math.abs(a) <= tolerances[seg];
+    }
+
+    /**
+     * Divides the parts of line segments of {@code le1} and {@code le2} where
+     * the line segments intersect if this is within both parts.
+     *
+     * @param le1 The left event of a part of a line segment.
+     * @param le2 The left event of a part of another line segment.
+     */
+    private void possibleIntersection(Event le1, Event le2) {
+        int s = 4 * le1.seg;
+        int t = 4 * le2.seg;
+        double[] inter = V2D_Overlay_d.getIntersection(ends[s], ends[s + 1],
+                ends[s + 2], ends[s + 3], ends[t], ends[t + 1], ends[t + 2],
+                ends[t + 3], epsilon);
+        if (inter == null) {
+            return;
+        }
+        if (inter.length == 2) {
+            if (isWithin(le1, inter[0], inter[1])
+                    && isWithin(le2, inter[0], inter[1])) {
+                Vertex v = getVertex(inter[0], inter[1]);
+                divide(le1, v);
+                divide(le2, v);
+            }
+            return;
+        }
+        // Collinear overlap: divide at the far end first so that le1 and le2
+        // remain the left parts.
+        Vertex v0 = getVertex(inter[0], inter[1]);
+        Vertex v1 = getVertex(inter[2], inter[3]);
+        if (compare(v0.x, v0.y, v1.x, v1.y) > 0) {
+            Vertex v = v0;
+            v0 = v1;
+            v1 = v;
+        }
+        for (Event le : new Event[]{le1, le2}) {
+            divide(le, v1);
+            divide(le, v0);
+        }
+    }
+
+    /**
+     * Divides the parts of line segments on the sweep line that pass through
+     * {@code v}. These are next to each other on the sweep line, so the
+     * search goes down from {@code below} and up from {@code above} until a
+     * part that does not pass through {@code v} is found. Without this, only
+     * one of a number of overlapping parts would be divided.
+     *
+     * @param sweepLine The sweep line.
+     * @param below The left event of the part below an event at {@code v}.
+     * @param above The left event of the part above an event at {@code v}.
+     * @param v The vertex.
+     */
+    private void divideThrough(TreeSet<Event> sweepLine, Event below,
+            Event above, Vertex v) {
+        for (Event o = below; o != null && passesThrough(o, v);
+                o = sweepLine.lower(o)) {
+            divide(o, v);
+        }
+        for (Event o = above; o != null && passesThrough(o, v);
+                o = sweepLine.higher(o)) {
+            divide(o, v);
+        }
+    }
+
+    /**
+     * @param le The left event of a part of a line segment.
+     * @param v A vertex.
+     * @return {@code true} if {@code v} is strictly within the part and
+     * within {@link #epsilon} of the line segment or on a line segment
+     * collinear with it.
+     */
+    private boolean passesThrough(Event le, Vertex v) {
+        return compare(le.x, le.y, v.x, v.y) < 0
+                && compare(v.x, v.y, le.other.x, le.other.y) < 0
+                && (isOn(le.seg, side(le.seg, v.x, v.y))
+                || isCollinear(le.seg, v));
+    }
+
+    /**
+     * A point of intersection is rounded so need not be on the line
+     * segments it was calculated from, but it is taken to be on them and so
+     * also on any line segment collinear with them.
+     *
+     * @param seg The index of a line segment.
+     * @param v A vertex.
+     * @return {@code true} if a line segment with a part ending at {@code v}
+     * is collinear with {@code seg}.
+     */
+    private boolean isCollinear(int seg, Vertex v) {
+        for (int k = 0; k < v.n; k++) {
+            int t = 4 * v.segs[k];
+            if (side(seg, ends[t], ends[t + 1]) == 0d
+                    && side(seg, ends[t + 2], ends[t + 3]) == 0d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param le The left event of a part of a line segment.
+     * @param x The x coordinate of a point on the line segment.
+     * @param y The y coordinate of a point on the line segment.
+     * @return {@code true} if the point is within the part.
+     */
+    private static boolean isWithin(Event le, double x, double y) {
+        return compare(le.x, le.y, x, y) <= 0
+                && compare(x, y, le.other.x, le.other.y) <= 0;
+    }
+
+    /**
+     * @return The order of (x0, y0) and (x1, y1) by x then y.
+     */
+    private static int compare(double x0, double y0, double x1, double y1) {
+        if (x0 != x1) {
+            return x0 < x1 ? -1 : 1;
+        }
+        return Double.compare(y0, y1);
+    }
+
+    /**
+     * Divides the part of a line segment of {@code le} at {@code v} if this
+     * is strictly within it, adding new events to the queue.
+     *
+     * @param le The left event of a part of a line segment.
+     * @param v The vertex to divide at.
+     */
+    private void divide(Event le, Vertex v) {
+        if (compare(le.x, le.y, v.x, v.y) >= 0
+                || compare(v.x, v.y, le.other.x, le.other.y) >= 0) {
+            return;
+        }
+        Event r = new Event(v, nextId++, le.seg);
+        Event l = new Event(v, nextId++, le.seg);
+        l.left = true;
+        r.other = le;
+        l.other = le.other;
+        le.other.other = l;
+        le.other = r;
+        queue.add(l);
+        queue.add(r);
+    }
+
+    /**
+     * @return Twice the signed area of the triangle p0 p1 p2.
+     */
+    private static double signedArea(double p0x, double p0y, double p1x,
+            double p1y, double p2x, double p2y) {
+        return V2D_Overlay_d.signedArea(p0x, p0y, p1x, p1y, p2x, p2y);
+    }
+}
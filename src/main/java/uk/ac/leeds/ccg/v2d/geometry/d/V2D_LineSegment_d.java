@@ -18,8 +18,10 @@ package uk.ac.leeds.ccg.v2d.geometry.d;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import uk.ac.leeds.ccg.math.arithmetic.Math_Double;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
 
 /**
@@ -458,9 +460,26 @@ public class V2D_LineSegment_d extends V2D_FiniteGeometry_d {
      */
     public static boolean intersects(double epsilon, 
             V2D_LineSegment_d l, Collection<V2D_LineSegment_d> ls) {
-        return ls.parallelStream().anyMatch(x -> x.intersects(l, epsilon));
+        return l.execution().stream(ls)
+                .anyMatch(x -> x.intersects(l, epsilon));
     }
-    
+
+    /**
+     * Finds all the pairs of line segments that intersect using a plane sweep
+     * (see {@link V2D_LineSegmentSweep_d}). This is much faster than testing
+     * every pair for large numbers of line segments.
+     *
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param ls The line segments.
+     * @return The intersecting pairs given by their index in {@code ls} and
+     * their intersection.
+     */
+    public static ArrayList<V2D_LineSegmentSweep_d.Intersection>
+            getIntersections(double epsilon, List<V2D_LineSegment_d> ls) {
+        return V2D_LineSegmentSweep_d.getIntersections(ls, epsilon);
+    }
+
     /**
      * @param p A point to test for intersection.
      * @param ls The lines to test for intersection with p.
@@ -484,7 +503,8 @@ public class V2D_LineSegment_d extends V2D_FiniteGeometry_d {
      */
     public static boolean intersects(double epsilon,
             V2D_Point_d p, Collection<V2D_LineSegment_d> ls) {
-        return ls.parallelStream().anyMatch(x -> x.intersects(p, epsilon));
+        return p.execution().stream(ls)
+                .anyMatch(x -> x.intersects(p, epsilon));
     }
 
     /**
@@ -593,7 +613,23 @@ public class V2D_LineSegment_d extends V2D_FiniteGeometry_d {
      */
     public V2D_FiniteGeometry_d getIntersect(double epsilon,
             V2D_LineSegment_d ls) {
-        if (!getAABB().intersects(ls.getAABB())) {
+        long time = metrics().start();
+        return metrics().stop(V2D_LineSegment_d.class,
+                V2D_Metrics.GET_INTERSECT, time, getIntersect1(epsilon, ls));
+    }
+
+    /**
+     * As {@link #getIntersect(double, V2D_LineSegment_d)} but without
+     * recording the call in {@link #metrics()}.
+     *
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param ls The line to get intersection with this.
+     * @return The intersection between {@code this} and {@code l}.
+     */
+    private V2D_FiniteGeometry_d getIntersect1(double epsilon,
+            V2D_LineSegment_d ls) {
+        if (!metrics().aabb(getAABB().intersects(ls.getAABB()))) {
         //if (!getAABB().intersects(ls.getAABB(), epsilon)) {
             return null;
         }
@@ -0,0 +1,1546 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+
+/**
+ * For computing the intersection, union, difference and symmetric difference
+ * (xor) of polygons. This is an implementation of the plane sweep algorithm
+ * of Martinez, Rueda and Feito (2009) "A new algorithm for computing Boolean
+ * operations on polygons". Polygons may have internal holes. Edges are
+ * subdivided where they intersect and each subdivided edge is then labelled
+ * as in or out of the result as the sweep line passes over it. The labelled
+ * edges are then connected into rings. This runs in O((n+k) log n) time where
+ * n is the number of edges and k is the number of edge intersections.
+ *
+ * Rings are interpreted with the even-odd rule, so internal holes (and any
+ * polygons in these) are handled simply as further rings. Results are
+ * returned as polygons with their external edge points in clockwise order
+ * and with any internal holes as {@link V2D_Polygon_d#internalHoles}.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Overlay_d {
+
+    /**
+     * Half the difference between 1 and the next double.
+     */
+    private static final double EPS = Math.ulp(1d) / 2d;
+
+    /**
+     * The error bound for {@link #signedArea(double, double, double, double,
+     * double, double)}.
+     */
+    private static final double ORIENT_BOUND = (3d + 16d * EPS) * EPS;
+
+    /**
+     * The error bound for {@link #getTurn(double[], double[])}.
+     */
+    private static final double TURN_BOUND = 8d * EPS;
+
+    /**
+     * The Boolean operations.
+     */
+    public enum Operation {
+        /**
+         * For the area in both.
+         */
+        INTERSECTION,
+        /**
+         * For the area in either.
+         */
+        UNION,
+        /**
+         * For the area in the subject and not in the clipping.
+         */
+        DIFFERENCE,
+        /**
+         * For the area in one but not the other (symmetric difference).
+         */
+        XOR
+    }
+
+    /**
+     * Create a new instance.
+     */
+    public V2D_Overlay_d() {
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of both {@code a} and {@code b}.
+     */
+    public static ArrayList<V2D_Polygon_d> getIntersection(
+            V2D_PolygonNoInternalHoles_d a, V2D_PolygonNoInternalHoles_d b,
+            double epsilon) {
+        return apply(List.of(a), List.of(b), Operation.INTERSECTION, epsilon);
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of either {@code a} or
+     * {@code b}.
+     */
+    public static ArrayList<V2D_Polygon_d> getUnion(
+            V2D_PolygonNoInternalHoles_d a, V2D_PolygonNoInternalHoles_d b,
+            double epsilon) {
+        return apply(List.of(a), List.of(b), Operation.UNION, epsilon);
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of {@code a} not in {@code b}.
+     */
+    public static ArrayList<V2D_Polygon_d> getDifference(
+            V2D_PolygonNoInternalHoles_d a, V2D_PolygonNoInternalHoles_d b,
+            double epsilon) {
+        return apply(List.of(a), List.of(b), Operation.DIFFERENCE, epsilon);
+    }
+
+    /**
+     * @param a A polygon.
+     * @param b Another polygon.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of {@code a} or {@code b} but
+     * not both.
+     */
+    public static ArrayList<V2D_Polygon_d> getXor(
+            V2D_PolygonNoInternalHoles_d a, V2D_PolygonNoInternalHoles_d b,
+            double epsilon) {
+        return apply(List.of(a), List.of(b), Operation.XOR, epsilon);
+    }
+
+    /**
+     * Dissolves polygons into the polygons covering their union.
+     *
+     * @param ps The polygons. These may overlap.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of any of {@code ps}.
+     */
+    public static ArrayList<V2D_Polygon_d> getUnion(
+            Collection<? extends V2D_PolygonNoInternalHoles_d> ps,
+            double epsilon) {
+        ArrayList<V2D_PolygonNoInternalHoles_d> l = new ArrayList<>(ps);
+        if (l.size() < 2) {
+            return apply(l, List.of(), Operation.UNION, epsilon);
+        }
+        // Union halves so that each edge takes part in O(log n) sweeps.
+        int m = l.size() / 2;
+        return apply(getUnion(l.subList(0, m), epsilon),
+                getUnion(l.subList(m, l.size()), epsilon),
+                Operation.UNION, epsilon);
+    }
+
+    /**
+     * Applies a Boolean operation. The polygons in {@code subject} should not
+     * overlap each other and nor should those in {@code clipping}.
+     *
+     * @param subject The subject polygons.
+     * @param clipping The clipping polygons.
+     * @param op The operation.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons resulting from applying {@code op}.
+     */
+    public static ArrayList<V2D_Polygon_d> apply(
+            Collection<? extends V2D_PolygonNoInternalHoles_d> subject,
+            Collection<? extends V2D_PolygonNoInternalHoles_d> clipping,
+            Operation op, double epsilon) {
+        V2D_Environment_d env = null;
+        for (var p : subject) {
+            env = p.env;
+        }
+        for (var p : clipping) {
+            env = p.env;
+        }
+        if (env == null) {
+            return new ArrayList<>();
+        }
+        ArrayList<double[]> s = new ArrayList<>();
+        for (var p : subject) {
+            addRings(p, s);
+        }
+        ArrayList<double[]> c = new ArrayList<>();
+        for (var p : clipping) {
+            addRings(p, c);
+        }
+        return toPolygons(env, apply(s, c, op, epsilon), epsilon);
+    }
+
+    /**
+     * Applies a Boolean operation to rings given as arrays of interleaved x
+     * and y coordinates. Rings are not closed, i.e. the first point is not
+     * repeated at the end.
+     *
+     * @param subject The subject rings.
+     * @param clipping The clipping rings.
+     * @param op The operation.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The resulting rings. Exterior rings list the indexes of their
+     * holes in {@link Ring#holes}.
+     */
+    public static ArrayList<Ring> apply(List<double[]> subject,
+            List<double[]> clipping, Operation op, double epsilon) {
+        Sweep sweep = new Sweep(op, epsilon);
+        double[] sb = sweep.fill(subject, true);
+        double[] cb = sweep.fill(clipping, false);
+        if (sb[0] > sb[2] || cb[0] > cb[2]
+                || sb[0] > cb[2] || cb[0] > sb[2]
+                || sb[1] > cb[3] || cb[1] > sb[3]) {
+            // An input is empty or the inputs are disjoint.
+            return switch (op) {
+                case INTERSECTION ->
+                    new ArrayList<>();
+                case DIFFERENCE ->
+                    getRings(subject, epsilon);
+                default -> {
+                    ArrayList<double[]> all = new ArrayList<>(subject);
+                    all.addAll(clipping);
+                    yield getRings(all, epsilon);
+                }
+            };
+        }
+        ArrayList<SweepEvent> sorted = sweep.subdivide(Math.min(sb[2], cb[2]),
+                sb[2]);
+        return sweep.connect(sorted);
+    }
+
+    /**
+     * @param rings Rings that do not overlap.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The rings with holes identified.
+     */
+    private static ArrayList<Ring> getRings(List<double[]> rings,
+            double epsilon) {
+        // The union with nothing keeps every edge.
+        Sweep sweep = new Sweep(Operation.UNION, epsilon);
+        sweep.fill(rings, true);
+        return sweep.connect(sweep.subdivide(Double.POSITIVE_INFINITY,
+                Double.POSITIVE_INFINITY));
+    }
+
+    /**
+     * A ring of the result.
+     */
+    public static class Ring {
+
+        /**
+         * The interleaved x and y coordinates of the points of the ring.
+         */
+        public double[] xy;
+
+        /**
+         * The index of the ring this is a hole of, or -1 if this is not a
+         * hole. A hole that is not in any exterior ring has its own index.
+         */
+        public int holeOf;
+
+        /**
+         * The indexes of the rings that are holes of this.
+         */
+        public final ArrayList<Integer> holes;
+
+        /**
+         * @param xy What {@link #xy} is set to.
+         * @param holeOf What {@link #holeOf} is set to.
+         */
+        public Ring(double[] xy, int holeOf) {
+            this.xy = xy;
+            this.holeOf = holeOf;
+            this.holes = new ArrayList<>();
+        }
+
+        /**
+         * @return {@code true} if this is an exterior ring.
+         */
+        public boolean isExterior() {
+            return holeOf < 0;
+        }
+    }
+
+    /**
+     * Adds the rings of {@code p} to {@code rings}.
+     *
+     * @param p The polygon.
+     * @param rings The rings to add to.
+     */
+    static void addRings(V2D_PolygonNoInternalHoles_d p,
+            List<double[]> rings) {
+        rings.add(getRing(p));
+        if (p instanceof V2D_Polygon_d pih && pih.internalHoles != null) {
+            for (var h : pih.internalHoles.values()) {
+                addRings(h, rings);
+            }
+        }
+    }
+
+    /**
+     * @param p The polygon.
+     * @return The external edge points of {@code p} as interleaved x and y
+     * coordinates.
+     */
+    private static double[] getRing(V2D_PolygonNoInternalHoles_d p) {
+        HashMap<Integer, V2D_Point_d> pts = p.getPoints();
+        double[] r = new double[pts.size() * 2];
+        int i = 0;
+        for (int k = 0; k < pts.size(); k++) {
+            V2D_Point_d pt = pts.get(k);
+            r[i++] = pt.getX();
+            r[i++] = pt.getY();
+        }
+        return r;
+    }
+
+    /**
+     * @param env The environment.
+     * @param rings The rings.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons.
+     */
+    private static ArrayList<V2D_Polygon_d> toPolygons(V2D_Environment_d env,
+            ArrayList<Ring> rings, double epsilon) {
+        ArrayList<V2D_Polygon_d> r = new ArrayList<>();
+        for (Ring ring : rings) {
+            if (ring.isExterior()) {
+                V2D_Point_d[] pts = getPoints(env, ring.xy, epsilon);
+                if (pts.length < 3) {
+                    continue;
+                }
+                HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes
+                        = new HashMap<>();
+                for (int h : ring.holes) {
+                    V2D_Point_d[] hpts = getPoints(env, rings.get(h).xy,
+                            epsilon);
+                    if (hpts.length > 2) {
+                        holes.put(holes.size(),
+                                new V2D_PolygonNoInternalHoles_d(hpts,
+                                        epsilon));
+                    }
+                }
+                r.add(new V2D_Polygon_d(pts, holes, epsilon));
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param env The environment.
+     * @param xy The interleaved coordinates of a ring.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The points of the ring in clockwise order with points that are
+     * collinear with their neighbours removed.
+     */
+    private static V2D_Point_d[] getPoints(V2D_Environment_d env, double[] xy,
+            double epsilon) {
+        int n = xy.length / 2;
+        ArrayList<double[]> l = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            l.add(new double[]{xy[2 * i], xy[2 * i + 1]});
+        }
+        boolean removed = true;
+        while (removed && l.size() > 2) {
+            removed = false;
+            for (int i = 0; i < l.size() && l.size() > 2; i++) {
+                double[] a = l.get((i + l.size() - 1) % l.size());
+                double[] b = l.get(i);
+                double[] c = l.get((i + 1) % l.size());
+                if (isCollinear(a, b, c, epsilon)) {
+                    l.remove(i);
+                    i--;
+                    removed = true;
+                }
+            }
+        }
+        double area = 0d;
+        for (int i = 0; i < l.size(); i++) {
+            double[] a = l.get(i);
+            double[] b = l.get((i + 1) % l.size());
+            area += a[0] * b[1] - b[0] * a[1];
+        }
+        V2D_Point_d[] r = new V2D_Point_d[l.size()];
+        for (int i = 0; i < r.length; i++) {
+            // Reverse counter-clockwise rings.
+            double[] p = l.get(area > 0d ? r.length - 1 - i : i);
+            r[i] = new V2D_Point_d(env, p[0], p[1]);
+        }
+        return r;
+    }
+
+    /**
+     * @param a A point.
+     * @param b A point.
+     * @param c A point.
+     * @param epsilon The tolerance.
+     * @return {@code true} if {@code b} is within {@code epsilon} of the line
+     * segment from {@code a} to {@code c}.
+     */
+    private static boolean isCollinear(double[] a, double[] b, double[] c,
+            double epsilon) {
+        double dx = c[0] - a[0];
+        double dy = c[1] - a[1];
+        double l2 = dx * dx + dy * dy;
+        double bx = b[0] - a[0];
+        double by = b[1] - a[1];
+        if (l2 == 0d) {
+            return Math.abs(bx) <= epsilon && Math.abs(by) <= epsilon;
+        }
+        double cross = dx * by - dy * bx;
+        double dot = dx * bx + dy * by;
+        return cross * cross <= epsilon * epsilon * l2
+                && dot >= 0d && dot <= l2;
+    }
+
+    /**
+     * @param p0x The x coordinate of p0.
+     * @param p0y The y coordinate of p0.
+     * @param p1x The x coordinate of p1.
+     * @param p1y The y coordinate of p1.
+     * @param p2x The x coordinate of p2.
+     * @param p2y The y coordinate of p2.
+     * @return Twice the signed area of the triangle p0 p1 p2 which is
+     * positive if these are in counter-clockwise order. The sign is exact.
+     */
+    static double signedArea(double p0x, double p0y, double p1x, double p1y,
+            double p2x, double p2y) {
+        double l = (p0x - p2x) * (p1y - p2y);
+        double r = (p1x - p2x) * (p0y - p2y);
+        double det = l - r;
+        if (Math.abs(det) >= ORIENT_BOUND * (Math.abs(l) + Math.abs(r))) {
+            return det;
+        }
+        return signedArea(new BigDecimal(p0x), new BigDecimal(p0y),
+                new BigDecimal(p1x), new BigDecimal(p1y), new BigDecimal(p2x),
+                new BigDecimal(p2y)).doubleValue();
+    }
+
+    /**
+     * @param l1 A line given as {x0, y0, x1, y1}.
+     * @param l2 Another line given as {x0, y0, x1, y1}.
+     * @return 1 if the direction of {@code l2} is counter-clockwise from that
+     * of {@code l1}, -1 if it is clockwise and 0 if they are parallel. This is
+     * exact.
+     */
+    static int getTurn(double[] l1, double[] l2) {
+        double l = (l1[2] - l1[0]) * (l2[3] - l2[1]);
+        double r = (l1[3] - l1[1]) * (l2[2] - l2[0]);
+        double det = l - r;
+        if (Math.abs(det) > TURN_BOUND * (Math.abs(l) + Math.abs(r))) {
+            return det > 0d ? 1 : -1;
+        }
+        return new BigDecimal(l1[2]).subtract(new BigDecimal(l1[0]))
+                .multiply(new BigDecimal(l2[3]).subtract(
+                        new BigDecimal(l2[1])))
+                .subtract(new BigDecimal(l1[3]).subtract(
+                        new BigDecimal(l1[1])).multiply(
+                        new BigDecimal(l2[2]).subtract(
+                                new BigDecimal(l2[0])))).signum();
+    }
+
+    /**
+     * @param l1 A line given as {x0, y0, x1, y1}.
+     * @param l2 Another line given as {x0, y0, x1, y1}.
+     * @return {@code true} if the lines are the same.
+     */
+    static boolean isCollinear(double[] l1, double[] l2) {
+        return l1 == l2
+                || (signedArea(l1[0], l1[1], l1[2], l1[3], l2[0], l2[1]) == 0d
+                && signedArea(l1[0], l1[1], l1[2], l1[3], l2[2], l2[3]) == 0d);
+    }
+
+    /**
+     * The types of edge.
+     */
+    private enum EdgeType {
+        NORMAL, NON_CONTRIBUTING, SAME_TRANSITION, DIFFERENT_TRANSITION
+    }
+
+    /**
+     * An end point of an edge.
+     */
+    static class SweepEvent {
+
+        /**
+         * For ordering otherwise equal edges.
+         */
+        final int id;
+
+        final double x;
+
+        final double y;
+
+        /**
+         * The end points {x0, y0, x1, y1} of the input edge this edge is part
+         * of ordered from left to right. Orientations are tested against
+         * this rather than against the edge itself, so they do not change as
+         * the edge is divided at rounded intersection points.
+         */
+        final double[] line;
+
+        /**
+         * If this is the left end point of the edge.
+         */
+        boolean left;
+
+        /**
+         * The event at the other end of the edge.
+         */
+        SweepEvent other;
+
+        /**
+         * If the edge is from the subject.
+         */
+        final boolean isSubject;
+
+        int contourId;
+
+        EdgeType type = EdgeType.NORMAL;
+
+        /**
+         * If the edge is an in-out transition for its polygon for a vertical
+         * ray from below.
+         */
+        boolean inOut;
+
+        /**
+         * As {@link #inOut} for the closest edge of the other polygon below.
+         */
+        boolean otherInOut;
+
+        /**
+         * The closest edge below in the result.
+         */
+        SweepEvent prevInResult;
+
+        /**
+         * 0 if not in the result, 1 if the transition is out-in and -1 if the
+         * transition is in-out.
+         */
+        int resultTransition;
+
+        /**
+         * The position in the order events are processed.
+         */
+        int pos;
+
+        /**
+         * The index of the result ring the edge is in or -1.
+         */
+        int ringId = -1;
+
+        /**
+         * If this has been replaced by another event so is not processed.
+         */
+        boolean replaced;
+
+        SweepEvent(int id, double x, double y, double[] line, boolean left,
+                SweepEvent other, boolean isSubject) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.line = line;
+            this.left = left;
+            this.other = other;
+            this.isSubject = isSubject;
+        }
+
+        /**
+         * @param px The x coordinate of a point.
+         * @param py The y coordinate of a point.
+         * @return A value that is positive if the point is above
+         * {@link #line}, negative if it is below and 0 if it is on it.
+         */
+        double getSide(double px, double py) {
+            return signedArea(line[0], line[1], line[2], line[3], px, py);
+        }
+
+        boolean isVertical() {
+            return x == other.x;
+        }
+
+        boolean inResult() {
+            return resultTransition != 0;
+        }
+
+        boolean equalsPoint(SweepEvent e) {
+            return x == e.x && y == e.y;
+        }
+    }
+
+    /**
+     * Orders events from left to right.
+     *
+     * @param e1 An event.
+     * @param e2 Another event.
+     * @return -1 if e1 is processed before e2 and 1 otherwise.
+     */
+    static int compareEvents(SweepEvent e1, SweepEvent e2) {
+        if (e1.x > e2.x) {
+            return 1;
+        }
+        if (e1.x < e2.x) {
+            return -1;
+        }
+        if (e1.y != e2.y) {
+            return e1.y > e2.y ? 1 : -1;
+        }
+        // Same point: right end points are processed first.
+        if (e1.left != e2.left) {
+            return e1.left ? 1 : -1;
+        }
+        int turn = getTurn(e1.line, e2.line);
+        if (turn != 0) {
+            // The event of the lower edge is processed first.
+            return (e1.left ? turn > 0 : turn < 0) ? -1 : 1;
+        }
+        if (e1.isSubject != e2.isSubject) {
+            return e1.isSubject ? -1 : 1;
+        }
+        return Integer.compare(e1.id, e2.id);
+    }
+
+    /**
+     * Orders the edges in the sweep line from bottom to top. Only the exact
+     * predicates {@link #signedArea} and {@link #getTurn} applied to
+     * {@link SweepEvent#line} are used, so this is a total order whatever
+     * the tolerance used for finding intersections.
+     *
+     * @param le1 The left event of an edge.
+     * @param le2 The left event of another edge.
+     * @return -1 if le1 is below le2, 0 if they are the same and 1 otherwise.
+     */
+    static int compareSegments(SweepEvent le1, SweepEvent le2) {
+        if (le1 == le2) {
+            return 0;
+        }
+        if (!isCollinear(le1.line, le2.line)) {
+            if (le1.equalsPoint(le2)) {
+                return compareLines(le1.line, le2.line);
+            }
+            if (le1.x == le2.x) {
+                return le1.y < le2.y ? -1 : 1;
+            }
+            if (compareEvents(le1, le2) == 1) {
+                double a = le2.getSide(le1.x, le1.y);
+                if (a == 0d) {
+                    // If le1 starts on le2 use the direction of le1.
+                    return -compareLines(le2.line, le1.line);
+                }
+                return a < 0d ? -1 : 1;
+            }
+            double a = le1.getSide(le2.x, le2.y);
+            if (a == 0d) {
+                return compareLines(le1.line, le2.line);
+            }
+            return a > 0d ? -1 : 1;
+        }
+        if (le1.isSubject == le2.isSubject) {
+            if (le1.equalsPoint(le2)) {
+                if (le1.other.equalsPoint(le2.other)) {
+                    return Integer.compare(le1.id, le2.id);
+                }
+                if (le1.contourId != le2.contourId) {
+                    return le1.contourId > le2.contourId ? 1 : -1;
+                }
+            }
+        } else {
+            return le1.isSubject ? -1 : 1;
+        }
+        return compareEvents(le1, le2) == 1 ? 1 : -1;
+    }
+
+    /**
+     * @param l1 A line given as {x0, y0, x1, y1} with (x0, y0) the left end.
+     * @param l2 Another line that is not the same as {@code l1}.
+     * @return -1 if {@code l1} is below {@code l2} to the right of where they
+     * meet or, if they are parallel, everywhere, and 1 otherwise.
+     */
+    static int compareLines(double[] l1, double[] l2) {
+        int turn = getTurn(l1, l2);
+        if (turn == 0) {
+            return signedArea(l1[0], l1[1], l1[2], l1[3], l2[0], l2[1]) > 0d
+                    ? -1 : 1;
+        }
+        return turn > 0 ? -1 : 1;
+    }
+
+    /**
+     * The state of a sweep.
+     */
+    private static class Sweep {
+
+        final Operation op;
+
+        final double epsilon;
+
+        final PriorityQueue<SweepEvent> queue;
+
+        int nextId;
+
+        int contourId;
+
+        Sweep(Operation op, double epsilon) {
+            this.op = op;
+            this.epsilon = epsilon;
+            this.queue = new PriorityQueue<>(V2D_Overlay_d::compareEvents);
+        }
+
+        /**
+         * Adds events for the edges of the rings to the queue.
+         *
+         * @param rings The rings.
+         * @param isSubject If the rings are from the subject.
+         * @return The bounds {xmin, ymin, xmax, ymax} of the rings.
+         */
+        double[] fill(List<double[]> rings, boolean isSubject) {
+            double[] b = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+            for (double[] ring : rings) {
+                contourId++;
+                int n = ring.length / 2;
+                for (int i = 0; i < n; i++) {
+                    double x1 = ring[2 * i];
+                    double y1 = ring[2 * i + 1];
+                    int j = (i + 1) % n;
+                    double x2 = ring[2 * j];
+                    double y2 = ring[2 * j + 1];
+                    b[0] = Math.min(b[0], x1);
+                    b[1] = Math.min(b[1], y1);
+                    b[2] = Math.max(b[2], x1);
+                    b[3] = Math.max(b[3], y1);
+                    if (x1 == x2 && y1 == y2) {
+                        continue;
+                    }
+                    boolean forward = x1 < x2 || (x1 == x2 && y1 < y2);
+                    double[] line = forward ? new double[]{x1, y1, x2, y2}
+                            : new double[]{x2, y2, x1, y1};
+                    SweepEvent e1 = new SweepEvent(nextId++, x1, y1, line,
+                            forward, null, isSubject);
+                    SweepEvent e2 = new SweepEvent(nextId++, x2, y2, line,
+                            !forward, e1, isSubject);
+                    e1.other = e2;
+                    e1.contourId = contourId;
+                    e2.contourId = contourId;
+                    queue.add(e1);
+                    queue.add(e2);
+                }
+            }
+            return b;
+        }
+
+        /**
+         * Subdivides edges where they intersect and labels them.
+         *
+         * @param rightBound The smaller of the maximum x of the subject and
+         * clipping.
+         * @param subjectRightBound The maximum x of the subject.
+         * @return The events in the order processed.
+         */
+        ArrayList<SweepEvent> subdivide(double rightBound,
+                double subjectRightBound) {
+            TreeSet<SweepEvent> sweepLine
+                    = new TreeSet<>(V2D_Overlay_d::compareSegments);
+            ArrayList<SweepEvent> sorted = new ArrayList<>();
+            while (!queue.isEmpty()) {
+                SweepEvent e = queue.poll();
+                if (e.replaced) {
+                    continue;
+                }
+                sorted.add(e);
+                if ((op == Operation.INTERSECTION && e.x > rightBound)
+                        || (op == Operation.DIFFERENCE
+                        && e.x > subjectRightBound)) {
+                    break;
+                }
+                if (e.left) {
+                    sweepLine.add(e);
+                    SweepEvent prev = sweepLine.lower(e);
+                    SweepEvent next = sweepLine.higher(e);
+                    computeFields(e, prev);
+                    if (next != null) {
+                        SweepEvent end = next.other;
+                        int i = possibleIntersection(e, next);
+                        if (i == 2) {
+                            computeFields(e, prev);
+                            computeFields(next, e);
+                        } else if (next.other != end
+                                && next.other.equalsPoint(e)) {
+                            requeue(e, sweepLine, sorted);
+                            continue;
+                        }
+                    }
+                    if (prev != null) {
+                        SweepEvent end = prev.other;
+                        if (possibleIntersection(prev, e) == 2) {
+                            computeFields(prev, sweepLine.lower(prev));
+                            computeFields(e, prev);
+                        } else if (prev.other != end
+                                && prev.other.equalsPoint(e)) {
+                            requeue(e, sweepLine, sorted);
+                        }
+                    }
+                } else {
+                    SweepEvent le = e.other;
+                    SweepEvent prev = sweepLine.lower(le);
+                    SweepEvent next = sweepLine.higher(le);
+                    sweepLine.remove(le);
+                    if (prev != null && next != null) {
+                        possibleIntersection(prev, next);
+                    }
+                }
+            }
+            return sorted;
+        }
+
+        /**
+         * Returns {@code e} to the queue. This is done when the edge next to
+         * {@code e} in the sweep line is divided at the point of {@code e}
+         * because the crossing point rounds to it. The edges at the point
+         * are then ordered and their fields calculated again once the right
+         * event of the divided edge has been processed.
+         *
+         * @param e The left event just added to the sweep line.
+         * @param sweepLine The sweep line.
+         * @param sorted The events in the order processed.
+         */
+        void requeue(SweepEvent e, TreeSet<SweepEvent> sweepLine,
+                ArrayList<SweepEvent> sorted) {
+            sweepLine.remove(e);
+            sorted.remove(sorted.size() - 1);
+            queue.add(e);
+        }
+
+        /**
+         * Calculates the in-out fields of {@code e} given the closest edge
+         * below.
+         *
+         * @param e The event.
+         * @param prev The left event of the closest edge below.
+         */
+        void computeFields(SweepEvent e, SweepEvent prev) {
+            if (prev == null) {
+                e.inOut = false;
+                e.otherInOut = true;
+            } else {
+                if (e.isSubject == prev.isSubject) {
+                    e.inOut = !prev.inOut;
+                    e.otherInOut = prev.otherInOut;
+                } else {
+                    e.inOut = !prev.otherInOut;
+                    e.otherInOut = prev.isVertical() ? !prev.inOut
+                            : prev.inOut;
+                }
+                e.prevInResult = (!inResult(prev) || prev.isVertical())
+                        ? prev.prevInResult : prev;
+            }
+            e.resultTransition = inResult(e) ? getResultTransition(e) : 0;
+        }
+
+        /**
+         * @param e The event.
+         * @return If the edge of {@code e} is in the result.
+         */
+        boolean inResult(SweepEvent e) {
+            return switch (e.type) {
+                case NORMAL ->
+                    switch (op) {
+                        case INTERSECTION ->
+                            !e.otherInOut;
+                        case UNION ->
+                            e.otherInOut;
+                        case DIFFERENCE ->
+                            (e.isSubject && e.otherInOut)
+                            || (!e.isSubject && !e.otherInOut);
+                        case XOR ->
+                            true;
+                    };
+                case SAME_TRANSITION ->
+                    op == Operation.INTERSECTION || op == Operation.UNION;
+                case DIFFERENT_TRANSITION ->
+                    op == Operation.DIFFERENCE;
+                case NON_CONTRIBUTING ->
+                    false;
+            };
+        }
+
+        /**
+         * @param e The event.
+         * @return 1 if the result is entered crossing the edge of {@code e}
+         * upwards and -1 if it is left.
+         */
+        int getResultTransition(SweepEvent e) {
+            boolean thisIn = !e.inOut;
+            // For overlapping edges e is the lower of the two so the other
+            // polygon is on the same side as e for SAME_TRANSITION and the
+            // other side for DIFFERENT_TRANSITION.
+            if (e.type == EdgeType.SAME_TRANSITION) {
+                return thisIn ? 1 : -1;
+            }
+            if (e.type == EdgeType.DIFFERENT_TRANSITION) {
+                return e.isSubject == thisIn ? 1 : -1;
+            }
+            boolean thatIn = !e.otherInOut;
+            boolean isIn = switch (op) {
+                case INTERSECTION ->
+                    thisIn && thatIn;
+                case UNION ->
+                    thisIn || thatIn;
+                case XOR ->
+                    thisIn ^ thatIn;
+                case DIFFERENCE ->
+                    e.isSubject ? thisIn && !thatIn : thatIn && !thisIn;
+            };
+            return isIn ? 1 : -1;
+        }
+
+        /**
+         * Subdivides the edges of {@code se1} and {@code se2} if they
+         * intersect.
+         *
+         * @param se1 The left event of an edge.
+         * @param se2 The left event of another edge.
+         * @return 0 if there is no subdivision, 1 if the edges cross, 2 if
+         * the edges overlap and share a left end point and 3 if the edges
+         * otherwise overlap.
+         */
+        int possibleIntersection(SweepEvent se1, SweepEvent se2) {
+            double[] inter = se1.equalsPoint(se2)
+                    && se1.other.equalsPoint(se2.other)
+                    ? new double[]{se1.x, se1.y, se1.other.x, se1.other.y}
+                    : getIntersection(se1.x, se1.y, se1.other.x,
+                            se1.other.y, se2.x, se2.y, se2.other.x,
+                            se2.other.y, se1.line, se2.line, epsilon);
+            if (inter == null) {
+                return 0;
+            }
+            if (inter.length == 2) {
+                double ix = inter[0];
+                double iy = inter[1];
+                boolean at1 = isAt(se1, ix, iy) || isAt(se1.other, ix, iy);
+                boolean at2 = isAt(se2, ix, iy) || isAt(se2.other, ix, iy);
+                if (se1.equalsPoint(se2)) {
+                    if (isAt(se1, ix, iy) || !(at1 || at2)) {
+                        return 0;
+                    }
+                } else if (se1.other.equalsPoint(se2.other)) {
+                    if (isAt(se1.other, ix, iy) || !(at1 || at2)) {
+                        return 0;
+                    }
+                } else {
+                    if (!at1) {
+                        divide(se1, ix, iy);
+                    }
+                    if (!at2) {
+                        divide(se2, ix, iy);
+                    }
+                    return 1;
+                }
+                // The edges meet at both ends of one of them so they
+                // overlap.
+            }
+            if (se1.isSubject == se2.isSubject) {
+                // Overlapping edges of the same polygon are not supported.
+                return 0;
+            }
+            ArrayList<SweepEvent> events = new ArrayList<>(4);
+            boolean leftCoincide = false;
+            boolean rightCoincide = false;
+            if (se1.equalsPoint(se2)) {
+                leftCoincide = true;
+            } else if (compareEvents(se1, se2) == 1) {
+                events.add(se2);
+                events.add(se1);
+            } else {
+                events.add(se1);
+                events.add(se2);
+            }
+            if (se1.other.equalsPoint(se2.other)) {
+                rightCoincide = true;
+            } else if (compareEvents(se1.other, se2.other) == 1) {
+                events.add(se2.other);
+                events.add(se1.other);
+            } else {
+                events.add(se1.other);
+                events.add(se2.other);
+            }
+            if (leftCoincide) {
+                se2.type = EdgeType.NON_CONTRIBUTING;
+                se1.type = (se2.inOut == se1.inOut)
+                        ? EdgeType.SAME_TRANSITION
+                        : EdgeType.DIFFERENT_TRANSITION;
+                if (!rightCoincide) {
+                    divide(events.get(1).other, events.get(0).x,
+                            events.get(0).y);
+                }
+                return 2;
+            }
+            if (rightCoincide) {
+                divide(events.get(0), events.get(1).x, events.get(1).y);
+                return 3;
+            }
+            if (events.get(0) != events.get(3).other) {
+                // Neither edge contains the other.
+                divide(events.get(0), events.get(1).x, events.get(1).y);
+                divide(events.get(1), events.get(2).x, events.get(2).y);
+                return 3;
+            }
+            // One edge contains the other.
+            divide(events.get(0), events.get(1).x, events.get(1).y);
+            divide(events.get(3).other, events.get(2).x, events.get(2).y);
+            return 3;
+        }
+
+        /**
+         * @param e An event.
+         * @param x The x coordinate.
+         * @param y The y coordinate.
+         * @return {@code true} if e is at (x, y).
+         */
+        boolean isAt(SweepEvent e, double x, double y) {
+            return e.x == x && e.y == y;
+        }
+
+        /**
+         * Divides the edge of {@code se} at (x, y) adding new events to the
+         * queue. If (x, y) is not on {@link SweepEvent#line} of {@code se},
+         * which can happen as intersections are rounded, the rest of the edge
+         * is given the line from (x, y) to its end and the events for it
+         * replace the right event of {@code se}. So every left event is on
+         * its line and ordering edges that start at the same point by their
+         * lines is consistent with ordering by points.
+         *
+         * @param se The left event of an edge.
+         * @param x The x coordinate of the point to divide at.
+         * @param y The y coordinate of the point to divide at.
+         */
+        void divide(SweepEvent se, double x, double y) {
+            SweepEvent end = se.other;
+            SweepEvent r = new SweepEvent(nextId++, x, y, se.line, false, se,
+                    se.isSubject);
+            r.contourId = se.contourId;
+            se.other = r;
+            queue.add(r);
+            if (se.getSide(x, y) == 0d) {
+                SweepEvent l = new SweepEvent(nextId++, x, y, se.line, true,
+                        end, se.isSubject);
+                l.contourId = se.contourId;
+                if (compareEvents(l, end) > 0) {
+                    // Avoid the left event being processed after the right
+                    // event due to rounding.
+                    end.left = true;
+                    l.left = false;
+                }
+                end.other = l;
+                queue.add(l);
+            } else {
+                boolean forward = x < end.x || (x == end.x && y < end.y);
+                double[] line = forward ? new double[]{x, y, end.x, end.y}
+                        : new double[]{end.x, end.y, x, y};
+                SweepEvent l = new SweepEvent(nextId++, x, y, line, forward,
+                        null, se.isSubject);
+                SweepEvent e = new SweepEvent(nextId++, end.x, end.y, line,
+                        !forward, l, se.isSubject);
+                l.other = e;
+                l.contourId = se.contourId;
+                e.contourId = se.contourId;
+                end.replaced = true;
+                end.other = forward ? l : e;
+                queue.add(l);
+                queue.add(e);
+            }
+        }
+
+        /**
+         * Connects the edges in the result into rings. Each edge is directed
+         * so that the result is on its right, so exterior rings are clockwise
+         * and holes are counter-clockwise. At each point the next edge is the
+         * first going counter-clockwise from the edge arrived along, so rings
+         * that touch at a point are separated. Each hole is then assigned to
+         * a polygon using the closest edge in the result below its first
+         * edge.
+         *
+         * @param sorted The events in the order they were processed.
+         * @return The rings.
+         */
+        ArrayList<Ring> connect(ArrayList<SweepEvent> sorted) {
+            HashMap<List<Point>, Edge> byEnds = new HashMap<>();
+            ArrayList<Edge> edges = new ArrayList<>();
+            for (int i = 0; i < sorted.size(); i++) {
+                SweepEvent e = sorted.get(i);
+                e.pos = i;
+                if (e.left && e.inResult()) {
+                    Edge edge = e.resultTransition > 0
+                            ? new Edge(e.other.x, e.other.y, e.x, e.y, e)
+                            : new Edge(e.x, e.y, e.other.x, e.other.y, e);
+                    // Edges between the same points in opposite directions
+                    // bound no area, so both are left out.
+                    Point p0 = new Point(edge.x0, edge.y0);
+                    Point p1 = new Point(edge.x1, edge.y1);
+                    if (byEnds.remove(List.of(p1, p0)) == null) {
+                        byEnds.put(List.of(p0, p1), edge);
+                        edges.add(edge);
+                    }
+                }
+            }
+            edges.retainAll(new HashSet<>(byEnds.values()));
+            HashMap<Point, ArrayList<Edge>> out = new HashMap<>();
+            for (Edge edge : edges) {
+                out.computeIfAbsent(new Point(edge.x0, edge.y0),
+                        k -> new ArrayList<>()).add(edge);
+            }
+            ArrayList<Ring> rings = new ArrayList<>();
+            ArrayList<SweepEvent> firsts = new ArrayList<>();
+            for (Edge start : edges) {
+                if (start.e.ringId >= 0) {
+                    continue;
+                }
+                int ringId = rings.size();
+                ArrayList<Double> xy = new ArrayList<>();
+                SweepEvent first = start.e;
+                Edge edge = start;
+                while (true) {
+                    edge.e.ringId = ringId;
+                    xy.add(edge.x0);
+                    xy.add(edge.y0);
+                    if (edge.e.pos < first.pos) {
+                        first = edge.e;
+                    }
+                    Edge next = getNext(edge, out);
+                    if (next == null || next == start
+                            || next.e.ringId >= 0) {
+                        break;
+                    }
+                    edge = next;
+                }
+                double[] a = new double[xy.size()];
+                for (int k = 0; k < a.length; k++) {
+                    a[k] = xy.get(k);
+                }
+                rings.add(new Ring(a, -1));
+                firsts.add(first);
+            }
+            // Assign holes to polygons in the order they were swept.
+            Integer[] order = new Integer[rings.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(
+                    firsts.get(a).pos, firsts.get(b).pos));
+            boolean[] isHole = new boolean[rings.size()];
+            for (int i = 0; i < isHole.length; i++) {
+                isHole[i] = getArea(rings.get(i).xy) > 0d;
+            }
+            for (int i : order) {
+                if (isHole[i]) {
+                    Ring ring = rings.get(i);
+                    SweepEvent prev = firsts.get(i).prevInResult;
+                    int parent = -1;
+                    if (prev != null && prev.ringId >= 0) {
+                        parent = isHole[prev.ringId]
+                                ? rings.get(prev.ringId).holeOf
+                                : prev.ringId;
+                    }
+                    if (parent < 0 || isHole[parent]) {
+                        parent = getContaining(ring, rings, isHole);
+                    }
+                    if (parent >= 0) {
+                        ring.holeOf = parent;
+                        rings.get(parent).holes.add(i);
+                    } else {
+                        ring.holeOf = i;
+                    }
+                }
+            }
+            return rings;
+        }
+
+        /**
+         * @param edge The edge arrived along.
+         * @param out The edges going out from each point.
+         * @return The first edge going counter-clockwise from {@code edge}
+         * around its end point.
+         */
+        Edge getNext(Edge edge, HashMap<Point, ArrayList<Edge>> out) {
+            ArrayList<Edge> cs = out.get(new Point(edge.x1, edge.y1));
+            if (cs == null) {
+                return null;
+            }
+            Edge r = null;
+            for (Edge c : cs) {
+                if (r == null || isBefore(edge, c, r)) {
+                    r = c;
+                }
+            }
+            return r;
+        }
+
+        /**
+         * @param edge The edge arrived along.
+         * @param c An edge going out from the end point of {@code edge}.
+         * @param d Another edge going out from the end point of
+         * {@code edge}.
+         * @return {@code true} if {@code c} is reached before {@code d} going
+         * counter-clockwise around the end point of {@code edge} from the
+         * direction back along {@code edge}. This is exact.
+         */
+        boolean isBefore(Edge edge, Edge c, Edge d) {
+            int hc = getHalf(edge, c);
+            int hd = getHalf(edge, d);
+            if (hc != hd) {
+                return hc < hd;
+            }
+            return signedArea(c.x1, c.y1, d.x1, d.y1, edge.x1, edge.y1) > 0d;
+        }
+
+        /**
+         * @param edge The edge arrived along.
+         * @param c An edge going out from the end point of {@code edge}.
+         * @return 0 if the counter-clockwise angle from the direction back
+         * along {@code edge} to {@code c} is more than 0 and at most pi, and
+         * 1 otherwise.
+         */
+        int getHalf(Edge edge, Edge c) {
+            double a = signedArea(edge.x0, edge.y0, c.x1, c.y1, edge.x1,
+                    edge.y1);
+            if (a != 0d) {
+                return a > 0d ? 0 : 1;
+            }
+            // Going back along edge is a full turn.
+            boolean back = Math.signum(c.x1 - c.x0)
+                    == Math.signum(edge.x0 - edge.x1)
+                    && Math.signum(c.y1 - c.y0)
+                    == Math.signum(edge.y0 - edge.y1);
+            return back ? 1 : 0;
+        }
+
+        /**
+         * For assigning a hole if this cannot be done using the sweep.
+         *
+         * @param hole The hole.
+         * @param rings The rings.
+         * @param isHole Which of the rings are holes.
+         * @return The index of the smallest exterior ring containing the
+         * midpoint of the first edge of {@code hole} or -1 if there is none.
+         */
+        int getContaining(Ring hole, ArrayList<Ring> rings, boolean[] isHole) {
+            int n = hole.xy.length / 2;
+            if (n < 2) {
+                return -1;
+            }
+            double px = (hole.xy[0] + hole.xy[2]) / 2d;
+            double py = (hole.xy[1] + hole.xy[3]) / 2d;
+            int r = -1;
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < rings.size(); i++) {
+                if (!isHole[i]) {
+                    double[] xy = rings.get(i).xy;
+                    double area = -getArea(xy);
+                    if (area < min && contains(xy, px, py)) {
+                        min = area;
+                        r = i;
+                    }
+                }
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Calculates the intersection of two line segments. End points are
+     * tested for being on the other line segment using
+     * {@link #signedArea}, as is done for ordering the sweep line, so
+     * that these decisions are consistent. Computed crossing points
+     * within {@code epsilon}, or within the rounding error, of an end point
+     * are snapped to the end point.
+     *
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return {@code null} if the line segments do not intersect, a point
+     * {x, y} if they intersect at a point, and two points
+     * {x0, y0, x1, y1} if they overlap.
+     */
+    static double[] getIntersection(double a1x, double a1y, double a2x,
+            double a2y, double b1x, double b1y, double b2x, double b2y,
+            double epsilon) {
+        return getIntersection(a1x, a1y, a2x, a2y, b1x, b1y, b2x, b2y,
+                new double[]{a1x, a1y, a2x, a2y},
+                new double[]{b1x, b1y, b2x, b2y}, epsilon);
+    }
+
+    /**
+     * As {@link #getIntersection(double, double, double, double, double,
+     * double, double, double, double)} for line segments a and b that are
+     * parts of the line segments {@code la} and {@code lb}. End points are
+     * tested against and crossing points are calculated from {@code la} and
+     * {@code lb}, so a crossing is found at the same point whichever parts
+     * of them are tested.
+     *
+     * @param la The line segment {x0, y0, x1, y1} that a is part of.
+     * @param lb The line segment {x0, y0, x1, y1} that b is part of.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return {@code null} if the line segments do not intersect, a point
+     * {x, y} if they intersect at a point, and two points
+     * {x0, y0, x1, y1} if they overlap.
+     */
+    static double[] getIntersection(double a1x, double a1y, double a2x,
+            double a2y, double b1x, double b1y, double b2x, double b2y,
+            double[] la, double[] lb, double epsilon) {
+        // An end point within epsilon of the other line is taken to be
+        // on it.
+        double ta = epsilon * Math.hypot(la[2] - la[0], la[3] - la[1]);
+        double tb = epsilon * Math.hypot(lb[2] - lb[0], lb[3] - lb[1]);
+        double d1 = signedArea(la[0], la[1], la[2], la[3], b1x, b1y);
+        double d2 = signedArea(la[0], la[1], la[2], la[3], b2x, b2y);
+        boolean z1 = Math.abs(d1) <= ta;
+        boolean z2 = Math.abs(d2) <= ta;
+        if ((z1 && z2) || isCollinear(la, lb)) {
+            return overlap(a1x, a1y, a2x, a2y, b1x, b1y, b2x, b2y);
+        }
+        if (z1 && isInBox(a1x, a1y, a2x, a2y, b1x, b1y)) {
+            return new double[]{b1x, b1y};
+        }
+        if (z2 && isInBox(a1x, a1y, a2x, a2y, b2x, b2y)) {
+            return new double[]{b2x, b2y};
+        }
+        double d3 = signedArea(lb[0], lb[1], lb[2], lb[3], a1x, a1y);
+        double d4 = signedArea(lb[0], lb[1], lb[2], lb[3], a2x, a2y);
+        if (Math.abs(d3) <= tb && isInBox(b1x, b1y, b2x, b2y, a1x, a1y)) {
+            return new double[]{a1x, a1y};
+        }
+        if (Math.abs(d4) <= tb && isInBox(b1x, b1y, b2x, b2y, a2x, a2y)) {
+            return new double[]{a2x, a2y};
+        }
+        if ((d1 >= 0d && d2 >= 0d) || (d1 <= 0d && d2 <= 0d)
+                || (d3 >= 0d && d4 >= 0d) || (d3 <= 0d && d4 <= 0d)) {
+            return null;
+        }
+        // The point is calculated exactly and rounded once, so it is the
+        // same for all pairs of line segments that intersect there.
+        BigDecimal l0x = new BigDecimal(la[0]);
+        BigDecimal l0y = new BigDecimal(la[1]);
+        BigDecimal l1x = new BigDecimal(la[2]);
+        BigDecimal l1y = new BigDecimal(la[3]);
+        BigDecimal m0x = new BigDecimal(lb[0]);
+        BigDecimal m0y = new BigDecimal(lb[1]);
+        BigDecimal m1x = new BigDecimal(lb[2]);
+        BigDecimal m1y = new BigDecimal(lb[3]);
+        BigDecimal e3 = signedArea(m0x, m0y, m1x, m1y, l0x, l0y);
+        BigDecimal e4 = signedArea(m0x, m0y, m1x, m1y, l1x, l1y);
+        BigDecimal den = e3.subtract(e4);
+        if (den.signum() == 0) {
+            return null;
+        }
+        double x = clamp(e3.multiply(l1x).subtract(e4.multiply(l0x)).divide(
+                den, MathContext.DECIMAL128).doubleValue(), a1x, a2x, b1x,
+                b2x);
+        double y = clamp(e3.multiply(l1y).subtract(e4.multiply(l0y)).divide(
+                den, MathContext.DECIMAL128).doubleValue(), a1y, a2y, b1y,
+                b2y);
+        double[][] ends = {{a1x, a1y}, {a2x, a2y}, {b1x, b1y},
+        {b2x, b2y}};
+        double tx = Math.max(epsilon, 2d * Math.ulp(Math.max(
+                Math.max(Math.abs(a1x), Math.abs(a2x)),
+                Math.max(Math.abs(b1x), Math.abs(b2x)))));
+        double ty = Math.max(epsilon, 2d * Math.ulp(Math.max(
+                Math.max(Math.abs(a1y), Math.abs(a2y)),
+                Math.max(Math.abs(b1y), Math.abs(b2y)))));
+        for (double[] end : ends) {
+            if (Math.abs(end[0] - x) <= tx
+                    && Math.abs(end[1] - y) <= ty
+                    && clamp(end[0], a1x, a2x, b1x, b2x) == end[0]
+                    && clamp(end[1], a1y, a2y, b1y, b2y) == end[1]) {
+                return new double[]{end[0], end[1]};
+            }
+        }
+        return new double[]{x, y};
+    }
+
+    /**
+     * @return Twice the signed area of the triangle p0 p1 p2 calculated
+     * exactly.
+     */
+    private static BigDecimal signedArea(BigDecimal p0x, BigDecimal p0y,
+            BigDecimal p1x, BigDecimal p1y, BigDecimal p2x, BigDecimal p2y) {
+        return p0x.subtract(p2x).multiply(p1y.subtract(p2y)).subtract(
+                p1x.subtract(p2x).multiply(p0y.subtract(p2y)));
+    }
+
+    /**
+     * @param v The value.
+     * @param a0 One end of a range.
+     * @param a1 The other end of the range.
+     * @param b0 One end of another range.
+     * @param b1 The other end of the other range.
+     * @return {@code v} clamped to the intersection of the ranges.
+     */
+    private static double clamp(double v, double a0, double a1, double b0,
+            double b1) {
+        double min = Math.max(Math.min(a0, a1), Math.min(b0, b1));
+        double max = Math.min(Math.max(a0, a1), Math.max(b0, b1));
+        return Math.max(min, Math.min(max, v));
+    }
+
+    /**
+     * Calculates the intersection of two collinear line segments.
+     *
+     * @return {@code null} if the line segments do not intersect, a point
+     * {x, y} if they touch at a point, and two points {x0, y0, x1, y1}
+     * ordered along a if they overlap.
+     */
+    static double[] overlap(double a1x, double a1y, double a2x, double a2y,
+            double b1x, double b1y, double b2x, double b2y) {
+        // Compare positions along the axis a varies most in.
+        boolean useX = Math.abs(a2x - a1x) >= Math.abs(a2y - a1y);
+        double a1v = useX ? a1x : a1y;
+        double a2v = useX ? a2x : a2y;
+        double sgn = a2v > a1v ? 1d : -1d;
+        double pa2 = sgn * (a2v - a1v);
+        double pb1 = sgn * ((useX ? b1x : b1y) - a1v);
+        double pb2 = sgn * ((useX ? b2x : b2y) - a1v);
+        double lo = Math.min(pb1, pb2);
+        double hi = Math.max(pb1, pb2);
+        if (hi < 0d || lo > pa2) {
+            return null;
+        }
+        double[] p0 = lo > 0d ? (lo == pb1 ? new double[]{b1x, b1y}
+                : new double[]{b2x, b2y}) : new double[]{a1x, a1y};
+        double[] p1 = hi < pa2 ? (hi == pb2 ? new double[]{b2x, b2y}
+                : new double[]{b1x, b1y}) : new double[]{a2x, a2y};
+        if (p0[0] == p1[0] && p0[1] == p1[1]) {
+            return p0;
+        }
+        return new double[]{p0[0], p0[1], p1[0], p1[1]};
+    }
+
+    /**
+     * @return {@code true} if (px, py) is in the box with corners
+     * (x0, y0) and (x1, y1).
+     */
+    static boolean isInBox(double x0, double y0, double x1, double y1,
+            double px, double py) {
+        return Math.min(x0, x1) <= px && px <= Math.max(x0, x1)
+                && Math.min(y0, y1) <= py && py <= Math.max(y0, y1);
+    }
+
+    /**
+     * @param xy The interleaved coordinates of a ring.
+     * @return The signed area of the ring which is positive if the ring is
+     * counter-clockwise.
+     */
+    static double getArea(double[] xy) {
+        int n = xy.length / 2;
+        double a = 0d;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            a += xy[2 * i] * xy[2 * j + 1] - xy[2 * j] * xy[2 * i + 1];
+        }
+        return a / 2d;
+    }
+
+    /**
+     * @param xy The interleaved coordinates of a ring.
+     * @param px The x coordinate of the point.
+     * @param py The y coordinate of the point.
+     * @return {@code true} if the point is inside the ring using the
+     * crossing number.
+     */
+    static boolean contains(double[] xy, double px, double py) {
+        int n = xy.length / 2;
+        boolean r = false;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double xi = xy[2 * i];
+            double yi = xy[2 * i + 1];
+            double xj = xy[2 * j];
+            double yj = xy[2 * j + 1];
+            if ((yi > py) != (yj > py)
+                    && px < (xj - xi) * (py - yi) / (yj - yi) + xi) {
+                r = !r;
+            }
+        }
+        return r;
+    }
+
+    /**
+     * A point used as a key.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     */
+    private record Point(double x, double y) {
+
+        /**
+         * Normalises -0d so that equal coordinates give equal keys.
+         */
+        Point {
+            x += 0d;
+            y += 0d;
+        }
+    }
+
+    /**
+     * An edge of the result directed so that the result is on its right.
+     */
+    private static class Edge {
+
+        final double x0;
+
+        final double y0;
+
+        final double x1;
+
+        final double y1;
+
+        /**
+         * The left event of the edge.
+         */
+        final SweepEvent e;
+
+        Edge(double x0, double y0, double x1, double y1, SweepEvent e) {
+            this.x0 = x0;
+            this.y0 = y0;
+            this.x1 = x1;
+            this.y1 = y1;
+            this.e = e;
+        }
+    }
+}
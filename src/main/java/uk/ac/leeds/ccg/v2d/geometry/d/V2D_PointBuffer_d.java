@@ -0,0 +1,590 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+
+/**
+ * A growable buffer of point coordinates stored as parallel arrays of x and y
+ * coordinates rather than as {@link V2D_Point_d} objects. The coordinates are
+ * stored either on the heap or off the heap in direct buffers. The bulk
+ * operations work directly on the coordinates and do not create any
+ * {@link V2D_Point_d}. Some use {@link V2D_Kernels_d} on blocks of
+ * {@link #BLOCK} points which are processed in parallel if
+ * {@code env.execution} allows.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PointBuffer_d {
+
+    /**
+     * The default initial capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The number of points in each block processed by
+     * {@link V2D_Kernels_d}.
+     */
+    public static final int BLOCK = 4096;
+
+    /**
+     * The largest capacity off the heap, where each direct buffer is limited
+     * to {@link Integer#MAX_VALUE} bytes.
+     */
+    public static final int MAX_OFF_HEAP_CAPACITY = Integer.MAX_VALUE
+            / Double.BYTES;
+
+    /**
+     * The environment.
+     */
+    public final V2D_Environment_d env;
+
+    /**
+     * Whether the coordinates are stored off the heap.
+     */
+    protected final boolean offHeap;
+
+    /**
+     * The x coordinates.
+     */
+    protected DoubleBuffer x;
+
+    /**
+     * The y coordinates.
+     */
+    protected DoubleBuffer y;
+
+    /**
+     * The number of points.
+     */
+    protected int size;
+
+    /**
+     * Create a new instance with {@link #DEFAULT_CAPACITY} on the heap.
+     *
+     * @param env What {@link #env} is set to.
+     */
+    public V2D_PointBuffer_d(V2D_Environment_d env) {
+        this(env, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param env What {@link #env} is set to.
+     * @param capacity The initial capacity.
+     * @param offHeap What {@link #offHeap} is set to.
+     */
+    public V2D_PointBuffer_d(V2D_Environment_d env, int capacity,
+            boolean offHeap) {
+        this.env = env;
+        this.offHeap = offHeap;
+        capacity = Math.max(capacity, 1);
+        x = allocate(capacity);
+        y = allocate(capacity);
+    }
+
+    /**
+     * Create a new instance on the heap.
+     *
+     * @param env What {@link #env} is set to.
+     * @param xs The x coordinates which are copied.
+     * @param ys The y coordinates which are copied.
+     */
+    public V2D_PointBuffer_d(V2D_Environment_d env, double[] xs, double[] ys) {
+        this(env, xs.length, false);
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("xs.length != ys.length");
+        }
+        x.put(0, xs);
+        y.put(0, ys);
+        size = xs.length;
+    }
+
+    /**
+     * Create a new instance on the heap. If there are no points then
+     * {@link #env} is {@code null}.
+     *
+     * @param pts The points.
+     */
+    public V2D_PointBuffer_d(V2D_Point_d... pts) {
+        this(pts.length == 0 ? null : pts[0].env, pts.length, false);
+        for (V2D_Point_d p : pts) {
+            add(p);
+        }
+    }
+
+    /**
+     * @param capacity The capacity.
+     * @return A new buffer on or off the heap according to {@link #offHeap}.
+     * @throws IllegalArgumentException If {@link #offHeap} and
+     * {@code capacity > }{@link #MAX_OFF_HEAP_CAPACITY}.
+     */
+    private DoubleBuffer allocate(int capacity) {
+        if (offHeap) {
+            if (capacity > MAX_OFF_HEAP_CAPACITY) {
+                throw new IllegalArgumentException("capacity " + capacity
+                        + " > " + MAX_OFF_HEAP_CAPACITY
+                        + " (the maximum off the heap)");
+            }
+            return ByteBuffer.allocateDirect(capacity * Double.BYTES)
+                    .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        } else {
+            return DoubleBuffer.allocate(capacity);
+        }
+    }
+
+    /**
+     * Ensures there is capacity for at least {@code capacity} points.
+     *
+     * @param capacity The capacity required.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity > x.capacity()) {
+            int max = offHeap ? MAX_OFF_HEAP_CAPACITY : Integer.MAX_VALUE - 8;
+            int c = (int) Math.min(Math.max(max, capacity),
+                    Math.max((long) capacity, x.capacity() * 3L / 2L + 1L));
+            x = grow(x, c);
+            y = grow(y, c);
+        }
+    }
+
+    /**
+     * @param b The buffer to copy.
+     * @param capacity The new capacity.
+     * @return A new buffer with the first {@link #size} values of {@code b}.
+     */
+    private DoubleBuffer grow(DoubleBuffer b, int capacity) {
+        DoubleBuffer r = allocate(capacity);
+        r.put(0, b, 0, size);
+        return r;
+    }
+
+    /**
+     * @return The execution of {@link #env}, or
+     * {@link V2D_Execution#SEQUENTIAL} if {@link #env} is {@code null}.
+     */
+    public V2D_Execution execution() {
+        return V2D_Environment_d.getExecution(env);
+    }
+
+    /**
+     * @return {@link #offHeap}
+     */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * @return The number of points.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all the points.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @param px The x coordinate of the point to add.
+     * @param py The y coordinate of the point to add.
+     * @return The index of the point added.
+     */
+    public int add(double px, double py) {
+        ensureCapacity(size + 1);
+        x.put(size, px);
+        y.put(size, py);
+        return size++;
+    }
+
+    /**
+     * @param p The point to add.
+     * @return The index of the point added.
+     */
+    public int add(V2D_Point_d p) {
+        return add(p.getX(), p.getY());
+    }
+
+    /**
+     * @param i The index.
+     * @return The x coordinate of the point at index {@code i}.
+     */
+    public double getX(int i) {
+        return x.get(check(i));
+    }
+
+    /**
+     * @param i The index.
+     * @return The y coordinate of the point at index {@code i}.
+     */
+    public double getY(int i) {
+        return y.get(check(i));
+    }
+
+    /**
+     * @param i The index.
+     * @param px What the x coordinate of the point at {@code i} is set to.
+     * @param py What the y coordinate of the point at {@code i} is set to.
+     */
+    public void set(int i, double px, double py) {
+        x.put(check(i), px);
+        y.put(i, py);
+    }
+
+    /**
+     * @param i The index.
+     * @return A new point for the coordinates at index {@code i}.
+     */
+    public V2D_Point_d getPoint(int i) {
+        return new V2D_Point_d(env, getX(i), getY(i));
+    }
+
+    /**
+     * @param i The index to check.
+     * @return {@code i}
+     */
+    private int check(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i
+                    + " out of bounds for size " + size);
+        }
+        return i;
+    }
+
+    /**
+     * @return A copy of the x coordinates.
+     */
+    public double[] getXs() {
+        double[] r = new double[size];
+        x.get(0, r);
+        return r;
+    }
+
+    /**
+     * @return A copy of the y coordinates.
+     */
+    public double[] getYs() {
+        double[] r = new double[size];
+        y.get(0, r);
+        return r;
+    }
+
+    /**
+     * Translate all the points.
+     *
+     * @param v The vector to translate by.
+     */
+    public void translate(V2D_Vector_d v) {
+        translate(v.dx, v.dy);
+    }
+
+    /**
+     * Translate all the points.
+     *
+     * @param dx The amount to translate in the x direction.
+     * @param dy The amount to translate in the y direction.
+     */
+    public void translate(double dx, double dy) {
+        apply(true, (xs, ys, from, to, o)
+                -> V2D_Kernels_d.translate(xs, ys, from, to, dx, dy));
+    }
+
+    /**
+     * Rotate all the points about {@code pt} in the same way as
+     * {@link V2D_Point_d#rotate(V2D_Point_d, double)}.
+     *
+     * @param pt The point to rotate about.
+     * @param theta The angle of rotation.
+     */
+    public void rotate(V2D_Point_d pt, double theta) {
+        theta = Math_AngleDouble.normalise(theta);
+        if (theta != 0d) {
+            rotateN(pt.getX(), pt.getY(), theta);
+        }
+    }
+
+    /**
+     * Rotate all the points about ({@code px}, {@code py}) in the same way as
+     * {@link V2D_Point_d#rotateN(V2D_Point_d, double)}.
+     *
+     * @param px The x coordinate of the point to rotate about.
+     * @param py The y coordinate of the point to rotate about.
+     * @param theta The angle of rotation.
+     */
+    public void rotateN(double px, double py, double theta) {
+        apply(true, (xs, ys, from, to, o)
+                -> V2D_Kernels_d.rotateN(xs, ys, from, to, px, py, theta));
+    }
+
+    /**
+     * Calculates the distance of each point to {@code pt} as
+     * {@link V2D_Point_d#getDistance(V2D_Point_d)}.
+     *
+     * @param pt The point to calculate the distances to.
+     * @return The distances indexed by point.
+     */
+    public double[] getDistances(V2D_Point_d pt) {
+        double px = pt.getX();
+        double py = pt.getY();
+        double[] r = new double[size];
+        apply(false, (xs, ys, from, to, o) -> {
+            double[] d = from == o ? r : new double[to];
+            V2D_Kernels_d.getDistances(xs, ys, from, to, px, py, d);
+            if (d != r) {
+                System.arraycopy(d, 0, r, o, to);
+            }
+        });
+        return r;
+    }
+
+    /**
+     * Calculates the orientation of each point relative to the line through
+     * {@code a} and {@code b} in the same way as
+     * {@link V2D_Kernels_d#getOrientations(double[], double[], int, int, double, double, double, double, double, int[])}.
+     *
+     * @param a A point.
+     * @param b Another point.
+     * @param epsilon The tolerance within which a determinant is regarded as
+     * zero.
+     * @return The orientations indexed by point: 1 for counter-clockwise, -1
+     * for clockwise and 0 for collinear.
+     */
+    public int[] getOrientations(V2D_Point_d a, V2D_Point_d b,
+            double epsilon) {
+        double ax = a.getX();
+        double ay = a.getY();
+        double bx = b.getX();
+        double by = b.getY();
+        int[] r = new int[size];
+        apply(false, (xs, ys, from, to, o) -> {
+            int[] d = from == o ? r : new int[to];
+            V2D_Kernels_d.getOrientations(xs, ys, from, to, ax, ay, bx, by,
+                    epsilon, d);
+            if (d != r) {
+                System.arraycopy(d, 0, r, o, to);
+            }
+        });
+        return r;
+    }
+
+    /**
+     * For a calculation on a block of coordinates.
+     */
+    private interface Kernel {
+
+        /**
+         * @param xs The x coordinates.
+         * @param ys The y coordinates.
+         * @param from The index in xs and ys of the first point (inclusive).
+         * @param to The index in xs and ys of the last point (exclusive).
+         * @param o The index in this buffer of the point at {@code from}.
+         */
+        void apply(double[] xs, double[] ys, int from, int to, int o);
+    }
+
+    /**
+     * Applies {@code k} to blocks of {@link #BLOCK} points, in parallel if
+     * {@code env.execution} allows. For heap buffers the backing arrays are
+     * passed to {@code k}. Otherwise each block is copied into new arrays
+     * starting at index 0.
+     *
+     * @param update If {@code true} then for off heap buffers the
+     * coordinates are copied back after {@code k} is applied.
+     * @param k The calculation.
+     */
+    private void apply(boolean update, Kernel k) {
+        int n = size;
+        IntStream s = IntStream.range(0, (n + BLOCK - 1) / BLOCK);
+        if (execution().isParallel(n)) {
+            s = s.parallel();
+        }
+        s.forEach(b -> {
+            int from = b * BLOCK;
+            int to = Math.min(n, from + BLOCK);
+            if (x.hasArray()) {
+                k.apply(x.array(), y.array(), from, to, from);
+            } else {
+                double[] xs = new double[to - from];
+                double[] ys = new double[to - from];
+                x.get(from, xs);
+                y.get(from, ys);
+                k.apply(xs, ys, 0, xs.length, from);
+                if (update) {
+                    x.put(from, xs);
+                    y.put(from, ys);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return The Axis Aligned Bounding Box of the points or {@code null} if
+     * there are no points.
+     */
+    public V2D_AABB_d getAABB() {
+        if (size == 0) {
+            return null;
+        }
+        double[] b = getBounds(0, size);
+        return new V2D_AABB_d(env, b[0], b[1], b[2], b[3]);
+    }
+
+    /**
+     * @param from The index of the first point (inclusive).
+     * @param to The index of the last point (exclusive).
+     * @return {xMin, xMax, yMin, yMax} for the points from {@code from} to
+     * {@code to}.
+     */
+    protected double[] getBounds(int from, int to) {
+        double xMin = Double.POSITIVE_INFINITY;
+        double xMax = Double.NEGATIVE_INFINITY;
+        double yMin = Double.POSITIVE_INFINITY;
+        double yMax = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            double px = x.get(i);
+            double py = y.get(i);
+            xMin = Math.min(xMin, px);
+            xMax = Math.max(xMax, px);
+            yMin = Math.min(yMin, py);
+            yMax = Math.max(yMax, py);
+        }
+        return new double[]{xMin, xMax, yMin, yMax};
+    }
+
+    /**
+     * The centroid in the sense of
+     * {@link uk.ac.leeds.ccg.v2d.geometrics.d.V2D_Geometrics_d#getCentroid(uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d...)}
+     * (the mean of the coordinates).
+     *
+     * @return The centroid or {@code null} if there are no points.
+     */
+    public V2D_Point_d getCentroid() {
+        if (size == 0) {
+            return null;
+        }
+        double sx = 0d;
+        double sy = 0d;
+        for (int i = 0; i < size; i++) {
+            sx += x.get(i);
+            sy += y.get(i);
+        }
+        return new V2D_Point_d(env, sx / size, sy / size);
+    }
+
+    /**
+     * Regards the points in this buffer as a closed ring (the last point
+     * joins the first) and tests if a point is inside it or on its edge using
+     * a crossing number test.
+     *
+     * @param px The x coordinate of the point to test.
+     * @param py The y coordinate of the point to test.
+     * @param epsilon The tolerance within which a point is regarded as being
+     * on an edge.
+     * @return {@code true} if ({@code px}, {@code py}) is in the ring.
+     */
+    public boolean ringIntersects(double px, double py, double epsilon) {
+        boolean in = false;
+        int n = size;
+        if (n < 3) {
+            return false;
+        }
+        double x0 = x.get(n - 1);
+        double y0 = y.get(n - 1);
+        for (int i = 0; i < n; i++) {
+            double x1 = x.get(i);
+            double y1 = y.get(i);
+            if (isOnEdge(px, py, x0, y0, x1, y1, epsilon)) {
+                return true;
+            }
+            if ((y1 > py) != (y0 > py)
+                    && px < (x0 - x1) * (py - y1) / (y0 - y1) + x1) {
+                in = !in;
+            }
+            x0 = x1;
+            y0 = y1;
+        }
+        return in;
+    }
+
+    /**
+     * @param px The x coordinate of the point to test.
+     * @param py The y coordinate of the point to test.
+     * @param x0 The x coordinate of the start of the edge.
+     * @param y0 The y coordinate of the start of the edge.
+     * @param x1 The x coordinate of the end of the edge.
+     * @param y1 The y coordinate of the end of the edge.
+     * @param epsilon The tolerance.
+     * @return {@code true} if the point is within {@code epsilon} of the edge.
+     */
+    private static boolean isOnEdge(double px, double py, double x0,
+            double y0, double x1, double y1, double epsilon) {
+        if (px < Math.min(x0, x1) - epsilon || px > Math.max(x0, x1) + epsilon
+                || py < Math.min(y0, y1) - epsilon
+                || py > Math.max(y0, y1) + epsilon) {
+            return false;
+        }
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double cross = dx * (py - y0) - dy * (px - x0);
+        return Math.abs(cross) <= epsilon * Math.hypot(dx, dy);
+    }
+
+    /**
+     * Tests which points in this buffer are in a ring. Points outside the
+     * Axis Aligned Bounding Box of the ring are rejected without a crossing
+     * number test.
+     *
+     * @param ring The points of the ring (see
+     * {@link #ringIntersects(double, double, double)}).
+     * @param epsilon The tolerance within which a point is regarded as being
+     * on an edge.
+     * @return A bitset with the bits set for the indexes of the points that
+     * are in the ring.
+     */
+    public BitSet intersects(V2D_PointBuffer_d ring, double epsilon) {
+        BitSet r = new BitSet(size);
+        if (ring.size < 3) {
+            return r;
+        }
+        double[] b = ring.getBounds(0, ring.size);
+        double xMin = b[0] - epsilon;
+        double xMax = b[1] + epsilon;
+        double yMin = b[2] - epsilon;
+        double yMax = b[3] + epsilon;
+        for (int i = 0; i < size; i++) {
+            double px = x.get(i);
+            double py = y.get(i);
+            if (px >= xMin && px <= xMax && py >= yMin && py <= yMax
+                    && ring.ringIntersects(px, py, epsilon)) {
+                r.set(i);
+            }
+        }
+        return r;
+    }
+}
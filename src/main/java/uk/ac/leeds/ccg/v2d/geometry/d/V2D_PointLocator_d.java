@@ -0,0 +1,534 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+
+/**
+ * For locating points relative to a polygon that may have holes in
+ * O(log^2 n) time. The plane is divided into vertical slabs at the x
+ * coordinates of the vertices. No edges cross within a slab, so the edges
+ * that span a slab can be ordered from bottom to top (see Dobkin and Lipton
+ * (1976) Multidimensional Searching Problems, SIAM Journal on Computing 5).
+ * Storing every edge in every slab it spans can need O(n^2) memory for
+ * jagged boundaries, so instead the slabs are the leaves of a segment tree
+ * and each edge is stored in the O(log n) nodes that together cover the
+ * slabs it spans (see de Berg et al. (2008) Computational Geometry:
+ * Algorithms and Applications, Chapter 10). The edges in a node all span the
+ * node, so they too can be ordered from bottom to top. A point is located by
+ * a binary search for its slab and then a binary search in each node from
+ * the slab up to the root for the number of edges below it: if the total is
+ * odd then the point is inside.
+ *
+ * This is for answering many queries against the same polygon. Building
+ * takes O(n log^2 n) time and O(n log n) memory.
+ *
+ * Rings are given as interleaved x and y coordinates. The first ring is the
+ * exterior and any others are holes. The polygon is expected to be valid
+ * (see {@link V2D_PolygonNoInternalHoles_d#isValid(double)}).
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PointLocator_d {
+
+    /**
+     * Returned by {@link #locate(double, double, double)} for points outside.
+     */
+    public static final int OUTSIDE = -1;
+
+    /**
+     * Returned by {@link #locate(double, double, double)} for points on an
+     * edge.
+     */
+    public static final int BOUNDARY = 0;
+
+    /**
+     * Returned by {@link #locate(double, double, double)} for points inside.
+     */
+    public static final int INSIDE = 1;
+
+    /**
+     * The x coordinates of the slab boundaries in ascending order.
+     */
+    private final double[] xs;
+
+    /**
+     * The number of leaves in the segment tree. This is a power of two and
+     * leaf {@code s} is node {@code size + s} for slab {@code s}. The
+     * children of node {@code i} are nodes {@code 2 * i} and
+     * {@code 2 * i + 1}.
+     */
+    private final int size;
+
+    /**
+     * The edges in node {@code i} are at indexes {@code nodes[i]} to
+     * {@code nodes[i + 1] - 1} of {@link #edges}.
+     */
+    private final int[] nodes;
+
+    /**
+     * The coordinates of the edges in each node ordered from bottom to top.
+     * Edge {@code j} is from {@code (edges[4 * j], edges[4 * j + 1])} to
+     * {@code (edges[4 * j + 2], edges[4 * j + 3])} with the first end point
+     * being the one with the smaller x coordinate. Keeping the coordinates
+     * together like this means there are fewer cache misses in the binary
+     * searches.
+     */
+    private final double[] edges;
+
+    /**
+     * The vertical edges at slab boundary {@code b} are at indexes
+     * {@code verticals[b]} to {@code verticals[b + 1] - 1} of {@link #vy0}
+     * and {@link #vy1}.
+     */
+    private final int[] verticals;
+
+    /**
+     * The minimum and maximum y coordinates of the vertical edges.
+     */
+    private final double[] vy0, vy1;
+
+    /**
+     * The minimum and maximum y coordinates.
+     */
+    private double yMin, yMax;
+
+    /**
+     * Create a new instance for the polygon.
+     *
+     * @param p The polygon.
+     */
+    public V2D_PointLocator_d(V2D_PolygonNoInternalHoles_d p) {
+        this(p.env, getRings(p));
+    }
+
+    /**
+     * Create a new instance.
+     *
+     * @param env The environment used to decide whether to sort the edges in
+     * the nodes in parallel. If {@code null} then this is done sequentially.
+     * @param rings The rings.
+     */
+    public V2D_PointLocator_d(V2D_Environment_d env, List<double[]> rings) {
+        int n = 0;
+        for (double[] r : rings) {
+            n += r.length / 2;
+        }
+        double[] x = new double[n];
+        double[][] e = new double[4][n];
+        double[][] v = new double[3][n];
+        int ne = 0;
+        int nv = 0;
+        int nx = 0;
+        yMin = Double.POSITIVE_INFINITY;
+        yMax = Double.NEGATIVE_INFINITY;
+        for (double[] r : rings) {
+            int m = r.length / 2;
+            for (int i = 0; i < m; i++) {
+                int j = (i + 1) % m;
+                double x0 = r[2 * i];
+                double y0 = r[2 * i + 1];
+                double x1 = r[2 * j];
+                double y1 = r[2 * j + 1];
+                x[nx++] = x0;
+                yMin = Math.min(yMin, y0);
+                yMax = Math.max(yMax, y0);
+                if (x0 == x1) {
+                    if (y0 != y1) {
+                        v[0][nv] = x0;
+                        v[1][nv] = Math.min(y0, y1);
+                        v[2][nv] = Math.max(y0, y1);
+                        nv++;
+                    }
+                } else if (x0 < x1) {
+                    setEdge(e, ne++, x0, y0, x1, y1);
+                } else {
+                    setEdge(e, ne++, x1, y1, x0, y0);
+                }
+            }
+        }
+        xs = distinct(x, nx);
+        int m = xs.length;
+        // Vertical edges by slab boundary.
+        verticals = new int[m + 1];
+        int[] vb = new int[nv];
+        for (int i = 0; i < nv; i++) {
+            vb[i] = Arrays.binarySearch(xs, v[0][i]);
+            verticals[vb[i] + 1]++;
+        }
+        for (int b = 0; b < m; b++) {
+            verticals[b + 1] += verticals[b];
+        }
+        vy0 = new double[nv];
+        vy1 = new double[nv];
+        int[] c = Arrays.copyOf(verticals, m);
+        for (int i = 0; i < nv; i++) {
+            int k = c[vb[i]]++;
+            vy0[k] = v[1][i];
+            vy1[k] = v[2][i];
+        }
+        // Edges by node.
+        int ns = Math.max(m - 1, 1);
+        size = Integer.highestOneBit(ns) == ns ? ns
+                : Integer.highestOneBit(ns) << 1;
+        int nn = 2 * size;
+        nodes = new int[nn + 1];
+        int[] s0 = new int[ne];
+        int[] s1 = new int[ne];
+        for (int i = 0; i < ne; i++) {
+            s0[i] = Arrays.binarySearch(xs, e[0][i]) + size;
+            s1[i] = Arrays.binarySearch(xs, e[2][i]) + size;
+            for (int l = s0[i], r = s1[i]; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    nodes[l++ + 1]++;
+                }
+                if ((r & 1) == 1) {
+                    nodes[--r + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < nn; i++) {
+            nodes[i + 1] += nodes[i];
+        }
+        int[] es = new int[nodes[nn]];
+        c = Arrays.copyOf(nodes, nn);
+        for (int i = 0; i < ne; i++) {
+            for (int l = s0[i], r = s1[i]; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    es[c[l++]++] = i;
+                }
+                if ((r & 1) == 1) {
+                    es[c[--r]++] = i;
+                }
+            }
+        }
+        IntStream is = IntStream.range(1, nn);
+        if (V2D_Environment_d.getExecution(env).isParallel(es.length)) {
+            is = is.parallel();
+        }
+        is.forEach(i -> sort(i, e, es));
+        edges = new double[4 * es.length];
+        for (int j = 0; j < es.length; j++) {
+            for (int k = 0; k < 4; k++) {
+                edges[4 * j + k] = e[k][es[j]];
+            }
+        }
+    }
+
+    /**
+     * @param p The polygon.
+     * @return The rings of {@code p}.
+     */
+    private static List<double[]> getRings(V2D_PolygonNoInternalHoles_d p) {
+        List<double[]> r = new ArrayList<>();
+        V2D_Overlay_d.addRings(p, r);
+        return r;
+    }
+
+    /**
+     * Sets the coordinates of edge {@code i}.
+     */
+    private static void setEdge(double[][] e, int i, double x0, double y0,
+            double x1, double y1) {
+        e[0][i] = x0;
+        e[1][i] = y0;
+        e[2][i] = x1;
+        e[3][i] = y1;
+    }
+
+    /**
+     * @param x The values.
+     * @param n The number of values of {@code x} to use.
+     * @return The distinct values in ascending order.
+     */
+    private static double[] distinct(double[] x, int n) {
+        double[] r = Arrays.copyOf(x, n);
+        Arrays.sort(r);
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            if (m == 0 || r[i] != r[m - 1]) {
+                r[m++] = r[i];
+            }
+        }
+        return Arrays.copyOf(r, m);
+    }
+
+    /**
+     * Orders the edges in node {@code i} from bottom to top by their y
+     * coordinate in the middle of the slabs covered by the node.
+     *
+     * @param i The node.
+     * @param e The edge coordinates.
+     * @param es The edges in the nodes.
+     */
+    private void sort(int i, double[][] e, int[] es) {
+        int o = nodes[i];
+        int n = nodes[i + 1] - o;
+        if (n < 2) {
+            return;
+        }
+        int l = i;
+        int r = i;
+        while (l < size) {
+            l = 2 * l;
+            r = 2 * r + 1;
+        }
+        double xm = (xs[l - size] + xs[Math.min(r - size + 1, xs.length - 1)])
+                / 2d;
+        double[] k = new double[n];
+        for (int j = 0; j < n; j++) {
+            int ej = es[o + j];
+            k[j] = e[1][ej] + (xm - e[0][ej]) * (e[3][ej] - e[1][ej])
+                    / (e[2][ej] - e[0][ej]);
+        }
+        sort(k, es, o, 0, n - 1);
+    }
+
+    /**
+     * Quick sorts the edges in {@code es} from index {@code o + lo} to index
+     * {@code o + hi} by the keys in {@code k} from index {@code lo} to index
+     * {@code hi}.
+     */
+    private static void sort(double[] k, int[] es, int o, int lo, int hi) {
+        while (hi - lo > 16) {
+            double pivot = k[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (k[i] < pivot) {
+                    i++;
+                }
+                while (k[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(k, es, o, i++, j--);
+                }
+            }
+            // Recurse into the smaller part.
+            if (j - lo < hi - i) {
+                sort(k, es, o, lo, j);
+                lo = i;
+            } else {
+                sort(k, es, o, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && k[j - 1] > k[j]; j--) {
+                swap(k, es, o, j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Swaps the keys and edges at {@code i} and {@code j}.
+     */
+    private static void swap(double[] k, int[] es, int o, int i, int j) {
+        double t = k[i];
+        k[i] = k[j];
+        k[j] = t;
+        int u = es[o + i];
+        es[o + i] = es[o + j];
+        es[o + j] = u;
+    }
+
+    /**
+     * Translates this. The order of the edges in each node is unchanged.
+     *
+     * @param v The vector to translate by.
+     */
+    public void translate(V2D_Vector_d v) {
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] += v.dx;
+        }
+        for (int i = 0; i < edges.length; i += 2) {
+            edges[i] += v.dx;
+            edges[i + 1] += v.dy;
+        }
+        for (int i = 0; i < vy0.length; i++) {
+            vy0[i] += v.dy;
+            vy1[i] += v.dy;
+        }
+        yMin += v.dy;
+        yMax += v.dy;
+    }
+
+    /**
+     * @return The number of slabs.
+     */
+    public int getNumberOfSlabs() {
+        return Math.max(xs.length - 1, 0);
+    }
+
+    /**
+     * @return The total number of edges stored in all the nodes.
+     */
+    public int getSize() {
+        return edges.length / 4;
+    }
+
+    /**
+     * Identify if the polygon is intersected by {@code pt}.
+     *
+     * @param pt The point.
+     * @param epsilon The tolerance within which a point is regarded as being
+     * on an edge.
+     * @return {@code true} iff {@code pt} is inside or on an edge.
+     */
+    public boolean intersects(V2D_Point_d pt, double epsilon) {
+        return locate(pt.getX(), pt.getY(), epsilon) != OUTSIDE;
+    }
+
+    /**
+     * Identify if the polygon contains {@code pt}.
+     *
+     * @param pt The point.
+     * @param epsilon The tolerance within which a point is regarded as being
+     * on an edge.
+     * @return {@code true} iff {@code pt} is inside and not on an edge.
+     */
+    public boolean contains(V2D_Point_d pt, double epsilon) {
+        return locate(pt.getX(), pt.getY(), epsilon) == INSIDE;
+    }
+
+    /**
+     * Locates a point.
+     *
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param epsilon The tolerance within which a point is regarded as being
+     * on an edge.
+     * @return {@link #INSIDE}, {@link #BOUNDARY} or {@link #OUTSIDE}.
+     */
+    public int locate(double x, double y, double epsilon) {
+        int m = xs.length;
+        if (m < 2 || x < xs[0] - epsilon || x > xs[m - 1] + epsilon
+                || y < yMin - epsilon || y > yMax + epsilon) {
+            return OUTSIDE;
+        }
+        // The slab to count the edges below the point in.
+        int sc = x < xs[0] || x > xs[m - 1] ? -1
+                : Math.min(getBoundary(x), m - 2);
+        int c = 0;
+        // Test for being on an edge in any slab within epsilon.
+        int b0 = getCeiling(x - epsilon);
+        int b1 = getBoundary(x + epsilon);
+        for (int s = Math.max(b0 - 1, 0); s <= Math.min(b1, m - 2); s++) {
+            for (int i = size + s; i > 0; i >>= 1) {
+                int k = countBelow(i, x, y);
+                if (s == sc) {
+                    c += k;
+                }
+                k += nodes[i];
+                if ((k > nodes[i] && isOn(k - 1, x, y, epsilon))
+                        || (k < nodes[i + 1]
+                        && isOn(k, x, y, epsilon))) {
+                    return BOUNDARY;
+                }
+            }
+        }
+        for (int b = b0; b <= b1; b++) {
+            for (int i = verticals[b]; i < verticals[b + 1]; i++) {
+                if (y >= vy0[i] - epsilon && y <= vy1[i] + epsilon) {
+                    return BOUNDARY;
+                }
+            }
+        }
+        if (sc < 0) {
+            return OUTSIDE;
+        }
+        return c % 2 == 1 ? INSIDE : OUTSIDE;
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @return The index of the last slab boundary less than or equal to
+     * {@code x} or {@code -1} if there is none.
+     */
+    private int getBoundary(double x) {
+        int i = Arrays.binarySearch(xs, x);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @return The index of the first slab boundary greater than or equal to
+     * {@code x} or the number of slab boundaries if there is none.
+     */
+    private int getCeiling(double x) {
+        int i = Arrays.binarySearch(xs, x);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * @param i The node.
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @return The number of edges in node {@code i} that the point is above.
+     */
+    private int countBelow(int i, double x, double y) {
+        int o = nodes[i];
+        int lo = o;
+        int hi = nodes[i + 1];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int e = 4 * mid;
+            if ((edges[e + 2] - edges[e]) * (y - edges[e + 1])
+                    - (edges[e + 3] - edges[e + 1]) * (x - edges[e]) > 0d) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - o;
+    }
+
+    /**
+     * @param j The index of the edge in {@link #edges}.
+     * @param x The x coordinate of the point.
+     * @param y The y coordinate of the point.
+     * @param epsilon The tolerance.
+     * @return {@code true} iff the point is on or within {@code epsilon} of
+     * edge {@code j}.
+     */
+    private boolean isOn(int j, double x, double y, double epsilon) {
+        double x0 = edges[4 * j];
+        double y0 = edges[4 * j + 1];
+        double x1 = edges[4 * j + 2];
+        double y1 = edges[4 * j + 3];
+        // The sign of the signed area is exact, so points on the edge are
+        // found even if the distance to them below is rounded up.
+        if (V2D_Overlay_d.signedArea(x0, y0, x1, y1, x, y) == 0d
+                && x >= Math.min(x0, x1) && x <= Math.max(x0, x1)
+                && y >= Math.min(y0, y1) && y <= Math.max(y0, y1)) {
+            return true;
+        }
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double t = ((x - x0) * dx + (y - y0) * dy)
+                / (dx * dx + dy * dy);
+        t = Math.max(0d, Math.min(1d, t));
+        double px = x0 + t * dx - x;
+        double py = y0 + t * dy - y;
+        return px * px + py * py <= epsilon * epsilon;
+    }
+}
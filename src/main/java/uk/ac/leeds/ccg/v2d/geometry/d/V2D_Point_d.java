@@ -17,11 +17,13 @@ package uk.ac.leeds.ccg.v2d.geometry.d;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import uk.ac.leeds.ccg.math.arithmetic.Math_Double;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
 
 /**
@@ -227,7 +229,7 @@ public class V2D_Point_d extends V2D_FiniteGeometry_d implements Comparable<V2D_
      * {@code this}.
      */
     public boolean equalsAll(Collection<V2D_Point_d> ps, double epsilon) {
-        return ps.parallelStream().allMatch(x -> equals(x, epsilon));
+        return execution().stream(ps).allMatch(x -> equals(x, epsilon));
     }
 
     /**
@@ -241,7 +243,7 @@ public class V2D_Point_d extends V2D_FiniteGeometry_d implements Comparable<V2D_
      * {@code this}.
      */
     public boolean equalsAny(Collection<V2D_Point_d> ps, double epsilon) {
-        return ps.parallelStream().anyMatch(x -> equals(x, epsilon));
+        return execution().stream(ps).anyMatch(x -> equals(x, epsilon));
     }
 
     /**
@@ -316,10 +318,10 @@ public class V2D_Point_d extends V2D_FiniteGeometry_d implements Comparable<V2D_
      * @return The distance from {@code pv} to this.
      */
     public double getDistance(V2D_Point_d p) {
-        if (this.equals(p)) {
-            return 0d;
-        }
-        return Math.sqrt(getDistanceSquared(p));
+        long time = metrics().start();
+        double r = this.equals(p) ? 0d : Math.sqrt(getDistanceSquared(p));
+        return metrics().stop(V2D_Point_d.class, V2D_Metrics.GET_DISTANCE,
+                time, r);
     }
 
     /**
@@ -420,7 +422,14 @@ public class V2D_Point_d extends V2D_FiniteGeometry_d implements Comparable<V2D_
     }
 
     /**
-     * A collection method for getting unique points.
+     * A collection method for getting unique points. The points are hashed
+     * into a grid of cells with sides of length {@code epsilon} so that any
+     * points within {@code epsilon} of each other in each coordinate are in
+     * the same or neighbouring cells, and only those are compared using
+     * {@link #equals(V2D_Point_d, double)}. So for well distributed points
+     * this takes linear time. A point is retained if it is not equal to any
+     * point retained before it, so the result is as for comparing each point
+     * with all the others.
      *
      * @param epsilon The tolerance within which vector components are
      * considered equal.
@@ -429,33 +438,66 @@ public class V2D_Point_d extends V2D_FiniteGeometry_d implements Comparable<V2D_
      */
     public static ArrayList<V2D_Point_d> getUnique(
             List<V2D_Point_d> pts, double epsilon) {
-//        System.out.println("Before unique");
-//        for (int i = 0; i < pts.size(); i++) {
-//            System.out.println("i=" + i);
-//            System.out.println(pts.get(i).toStringSimple(""));
-//        }
-        HashSet<Integer> indexes = new HashSet<>();
         ArrayList<V2D_Point_d> r = new ArrayList<>();
-        for (int i = 0; i < pts.size(); i++) {
-            if (!indexes.contains(i)) {
-                V2D_Point_d p = pts.get(i);
+        if (!(epsilon > 0d)) {
+            // Exact comparison. Adding 0d normalises -0d.
+            HashSet<Cell> cells = new HashSet<>();
+            for (V2D_Point_d p : pts) {
+                if (cells.add(new Cell(Double.doubleToLongBits(p.getX() + 0d),
+                        Double.doubleToLongBits(p.getY() + 0d)))) {
+                    r.add(p);
+                }
+            }
+            return r;
+        }
+        HashMap<Cell, ArrayList<V2D_Point_d>> grid = new HashMap<>();
+        for (V2D_Point_d p : pts) {
+            long i = (long) Math.floor(p.getX() / epsilon);
+            long j = (long) Math.floor(p.getY() / epsilon);
+            if (!isInGrid(grid, p, i, j, epsilon)) {
+                grid.computeIfAbsent(new Cell(i, j), k -> new ArrayList<>())
+                        .add(p);
                 r.add(p);
-                for (int j = i + 1; j < pts.size(); j++) {
-                    if (!indexes.contains(j)) {
-                        V2D_Point_d p2 = pts.get(j);
-                        if (p.equals(p2, epsilon)) {
-                            indexes.add(j);
+            }
+        }
+        return r;
+    }
+
+    /**
+     * @param grid The grid of retained points.
+     * @param p The point to look for.
+     * @param i The column of the cell {@code p} is in.
+     * @param j The row of the cell {@code p} is in.
+     * @param epsilon The tolerance within which vector components are
+     * considered equal.
+     * @return {@code true} if there is a point in {@code grid} in the cell or
+     * a neighbouring cell that equals {@code p}.
+     */
+    private static boolean isInGrid(HashMap<Cell, ArrayList<V2D_Point_d>> grid,
+            V2D_Point_d p, long i, long j, double epsilon) {
+        for (long di = -1; di <= 1; di++) {
+            for (long dj = -1; dj <= 1; dj++) {
+                ArrayList<V2D_Point_d> c = grid.get(new Cell(i + di, j + dj));
+                if (c != null) {
+                    for (V2D_Point_d q : c) {
+                        if (q.equals(p, epsilon)) {
+                            return true;
                         }
                     }
                 }
             }
         }
-//        System.out.println("After unique");
-//        for (int i = 0; i < r.size(); i++) {
-//            System.out.println("i=" + i);
-//            System.out.println(r.get(i).toStringSimple(""));
-//        }
-        return r;
+        return false;
+    }
+
+    /**
+     * A grid cell.
+     *
+     * @param i The column.
+     * @param j The row.
+     */
+    private record Cell(long i, long j) {
+
     }
 
 //    /**
@@ -16,9 +16,13 @@
 package uk.ac.leeds.ccg.v2d.geometry.d;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * Defined by a V2D_ConvexArea_d and a collection of non edge sharing
@@ -44,6 +48,26 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      */
     public HashMap<Integer, V2D_PolygonNoInternalHoles_d> externalHoles;
 
+    /**
+     * For storing the area once calculated. This is reset to {@code null} if
+     * the polygon is moved.
+     */
+    private transient Double area;
+
+    /**
+     * For storing the perimeter once calculated. This is reset to
+     * {@code null} if the polygon is moved.
+     */
+    private transient Double perimeter;
+
+    /**
+     * For locating points in O(log n) time. This is only built if
+     * {@link #getPointLocator()} is called, after which it is used to answer
+     * {@link #intersects(V2D_Point_d, double)} and
+     * {@link #contains(V2D_Point_d, double)}.
+     */
+    protected transient V2D_PointLocator_d locator;
+
     /**
      * Create a new instance that is a shallow copy of the polygon.
      *
@@ -90,6 +114,19 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
         this(points, new V2D_ConvexArea_d(epsilon, points), epsilon);
     }
 
+    /**
+     * Create a new instance with a given id.
+     *
+     * @param points The external edge points in clockwise order.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_PolygonNoInternalHoles_d(V2D_Point_d[] points,
+            double epsilon, int id) {
+        this(points, new V2D_ConvexArea_d(epsilon, points), epsilon, id);
+    }
+
     /**
      * Create a new instance.
      *
@@ -100,7 +137,21 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      */
     public V2D_PolygonNoInternalHoles_d(V2D_Point_d[] points,
             V2D_ConvexArea_d ch, double epsilon) {
-        super(points[0].env, V2D_Vector_d.ZERO);
+        this(points, ch, epsilon, points[0].env.getNextID());
+    }
+
+    /**
+     * Create a new instance with a given id.
+     *
+     * @param points The external edge points in clockwise order.
+     * @param ch What {@link #ch} is set to.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_PolygonNoInternalHoles_d(V2D_Point_d[] points,
+            V2D_ConvexArea_d ch, double epsilon, int id) {
+        super(points[0].env, V2D_Vector_d.ZERO, id);
         this.points = new HashMap<>();
         this.ch = ch;
         edges = new HashMap<>();
@@ -304,6 +355,84 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
         return externalHoles;
     }
 
+    /**
+     * @return The edges of each ring with the external edges first.
+     */
+    protected ArrayList<HashMap<Integer, V2D_LineSegment_d>> getRings() {
+        ArrayList<HashMap<Integer, V2D_LineSegment_d>> r = new ArrayList<>();
+        r.add(getEdges());
+        return r;
+    }
+
+    /**
+     * Identify if this is valid. For this each ring of edges must have at
+     * least three edges, and no edge may intersect another except where
+     * adjacent edges of a ring meet at their shared end point.
+     *
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return {@code true} iff this is valid.
+     */
+    public boolean isValid(double epsilon) {
+        return getValidityErrors(epsilon).isEmpty();
+    }
+
+    /**
+     * Finds what makes this invalid (see {@link #isValid(double)}). The edges
+     * are tested using a plane sweep (see {@link V2D_LineSegmentSweep_d}), so
+     * this runs in O((n+k) log n) time where n is the number of edges and k
+     * is the number of intersections. Ring 0 is the external edges and any
+     * other rings are internal holes.
+     *
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return A description of each error found which is empty if this is
+     * valid.
+     */
+    public ArrayList<String> getValidityErrors(double epsilon) {
+        ArrayList<String> r = new ArrayList<>();
+        ArrayList<HashMap<Integer, V2D_LineSegment_d>> rings = getRings();
+        ArrayList<V2D_LineSegment_d> ls = new ArrayList<>();
+        // For each edge the ring index, the edge key and the ring size.
+        ArrayList<int[]> ids = new ArrayList<>();
+        for (int i = 0; i < rings.size(); i++) {
+            HashMap<Integer, V2D_LineSegment_d> ring = rings.get(i);
+            if (ring.size() < 3) {
+                r.add("Ring " + i + " has " + ring.size() + " edges");
+            }
+            for (var e : ring.entrySet()) {
+                ls.add(e.getValue());
+                ids.add(new int[]{i, e.getKey(), ring.size()});
+            }
+        }
+        for (var x : V2D_LineSegment_d.getIntersections(epsilon, ls)) {
+            int[] a = ids.get(x.i);
+            int[] b = ids.get(x.j);
+            if (a[0] == b[0] && x.g instanceof V2D_Point_d) {
+                int d = Math.abs(a[1] - b[1]);
+                if (d == 1 || d == a[2] - 1) {
+                    continue;
+                }
+            }
+            r.add("Edge " + a[1] + " of ring " + a[0] + " intersects edge "
+                    + b[1] + " of ring " + b[0] + " at " + x.g.toString());
+        }
+        return r;
+    }
+
+    /**
+     * Triangulates this in O(n log n) time (see {@link V2D_Triangulator_d}).
+     *
+     * @return The triangles as triples of indexes. The indexes are into the
+     * points of this in key order followed by the points of any internal
+     * holes in key order.
+     */
+    public int[] getTriangulation() {
+        ArrayList<double[]> rings = new ArrayList<>();
+        V2D_Overlay_d.addRings(this, rings);
+        return V2D_Triangulator_d.getTriangles(rings);
+    }
+
     @Override
     public V2D_Point_d[] getPointsArray() {
         Collection<V2D_Point_d> pts = points.values();
@@ -324,7 +453,55 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
     }
 
     /**
-     * Identify if this is intersected by pt.
+     * Builds {@link #locator} if it has not already been built. This takes
+     * O(n log n) time or longer for large and complicated polygons, so is
+     * worthwhile if many points are to be tested against this.
+     *
+     * @return {@link #locator}.
+     */
+    public V2D_PointLocator_d getPointLocator() {
+        if (locator == null) {
+            locator = new V2D_PointLocator_d(this);
+        }
+        return locator;
+    }
+
+    /**
+     * Identify if the Axis Aligned Bounding Box of this intersects
+     * {@code aabb}. This is tested before anything more expensive so that
+     * geometries far from this are rejected early.
+     *
+     * @param aabb The envelope to test for intersection.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return {@code true} iff the envelopes intersect.
+     */
+    protected boolean aabbIntersects(V2D_AABB_d aabb, double epsilon) {
+        return metrics().aabb(getAABB().intersects(aabb, epsilon));
+    }
+
+    /**
+     * For getting a stream of those holes with an Axis Aligned Bounding Box
+     * that intersects {@code aabb}. Holes that are far from the geometry
+     * being tested are then not tested any further.
+     *
+     * @param holes The holes.
+     * @param aabb The envelope of the geometry being tested.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The holes that might intersect a geometry with envelope
+     * {@code aabb}.
+     */
+    protected Stream<V2D_PolygonNoInternalHoles_d> getHoles(
+            Collection<V2D_PolygonNoInternalHoles_d> holes, V2D_AABB_d aabb,
+            double epsilon) {
+        return execution().stream(holes).filter(x -> metrics().aabb(
+                x.getAABB().intersects(aabb, epsilon)));
+    }
+
+    /**
+     * Identify if this is intersected by pt. If {@link #locator} has been
+     * built then it is used.
      *
      * @param pt The point to test for intersection with.
      * @param epsilon The tolerance within which two vectors are regarded as
@@ -332,15 +509,26 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is an intersection.
      */
     public boolean intersects(V2D_Point_d pt, double epsilon) {
-        return ch.intersects(pt, epsilon)
-                && (!V2D_LineSegment_d.intersects(epsilon, pt,
-                        ch.edges.values())
-                && !externalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(pt, epsilon)));
+        long time = metrics().start();
+        boolean r;
+        if (!aabbIntersects(pt.getAABB(), epsilon)) {
+            r = false;
+        } else if (locator != null) {
+            r = locator.intersects(pt, epsilon);
+        } else {
+            r = ch.intersects(pt, epsilon)
+                    && (!V2D_LineSegment_d.intersects(epsilon, pt,
+                            ch.edges.values())
+                    && !getHoles(externalHoles.values(), pt.getAABB(),
+                            epsilon).anyMatch(x -> x.contains(pt, epsilon)));
+        }
+        return metrics().stop(V2D_PolygonNoInternalHoles_d.class,
+                V2D_Metrics.INTERSECTS, time, r);
     }
 
     /**
-     * Identify if this contains pt.
+     * Identify if this contains pt. If {@link #locator} has been built then
+     * it is used.
      *
      * @param pt The point to test for containment.
      * @param epsilon The tolerance within which two vectors are regarded as
@@ -348,9 +536,91 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is an intersection.
      */
     public boolean contains(V2D_Point_d pt, double epsilon) {
-        return intersects(pt, epsilon)
-                && !V2D_LineSegment_d.intersects(epsilon, pt,
-                        edges.values());
+        long time = metrics().start();
+        boolean r;
+        if (locator != null) {
+            r = aabbIntersects(pt.getAABB(), epsilon)
+                    && locator.contains(pt, epsilon);
+        } else {
+            r = intersects(pt, epsilon)
+                    && !V2D_LineSegment_d.intersects(epsilon, pt,
+                            edges.values());
+        }
+        return metrics().stop(V2D_PolygonNoInternalHoles_d.class,
+                V2D_Metrics.CONTAINS, time, r);
+    }
+
+    /**
+     * Identify which of the points in pts are intersected by this. The
+     * points are tested in blocks of 64 which are processed in parallel on
+     * the common fork-join pool if {@code env.execution} allows. Points
+     * outside the Axis Aligned Bounding Box of this are rejected early and
+     * the others are tested using {@link #getPointLocator()}, so no
+     * {@link V2D_Point_d} are created.
+     *
+     * @param pts The points to test for intersection with.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return A bitset with the bits set at the indexes of the points in pts
+     * that are intersected by this.
+     */
+    public BitSet intersects(V2D_PointBuffer_d pts, double epsilon) {
+        return locate(pts, epsilon, false);
+    }
+
+    /**
+     * Identify which of the points in pts are contained by this. The points
+     * are tested in the same way as for
+     * {@link #intersects(V2D_PointBuffer_d, double)}.
+     *
+     * @param pts The points to test for containment.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return A bitset with the bits set at the indexes of the points in pts
+     * that are contained by this.
+     */
+    public BitSet contains(V2D_PointBuffer_d pts, double epsilon) {
+        return locate(pts, epsilon, true);
+    }
+
+    /**
+     * @param pts The points to locate.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param contains If {@code true} points on the boundary are excluded.
+     * @return A bitset with the bits set at the indexes of the points in pts
+     * that are located.
+     */
+    private BitSet locate(V2D_PointBuffer_d pts, double epsilon,
+            boolean contains) {
+        V2D_PointLocator_d l = getPointLocator();
+        V2D_AABB_d aabb = getAABB();
+        double xMin = aabb.getXMin() - epsilon;
+        double xMax = aabb.getXMax() + epsilon;
+        double yMin = aabb.getYMin() - epsilon;
+        double yMax = aabb.getYMax() + epsilon;
+        int n = pts.size();
+        long[] words = new long[(n + 63) >>> 6];
+        IntStream s = IntStream.range(0, words.length);
+        if (execution().isParallel(n)) {
+            s = s.parallel();
+        }
+        s.forEach(w -> {
+            long bits = 0L;
+            for (int i = w << 6, e = Math.min(n, i + 64); i < e; i++) {
+                double x = pts.x.get(i);
+                double y = pts.y.get(i);
+                if (x >= xMin && x <= xMax && y >= yMin && y <= yMax) {
+                    int r = l.locate(x, y, epsilon);
+                    if (r == V2D_PointLocator_d.INSIDE || (!contains
+                            && r == V2D_PointLocator_d.BOUNDARY)) {
+                        bits |= 1L << i;
+                    }
+                }
+            }
+            words[w] = bits;
+        });
+        return BitSet.valueOf(words);
     }
 
     /**
@@ -362,7 +632,8 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is an intersection.
      */
     public boolean contains(V2D_LineSegment_d ls, double epsilon) {
-        return contains(ls.getP(), epsilon)
+        return aabbIntersects(ls.getAABB(), epsilon)
+                && contains(ls.getP(), epsilon)
                 && contains(ls.getQ(), epsilon);
     }
 
@@ -375,7 +646,8 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_Triangle_d t, double epsilon) {
-        return contains(t.getP(), epsilon)
+        return aabbIntersects(t.getAABB(), epsilon)
+                && contains(t.getP(), epsilon)
                 && contains(t.getQ(), epsilon)
                 && contains(t.getR(), epsilon);
     }
@@ -389,7 +661,8 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_Rectangle_d r, double epsilon) {
-        return contains(r.getP(), epsilon)
+        return aabbIntersects(r.getAABB(), epsilon)
+                && contains(r.getP(), epsilon)
                 && contains(r.getQ(), epsilon)
                 && contains(r.getR(), epsilon)
                 && contains(r.getS(), epsilon);
@@ -404,6 +677,9 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_AABB_d aabb, double epsilon) {
+        if (!aabbIntersects(aabb, epsilon)) {
+            return false;
+        }
         double xmin = aabb.getXMin();
         double xmax = aabb.getXMax();
         double ymin = aabb.getYMin();
@@ -423,8 +699,9 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff there is containment.
      */
     public boolean contains(V2D_ConvexArea_d ch, double epsilon) {
-        return this.ch.intersects(ch, epsilon)
-                && ch.getPoints().values().parallelStream().allMatch(x
+        return aabbIntersects(ch.getAABB(), epsilon)
+                && this.ch.intersects(ch, epsilon)
+                && execution().stream(ch.getPoints().values()).allMatch(x
                         -> contains(x, epsilon));
     }
 
@@ -437,8 +714,9 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} contains {@code p}.
      */
     public boolean contains(V2D_PolygonNoInternalHoles_d p, double epsilon) {
-        return this.ch.intersects(p.ch, epsilon)
-                && p.getPoints().values().parallelStream().allMatch(x
+        return aabbIntersects(p.getAABB(), epsilon)
+                && this.ch.intersects(p.ch, epsilon)
+                && execution().stream(p.getPoints().values()).allMatch(x
                         -> contains(x, epsilon));
     }
 
@@ -451,11 +729,13 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff this is intersected by l.
      */
     public boolean intersects(V2D_LineSegment_d l, double epsilon) {
-        return ch.intersects(l, epsilon)
+        V2D_AABB_d aabb = l.getAABB();
+        return aabbIntersects(aabb, epsilon)
+                && ch.intersects(l, epsilon)
                 && (!V2D_LineSegment_d.intersects(epsilon, l,
                         ch.edges.values())
-                || !externalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(l, epsilon)));
+                || !getHoles(externalHoles.values(), aabb, epsilon)
+                        .anyMatch(x -> x.contains(l, epsilon)));
     }
 
     /**
@@ -467,7 +747,8 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff this is intersected by {@code t}.
      */
     public boolean intersects(V2D_Triangle_d t, double epsilon) {
-        return ch.intersects(t, epsilon)
+        return aabbIntersects(t.getAABB(), epsilon)
+                && ch.intersects(t, epsilon)
                 && intersects0(t, epsilon);
     }
 
@@ -486,11 +767,11 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
         return (intersects(tp, epsilon)
                 || intersects(tq, epsilon)
                 || intersects(tr, epsilon))
-                || t.getEdges().values().parallelStream().anyMatch(x
+                || execution().stream(t.getEdges().values()).anyMatch(x
                         -> V2D_LineSegment_d.intersects(epsilon, x,
                         edges.values()))
-                && !externalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(tp, epsilon)
+                && !getHoles(externalHoles.values(), t.getAABB(), epsilon)
+                        .anyMatch(x -> x.contains(tp, epsilon)
                 && x.contains(tq, epsilon)
                 && x.contains(tr, epsilon));
     }
@@ -504,7 +785,8 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff this is intersected by {@code r}.
      */
     public boolean intersects(V2D_Rectangle_d r, double epsilon) {
-        return ch.intersects(r, epsilon)
+        return aabbIntersects(r.getAABB(), epsilon)
+                && ch.intersects(r, epsilon)
                 && (intersects0(r.getPQR(), epsilon)
                 || intersects0(r.getRSP(), epsilon));
     }
@@ -518,18 +800,19 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      * @return {@code true} iff this is intersected by {@code ch}.
      */
     public boolean intersects(V2D_ConvexArea_d ch, double epsilon) {
-        return this.ch.intersects(ch, epsilon)
+        return aabbIntersects(ch.getAABB(), epsilon)
+                && this.ch.intersects(ch, epsilon)
                 && /**
                  * If any of the edges intersect or if one geometry contains the
                  * other, there is an intersection.
                  */
-                getEdges().values().parallelStream().anyMatch(x
+                (execution().stream(getEdges().values()).anyMatch(x
                         -> V2D_LineSegment_d.intersects(epsilon, x,
                         ch.getEdges().values()))
-                || ch.getPoints().values().parallelStream().anyMatch(x
+                || execution().stream(ch.getPoints().values()).anyMatch(x
                         -> intersects(x, epsilon))
-                || getPoints().values().parallelStream().anyMatch(x
-                        -> ch.intersects(x, epsilon));
+                || execution().stream(getPoints().values()).anyMatch(x
+                        -> ch.intersects(x, epsilon)));
     }
 
     /**
@@ -542,55 +825,179 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
      */
     public boolean intersects(V2D_PolygonNoInternalHoles_d p,
             double epsilon) {
-        return p.ch.intersects(ch, epsilon)
+        return aabbIntersects(p.getAABB(), epsilon)
+                && p.ch.intersects(ch, epsilon)
                 && /**
                  * If any of the edges intersect or if one polygon contains the
                  * other, there is an intersection.
                  */
-                getEdges().values().parallelStream().anyMatch(x
+                (execution().stream(getEdges().values()).anyMatch(x
                         -> V2D_LineSegment_d.intersects(epsilon, x,
                         p.getEdges().values()))
-                || getPoints().values().parallelStream().anyMatch(x
+                || execution().stream(getPoints().values()).anyMatch(x
                         -> p.intersects(x, epsilon))
-                || p.getPoints().values().parallelStream().anyMatch(x
-                        -> intersects(x, epsilon));
+                || execution().stream(p.getPoints().values()).anyMatch(x
+                        -> intersects(x, epsilon)));
     }
 
     /**
-     * This sums all the areas irrespective of any overlaps.
+     * Calculates the area using the shoelace formula with compensated
+     * summation. This is stored until the polygon is moved.
      *
-     * @return The area of the triangle (rounded).
+     * @return The area.
      */
-    //@Override
     public double getArea() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getArea(oom));
-//        }
-//        return sum;
+        Double a = area;
+        if (a == null) {
+            a = calculateArea();
+            area = a;
+        }
+        return a;
+    }
+
+    /**
+     * @return The area calculated using the shoelace formula.
+     */
+    protected double calculateArea() {
+        return getArea(getPoints());
     }
 
     /**
-     * This sums all the perimeters irrespective of any overlaps.
+     * @param pts The points of a ring in order.
+     * @return The area of the ring calculated using the shoelace formula.
+     */
+    protected static double getArea(HashMap<Integer, V2D_Point_d> pts) {
+        int n = pts.size();
+        if (n < 3) {
+            return 0d;
+        }
+        // Coordinates are taken relative to the first point.
+        V2D_Point_d p0 = pts.get(0);
+        double x0 = p0.getX();
+        double y0 = p0.getY();
+        double[] sum = new double[2];
+        double xa = 0d;
+        double ya = 0d;
+        for (int i = 1; i < n; i++) {
+            V2D_Point_d p = pts.get(i);
+            double xb = p.getX() - x0;
+            double yb = p.getY() - y0;
+            add(sum, Math.fma(xa, yb, -xb * ya));
+            xa = xb;
+            ya = yb;
+        }
+        return Math.abs(sum[0] + sum[1]) / 2d;
+    }
+
+    /**
+     * Calculates the perimeter as the compensated sum of the lengths of the
+     * edges. This is stored until the polygon is moved.
      *
-     * @return The total length of the external edges.
+     * @return The perimeter.
      */
-    //@Override
     public double getPerimeter() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getPerimeter(oom));
-//        }
-//        return sum;
+        Double p = perimeter;
+        if (p == null) {
+            p = calculatePerimeter();
+            perimeter = p;
+        }
+        return p;
+    }
+
+    /**
+     * @return The sum of the lengths of the edges.
+     */
+    protected double calculatePerimeter() {
+        return getPerimeter(getEdges());
+    }
+
+    /**
+     * @param edges The edges.
+     * @return The compensated sum of the lengths of the edges.
+     */
+    protected static double getPerimeter(
+            HashMap<Integer, V2D_LineSegment_d> edges) {
+        double[] sum = new double[2];
+        for (var l : edges.values()) {
+            add(sum, l.getLength());
+        }
+        return sum[0] + sum[1];
+    }
+
+    /**
+     * Neumaier summation step.
+     *
+     * @param sum The running sum {@code sum[0]} and compensation
+     * {@code sum[1]}.
+     * @param t The term to add.
+     */
+    private static void add(double[] sum, double t) {
+        double s = sum[0] + t;
+        if (Math.abs(sum[0]) >= Math.abs(t)) {
+            sum[1] += (sum[0] - s) + t;
+        } else {
+            sum[1] += (t - s) + sum[0];
+        }
+        sum[0] = s;
+    }
+
+    /**
+     * @param p The polygon to intersect with.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of both {@code this} and
+     * {@code p}.
+     */
+    public ArrayList<V2D_Polygon_d> getIntersection(
+            V2D_PolygonNoInternalHoles_d p, double epsilon) {
+        return V2D_Overlay_d.getIntersection(this, p, epsilon);
+    }
+
+    /**
+     * @param p The polygon to merge with.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of either {@code this} or
+     * {@code p}.
+     */
+    public ArrayList<V2D_Polygon_d> getUnion(V2D_PolygonNoInternalHoles_d p,
+            double epsilon) {
+        return V2D_Overlay_d.getUnion(this, p, epsilon);
+    }
+
+    /**
+     * @param p The polygon to clip with.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of {@code this} not in
+     * {@code p}.
+     */
+    public ArrayList<V2D_Polygon_d> getDifference(
+            V2D_PolygonNoInternalHoles_d p, double epsilon) {
+        return V2D_Overlay_d.getDifference(this, p, epsilon);
+    }
+
+    /**
+     * @param p The other polygon.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The polygons covering the area of {@code this} or {@code p} but
+     * not both.
+     */
+    public ArrayList<V2D_Polygon_d> getXor(V2D_PolygonNoInternalHoles_d p,
+            double epsilon) {
+        return V2D_Overlay_d.getXor(this, p, epsilon);
     }
 
     @Override
     public void translate(V2D_Vector_d v) {
+        // The envelope is that of ch, so it is translated with ch.
+        en = null;
         super.translate(v);
-        if (en != null) {
-            en.translate(v);
+        area = null;
+        perimeter = null;
+        if (locator != null) {
+            locator.translate(v);
         }
         ch.translate(v);
         if (edges != null) {
@@ -662,6 +1069,9 @@ public class V2D_PolygonNoInternalHoles_d extends V2D_Area_d {
     public int addExternalHole(V2D_PolygonNoInternalHoles_d p) {
         int pid = externalHoles.size();
         externalHoles.put(pid, p);
+        if (locator != null) {
+            locator = new V2D_PointLocator_d(this);
+        }
         return pid;
     }
 }
@@ -15,8 +15,10 @@
  */
 package uk.ac.leeds.ccg.v2d.geometry.d;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 
 /**
  * V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d and is also defined by a
@@ -91,6 +93,22 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
         super(pts, epsilon);
         this.internalHoles = internalHoles;
     }
+
+    /**
+     * Create a new instance with a given id.
+     *
+     * @param pts The external edge points in a clockwise order.
+     * @param internalHoles What {@link #internalHoles} is set to.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_Polygon_d(V2D_Point_d[] pts,
+            HashMap<Integer, V2D_PolygonNoInternalHoles_d> internalHoles,
+            double epsilon, int id) {
+        super(pts, epsilon, id);
+        this.internalHoles = internalHoles;
+    }
     
     /**
      * @return A collection of the edges of all the internal holes.
@@ -104,9 +122,21 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
         }
         return internalHolesEdges;
     }
+
+    @Override
+    protected ArrayList<HashMap<Integer, V2D_LineSegment_d>> getRings() {
+        ArrayList<HashMap<Integer, V2D_LineSegment_d>> r = super.getRings();
+        if (internalHoles != null) {
+            for (int i = 0; i < internalHoles.size(); i++) {
+                r.add(internalHoles.get(i).getEdges());
+            }
+        }
+        return r;
+    }
     
     /**
-     * Identify if {@code this} intersects {@code pt}.
+     * Identify if {@code this} intersects {@code pt}. If {@link #locator}
+     * has been built then it is used.
      *
      * @param pt The point to test for intersection with.
      * @param epsilon The tolerance within which two vectors are regarded as
@@ -115,13 +145,22 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      */
     @Override
     public boolean intersects(V2D_Point_d pt, double epsilon) {
-        return super.intersects(pt, epsilon)
-                && !internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(pt, epsilon));
+        long time = metrics().start();
+        boolean r;
+        if (locator != null) {
+            r = aabbIntersects(pt.getAABB(), epsilon)
+                    && locator.intersects(pt, epsilon);
+        } else {
+            r = super.intersects(pt, epsilon)
+                    && !internalHolesContains(pt, epsilon);
+        }
+        return metrics().stop(V2D_Polygon_d.class, V2D_Metrics.INTERSECTS,
+                time, r);
     }
 
     /**
-     * Identify if {@code this} contains {@code pt}.
+     * Identify if {@code this} contains {@code pt}. If {@link #locator} has
+     * been built then it is used.
      *
      * @param pt The point to test for intersection with.
      * @param epsilon The tolerance within which two vectors are regarded as
@@ -130,8 +169,17 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      */
     @Override
     public boolean contains(V2D_Point_d pt, double epsilon) {
-        return super.contains(pt, epsilon)
-                && !internalHolesContains(pt, epsilon);
+        long time = metrics().start();
+        boolean r;
+        if (locator != null) {
+            r = aabbIntersects(pt.getAABB(), epsilon)
+                    && locator.contains(pt, epsilon);
+        } else {
+            r = super.contains(pt, epsilon)
+                    && !internalHolesContains(pt, epsilon);
+        }
+        return metrics().stop(V2D_Polygon_d.class, V2D_Metrics.CONTAINS,
+                time, r);
     }
 
     /**
@@ -143,8 +191,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} contains {@code pt}.
      */
     public boolean internalHolesContains(V2D_Point_d pt, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(pt, epsilon));
+        return getHoles(internalHoles.values(), pt.getAABB(), epsilon)
+                .anyMatch(x -> x.contains(pt, epsilon));
     }
     
     /**
@@ -156,8 +204,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} intersects {@code pt}.
      */
     public boolean internalHolesIntersects(V2D_Point_d pt, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.intersects(pt, epsilon));
+        return getHoles(internalHoles.values(), pt.getAABB(), epsilon)
+                .anyMatch(x -> x.intersects(pt, epsilon));
     }
     
     /**
@@ -183,8 +231,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} contains {@code l}.
      */
     public boolean internalHolesContains(V2D_LineSegment_d l, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(l, epsilon));
+        return getHoles(internalHoles.values(), l.getAABB(), epsilon)
+                .anyMatch(x -> x.contains(l, epsilon));
     }
 
     /**
@@ -196,8 +244,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} intersects {@code l}.
      */
     public boolean internalHolesIntersects(V2D_LineSegment_d l, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.intersects(l, epsilon));
+        return getHoles(internalHoles.values(), l.getAABB(), epsilon)
+                .anyMatch(x -> x.intersects(l, epsilon));
     }
 
     /**
@@ -237,8 +285,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} contains {@code t}.
      */
     public boolean internalHolesContains(V2D_Triangle_d t, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(t, epsilon));
+        return getHoles(internalHoles.values(), t.getAABB(), epsilon)
+                .anyMatch(x -> x.contains(t, epsilon));
     }
     
     /**
@@ -250,8 +298,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} intersects {@code t}.
      */
     public boolean internalHolesIntersects(V2D_Triangle_d t, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.intersects(t, epsilon));
+        return getHoles(internalHoles.values(), t.getAABB(), epsilon)
+                .anyMatch(x -> x.intersects(t, epsilon));
     }
     
     /**
@@ -291,8 +339,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} contains {@code t}.
      */
     public boolean internalHolesContains(V2D_Rectangle_d r, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(r, epsilon));
+        return getHoles(internalHoles.values(), r.getAABB(), epsilon)
+                .anyMatch(x -> x.contains(r, epsilon));
     }
     
     /**
@@ -304,8 +352,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} intersects {@code t}.
      */
     public boolean internalHolesIntersects(V2D_Rectangle_d r, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.intersects(r, epsilon));
+        return getHoles(internalHoles.values(), r.getAABB(), epsilon)
+                .anyMatch(x -> x.intersects(r, epsilon));
     }
     
     /**
@@ -345,8 +393,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} contains {@code ch}.
      */
     public boolean internalHolesContains(V2D_ConvexArea_d ch, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.contains(ch, epsilon));
+        return getHoles(internalHoles.values(), ch.getAABB(), epsilon)
+                .anyMatch(x -> x.contains(ch, epsilon));
     }
 
     /**
@@ -358,8 +406,8 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
      * @return {@code true} iff {@link #internalHoles} intersects {@code ch}.
      */
     public boolean internalHolesIntersects(V2D_ConvexArea_d ch, double epsilon) {
-        return internalHoles.values().parallelStream().anyMatch(x
-                        -> x.intersects(ch, epsilon));
+        return getHoles(internalHoles.values(), ch.getAABB(), epsilon)
+                .anyMatch(x -> x.intersects(ch, epsilon));
     }
     
     /**
@@ -377,32 +425,33 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
     }
 
     /**
-     * This sums all the areas irrespective of any overlaps.
-     *
-     * @return The area of the triangle (rounded).
+     * @return The area of the external edges less the area of each internal
+     * hole.
      */
     @Override
-    public double getArea() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getArea(oom));
-//        }
-//        return sum;
+    protected double calculateArea() {
+        double r = super.calculateArea();
+        if (internalHoles != null) {
+            for (var h : internalHoles.values()) {
+                r -= h.getArea();
+            }
+        }
+        return r;
     }
 
     /**
-     * This sums all the perimeters irrespective of any overlaps.
-     *
+     * @return The sum of the lengths of the external edges and the edges of
+     * each internal hole.
      */
     @Override
-    public double getPerimeter() {
-        throw new UnsupportedOperationException();
-//        BigDecimal sum = BigDecimal.ZERO;
-//        for (var t : triangles) {
-//            sum = sum.add(t.getPerimeter(oom));
-//        }
-//        return sum;
+    protected double calculatePerimeter() {
+        double r = super.calculatePerimeter();
+        if (internalHoles != null) {
+            for (var h : internalHoles.values()) {
+                r += h.getPerimeter();
+            }
+        }
+        return r;
     }
 
     @Override
@@ -458,6 +507,9 @@ public class V2D_Polygon_d extends V2D_PolygonNoInternalHoles_d {
     public int addInternalHole(V2D_Polygon_d p) {
         int pid = internalHoles.size();
         internalHoles.put(pid, p);
+        if (locator != null) {
+            locator = new V2D_PointLocator_d(this);
+        }
         return pid;
     }
 }
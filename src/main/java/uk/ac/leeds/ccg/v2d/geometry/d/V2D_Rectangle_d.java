@@ -149,9 +149,9 @@ public class V2D_Rectangle_d extends V2D_Area_d {
         if (edges == null) {
             edges = new HashMap<>(4);
             edges.put(0, getPQ());
-            edges.put(0, getQR());
-            edges.put(0, getRS());
-            edges.put(0, getSP());
+            edges.put(1, getQR());
+            edges.put(2, getRS());
+            edges.put(3, getSP());
         }
         return edges;
     }
@@ -251,7 +251,7 @@ public class V2D_Rectangle_d extends V2D_Area_d {
      * @return True iff there is an intersection.
      */
     public boolean intersects(double epsilon, Collection<V2D_LineSegment_d> ls) {
-        return ls.parallelStream().anyMatch(x -> intersects(x, epsilon));
+        return execution().stream(ls).anyMatch(x -> intersects(x, epsilon));
     }
 
     /**
@@ -583,7 +583,8 @@ public class V2D_Rectangle_d extends V2D_Area_d {
     public boolean equals(V2D_Rectangle_d r, double epsilon) {
         Collection<V2D_Point_d> ps = getPoints().values();
         Collection<V2D_Point_d> rps = r.getPoints().values();
-        return ps.parallelStream().allMatch(x -> x.equalsAny(rps, epsilon));
+        return execution().stream(ps)
+                .allMatch(x -> x.equalsAny(rps, epsilon));
 //        for (var x : pts) {
 //            boolean found = false;
 //            for (var y : rpts) {
@@ -20,6 +20,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
 import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.light.V2D_VTriangle_d;
 
@@ -138,7 +139,24 @@ public class V2D_Triangle_d extends V2D_Area_d {
     public V2D_Triangle_d(V2D_Environment_d env,
             V2D_Vector_d offset, V2D_Vector_d pv,
             V2D_Vector_d qv, V2D_Vector_d rv) {
-        super(env, offset);
+        this(env, offset, pv, qv, rv, env.getNextID());
+    }
+
+    /**
+     * Creates a new triangle with a given id. pv, qv and rv must all be
+     * different.
+     *
+     * @param env What {@link #env} is set to.
+     * @param offset What {@link #offset} is set to.
+     * @param pv What {@link #pv} is set to.
+     * @param qv What {@link #qv} is set to.
+     * @param rv What {@link #rv} is set to.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_Triangle_d(V2D_Environment_d env,
+            V2D_Vector_d offset, V2D_Vector_d pv,
+            V2D_Vector_d qv, V2D_Vector_d rv, int id) {
+        super(env, offset, id);
         this.pv = pv;
         this.qv = qv;
         this.rv = rv;
@@ -176,11 +194,24 @@ public class V2D_Triangle_d extends V2D_Area_d {
      */
     public V2D_Triangle_d(V2D_Point_d p, V2D_Point_d q,
             V2D_Point_d r) {
+        this(p, q, r, p.env.getNextID());
+    }
+
+    /**
+     * Creates a new instance with a given id.
+     *
+     * @param p Used to initialise {@link #offset} and {@link #pl}.
+     * @param q Used to initialise {@link #qv}.
+     * @param r Used to initialise {@link #rv}.
+     * @param id What {@link #id} is set to.
+     */
+    public V2D_Triangle_d(V2D_Point_d p, V2D_Point_d q,
+            V2D_Point_d r, int id) {
         this(p.env,
                 new V2D_Vector_d(p.offset),
                 new V2D_Vector_d(p.rel),
                 q.getVector().subtract(p.offset),
-                r.getVector().subtract(p.offset));
+                r.getVector().subtract(p.offset), id);
     }
 
     /**
@@ -361,10 +392,11 @@ public class V2D_Triangle_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is intersected by {@code pt}
      */
     public boolean intersects(V2D_Point_d pt, double epsilon) {
-        if (getAABB().intersects(pt.getAABB())) {
-            return intersects0(pt, epsilon);
-        }
-        return false;
+        long time = metrics().start();
+        boolean r = metrics().aabb(getAABB().intersects(pt.getAABB()))
+                && intersects0(pt, epsilon);
+        return metrics().stop(V2D_Triangle_d.class, V2D_Metrics.INTERSECTS,
+                time, r);
     }
 
     /**
@@ -374,12 +406,13 @@ public class V2D_Triangle_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} contains {@code pt}.
      */
     public boolean contains(V2D_Point_d pt, double epsilon) {
-        if (intersects(pt, epsilon)) {
-            return !(getPQ().intersects(pt)
-                    || getQR().intersects(pt)
-                    || getRP().intersects(pt));
-        }
-        return false;
+        long time = metrics().start();
+        boolean r = intersects(pt, epsilon)
+                && !(getPQ().intersects(pt)
+                || getQR().intersects(pt)
+                || getRP().intersects(pt));
+        return metrics().stop(V2D_Triangle_d.class, V2D_Metrics.CONTAINS,
+                time, r);
     }
 
     /**
@@ -403,7 +436,7 @@ public class V2D_Triangle_d extends V2D_Area_d {
      * @return True iff there is an intersection.
      */
     public boolean intersects(double epsilon, ArrayList<V2D_LineSegment_d> ls) {
-        return ls.parallelStream().anyMatch(x -> intersects(x, epsilon));
+        return execution().stream(ls).anyMatch(x -> intersects(x, epsilon));
     }
 
     /**
@@ -428,7 +461,7 @@ public class V2D_Triangle_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} contains {@code t}.
      */
     public boolean contains(V2D_Triangle_d t, double epsilon) {
-        return t.getPoints().values().parallelStream().allMatch(x
+        return execution().stream(t.getPoints().values()).allMatch(x
                 -> contains(x, epsilon));
     }
 
@@ -475,7 +508,7 @@ public class V2D_Triangle_d extends V2D_Area_d {
             || intersects0(l.getQ(), epsilon)) {
             return true;
         } else {
-            return getEdges().values().parallelStream().anyMatch(x
+            return execution().stream(getEdges().values()).anyMatch(x
                 -> x.intersects(l, epsilon));
         }
     }
@@ -515,15 +548,18 @@ public class V2D_Triangle_d extends V2D_Area_d {
     }
 
     /**
-     * https://en.wikipedia.org/wiki/Heron%27s_formula
+     * Calculates the area using the shoelace formula.
      *
      * @return The area of the triangle.
      */
     public double getArea() {
-        double a = getPQ().getLength();
-        double b = getQR().getLength();
-        double c = getRP().getLength();
-        return Math.sqrt(((a + b + c) / 2d) * ((b + c - a) / 2d) * ((a - b + c) / 2d) * ((a + b - c) / 2d));
+        V2D_Point_d tp = getP();
+        V2D_Point_d tq = getQ();
+        V2D_Point_d tr = getR();
+        double px = tp.getX();
+        double py = tp.getY();
+        return Math.abs(Math.fma(tq.getX() - px, tr.getY() - py,
+                -(tr.getX() - px) * (tq.getY() - py))) / 2d;
     }
 
     /**
@@ -709,7 +745,21 @@ public class V2D_Triangle_d extends V2D_Area_d {
      */
     public V2D_FiniteGeometry_d getIntersect(V2D_Triangle_d t,
             double epsilon) {
-        if (getAABB().intersects(t.getAABB(), epsilon)) {
+        long time = metrics().start();
+        return metrics().stop(V2D_Triangle_d.class,
+                V2D_Metrics.GET_INTERSECT, time, getIntersect0(t, epsilon));
+    }
+
+    /**
+     * @param t The triangle to intersect with.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return The intersection between {@code t} and {@code this} or
+     * {@code null} if there is no intersection.
+     */
+    private V2D_FiniteGeometry_d getIntersect0(V2D_Triangle_d t,
+            double epsilon) {
+        if (metrics().aabb(getAABB().intersects(t.getAABB(), epsilon))) {
             /**
              * Get intersections between the triangle edges. If there are none,
              * then either this returns t or vice versa. If there are some, then
@@ -914,7 +964,7 @@ public class V2D_Triangle_d extends V2D_Area_d {
      * @return {@code true} iff {@code this} is equal to {@code t}.
      */
     public boolean equals(V2D_Triangle_d t, double epsilon) {
-        return getPoints().values().parallelStream().allMatch(x
+        return execution().stream(getPoints().values()).allMatch(x
                 -> x.equalsAny(t.getPoints().values(), epsilon));
 //        V2D_Point_d tp = t.getP();
 //        V2D_Point_d thisp = getP();
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d;
+
+import java.io.Serializable;
+
+/**
+ * An immutable ellipsoid of revolution defined by its semi-major and
+ * semi-minor axes.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public final class V2D_Ellipsoid_d implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The Airy 1830 ellipsoid used by OSGB36 and the British National Grid.
+     */
+    public static final V2D_Ellipsoid_d AIRY1830 = new V2D_Ellipsoid_d(
+            6377563.396, 6356256.909);
+
+    /**
+     * The GRS80 ellipsoid used by ETRS89.
+     */
+    public static final V2D_Ellipsoid_d GRS80 = new V2D_Ellipsoid_d(
+            6378137d, 6356752.314140);
+
+    /**
+     * The WGS84 ellipsoid.
+     */
+    public static final V2D_Ellipsoid_d WGS84 = new V2D_Ellipsoid_d(
+            6378137d, 6356752.314245);
+
+    /**
+     * The semi-major axis in metres.
+     */
+    public final double a;
+
+    /**
+     * The semi-minor axis in metres.
+     */
+    public final double b;
+
+    /**
+     * The eccentricity squared.
+     */
+    public final double e2;
+
+    /**
+     * The third flattening {@code (a - b) / (a + b)}.
+     */
+    public final double n;
+
+    /**
+     * Create a new instance.
+     *
+     * @param a What {@link #a} is set to.
+     * @param b What {@link #b} is set to.
+     * @throws IllegalArgumentException If {@code b} is not positive or is
+     * greater than {@code a}.
+     */
+    public V2D_Ellipsoid_d(double a, double b) {
+        if (!(b > 0d && b <= a)) {
+            throw new IllegalArgumentException(
+                    "The axes must satisfy 0 < b <= a.");
+        }
+        this.a = a;
+        this.b = b;
+        e2 = 1d - (b * b) / (a * a);
+        n = (a - b) / (a + b);
+    }
+
+    /**
+     * Converts a geodetic coordinate to an earth-centred cartesian
+     * coordinate.
+     *
+     * @param lat The latitude in radians.
+     * @param lon The longitude in radians.
+     * @param h The height above the ellipsoid in metres.
+     * @param r The array the x, y and z coordinates are written to.
+     */
+    void toCartesian(double lat, double lon, double h, double[] r) {
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double nu = a / Math.sqrt(1d - e2 * sinLat * sinLat);
+        r[0] = (nu + h) * cosLat * Math.cos(lon);
+        r[1] = (nu + h) * cosLat * Math.sin(lon);
+        r[2] = ((1d - e2) * nu + h) * sinLat;
+    }
+
+    /**
+     * Converts an earth-centred cartesian coordinate to a geodetic
+     * coordinate.
+     *
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @param z The z coordinate.
+     * @param r The array the latitude and longitude in radians and the height
+     * above the ellipsoid in metres are written to.
+     */
+    void toGeodetic(double x, double y, double z, double[] r) {
+        double p = Math.sqrt(x * x + y * y);
+        double lat = Math.atan2(z, p * (1d - e2));
+        double nu = a;
+        for (int i = 0; i < 10; i++) {
+            double sinLat = Math.sin(lat);
+            nu = a / Math.sqrt(1d - e2 * sinLat * sinLat);
+            double lat1 = Math.atan2(z + e2 * nu * sinLat, p);
+            if (Math.abs(lat1 - lat) < 1e-14) {
+                lat = lat1;
+                break;
+            }
+            lat = lat1;
+        }
+        r[0] = lat;
+        r[1] = Math.atan2(y, x);
+        r[2] = p / Math.cos(lat) - nu;
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+
+/**
+ * For bilinear interpolation of coordinate shifts from a regular grid, such as
+ * the OSTN15 shifts between ETRS89 and OSGB36 National Grid coordinates. Grids
+ * are read from a binary file that is memory mapped rather than loaded, so
+ * opening a large grid is quick and uses little heap, and only the pages of
+ * the file that are looked up are read. Lookups only read the mapped file so
+ * batches are processed in parallel if a {@link V2D_Execution} allows.
+ *
+ * A grid file has a header followed by the shifts at the grid nodes. The
+ * header is the int {@link #MAGIC}, the int {@link #VERSION}, the int number
+ * of columns, the int number of rows, and the double x and y of the first
+ * node and double spacing of the nodes in x and y. Then for each node in rows
+ * from the first row, and in columns from the first column within rows, are
+ * the float x shift and float y shift. Values are big endian as written by
+ * {@link DataOutputStream}. Grid files can be written using
+ * {@link #write(Path, int, int, double, double, double, double, float[], float[])}.
+ *
+ * For example, for OSTN15 the grid has 701 columns and 1251 rows of nodes
+ * spaced 1000 metres apart from 0, 0 and ETRS89 latitudes and longitudes are
+ * projected using {@link V2D_TransverseMercator_d#OSGB_GRS80} and then
+ * shifted using {@link #apply(double, double)} to give OSGB36 National Grid
+ * eastings and northings.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_GridShift_d {
+
+    /**
+     * The first int of a grid file.
+     */
+    public static final int MAGIC = 0x56324447;
+
+    /**
+     * The version of the grid file format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The length of the header of a grid file in bytes.
+     */
+    private static final int HEADER = 48;
+
+    /**
+     * The number of bytes for each node.
+     */
+    private static final int NODE = 8;
+
+    /**
+     * The log base 2 of the number of nodes in each mapped buffer.
+     */
+    private static final int SHIFT = 27;
+
+    /**
+     * For getting the index of a node within a mapped buffer.
+     */
+    private static final long MASK = (1L << SHIFT) - 1L;
+
+    /**
+     * The maximum number of iterations in
+     * {@link #applyInverse(double, double)}.
+     */
+    private static final int ITERATIONS = 10;
+
+    /**
+     * The convergence tolerance of {@link #applyInverse(double, double)} as
+     * a fraction of the node spacing.
+     */
+    private static final double TOLERANCE = 1e-12;
+
+    /**
+     * The number of columns of nodes.
+     */
+    public final int ncols;
+
+    /**
+     * The number of rows of nodes.
+     */
+    public final int nrows;
+
+    /**
+     * The x of the first node.
+     */
+    public final double x0;
+
+    /**
+     * The y of the first node.
+     */
+    public final double y0;
+
+    /**
+     * The spacing of the nodes in x.
+     */
+    public final double dx;
+
+    /**
+     * The spacing of the nodes in y.
+     */
+    public final double dy;
+
+    /**
+     * The mapped shifts. Files with more than {@code 2^27} nodes are mapped
+     * in several buffers as each buffer is limited to 2GB.
+     */
+    private final MappedByteBuffer[] buffers;
+
+    /**
+     * Create a new instance by memory mapping a grid file.
+     *
+     * @param file The grid file.
+     * @throws IOException If the file cannot be read or is not a grid file.
+     */
+    public V2D_GridShift_d(Path file) throws IOException {
+        try (FileChannel fc = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = fc.size();
+            if (size < HEADER) {
+                throw new IOException("Not a grid file: " + file);
+            }
+            MappedByteBuffer h = fc.map(FileChannel.MapMode.READ_ONLY, 0,
+                    HEADER);
+            if (h.getInt() != MAGIC) {
+                throw new IOException("Not a grid file: " + file);
+            }
+            int version = h.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported grid file version "
+                        + version + ": " + file);
+            }
+            ncols = h.getInt();
+            nrows = h.getInt();
+            x0 = h.getDouble();
+            y0 = h.getDouble();
+            dx = h.getDouble();
+            dy = h.getDouble();
+            if (ncols < 2 || nrows < 2 || !(dx > 0d) || !(dy > 0d)) {
+                throw new IOException("Invalid grid header: " + file);
+            }
+            long n = (long) ncols * nrows;
+            if (size < HEADER + n * NODE) {
+                throw new IOException("Truncated grid file: " + file);
+            }
+            buffers = new MappedByteBuffer[(int) ((n - 1) >> SHIFT) + 1];
+            for (int b = 0; b < buffers.length; b++) {
+                long start = (long) b << SHIFT;
+                long length = Math.min(n - start, 1L << SHIFT) * NODE;
+                buffers[b] = fc.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER + start * NODE, length);
+            }
+        }
+    }
+
+    /**
+     * Writes a grid file.
+     *
+     * @param file The file to write.
+     * @param ncols The number of columns of nodes.
+     * @param nrows The number of rows of nodes.
+     * @param x0 The x of the first node.
+     * @param y0 The y of the first node.
+     * @param dx The spacing of the nodes in x.
+     * @param dy The spacing of the nodes in y.
+     * @param sx The x shifts of the nodes in rows from the first row.
+     * @param sy The y shifts of the nodes in rows from the first row.
+     * @throws IOException If the file cannot be written.
+     * @throws IllegalArgumentException If there are fewer than two columns or
+     * rows, or the shifts are not for {@code ncols * nrows} nodes.
+     */
+    public static void write(Path file, int ncols, int nrows, double x0,
+            double y0, double dx, double dy, float[] sx, float[] sy)
+            throws IOException {
+        long n = (long) ncols * nrows;
+        if (ncols < 2 || nrows < 2 || sx.length != n || sy.length != n) {
+            throw new IllegalArgumentException("The shifts must be for "
+                    + "ncols * nrows nodes with ncols and nrows at least 2.");
+        }
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(VERSION);
+            dos.writeInt(ncols);
+            dos.writeInt(nrows);
+            dos.writeDouble(x0);
+            dos.writeDouble(y0);
+            dos.writeDouble(dx);
+            dos.writeDouble(dy);
+            for (int i = 0; i < sx.length; i++) {
+                dos.writeFloat(sx[i]);
+                dos.writeFloat(sy[i]);
+            }
+        }
+    }
+
+    /**
+     * @param k The index of the node.
+     * @param o 0 for the x shift and 4 for the y shift.
+     * @return The shift.
+     */
+    private float get(long k, int o) {
+        return buffers[(int) (k >>> SHIFT)].getFloat(
+                (int) (k & MASK) * NODE + o);
+    }
+
+    /**
+     * Interpolates the shift at a location.
+     *
+     * @param x The x.
+     * @param y The y.
+     * @param sx The array the x shift is written to.
+     * @param xi The index in {@code sx} the x shift is written to.
+     * @param sy The array the y shift is written to.
+     * @param yi The index in {@code sy} the y shift is written to.
+     */
+    private void getShift(double x, double y, double[] sx, int xi,
+            double[] sy, int yi) {
+        double c = (x - x0) / dx;
+        double r = (y - y0) / dy;
+        if (!(c >= 0d && c <= ncols - 1 && r >= 0d && r <= nrows - 1)) {
+            sx[xi] = Double.NaN;
+            sy[yi] = Double.NaN;
+            return;
+        }
+        int ci = Math.min((int) c, ncols - 2);
+        int ri = Math.min((int) r, nrows - 2);
+        double t = c - ci;
+        double u = r - ri;
+        long k00 = (long) ri * ncols + ci;
+        long k01 = k00 + ncols;
+        double w00 = (1d - t) * (1d - u);
+        double w10 = t * (1d - u);
+        double w01 = (1d - t) * u;
+        double w11 = t * u;
+        sx[xi] = w00 * get(k00, 0) + w10 * get(k00 + 1, 0)
+                + w01 * get(k01, 0) + w11 * get(k01 + 1, 0);
+        sy[yi] = w00 * get(k00, 4) + w10 * get(k00 + 1, 4)
+                + w01 * get(k01, 4) + w11 * get(k01 + 1, 4);
+    }
+
+    /**
+     * Interpolates the shift at a location.
+     *
+     * @param x The x.
+     * @param y The y.
+     * @return double[2] r: where r[0] is the x shift and r[1] is the y shift,
+     * which are {@code NaN} if the location is outside the grid.
+     */
+    public double[] getShift(double x, double y) {
+        double[] r = new double[2];
+        getShift(x, y, r, 0, r, 1);
+        return r;
+    }
+
+    /**
+     * Interpolates the shifts at locations.
+     *
+     * @param x The x of the locations.
+     * @param y The y of the locations.
+     * @param sx The array the x shifts are written to.
+     * @param sy The array the y shifts are written to.
+     * @param execution For deciding whether to process in parallel.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    public void getShifts(double[] x, double[] y, double[] sx, double[] sy,
+            V2D_Execution execution) {
+        V2D_Reprojection_d.check(x, y, sx, sy);
+        V2D_Reprojection_d.stream(x.length, execution).forEach(i
+                -> getShift(x[i], y[i], sx, i, sy, i));
+    }
+
+    /**
+     * Shifts a location.
+     *
+     * @param x The x.
+     * @param y The y.
+     * @return double[2] r: where r[0] is the shifted x and r[1] is the shifted
+     * y, which are {@code NaN} if the location is outside the grid.
+     */
+    public double[] apply(double x, double y) {
+        double[] r = getShift(x, y);
+        r[0] += x;
+        r[1] += y;
+        return r;
+    }
+
+    /**
+     * Shifts locations.
+     *
+     * @param x The x of the locations.
+     * @param y The y of the locations.
+     * @param rx The array the shifted x are written to. This may be
+     * {@code x}.
+     * @param ry The array the shifted y are written to. This may be
+     * {@code y}.
+     * @param execution For deciding whether to process in parallel.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    public void apply(double[] x, double[] y, double[] rx, double[] ry,
+            V2D_Execution execution) {
+        V2D_Reprojection_d.check(x, y, rx, ry);
+        V2D_Reprojection_d.stream(x.length, execution).forEach(i -> {
+            double xi = x[i];
+            double yi = y[i];
+            getShift(xi, yi, rx, i, ry, i);
+            rx[i] += xi;
+            ry[i] += yi;
+        });
+    }
+
+    /**
+     * Shifts the points of a buffer in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points.
+     */
+    public void apply(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        apply(x, y, x, y, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Reverses {@link #apply(double, double)} by iteration, as the shifts are
+     * for the unshifted locations.
+     *
+     * @param x The shifted x.
+     * @param y The shifted y.
+     * @return double[2] r: where r[0] is the unshifted x and r[1] is the
+     * unshifted y, which are {@code NaN} if the location is outside the
+     * grid.
+     */
+    public double[] applyInverse(double x, double y) {
+        double[] r = new double[2];
+        applyInverse(x, y, r, 0, r, 1);
+        return r;
+    }
+
+    /**
+     * Reverses {@link #apply(double[], double[], double[], double[],
+     * V2D_Execution)} by iteration.
+     *
+     * @param x The x of the shifted locations.
+     * @param y The y of the shifted locations.
+     * @param rx The array the unshifted x are written to. This may be
+     * {@code x}.
+     * @param ry The array the unshifted y are written to. This may be
+     * {@code y}.
+     * @param execution For deciding whether to process in parallel.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    public void applyInverse(double[] x, double[] y, double[] rx,
+            double[] ry, V2D_Execution execution) {
+        V2D_Reprojection_d.check(x, y, rx, ry);
+        V2D_Reprojection_d.stream(x.length, execution).forEach(i
+                -> applyInverse(x[i], y[i], rx, i, ry, i));
+    }
+
+    /**
+     * Reverses the shifts of the points of a buffer in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points.
+     */
+    public void applyInverse(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        applyInverse(x, y, x, y, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Reverses a shift by iteration. Starting from the shifted location, the
+     * shift at the current estimate is subtracted from the shifted location
+     * until the estimate changes by less than {@link #TOLERANCE} of the node
+     * spacing.
+     *
+     * @param x The shifted x.
+     * @param y The shifted y.
+     * @param rx The array the unshifted x is written to.
+     * @param xi The index in {@code rx} the unshifted x is written to.
+     * @param ry The array the unshifted y is written to.
+     * @param yi The index in {@code ry} the unshifted y is written to.
+     */
+    private void applyInverse(double x, double y, double[] rx, int xi,
+            double[] ry, int yi) {
+        double[] s = new double[2];
+        double ux = x;
+        double uy = y;
+        for (int k = 0; k < ITERATIONS; k++) {
+            getShift(ux, uy, s, 0, s, 1);
+            double nx = x - s[0];
+            double ny = y - s[1];
+            boolean converged = Math.abs(nx - ux) <= TOLERANCE * dx
+                    && Math.abs(ny - uy) <= TOLERANCE * dy;
+            ux = nx;
+            uy = ny;
+            if (converged || Double.isNaN(ux)) {
+                break;
+            }
+        }
+        rx[xi] = ux;
+        ry[yi] = uy;
+    }
+}
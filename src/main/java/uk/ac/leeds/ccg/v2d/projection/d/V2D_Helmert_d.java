@@ -0,0 +1,193 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d;
+
+import java.io.Serializable;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+
+/**
+ * An immutable seven parameter Helmert transformation between the geodetic
+ * datums of two ellipsoids. Coordinates are converted to earth-centred
+ * cartesian coordinates, translated, rotated and scaled, and converted back.
+ * The rotation parameters use the position vector convention, as in the
+ * Ordnance Survey publication "A guide to coordinate systems in Great
+ * Britain". Heights are taken to be zero and are not returned.
+ *
+ * Latitudes and longitudes are in degrees. For point buffers, longitude is x
+ * and latitude is y.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public final class V2D_Helmert_d implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * From WGS84 (or ETRS89) to OSGB36. This is accurate to a few metres.
+     */
+    public static final V2D_Helmert_d WGS84_TO_OSGB36 = new V2D_Helmert_d(
+            V2D_Ellipsoid_d.WGS84, V2D_Ellipsoid_d.AIRY1830, -446.448,
+            125.157, -542.060, 20.4894, -0.1502, -0.2470, -0.8421);
+
+    /**
+     * From OSGB36 to WGS84 (or ETRS89). This is accurate to a few metres.
+     */
+    public static final V2D_Helmert_d OSGB36_TO_WGS84
+            = WGS84_TO_OSGB36.getInverse();
+
+    /**
+     * The ellipsoid of the coordinates to transform.
+     */
+    public final V2D_Ellipsoid_d from;
+
+    /**
+     * The ellipsoid of the transformed coordinates.
+     */
+    public final V2D_Ellipsoid_d to;
+
+    /**
+     * The translations in metres.
+     */
+    public final double tx, ty, tz;
+
+    /**
+     * The scale change in parts per million.
+     */
+    public final double s;
+
+    /**
+     * The rotations in arc seconds.
+     */
+    public final double rx, ry, rz;
+
+    /**
+     * The scale multiplier {@code 1 + s / 1000000}.
+     */
+    private final double m;
+
+    /**
+     * The rotations in radians.
+     */
+    private final double rxr, ryr, rzr;
+
+    /**
+     * Create a new instance.
+     *
+     * @param from What {@link #from} is set to.
+     * @param to What {@link #to} is set to.
+     * @param tx What {@link #tx} is set to.
+     * @param ty What {@link #ty} is set to.
+     * @param tz What {@link #tz} is set to.
+     * @param s What {@link #s} is set to.
+     * @param rx What {@link #rx} is set to.
+     * @param ry What {@link #ry} is set to.
+     * @param rz What {@link #rz} is set to.
+     */
+    public V2D_Helmert_d(V2D_Ellipsoid_d from, V2D_Ellipsoid_d to, double tx,
+            double ty, double tz, double s, double rx, double ry, double rz) {
+        this.from = from;
+        this.to = to;
+        this.tx = tx;
+        this.ty = ty;
+        this.tz = tz;
+        this.s = s;
+        this.rx = rx;
+        this.ry = ry;
+        this.rz = rz;
+        m = 1d + s / 1000000d;
+        rxr = Math.toRadians(rx / 3600d);
+        ryr = Math.toRadians(ry / 3600d);
+        rzr = Math.toRadians(rz / 3600d);
+    }
+
+    /**
+     * @return The approximate inverse transformation with the parameters
+     * negated. For the small rotations and scale changes of datum
+     * transformations the difference from the exact inverse is negligible.
+     */
+    public V2D_Helmert_d getInverse() {
+        return new V2D_Helmert_d(to, from, -tx, -ty, -tz, -s, -rx, -ry, -rz);
+    }
+
+    /**
+     * Transforms a latitude/longitude coordinate.
+     *
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @return double[2] r: where r[0] is latitude, r[1] is longitude.
+     */
+    public double[] transform(double lat, double lon) {
+        double[] r = new double[2];
+        transform(lat, lon, r, 0, r, 1);
+        return r;
+    }
+
+    /**
+     * Transforms latitude/longitude coordinates.
+     *
+     * @param lat The latitudes.
+     * @param lon The longitudes.
+     * @param rlat The array the transformed latitudes are written to. This
+     * may be {@code lat}.
+     * @param rlon The array the transformed longitudes are written to. This
+     * may be {@code lon}.
+     * @param execution For deciding whether to transform in parallel.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    public void transform(double[] lat, double[] lon, double[] rlat,
+            double[] rlon, V2D_Execution execution) {
+        V2D_Reprojection_d.check(lat, lon, rlat, rlon);
+        V2D_Reprojection_d.stream(lat.length, execution).forEach(i
+                -> transform(lat[i], lon[i], rlat, i, rlon, i));
+    }
+
+    /**
+     * Transforms the points of a buffer in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points with longitude as x and latitude as y.
+     */
+    public void transform(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        transform(y, x, y, x, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Transforms a latitude/longitude coordinate.
+     *
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @param la The array the latitude is written to.
+     * @param li The index in {@code la} the latitude is written to.
+     * @param lo The array the longitude is written to.
+     * @param oi The index in {@code lo} the longitude is written to.
+     */
+    private void transform(double lat, double lon, double[] la, int li,
+            double[] lo, int oi) {
+        double[] c = new double[3];
+        from.toCartesian(Math.toRadians(lat), Math.toRadians(lon), 0d, c);
+        double x = tx + m * c[0] - rzr * c[1] + ryr * c[2];
+        double y = ty + rzr * c[0] + m * c[1] - rxr * c[2];
+        double z = tz - ryr * c[0] + rxr * c[1] + m * c[2];
+        to.toGeodetic(x, y, z, c);
+        la[li] = Math.toDegrees(c[0]);
+        lo[oi] = Math.toDegrees(c[1]);
+    }
+}
@@ -15,17 +15,117 @@
  */
 package uk.ac.leeds.ccg.v2d.projection.d;
 
+import java.util.ArrayList;
+import java.util.List;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_FiniteGeometry_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Polygon_d;
 
 /**
  * Adapted from http://www.movable-type.co.uk/scripts/latlong-gridref.html.
  * Ordnance Survey Grid Reference functions (c) Chris Veness 2005-2012
  * http://www.movable-type.co.uk/scripts/gridref.js
  *
+ * The constants that do not depend on the coordinates are calculated once.
+ * There are methods for converting single coordinates and for converting
+ * arrays of coordinates into arrays provided by the caller, which are
+ * processed in parallel if a {@link V2D_Execution} allows. The results are
+ * the same either way. There are also methods for converting geometries and
+ * all the shapes of an environment, which convert each distinct vertex once.
+ *
+ * The projection parameters are fixed and there is no datum transformation.
+ * For other grids, and for transforming between datums, see
+ * {@link V2D_TransverseMercator_d} and {@link V2D_Helmert_d}.
+ *
  * @author Andy Turner
  */
 public class V2D_OSGBtoLatLonDouble {
 
+    /**
+     * NatGrid true origin latitude in radians (49ºN).
+     */
+    private static final double LAT0;
+
+    /**
+     * NatGrid true origin longitude in radians (2ºW).
+     */
+    private static final double LON0;
+
+    /**
+     * Northing of true origin, metres.
+     */
+    private static final double N0 = -100000;
+
+    /**
+     * Easting of true origin, metres.
+     */
+    private static final double E0 = 400000;
+
+    /**
+     * Eccentricity squared.
+     */
+    private static final double E2;
+
+    /**
+     * The major semi-axis multiplied by the scale factor on the central
+     * meridian.
+     */
+    private static final double AF0;
+
+    /**
+     * {@link #AF0} multiplied by {@code 1 - e2}.
+     */
+    private static final double AF0E2;
+
+    /**
+     * The minor semi-axis multiplied by the scale factor on the central
+     * meridian.
+     */
+    private static final double BF0;
+
+    /**
+     * The coefficient of the first term of the meridional arc.
+     */
+    private static final double MA;
+
+    /**
+     * The coefficients of the other terms of the meridional arc in
+     * {@link #latlon2osgb(double, double)}.
+     */
+    private static final double MB, MC, MD;
+
+    /**
+     * The coefficients of the other terms of the meridional arc in
+     * {@link #osgb2latlon(double, double, boolean)}.
+     */
+    private static final double MBI, MCI, MDI;
+
+    static {
+        double a = 6377563.396;
+        double b = 6356256.910;            // Airy 1830 major & minor semi-axes
+        double F0 = 0.9996012717;          // NatGrid scale factor on central meridian
+        LAT0 = Math_AngleDouble.toRadians(49);
+        LON0 = Math_AngleDouble.toRadians(-2);       // NatGrid true origin is 49ºN,2ºW
+        E2 = 1 - (b * b) / (a * a); // eccentricity squared
+        double n = (a - b) / (a + b);
+        double n2 = n * n;
+        double n3 = n * n * n;
+        AF0 = a * F0;
+        AF0E2 = a * F0 * (1 - E2);
+        BF0 = b * F0;
+        MA = (1 + n + (5 / 4) * n2 + (5 / 4) * n3);
+        MB = (3 * n + 3 * n * n + (21D / 8D) * n3);
+        MC = ((15D / 8D) * n2 + (15D / 8D) * n3);
+        MD = (35D / 24D) * n3;
+        MBI = (3 * n + 3 * n * n + (21 / 8) * n3);
+        MCI = ((15 / 8) * n2 + (15 / 8) * n3);
+        MDI = (35 / 24) * n3;
+    }
+
     /**
      * Create a new instance.
      */
@@ -42,34 +142,132 @@ public class V2D_OSGBtoLatLonDouble {
      */
     public static double[] latlon2osgb(double lat, double lon) {
         double[] result = new double[2];
+        latlon2osgb(lat, lon, result, 0, result, 1);
+        return result;
+    }
+
+    /**
+     * Converts WGS84 latitude/longitude coordinates to Ordnance Survey
+     * easting/northing coordinates.
+     *
+     * @param lat The latitudes to be converted.
+     * @param lon The longitudes to be converted.
+     * @param easting The array the eastings are written to.
+     * @param northing The array the northings are written to.
+     * @param execution For deciding whether to convert in parallel.
+     */
+    public static void latlon2osgb(double[] lat, double[] lon,
+            double[] easting, double[] northing, V2D_Execution execution) {
+        V2D_Reprojection_d.check(lat, lon, easting, northing);
+        V2D_Reprojection_d.stream(lat.length, execution).forEach(i
+                -> latlon2osgb(lat[i], lon[i], easting, i, northing, i));
+    }
+
+    /**
+     * Converts WGS84 latitude/longitude coordinates to Ordnance Survey
+     * easting/northing coordinates in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points to convert with longitude as x and latitude as y,
+     * which become easting and northing respectively.
+     */
+    public static void latlon2osgb(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        latlon2osgb(y, x, x, y, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Converts a line segment from WGS84 latitude/longitude to Ordnance Survey easting/northing coordinates.
+     *
+     * @param l The line segment to convert with longitude as x and latitude as
+     * y.
+     * @return A new line segment with easting as x and northing as y.
+     */
+    public static V2D_LineSegment_d latlon2osgb(V2D_LineSegment_d l) {
+        return (V2D_LineSegment_d) latlon2osgb(List.of(l), 0d,
+                l.execution()).get(0);
+    }
+
+    /**
+     * Converts a polygon and its internal holes from WGS84 latitude/longitude to Ordnance Survey easting/northing
+     * coordinates. Each distinct vertex is converted once.
+     *
+     * @param p The polygon to convert with longitude as x and latitude as y.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new polygon.
+     * @return A new polygon with easting as x and northing as y.
+     */
+    public static V2D_Polygon_d latlon2osgb(V2D_Polygon_d p, double epsilon) {
+        return (V2D_Polygon_d) latlon2osgb(List.of(p), epsilon,
+                p.execution()).get(0);
+    }
+
+    /**
+     * Converts geometries from WGS84 latitude/longitude to Ordnance Survey easting/northing coordinates. Each distinct
+     * vertex is converted once however many geometries share it, then the
+     * geometries are rebuilt, in parallel if {@code execution} allows.
+     * Rectangles are rebuilt as convex areas.
+     *
+     * @param gs The geometries to convert with longitude as x and latitude as
+     * y.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new geometries.
+     * @param execution For deciding whether to convert in parallel.
+     * @return New geometries with easting as x and northing as y in the same
+     * order as {@code gs}.
+     */
+    public static ArrayList<V2D_FiniteGeometry_d> latlon2osgb(
+            List<? extends V2D_FiniteGeometry_d> gs, double epsilon,
+            V2D_Execution execution) {
+        return V2D_Reprojection_d.apply(gs, (x, y, e)
+                -> latlon2osgb(y, x, x, y, e), epsilon, execution);
+    }
+
+    /**
+     * Converts all the shapes of an environment from WGS84 latitude/longitude to Ordnance Survey easting/northing
+     * coordinates in place and rebuilds the spatial index. Each distinct
+     * vertex is converted once however many shapes share it, and the shapes
+     * are rebuilt in parallel if {@code env.execution} allows.
+     *
+     * @param env The environment with shapes with longitude as x and latitude
+     * as y, which become easting and northing respectively.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new shapes.
+     */
+    public static void latlon2osgb(V2D_Environment_d env, double epsilon) {
+        V2D_Reprojection_d.apply(env, (x, y, e) -> latlon2osgb(y, x, x, y, e),
+                epsilon);
+    }
+
+    /**
+     * Converts a WGS84 latitude/longitude coordinate to an Ordnance Survey
+     * easting/northing coordinate.
+     *
+     * @param lat latitude to be converted
+     * @param lon longitude to be converted
+     * @param e The array the easting is written to.
+     * @param ei The index in {@code e} the easting is written to.
+     * @param n The array the northing is written to.
+     * @param ni The index in {@code n} the northing is written to.
+     */
+    private static void latlon2osgb(double lat, double lon, double[] e,
+            int ei, double[] n, int ni) {
         double latr = Math_AngleDouble.toRadians(lat);
         double lonr = Math_AngleDouble.toRadians(lon);
-        double a = 6377563.396;
-        double b = 6356256.910;            // Airy 1830 major & minor semi-axes
-        double F0 = 0.9996012717;          // NatGrid scale factor on central meridian
-        //System.out.println("F0 " + F0);
-        double lat0 = Math_AngleDouble.toRadians(49);
-        double lon0 = Math_AngleDouble.toRadians(-2);       // NatGrid true origin is 49ºN,2ºW
-        double N0 = -100000;
-        double E0 = 400000;                // northing & easting of true origin, metres
-        double e2 = 1 - (b * b) / (a * a); // eccentricity squared
-        //System.out.println("Eccentricity squared " + e2);
-        double n = (a - b) / (a + b);
-        double n2 = n * n;
-        double n3 = n * n * n;
-
+        double lat0 = LAT0;
         double cosLat = Math.cos(latr);
         double sinLat = Math.sin(latr);
-        double nu = a * F0 / Math.sqrt(1 - e2 * sinLat * sinLat); // transverse radius of curvature
-        //System.out.println("Transverse radius of curvature " + nu);
-        double rho = a * F0 * (1 - e2) / Math.pow(1 - e2 * sinLat * sinLat, 1.5); // meridional radius of curvature
+        double nu = AF0 / Math.sqrt(1 - E2 * sinLat * sinLat); // transverse radius of curvature
+        double rho = AF0E2 / Math.pow(1 - E2 * sinLat * sinLat, 1.5); // meridional radius of curvature
         double eta2 = nu / rho - 1;
 
-        double Ma = (1 + n + (5 / 4) * n2 + (5 / 4) * n3) * (latr - lat0);
-        double Mb = (3 * n + 3 * n * n + (21D / 8D) * n3) * Math.sin(latr - lat0) * Math.cos(latr + lat0);
-        double Mc = ((15D / 8D) * n2 + (15D / 8D) * n3) * Math.sin(2D * (latr - lat0)) * Math.cos(2D * (latr + lat0));
-        double Md = (35D / 24D) * n3 * Math.sin(3 * (latr - lat0)) * Math.cos(3D * (latr + lat0));
-        double M = b * F0 * (Ma - Mb + Mc - Md); // meridional arc
+        double Ma = MA * (latr - lat0);
+        double Mb = MB * Math.sin(latr - lat0) * Math.cos(latr + lat0);
+        double Mc = MC * Math.sin(2D * (latr - lat0)) * Math.cos(2D * (latr + lat0));
+        double Md = MD * Math.sin(3 * (latr - lat0)) * Math.cos(3D * (latr + lat0));
+        double M = BF0 * (Ma - Mb + Mc - Md); // meridional arc
 
         double cos3lat = cosLat * cosLat * cosLat;
         double cos5lat = cos3lat * cosLat * cosLat;
@@ -84,7 +282,7 @@ public class V2D_OSGBtoLatLonDouble {
         double V = (nu / 6D) * cos3lat * (nu / rho - tan2lat);
         double VI = (nu / 120D) * cos5lat * (5 - 18 * tan2lat + tan4lat + 14 * eta2 - 58 * tan2lat * eta2);
 
-        double dLon = lonr - lon0;
+        double dLon = lonr - LON0;
         double dLon2 = dLon * dLon;
         double dLon3 = dLon2 * dLon;
         double dLon4 = dLon3 * dLon;
@@ -93,49 +291,8 @@ public class V2D_OSGBtoLatLonDouble {
 
         double N = I + II * dLon2 + III * dLon4 + IIIA * dLon6;
         double E = E0 + IV * dLon + V * dLon3 + VI * dLon5;
-
-//        System.out.println("latr=" + latr);
-//        System.out.println("lonr=" + lonr);
-//        System.out.println("lat0=" + lat0);
-//        System.out.println("lon0=" + lon0);
-//        System.out.println("e2=" + e2);
-//        System.out.println("n=" + n);
-//        System.out.println("n2=" + n2);
-//        System.out.println("n3=" + n3);
-//        System.out.println("cosLat=" + cosLat);
-//        System.out.println("sinLat=" + sinLat);
-//        System.out.println("nu=" + nu);
-//        System.out.println("rho=" + rho);
-//        System.out.println("eta2=" + eta2);
-//        System.out.println("Ma=" + Ma);
-//        System.out.println("Mb=" + Mb);
-//        System.out.println("Mc=" + Mc);
-//        System.out.println("Md=" + Md);
-//        System.out.println("M=" + M);
-//        System.out.println("cos3lat=" + cos3lat);
-//        System.out.println("cos5lat=" + cos5lat);
-//        System.out.println("tan2lat=" + tan2lat);
-//        System.out.println("tan4lat=" + tan4lat);
-//        System.out.println("I=" + I);
-//        System.out.println("II=" + II);
-//        System.out.println("III=" + III);
-//        System.out.println("IIIA=" + IIIA);
-//        System.out.println("IV=" + IV);
-//        System.out.println("V=" + V);
-//        System.out.println("VI=" + VI);
-//        System.out.println("dLon=" + dLon);
-//        System.out.println("dLon2=" + dLon2);
-//        System.out.println("dLon3=" + dLon3);
-//        System.out.println("dLon4=" + dLon4);
-//        System.out.println("dLon5=" + dLon5);
-//        System.out.println("dLon6=" + dLon6);
-//        System.out.println("N=" + N);
-//        System.out.println("E=" + E);
-        //System.out.println("E " + E + ", N " + N);
-        result[0] = E;
-        result[1] = N;
-        return result;
-        //return new OsGridRef(E, N);
+        e[ei] = E;
+        n[ni] = N;
     }
 
     /**
@@ -165,45 +322,138 @@ public class V2D_OSGBtoLatLonDouble {
     public static double[] osgb2latlon(double easting, double northing,
             boolean verbose) {
         double[] result = new double[2];
-        double a = 6377563.396;
-        double b = 6356256.910;            // Airy 1830 major & minor semi-axes
-        double F0 = 0.9996012717;          // NatGrid scale factor on central meridian
-        double lat0 = Math_AngleDouble.toRadians(49);
-        double lon0 = Math_AngleDouble.toRadians(-2);       // NatGrid true origin is 49ºN,2ºW
-        double N0 = -100000;
-        double E0 = 400000;                // northing & easting of true origin, metres
-        double e2 = 1 - (b * b) / (a * a); // eccentricity squared
-        //System.out.println("e2 " + e2);
-        double n = (a - b) / (a + b);
-        //System.out.println("n " + n);
-        double n2 = n * n;
-        double n3 = n * n * n;
+        osgb2latlon(easting, northing, verbose, result, 0, result, 1);
+        return result;
+    }
+
+    /**
+     * Converts Ordnance Survey easting/northing coordinates to WGS84
+     * latitude/longitude coordinates.
+     *
+     * @param easting The eastings to be converted.
+     * @param northing The northings to be converted.
+     * @param lat The array the latitudes are written to.
+     * @param lon The array the longitudes are written to.
+     * @param execution For deciding whether to convert in parallel.
+     */
+    public static void osgb2latlon(double[] easting, double[] northing,
+            double[] lat, double[] lon, V2D_Execution execution) {
+        V2D_Reprojection_d.check(easting, northing, lat, lon);
+        V2D_Reprojection_d.stream(easting.length, execution).forEach(i
+                -> osgb2latlon(easting[i], northing[i], false, lat, i, lon,
+                        i));
+    }
 
+    /**
+     * Converts Ordnance Survey easting/northing coordinates to WGS84
+     * latitude/longitude coordinates in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points to convert with easting as x and northing as y,
+     * which become longitude and latitude respectively.
+     */
+    public static void osgb2latlon(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        osgb2latlon(x, y, y, x, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Converts a line segment from Ordnance Survey easting/northing to WGS84 latitude/longitude coordinates.
+     *
+     * @param l The line segment to convert with easting as x and northing as
+     * y.
+     * @return A new line segment with longitude as x and latitude as y.
+     */
+    public static V2D_LineSegment_d osgb2latlon(V2D_LineSegment_d l) {
+        return (V2D_LineSegment_d) osgb2latlon(List.of(l), 0d,
+                l.execution()).get(0);
+    }
+
+    /**
+     * Converts a polygon and its internal holes from Ordnance Survey easting/northing to WGS84 latitude/longitude
+     * coordinates. Each distinct vertex is converted once.
+     *
+     * @param p The polygon to convert with easting as x and northing as y.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new polygon.
+     * @return A new polygon with longitude as x and latitude as y.
+     */
+    public static V2D_Polygon_d osgb2latlon(V2D_Polygon_d p, double epsilon) {
+        return (V2D_Polygon_d) osgb2latlon(List.of(p), epsilon,
+                p.execution()).get(0);
+    }
+
+    /**
+     * Converts geometries from Ordnance Survey easting/northing to WGS84 latitude/longitude coordinates. Each distinct
+     * vertex is converted once however many geometries share it, then the
+     * geometries are rebuilt, in parallel if {@code execution} allows.
+     * Rectangles are rebuilt as convex areas.
+     *
+     * @param gs The geometries to convert with easting as x and northing as
+     * y.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new geometries.
+     * @param execution For deciding whether to convert in parallel.
+     * @return New geometries with longitude as x and latitude as y in the same
+     * order as {@code gs}.
+     */
+    public static ArrayList<V2D_FiniteGeometry_d> osgb2latlon(
+            List<? extends V2D_FiniteGeometry_d> gs, double epsilon,
+            V2D_Execution execution) {
+        return V2D_Reprojection_d.apply(gs, (x, y, e)
+                -> osgb2latlon(x, y, y, x, e), epsilon, execution);
+    }
+
+    /**
+     * Converts all the shapes of an environment from Ordnance Survey easting/northing to WGS84 latitude/longitude
+     * coordinates in place and rebuilds the spatial index. Each distinct
+     * vertex is converted once however many shapes share it, and the shapes
+     * are rebuilt in parallel if {@code env.execution} allows.
+     *
+     * @param env The environment with shapes with easting as x and northing
+     * as y, which become longitude and latitude respectively.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new shapes.
+     */
+    public static void osgb2latlon(V2D_Environment_d env, double epsilon) {
+        V2D_Reprojection_d.apply(env, (x, y, e) -> osgb2latlon(x, y, y, x, e),
+                epsilon);
+    }
+
+    /**
+     * Convert Ordnance Survey easting-northing coordinate to a WGS84
+     * latitude-longitude coordinate.
+     *
+     * @param easting The easting to be converted
+     * @param northing The northing to be converted
+     * @param verbose If verbose is true then intermediate calculations are
+     * printed to std.out.
+     * @param la The array the latitude is written to.
+     * @param li The index in {@code la} the latitude is written to.
+     * @param lo The array the longitude is written to.
+     * @param oi The index in {@code lo} the longitude is written to.
+     */
+    private static void osgb2latlon(double easting, double northing,
+            boolean verbose, double[] la, int li, double[] lo, int oi) {
+        double lat0 = LAT0;
         double lat = lat0;
         double M = 0;
         do {
-            lat = (northing - N0 - M) / (a * F0) + lat;
-            //System.out.println("lat " + lat);
-            double Ma = (1 + n + (5 / 4) * n2 + (5 / 4) * n3) * (lat - lat0);
-            //System.out.println("Ma " + Ma);
-            double Mb = (3 * n + 3 * n * n + (21 / 8) * n3) * Math.sin(lat - lat0) * Math.cos(lat + lat0);
-            //System.out.println("Mb " + Mb);
-            double Mc = ((15 / 8) * n2 + (15 / 8) * n3) * Math.sin(2 * (lat - lat0)) * Math.cos(2 * (lat + lat0));
-            //System.out.println("Mc " + Mc);
-            double Md = (35 / 24) * n3 * Math.sin(3 * (lat - lat0)) * Math.cos(3 * (lat + lat0));
-            //System.out.println("Md " + Md);
-            M = b * F0 * (Ma - Mb + Mc - Md);    // meridional arc
-            //System.out.println("M " + M);
-            //break;
-            //System.out.println("northing - N0 - M " + (northing - N0 - M));
-
+            lat = (northing - N0 - M) / AF0 + lat;
+            double Ma = MA * (lat - lat0);
+            double Mb = MBI * Math.sin(lat - lat0) * Math.cos(lat + lat0);
+            double Mc = MCI * Math.sin(2 * (lat - lat0)) * Math.cos(2 * (lat + lat0));
+            double Md = MDI * Math.sin(3 * (lat - lat0)) * Math.cos(3 * (lat + lat0));
+            M = BF0 * (Ma - Mb + Mc - Md);    // meridional arc
         } while (northing - N0 - M >= 0.0001);  // ie until < 0.01mm
 
         double cosLat = Math.cos(lat);
         double sinLat = Math.sin(lat);
         double sin2Lat = sinLat * sinLat;
-        double nu = a * F0 / Math.sqrt(1 - e2 * sin2Lat);                 // transverse radius of curvature
-        double rho = a * F0 * (1 - e2) / Math.pow(1 - e2 * sin2Lat, 1.5); // meridional radius of curvature
+        double nu = AF0 / Math.sqrt(1 - E2 * sin2Lat);                 // transverse radius of curvature
+        double rho = AF0E2 / Math.pow(1 - E2 * sin2Lat, 1.5); // meridional radius of curvature
         double eta2 = nu / rho - 1;
 
         double tanLat = Math.tan(lat);
@@ -229,9 +479,9 @@ public class V2D_OSGBtoLatLonDouble {
         double dE6 = dE4 * dE2;
         double dE7 = dE5 * dE2;
         lat = lat - VII * dE2 + VIII * dE4 - IX * dE6;
-        double lon = lon0 + X * dE - XI * dE3 + XII * dE5 - XIIA * dE7;
-        result[0] = Math_AngleDouble.toDegrees(lat);
-        result[1] = Math_AngleDouble.toDegrees(lon);
+        double lon = LON0 + X * dE - XI * dE3 + XII * dE5 - XIIA * dE7;
+        la[li] = Math_AngleDouble.toDegrees(lat);
+        lo[oi] = Math_AngleDouble.toDegrees(lon);
         if (verbose) {
             System.out.println("lat " + lat);
             System.out.println("cosLat " + cosLat);
@@ -250,7 +500,5 @@ public class V2D_OSGBtoLatLonDouble {
             System.out.println("XII " + XII);
             System.out.println("XIIA " + XIIA);
         }
-        //System.out.println("lat " + lat + ", lon " + lon);
-        return result;
     }
 }
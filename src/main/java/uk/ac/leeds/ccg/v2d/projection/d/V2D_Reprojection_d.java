@@ -0,0 +1,255 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.IntStream;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Area_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_ConvexArea_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_FiniteGeometry_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PolygonNoInternalHoles_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Polygon_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Triangle_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
+
+/**
+ * For reprojecting geometries. The distinct vertices of all the geometries
+ * are gathered into arrays so that each is transformed once however many
+ * geometries share it. The arrays are transformed and then the geometries are
+ * rebuilt from the transformed vertices, in parallel if a
+ * {@link V2D_Execution} allows.
+ *
+ * Rebuilt geometries are of the same type as the originals except for
+ * rectangles, which are rebuilt as convex areas as in general they are no
+ * longer rectangles once reprojected.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+final class V2D_Reprojection_d {
+
+    /**
+     * For transforming coordinates in place.
+     */
+    interface Transform {
+
+        /**
+         * @param x The x coordinates to transform.
+         * @param y The y coordinates to transform.
+         * @param execution For deciding whether to transform in parallel.
+         */
+        void apply(double[] x, double[] y, V2D_Execution execution);
+    }
+
+    /**
+     * For looking up the index of a vertex in {@link #x} and {@link #y}.
+     */
+    private final HashMap<V2D_Vector_d, Integer> ids;
+
+    /**
+     * The x coordinates of the distinct vertices.
+     */
+    private double[] x;
+
+    /**
+     * The y coordinates of the distinct vertices.
+     */
+    private double[] y;
+
+    /**
+     * The number of distinct vertices.
+     */
+    private int n;
+
+    private V2D_Reprojection_d() {
+        ids = new HashMap<>();
+        x = new double[16];
+        y = new double[16];
+    }
+
+    /**
+     * Reprojects geometries.
+     *
+     * @param gs The geometries to reproject.
+     * @param t The transform.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the rebuilt geometries.
+     * @param execution For deciding whether to process in parallel.
+     * @return The reprojected geometries in the same order as {@code gs}.
+     */
+    static ArrayList<V2D_FiniteGeometry_d> apply(
+            List<? extends V2D_FiniteGeometry_d> gs, Transform t,
+            double epsilon, V2D_Execution execution) {
+        V2D_FiniteGeometry_d[] a = gs.toArray(V2D_FiniteGeometry_d[]::new);
+        V2D_Reprojection_d r = new V2D_Reprojection_d();
+        for (V2D_FiniteGeometry_d g : a) {
+            r.add(g);
+        }
+        r.x = Arrays.copyOf(r.x, r.n);
+        r.y = Arrays.copyOf(r.y, r.n);
+        t.apply(r.x, r.y, execution);
+        V2D_FiniteGeometry_d[] result = new V2D_FiniteGeometry_d[a.length];
+        stream(a.length, execution).forEach(i
+                -> result[i] = r.get(a[i], epsilon));
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    /**
+     * Reprojects the shapes of an environment in place and rebuilds the
+     * spatial index. Each rebuilt shape has the id of the shape it replaces.
+     * The shapes are rebuilt without holding the lock on {@code env} as
+     * rebuilding may allocate ids in other threads. A shape removed in the
+     * meantime is not put back.
+     *
+     * @param env The environment.
+     * @param t The transform.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the rebuilt shapes.
+     */
+    static void apply(V2D_Environment_d env, Transform t, double epsilon) {
+        ArrayList<Integer> keys;
+        ArrayList<V2D_Area_d> shapes;
+        synchronized (env) {
+            keys = new ArrayList<>(env.shapes.keySet());
+            shapes = new ArrayList<>(keys.size());
+            for (Integer k : keys) {
+                shapes.add(env.shapes.get(k));
+            }
+        }
+        ArrayList<V2D_FiniteGeometry_d> r = apply(shapes, t, epsilon,
+                env.execution);
+        synchronized (env) {
+            for (int i = 0; i < keys.size(); i++) {
+                if (env.shapes.get(keys.get(i)) == shapes.get(i)) {
+                    env.shapes.put(keys.get(i), (V2D_Area_d) r.get(i));
+                }
+            }
+            env.reindex();
+        }
+    }
+
+    /**
+     * Adds the vertices of {@code g} and of any internal holes it has.
+     *
+     * @param g The geometry.
+     */
+    private void add(V2D_FiniteGeometry_d g) {
+        for (V2D_Point_d p : g.getPointsArray()) {
+            V2D_Vector_d v = p.getVector();
+            if (!ids.containsKey(v)) {
+                if (n == x.length) {
+                    x = Arrays.copyOf(x, n * 2);
+                    y = Arrays.copyOf(y, n * 2);
+                }
+                x[n] = v.dx;
+                y[n] = v.dy;
+                ids.put(v, n);
+                n++;
+            }
+        }
+        if (g instanceof V2D_Polygon_d p && p.internalHoles != null) {
+            for (V2D_PolygonNoInternalHoles_d h : p.internalHoles.values()) {
+                add(h);
+            }
+        }
+    }
+
+    /**
+     * @param g The geometry to rebuild.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal.
+     * @return {@code g} rebuilt from the transformed vertices. An area is
+     * rebuilt with the id of {@code g}.
+     */
+    private V2D_FiniteGeometry_d get(V2D_FiniteGeometry_d g, double epsilon) {
+        V2D_Point_d[] ps = g.getPointsArray();
+        for (int i = 0; i < ps.length; i++) {
+            int j = ids.get(ps[i].getVector());
+            ps[i] = new V2D_Point_d(g.env, x[j], y[j]);
+        }
+        if (g instanceof V2D_Point_d) {
+            return ps[0];
+        } else if (g instanceof V2D_LineSegment_d) {
+            return new V2D_LineSegment_d(ps[0], ps[1]);
+        }
+        int id = ((V2D_Area_d) g).getID();
+        if (g instanceof V2D_Triangle_d) {
+            return new V2D_Triangle_d(ps[0], ps[1], ps[2], id);
+        } else if (g instanceof V2D_Polygon_d p) {
+            HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes
+                    = new HashMap<>();
+            if (p.internalHoles != null) {
+                for (var h : p.internalHoles.entrySet()) {
+                    holes.put(h.getKey(), (V2D_PolygonNoInternalHoles_d)
+                            get(h.getValue(), epsilon));
+                }
+            }
+            return new V2D_Polygon_d(ps, holes, epsilon, id);
+        } else if (g instanceof V2D_PolygonNoInternalHoles_d) {
+            return new V2D_PolygonNoInternalHoles_d(ps, epsilon, id);
+        } else {
+            return new V2D_ConvexArea_d(epsilon, Arrays.asList(ps), id);
+        }
+    }
+
+    /**
+     * @param a The coordinates to convert.
+     * @param b The other coordinates to convert.
+     * @param c The array for the results.
+     * @param d The other array for the results.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    static void check(double[] a, double[] b, double[] c,
+            double[] d) {
+        if (a.length != b.length || a.length != c.length
+                || a.length != d.length) {
+            throw new IllegalArgumentException(
+                    "The arrays are not the same length.");
+        }
+    }
+
+    /**
+     * @param n The number of coordinates.
+     * @param execution For deciding whether to convert in parallel.
+     * @return A stream of the indexes of the coordinates.
+     */
+    static IntStream stream(int n, V2D_Execution execution) {
+        IntStream s = IntStream.range(0, n);
+        if (execution.isParallel(n)) {
+            s = s.parallel();
+        }
+        return s;
+    }
+
+    /**
+     * @param pts The points to set the coordinates of.
+     * @param x The x coordinates.
+     * @param y The y coordinates.
+     */
+    static void set(V2D_PointBuffer_d pts, double[] x, double[] y) {
+        for (int i = 0; i < x.length; i++) {
+            pts.set(i, x[i], y[i]);
+        }
+    }
+}
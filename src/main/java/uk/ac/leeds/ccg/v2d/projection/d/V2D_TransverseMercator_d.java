@@ -0,0 +1,438 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_FiniteGeometry_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+
+/**
+ * An immutable Transverse Mercator projection. The constants that depend only
+ * on the ellipsoid and the projection parameters are calculated once on
+ * construction, so instances should be reused. {@link #OSGB} and the
+ * instances returned by {@link #getUTM(int, boolean)} are shared.
+ *
+ * The series are those in the Ordnance Survey publication "A guide to
+ * coordinate systems in Great Britain", which are accurate to about a
+ * millimetre within a few degrees of the central meridian.
+ *
+ * Latitudes and longitudes are in degrees on the ellipsoid of the projection,
+ * so a datum transformation such as {@link V2D_Helmert_d} may be needed
+ * first. For point buffers and geometries, longitude is x and latitude is y.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public final class V2D_TransverseMercator_d implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The British National Grid on the Airy 1830 ellipsoid. Latitudes and
+     * longitudes are OSGB36.
+     */
+    public static final V2D_TransverseMercator_d OSGB
+            = new V2D_TransverseMercator_d(V2D_Ellipsoid_d.AIRY1830, 49d, -2d,
+                    0.9996012717, 400000d, -100000d);
+
+    /**
+     * The British National Grid projection on the GRS80 ellipsoid. Latitudes
+     * and longitudes are ETRS89. This is used with a grid shift such as
+     * OSTN15 to give OSGB36 National Grid coordinates (see
+     * {@link V2D_GridShift_d}).
+     */
+    public static final V2D_TransverseMercator_d OSGB_GRS80
+            = new V2D_TransverseMercator_d(V2D_Ellipsoid_d.GRS80, 49d, -2d,
+                    0.9996012717, 400000d, -100000d);
+
+    /**
+     * For storing the UTM projections. The first 60 are for the northern
+     * hemisphere zones and the rest for the southern hemisphere zones.
+     */
+    private static final V2D_TransverseMercator_d[] UTM
+            = new V2D_TransverseMercator_d[120];
+
+    static {
+        for (int zone = 1; zone <= 60; zone++) {
+            double lon0 = zone * 6d - 183d;
+            UTM[zone - 1] = new V2D_TransverseMercator_d(
+                    V2D_Ellipsoid_d.WGS84, 0d, lon0, 0.9996, 500000d, 0d);
+            UTM[zone + 59] = new V2D_TransverseMercator_d(
+                    V2D_Ellipsoid_d.WGS84, 0d, lon0, 0.9996, 500000d,
+                    10000000d);
+        }
+    }
+
+    /**
+     * The ellipsoid.
+     */
+    public final V2D_Ellipsoid_d ellipsoid;
+
+    /**
+     * The latitude of the true origin in degrees.
+     */
+    public final double lat0;
+
+    /**
+     * The longitude of the true origin and central meridian in degrees.
+     */
+    public final double lon0;
+
+    /**
+     * The scale factor on the central meridian.
+     */
+    public final double f0;
+
+    /**
+     * The easting of the true origin in metres.
+     */
+    public final double e0;
+
+    /**
+     * The northing of the true origin in metres.
+     */
+    public final double n0;
+
+    /**
+     * {@link #lat0} in radians.
+     */
+    private final double lat0r;
+
+    /**
+     * {@link #lon0} in radians.
+     */
+    private final double lon0r;
+
+    /**
+     * The semi-major axis multiplied by {@link #f0}.
+     */
+    private final double af0;
+
+    /**
+     * The eccentricity squared.
+     */
+    private final double e2;
+
+    /**
+     * The coefficients of the meridional arc multiplied by the semi-minor
+     * axis and {@link #f0}.
+     */
+    private final double ma, mb, mc, md;
+
+    /**
+     * Create a new instance.
+     *
+     * @param ellipsoid What {@link #ellipsoid} is set to.
+     * @param lat0 What {@link #lat0} is set to.
+     * @param lon0 What {@link #lon0} is set to.
+     * @param f0 What {@link #f0} is set to.
+     * @param e0 What {@link #e0} is set to.
+     * @param n0 What {@link #n0} is set to.
+     */
+    public V2D_TransverseMercator_d(V2D_Ellipsoid_d ellipsoid, double lat0,
+            double lon0, double f0, double e0, double n0) {
+        this.ellipsoid = ellipsoid;
+        this.lat0 = lat0;
+        this.lon0 = lon0;
+        this.f0 = f0;
+        this.e0 = e0;
+        this.n0 = n0;
+        lat0r = Math.toRadians(lat0);
+        lon0r = Math.toRadians(lon0);
+        af0 = ellipsoid.a * f0;
+        e2 = ellipsoid.e2;
+        double n = ellipsoid.n;
+        double n2 = n * n;
+        double n3 = n2 * n;
+        double bf0 = ellipsoid.b * f0;
+        ma = bf0 * (1d + n + 5d / 4d * n2 + 5d / 4d * n3);
+        mb = bf0 * (3d * n + 3d * n2 + 21d / 8d * n3);
+        mc = bf0 * (15d / 8d * n2 + 15d / 8d * n3);
+        md = bf0 * (35d / 24d * n3);
+    }
+
+    /**
+     * @param zone The UTM zone from 1 to 60.
+     * @param north {@code true} for the northern hemisphere.
+     * @return The shared projection for the UTM zone on the WGS84 ellipsoid.
+     * @throws IllegalArgumentException If {@code zone} is not from 1 to 60.
+     */
+    public static V2D_TransverseMercator_d getUTM(int zone, boolean north) {
+        if (zone < 1 || zone > 60) {
+            throw new IllegalArgumentException("The zone must be from 1 to "
+                    + "60.");
+        }
+        return UTM[north ? zone - 1 : zone + 59];
+    }
+
+    /**
+     * @param lat The latitude in radians.
+     * @return The meridional arc from {@link #lat0} to {@code lat}.
+     */
+    private double getM(double lat) {
+        double d = lat - lat0r;
+        double s = lat + lat0r;
+        return ma * d - mb * Math.sin(d) * Math.cos(s)
+                + mc * Math.sin(2d * d) * Math.cos(2d * s)
+                - md * Math.sin(3d * d) * Math.cos(3d * s);
+    }
+
+    /**
+     * Projects a latitude/longitude coordinate.
+     *
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @return double[2] r: where r[0] is easting, r[1] is northing.
+     */
+    public double[] latlon2grid(double lat, double lon) {
+        double[] r = new double[2];
+        latlon2grid(lat, lon, r, 0, r, 1);
+        return r;
+    }
+
+    /**
+     * Projects latitude/longitude coordinates.
+     *
+     * @param lat The latitudes.
+     * @param lon The longitudes.
+     * @param easting The array the eastings are written to.
+     * @param northing The array the northings are written to.
+     * @param execution For deciding whether to project in parallel.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    public void latlon2grid(double[] lat, double[] lon, double[] easting,
+            double[] northing, V2D_Execution execution) {
+        V2D_Reprojection_d.check(lat, lon, easting, northing);
+        V2D_Reprojection_d.stream(lat.length, execution).forEach(i
+                -> latlon2grid(lat[i], lon[i], easting, i, northing, i));
+    }
+
+    /**
+     * Projects the points of a buffer in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points with longitude as x and latitude as y, which
+     * become easting and northing respectively.
+     */
+    public void latlon2grid(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        latlon2grid(y, x, x, y, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Projects geometries. Each distinct vertex is projected once however
+     * many geometries share it, then the geometries are rebuilt, in parallel
+     * if {@code execution} allows. Rectangles are rebuilt as convex areas.
+     *
+     * @param gs The geometries with longitude as x and latitude as y.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new geometries.
+     * @param execution For deciding whether to project in parallel.
+     * @return New geometries with easting as x and northing as y in the same
+     * order as {@code gs}.
+     */
+    public ArrayList<V2D_FiniteGeometry_d> latlon2grid(
+            List<? extends V2D_FiniteGeometry_d> gs, double epsilon,
+            V2D_Execution execution) {
+        return V2D_Reprojection_d.apply(gs, (x, y, e)
+                -> latlon2grid(y, x, x, y, e), epsilon, execution);
+    }
+
+    /**
+     * Projects all the shapes of an environment in place and rebuilds the
+     * spatial index.
+     *
+     * @param env The environment with shapes with longitude as x and
+     * latitude as y, which become easting and northing respectively.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new shapes.
+     */
+    public void latlon2grid(V2D_Environment_d env, double epsilon) {
+        V2D_Reprojection_d.apply(env, (x, y, e) -> latlon2grid(y, x, x, y, e),
+                epsilon);
+    }
+
+    /**
+     * Projects a latitude/longitude coordinate.
+     *
+     * @param lat The latitude.
+     * @param lon The longitude.
+     * @param e The array the easting is written to.
+     * @param ei The index in {@code e} the easting is written to.
+     * @param n The array the northing is written to.
+     * @param ni The index in {@code n} the northing is written to.
+     */
+    private void latlon2grid(double lat, double lon, double[] e, int ei,
+            double[] n, int ni) {
+        double latr = Math.toRadians(lat);
+        double sinLat = Math.sin(latr);
+        double cosLat = Math.cos(latr);
+        double tanLat = sinLat / cosLat;
+        double s = 1d - e2 * sinLat * sinLat;
+        double nu = af0 / Math.sqrt(s);
+        double rho = af0 * (1d - e2) / (s * Math.sqrt(s));
+        double eta2 = nu / rho - 1d;
+        double tan2 = tanLat * tanLat;
+        double tan4 = tan2 * tan2;
+        double cos3 = cosLat * cosLat * cosLat;
+        double cos5 = cos3 * cosLat * cosLat;
+        double i = getM(latr) + n0;
+        double ii = nu / 2d * sinLat * cosLat;
+        double iii = nu / 24d * sinLat * cos3 * (5d - tan2 + 9d * eta2);
+        double iiia = nu / 720d * sinLat * cos5 * (61d - 58d * tan2 + tan4);
+        double iv = nu * cosLat;
+        double v = nu / 6d * cos3 * (nu / rho - tan2);
+        double vi = nu / 120d * cos5 * (5d - 18d * tan2 + tan4 + 14d * eta2
+                - 58d * tan2 * eta2);
+        double dl = Math.toRadians(lon) - lon0r;
+        double dl2 = dl * dl;
+        n[ni] = i + dl2 * (ii + dl2 * (iii + dl2 * iiia));
+        e[ei] = e0 + dl * (iv + dl2 * (v + dl2 * vi));
+    }
+
+    /**
+     * Unprojects a grid coordinate.
+     *
+     * @param easting The easting.
+     * @param northing The northing.
+     * @return double[2] r: where r[0] is latitude, r[1] is longitude.
+     */
+    public double[] grid2latlon(double easting, double northing) {
+        double[] r = new double[2];
+        grid2latlon(easting, northing, r, 0, r, 1);
+        return r;
+    }
+
+    /**
+     * Unprojects grid coordinates.
+     *
+     * @param easting The eastings.
+     * @param northing The northings.
+     * @param lat The array the latitudes are written to.
+     * @param lon The array the longitudes are written to.
+     * @param execution For deciding whether to unproject in parallel.
+     * @throws IllegalArgumentException If the arrays are not the same length.
+     */
+    public void grid2latlon(double[] easting, double[] northing, double[] lat,
+            double[] lon, V2D_Execution execution) {
+        V2D_Reprojection_d.check(easting, northing, lat, lon);
+        V2D_Reprojection_d.stream(easting.length, execution).forEach(i
+                -> grid2latlon(easting[i], northing[i], lat, i, lon, i));
+    }
+
+    /**
+     * Unprojects the points of a buffer in place, in parallel if
+     * {@code pts.execution()} allows.
+     *
+     * @param pts The points with easting as x and northing as y, which
+     * become longitude and latitude respectively.
+     */
+    public void grid2latlon(V2D_PointBuffer_d pts) {
+        double[] x = pts.getXs();
+        double[] y = pts.getYs();
+        grid2latlon(x, y, y, x, pts.execution());
+        V2D_Reprojection_d.set(pts, x, y);
+    }
+
+    /**
+     * Unprojects geometries. Each distinct vertex is unprojected once however
+     * many geometries share it, then the geometries are rebuilt, in parallel
+     * if {@code execution} allows. Rectangles are rebuilt as convex areas.
+     *
+     * @param gs The geometries with easting as x and northing as y.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new geometries.
+     * @param execution For deciding whether to unproject in parallel.
+     * @return New geometries with longitude as x and latitude as y in the
+     * same order as {@code gs}.
+     */
+    public ArrayList<V2D_FiniteGeometry_d> grid2latlon(
+            List<? extends V2D_FiniteGeometry_d> gs, double epsilon,
+            V2D_Execution execution) {
+        return V2D_Reprojection_d.apply(gs, (x, y, e)
+                -> grid2latlon(x, y, y, x, e), epsilon, execution);
+    }
+
+    /**
+     * Unprojects all the shapes of an environment in place and rebuilds the
+     * spatial index.
+     *
+     * @param env The environment with shapes with easting as x and northing
+     * as y, which become longitude and latitude respectively.
+     * @param epsilon The tolerance within which two vectors are regarded as
+     * equal in the new shapes.
+     */
+    public void grid2latlon(V2D_Environment_d env, double epsilon) {
+        V2D_Reprojection_d.apply(env, (x, y, e) -> grid2latlon(x, y, y, x, e),
+                epsilon);
+    }
+
+    /**
+     * Unprojects a grid coordinate.
+     *
+     * @param easting The easting.
+     * @param northing The northing.
+     * @param la The array the latitude is written to.
+     * @param li The index in {@code la} the latitude is written to.
+     * @param lo The array the longitude is written to.
+     * @param oi The index in {@code lo} the longitude is written to.
+     */
+    private void grid2latlon(double easting, double northing, double[] la,
+            int li, double[] lo, int oi) {
+        double dn = northing - n0;
+        double lat = dn / af0 + lat0r;
+        double m = getM(lat);
+        for (int k = 0; k < 100 && Math.abs(dn - m) >= 0.00001; k++) {
+            lat += (dn - m) / af0;
+            m = getM(lat);
+        }
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double tanLat = sinLat / cosLat;
+        double s = 1d - e2 * sinLat * sinLat;
+        double nu = af0 / Math.sqrt(s);
+        double rho = af0 * (1d - e2) / (s * Math.sqrt(s));
+        double eta2 = nu / rho - 1d;
+        double tan2 = tanLat * tanLat;
+        double tan4 = tan2 * tan2;
+        double tan6 = tan4 * tan2;
+        double secLat = 1d / cosLat;
+        double nu3 = nu * nu * nu;
+        double nu5 = nu3 * nu * nu;
+        double nu7 = nu5 * nu * nu;
+        double vii = tanLat / (2d * rho * nu);
+        double viii = tanLat / (24d * rho * nu3) * (5d + 3d * tan2 + eta2
+                - 9d * tan2 * eta2);
+        double ix = tanLat / (720d * rho * nu5) * (61d + 90d * tan2
+                + 45d * tan4);
+        double x = secLat / nu;
+        double xi = secLat / (6d * nu3) * (nu / rho + 2d * tan2);
+        double xii = secLat / (120d * nu5) * (5d + 28d * tan2 + 24d * tan4);
+        double xiia = secLat / (5040d * nu7) * (61d + 662d * tan2
+                + 1320d * tan4 + 720d * tan6);
+        double de = easting - e0;
+        double de2 = de * de;
+        la[li] = Math.toDegrees(lat - de2 * (vii - de2 * (viii - de2 * ix)));
+        lo[oi] = Math.toDegrees(lon0r + de * (x - de2 * (xi - de2 * (xii
+                - de2 * xiia))));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core.d.test;
+
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PolygonNoInternalHoles_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Polygon_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Rectangle_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Triangle_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
+
+/**
+ * Test class for V2D_Environment_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Environment_dTest {
+
+    public V2D_Environment_dTest() {
+    }
+
+    /**
+     * Test of getContainingIds method, of class V2D_Environment_d.
+     */
+    @Test
+    public void testGetContainingIds() {
+        System.out.println("getContainingIds");
+        double epsilon = 0.00000001;
+        V2D_Environment_d env = new V2D_Environment_d(epsilon);
+        // An L shape
+        int l = env.add(new V2D_PolygonNoInternalHoles_d(new V2D_Point_d[]{
+            new V2D_Point_d(env, 0, 0), new V2D_Point_d(env, 0, 2),
+            new V2D_Point_d(env, 1, 2), new V2D_Point_d(env, 1, 1),
+            new V2D_Point_d(env, 2, 1), new V2D_Point_d(env, 2, 0)},
+                epsilon));
+        // A triangle in the notch of the L and overlapping it
+        int t = env.add(new V2D_Triangle_d(env, new V2D_Vector_d(0.5, 0.5),
+                new V2D_Vector_d(0.5, 3), new V2D_Vector_d(3, 0.5)));
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(
+                new V2D_Point_d(env, 0.25, 0.25),
+                new V2D_Point_d(env, 0.75, 0.75),
+                new V2D_Point_d(env, 1.25, 1.25),
+                new V2D_Point_d(env, 0, 1),
+                new V2D_Point_d(env, 1.75, 1.75),
+                new V2D_Point_d(env, 5, 5));
+        int[] expected = new int[]{l, Math.min(l, t), t, -1, -1, -1};
+        assertArrayEquals(expected, env.getContainingIds(pts, epsilon));
+        // Many points
+        int n = 10000;
+        pts = new V2D_PointBuffer_d(env);
+        for (int i = 0; i < n; i++) {
+            pts.add(0.25, 0.25);
+        }
+        int[] r = env.getContainingIds(pts, epsilon);
+        for (int i = 0; i < n; i++) {
+            assertEquals(l, r[i]);
+        }
+    }
+
+    /**
+     * Test of getContainingIds method, of class V2D_Environment_d, for a
+     * polygon with a hole and a rectangle.
+     */
+    @Test
+    public void testGetContainingIds_Shapes() {
+        System.out.println("getContainingIds_Shapes");
+        double epsilon = 0.00000001;
+        V2D_Environment_d env = new V2D_Environment_d(epsilon);
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, new V2D_PolygonNoInternalHoles_d(new V2D_Point_d[]{
+            new V2D_Point_d(env, 1, 1), new V2D_Point_d(env, 1, 2),
+            new V2D_Point_d(env, 2, 2), new V2D_Point_d(env, 2, 1)},
+                epsilon));
+        int p = env.add(new V2D_Polygon_d(new V2D_PolygonNoInternalHoles_d(
+                new V2D_Point_d[]{new V2D_Point_d(env, 0, 0),
+                    new V2D_Point_d(env, 0, 4), new V2D_Point_d(env, 4, 4),
+                    new V2D_Point_d(env, 4, 0)}, epsilon), holes, epsilon));
+        int r = env.add(new V2D_Rectangle_d(new V2D_Point_d(env, 10, 0),
+                new V2D_Point_d(env, 10, 2), new V2D_Point_d(env, 12, 2),
+                new V2D_Point_d(env, 12, 0)));
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(
+                new V2D_Point_d(env, 3, 3),
+                new V2D_Point_d(env, 1.5, 1.5),
+                new V2D_Point_d(env, 11, 1),
+                new V2D_Point_d(env, 10, 1),
+                new V2D_Point_d(env, 20, 20));
+        int[] expected = new int[]{p, -1, r, -1, -1};
+        assertArrayEquals(expected, env.getContainingIds(pts, epsilon));
+    }
+}
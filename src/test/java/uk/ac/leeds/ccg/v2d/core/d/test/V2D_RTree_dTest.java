@@ -0,0 +1,150 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core.d.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_RTree_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_AABB_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Area_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Triangle_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
+
+/**
+ * Test class for V2D_RTree_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_RTree_dTest {
+
+    public V2D_RTree_dTest() {
+    }
+
+    /**
+     * Adds a grid of n by n unit triangles to env.
+     *
+     * @param env The environment.
+     * @param n The number of rows and columns.
+     */
+    private static void addGrid(V2D_Environment_d env, int n) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                env.add(new V2D_Triangle_d(env, new V2D_Vector_d(i, j),
+                        new V2D_Vector_d(i + 1, j),
+                        new V2D_Vector_d(i, j + 1)));
+            }
+        }
+    }
+
+    /**
+     * @param env The environment.
+     * @param w The window.
+     * @return The sorted ids of shapes with envelopes intersecting w found by
+     * brute force.
+     */
+    private static ArrayList<Integer> scan(V2D_Environment_d env,
+            V2D_AABB_d w) {
+        ArrayList<Integer> r = new ArrayList<>();
+        env.shapes.forEach((id, s) -> {
+            if (s.getAABB().intersects(w)) {
+                r.add(id);
+            }
+        });
+        Collections.sort(r);
+        return r;
+    }
+
+    /**
+     * @param ids The ids to sort.
+     * @return ids sorted.
+     */
+    private static ArrayList<Integer> sort(ArrayList<Integer> ids) {
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Test of query method, of class V2D_RTree_d.
+     */
+    @Test
+    public void testQuery() {
+        System.out.println("query");
+        V2D_Environment_d env = new V2D_Environment_d(0.00000001);
+        addGrid(env, 20);
+        assertEquals(400, env.index.size());
+        V2D_AABB_d w = new V2D_AABB_d(env, 2.5d, 5.5d, 3.5d, 4.5d);
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+        // Test 2 window outside
+        w = new V2D_AABB_d(env, 30d, 31d, 30d, 31d);
+        assertTrue(env.getIds(w).isEmpty());
+        // Test 3 bulk load
+        env.reindex();
+        assertEquals(400, env.index.size());
+        w = new V2D_AABB_d(env, -1d, 7.25d, 11.5d, 12d);
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+        // Test 4 point
+        ArrayList<Integer> ids = env.getIds(new V2D_Point_d(env, 0.5d, 0.5d));
+        assertEquals(1, ids.size());
+        V2D_Area_d s = env.shapes.get(ids.get(0));
+        assertTrue(s.getAABB().intersects(0.5d, 0.5d));
+    }
+
+    /**
+     * Test of remove method, of class V2D_RTree_d.
+     */
+    @Test
+    public void testRemove() {
+        System.out.println("remove");
+        V2D_Environment_d env = new V2D_Environment_d(0.00000001);
+        addGrid(env, 15);
+        for (int id = 0; id < 225; id += 2) {
+            env.remove(id);
+        }
+        assertEquals(env.shapes.size(), env.index.size());
+        V2D_AABB_d w = new V2D_AABB_d(env, 0d, 15d, 0d, 15d);
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+        w = new V2D_AABB_d(env, 3.5d, 9d, 2d, 2.5d);
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+        V2D_RTree_d instance = new V2D_RTree_d();
+        assertFalse(instance.remove(0));
+    }
+
+    /**
+     * Test of getNearest method, of class V2D_RTree_d.
+     */
+    @Test
+    public void testGetNearest() {
+        System.out.println("getNearest");
+        V2D_Environment_d env = new V2D_Environment_d(0.00000001);
+        assertNull(env.getNearestId(new V2D_Point_d(env, 0d, 0d)));
+        addGrid(env, 10);
+        Integer id = env.getNearestId(new V2D_Point_d(env, 100d, 100d));
+        V2D_AABB_d aabb = env.shapes.get(id).getAABB();
+        assertEquals(10d, aabb.getXMax());
+        assertEquals(10d, aabb.getYMax());
+        ArrayList<Integer> ids = env.index.getNearest(-5d, 0.5d, 3);
+        assertEquals(3, ids.size());
+        assertEquals(0d, env.shapes.get(ids.get(0)).getAABB().getXMin());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core.test;
+
+import java.util.ArrayList;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+
+/**
+ * Test class for V2D_Execution.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_ExecutionTest {
+
+    public V2D_ExecutionTest() {
+    }
+
+    /**
+     * Test of isParallel method, of class V2D_Execution.
+     */
+    @Test
+    public void testIsParallel() {
+        System.out.println("isParallel");
+        V2D_Execution instance = new V2D_Execution();
+        assertFalse(instance.isParallel(3));
+        assertTrue(instance.isParallel(V2D_Execution.DEFAULT_THRESHOLD));
+        instance = new V2D_Execution(false, 0);
+        assertFalse(instance.isParallel(1000000));
+        instance = new V2D_Execution(true, 4);
+        assertFalse(instance.isParallel(3));
+        assertTrue(instance.isParallel(4));
+    }
+
+    /**
+     * Test of stream method, of class V2D_Execution.
+     */
+    @Test
+    public void testStream() {
+        System.out.println("stream");
+        V2D_Execution instance = new V2D_Execution(true, 4);
+        ArrayList<Integer> c = new ArrayList<>();
+        c.add(1);
+        c.add(2);
+        c.add(3);
+        assertFalse(instance.stream(c).isParallel());
+        assertEquals(6, instance.stream(c).mapToInt(x -> x).sum());
+        c.add(4);
+        assertTrue(instance.stream(c).isParallel());
+        assertEquals(10, instance.stream(c).mapToInt(x -> x).sum());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core.test;
+
+import java.math.RoundingMode;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.core.V2D_Metrics;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Orientation;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Triangle;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Triangle_d;
+
+/**
+ * Test class for V2D_Metrics.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_MetricsTest {
+
+    public V2D_MetricsTest() {
+    }
+
+    /**
+     * Test of stop method, of class V2D_Metrics.
+     */
+    @Test
+    public void testStop() {
+        System.out.println("stop");
+        V2D_Metrics instance = new V2D_Metrics();
+        long time = instance.start();
+        assertEquals(V2D_Metrics.DISABLED, time);
+        assertTrue(instance.stop(V2D_Metrics.class, V2D_Metrics.INTERSECTS,
+                time, true));
+        assertFalse(instance.aabb(false));
+        instance.orientation(true);
+        V2D_Metrics.Snapshot s = instance.getSnapshot();
+        assertFalse(s.getOperations().iterator().hasNext());
+        assertEquals(0L, s.aabbTests);
+        assertEquals(0L, s.orientationTests);
+        instance.enabled = true;
+        for (int i = 0; i < 3; i++) {
+            time = instance.start();
+            instance.stop(V2D_Metrics.class, V2D_Metrics.CONTAINS, time);
+        }
+        assertTrue(instance.aabb(true));
+        assertFalse(instance.aabb(false));
+        instance.orientation(true);
+        instance.orientation(false);
+        instance.orientation(false);
+        instance.orientation(false);
+        s = instance.getSnapshot();
+        assertEquals(3L, s.getCalls("V2D_Metrics.contains"));
+        assertTrue(s.getNanos("V2D_Metrics.contains") >= 0L);
+        assertEquals(0L, s.getCalls("V2D_Metrics.intersects"));
+        assertEquals(0.5d, s.getAABBRejectionRate());
+        assertEquals(0.25d, s.getExactFallbackRate());
+        instance.reset();
+        s = instance.getSnapshot();
+        assertEquals(0L, s.getCalls("V2D_Metrics.contains"));
+        assertEquals(0d, s.getAABBRejectionRate());
+    }
+
+    /**
+     * Test of getSnapshot method, of class V2D_Metrics, for metrics recorded
+     * by geometry operations.
+     */
+    @Test
+    public void testGetSnapshot() {
+        System.out.println("getSnapshot");
+        // Double precision
+        V2D_Environment_d envd = new V2D_Environment_d(1d / 10000000d);
+        V2D_Triangle_d td = new V2D_Triangle_d(
+                new V2D_Point_d(envd, 0, 0), new V2D_Point_d(envd, 0, 2),
+                new V2D_Point_d(envd, 2, 0));
+        V2D_Point_d pd = new V2D_Point_d(envd, 0.5, 0.5);
+        td.intersects(pd, envd.epsilon);
+        assertFalse(envd.metrics.getSnapshot().getOperations().iterator()
+                .hasNext());
+        envd.metrics.enabled = true;
+        assertTrue(td.intersects(pd, envd.epsilon));
+        assertFalse(td.intersects(new V2D_Point_d(envd, 5, 5), envd.epsilon));
+        assertTrue(td.contains(pd, envd.epsilon));
+        assertEquals(Math.sqrt(0.5d), pd.getDistance(
+                new V2D_Point_d(envd, 0, 0)));
+        V2D_Metrics.Snapshot s = envd.metrics.getSnapshot();
+        assertEquals(3L, s.getCalls("V2D_Triangle_d.intersects"));
+        assertEquals(1L, s.getCalls("V2D_Triangle_d.contains"));
+        assertEquals(1L, s.getCalls("V2D_Point_d.getDistance"));
+        assertEquals(3L, s.aabbTests);
+        assertEquals(1L, s.aabbRejections);
+        // Exact
+        V2D_Environment env = new V2D_Environment(-3, RoundingMode.HALF_UP);
+        env.metrics.enabled = true;
+        V2D_Point a = new V2D_Point(env, 0, 0);
+        V2D_Point b = new V2D_Point(env, 2, 0);
+        V2D_Point c = new V2D_Point(env, 0, 2);
+        V2D_Triangle t = new V2D_Triangle(a, b, c, env.oom, env.rm);
+        assertTrue(t.intersects(new V2D_Point(env, 1, 1), env.oom, env.rm));
+        assertEquals(1, V2D_Orientation.getOrientation(a, b, c, env.oom,
+                env.rm));
+        assertEquals(0, V2D_Orientation.getOrientation(a, b,
+                new V2D_Point(env, 1, 0), env.oom, env.rm));
+        s = env.metrics.getSnapshot();
+        assertEquals(1L, s.getCalls("V2D_Triangle.intersects"));
+        assertTrue(s.orientationTests >= 2L);
+        assertTrue(s.exactFallbacks >= 1L);
+        assertTrue(s.toString().contains("V2D_Triangle.intersects"));
+    }
+
+    /**
+     * Test of NONE, of class V2D_Metrics, and of the metrics of geometries
+     * without an environment.
+     */
+    @Test
+    public void testNone() {
+        System.out.println("NONE");
+        V2D_Metrics instance = V2D_Metrics.NONE;
+        instance.enabled = true;
+        try {
+            long time = instance.start();
+            assertEquals(V2D_Metrics.DISABLED, time);
+            assertTrue(instance.stop(V2D_Metrics.class,
+                    V2D_Metrics.INTERSECTS, time, true));
+            assertFalse(instance.aabb(false));
+            instance.orientation(true);
+            V2D_Metrics.Snapshot s = instance.getSnapshot();
+            assertFalse(s.getOperations().iterator().hasNext());
+            assertEquals(0L, s.aabbTests);
+            assertEquals(0L, s.orientationTests);
+        } finally {
+            instance.enabled = false;
+        }
+        // Double precision
+        V2D_Point_d pd = new V2D_Point_d(null, 0.5, 0.5);
+        assertTrue(pd.metrics() == V2D_Metrics.NONE);
+        assertEquals(Math.sqrt(0.5d), pd.getDistance(
+                new V2D_Point_d(null, 0, 0)));
+        V2D_LineSegment_d l = new V2D_LineSegment_d(
+                new V2D_Point_d(null, 0, 0), new V2D_Point_d(null, 2, 2));
+        V2D_LineSegment_d l2 = new V2D_LineSegment_d(
+                new V2D_Point_d(null, 0, 2), new V2D_Point_d(null, 2, 0));
+        assertTrue(l.getIntersect(0d, l2) instanceof V2D_Point_d);
+        // Exact
+        V2D_Point a = new V2D_Point(null, 0, 0);
+        V2D_Point b = new V2D_Point(null, 2, 0);
+        V2D_Point c = new V2D_Point(null, 0, 2);
+        assertTrue(a.metrics() == V2D_Metrics.NONE);
+        assertEquals(1, V2D_Orientation.getOrientation(a, b, c, -3,
+                RoundingMode.HALF_UP));
+    }
+}
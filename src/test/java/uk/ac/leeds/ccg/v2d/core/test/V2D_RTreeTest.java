@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.core.test;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.core.V2D_Environment;
+import uk.ac.leeds.ccg.v2d.core.V2D_RTree;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_AABB;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Triangle;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Vector;
+
+/**
+ * Test class for V2D_RTree.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_RTreeTest {
+
+    public V2D_RTreeTest() {
+    }
+
+    /**
+     * @param n The numerator.
+     * @return n/3
+     */
+    private static BigRational third(int n) {
+        return BigRational.valueOf(n).divide(3);
+    }
+
+    /**
+     * @param d A finite double.
+     * @return The exact binary value of d.
+     */
+    private static BigRational exact(double d) {
+        return BigRational.valueOf(new BigDecimal(d));
+    }
+
+    /**
+     * Adds a grid of n by n triangles with sides of length one third to env.
+     *
+     * @param env The environment.
+     * @param n The number of rows and columns.
+     */
+    private static void addGrid(V2D_Environment env, int n) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                env.add(new V2D_Triangle(env,
+                        new V2D_Vector(third(i), third(j)),
+                        new V2D_Vector(third(i + 1), third(j)),
+                        new V2D_Vector(third(i), third(j + 1))));
+            }
+        }
+    }
+
+    /**
+     * @param env The environment.
+     * @param w The window.
+     * @return The sorted ids of shapes with envelopes intersecting w found by
+     * brute force.
+     */
+    private static ArrayList<Integer> scan(V2D_Environment env, V2D_AABB w) {
+        ArrayList<Integer> r = new ArrayList<>();
+        env.shapes.forEach((id, s) -> {
+            if (s.getAABB(env.oom, env.rm).intersects(w, env.oom)) {
+                r.add(id);
+            }
+        });
+        Collections.sort(r);
+        return r;
+    }
+
+    /**
+     * @param ids The ids to sort.
+     * @return ids sorted.
+     */
+    private static ArrayList<Integer> sort(ArrayList<Integer> ids) {
+        Collections.sort(ids);
+        return ids;
+    }
+
+    /**
+     * Test of floor and ceiling methods, of class V2D_RTree.
+     */
+    @Test
+    public void testFloorCeiling() {
+        System.out.println("floor");
+        BigRational x = third(1);
+        double f = V2D_RTree.floor(x);
+        double c = V2D_RTree.ceiling(x);
+        assertTrue(exact(f).compareTo(x) == -1);
+        assertTrue(exact(c).compareTo(x) == 1);
+        assertEquals(Math.nextUp(f), c);
+        x = BigRational.valueOf(5, 4);
+        assertEquals(1.25d, V2D_RTree.floor(x));
+        assertEquals(1.25d, V2D_RTree.ceiling(x));
+        // Test 3 the double 0.1 is slightly more than one tenth.
+        x = BigRational.valueOf(1, 10);
+        assertEquals(Math.nextDown(0.1d), V2D_RTree.floor(x));
+        assertEquals(0.1d, V2D_RTree.ceiling(x));
+        // Test 4 beyond the range of double.
+        x = exact(Double.MAX_VALUE).multiply(2);
+        assertEquals(Double.MAX_VALUE, V2D_RTree.floor(x));
+        assertEquals(Double.POSITIVE_INFINITY, V2D_RTree.ceiling(x));
+        assertEquals(Double.NEGATIVE_INFINITY, V2D_RTree.floor(x.negate()));
+        assertEquals(-Double.MAX_VALUE, V2D_RTree.ceiling(x.negate()));
+    }
+
+    /**
+     * Test of query method, of class V2D_RTree.
+     */
+    @Test
+    public void testQuery() {
+        System.out.println("query");
+        V2D_Environment env = new V2D_Environment(-6, RoundingMode.HALF_UP);
+        addGrid(env, 12);
+        assertEquals(144, env.index.size());
+        // Window touching envelopes exactly on a third.
+        V2D_AABB w = new V2D_AABB(env, env.oom, third(4), third(5),
+                third(2), third(2));
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+        // Test 2 after bulk load.
+        env.reindex();
+        w = new V2D_AABB(env, env.oom, third(-1), third(7),
+                BigRational.valueOf(1, 2), BigRational.valueOf(3, 2));
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+        // Test 3 point.
+        ArrayList<Integer> ids = env.getIds(new V2D_Point(env,
+                BigRational.valueOf(1, 6), BigRational.valueOf(1, 6)));
+        assertEquals(1, ids.size());
+        // Test 4 remove.
+        for (int id = 0; id < 144; id += 3) {
+            env.remove(id);
+        }
+        assertEquals(env.shapes.size(), env.index.size());
+        assertEquals(scan(env, w), sort(env.getIds(w)));
+    }
+}
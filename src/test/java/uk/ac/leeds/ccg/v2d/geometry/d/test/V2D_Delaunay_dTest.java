@@ -0,0 +1,204 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d.test;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_AABB_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_ConvexArea_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Delaunay_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+
+/**
+ * Test class for V2D_Delaunay_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Delaunay_dTest extends V2D_Test_d {
+
+    double epsilon = 1d / 10000000d;
+
+    public V2D_Delaunay_dTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return The points.
+     */
+    private static V2D_Point_d[] getPoints(double... xy) {
+        V2D_Point_d[] pts = new V2D_Point_d[xy.length / 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point_d(env, xy[2 * i], xy[2 * i + 1]);
+        }
+        return pts;
+    }
+
+    /**
+     * Test of getTriangles method, of class V2D_Delaunay_d.
+     */
+    @Test
+    public void testGetTriangles() {
+        System.out.println("getTriangles");
+        // A square with a point in the middle
+        V2D_Delaunay_d instance = new V2D_Delaunay_d(
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2));
+        assertEquals(12, instance.getTriangles().length);
+        assertEquals(4, instance.getHull().length);
+        // Duplicates are not triangulated
+        instance = new V2D_Delaunay_d(
+                getPoints(0, 0, 4, 0, 0, 0, 4, 4, 0, 4, 4, 4));
+        assertEquals(6, instance.getTriangles().length);
+        assertEquals(4, instance.getHull().length);
+        // Collinear
+        instance = new V2D_Delaunay_d(getPoints(0, 0, 2, 2, 1, 1));
+        assertEquals(0, instance.getTriangles().length);
+        assertArrayEquals(new int[]{0, 2, 1}, instance.getHull());
+        // Random points
+        Random r = new Random(0);
+        double[] xy = new double[2000];
+        for (int i = 0; i < xy.length; i++) {
+            xy[i] = r.nextDouble() * 100d;
+        }
+        int[] t = V2D_Delaunay_d.getTriangles(xy);
+        instance = new V2D_Delaunay_d(env, xy);
+        assertEquals(2 * 1000 - 2 - instance.getHull().length, t.length / 3);
+        for (int i = 0; i < t.length; i += 3) {
+            double ax = xy[2 * t[i]];
+            double ay = xy[2 * t[i] + 1];
+            double bx = xy[2 * t[i + 1]];
+            double by = xy[2 * t[i + 1] + 1];
+            double cx = xy[2 * t[i + 2]];
+            double cy = xy[2 * t[i + 2] + 1];
+            // Counter-clockwise
+            assertTrue((bx - ax) * (cy - ay) - (by - ay) * (cx - ax) > 0d);
+            // No point is inside the circumcircle.
+            double d = 2d * (ax * (by - cy) + bx * (cy - ay) + cx * (ay - by));
+            double ux = ((ax * ax + ay * ay) * (by - cy)
+                    + (bx * bx + by * by) * (cy - ay)
+                    + (cx * cx + cy * cy) * (ay - by)) / d;
+            double uy = ((ax * ax + ay * ay) * (cx - bx)
+                    + (bx * bx + by * by) * (ax - cx)
+                    + (cx * cx + cy * cy) * (bx - ax)) / d;
+            double r2 = (ax - ux) * (ax - ux) + (ay - uy) * (ay - uy);
+            for (int j = 0; j < xy.length; j += 2) {
+                double d2 = (xy[j] - ux) * (xy[j] - ux)
+                        + (xy[j + 1] - uy) * (xy[j + 1] - uy);
+                assertTrue(d2 >= r2 - epsilon);
+            }
+        }
+    }
+
+    /**
+     * Test of getHalfedges method, of class V2D_Delaunay_d.
+     */
+    @Test
+    public void testGetHalfedges() {
+        System.out.println("getHalfedges");
+        V2D_Delaunay_d instance = new V2D_Delaunay_d(
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2));
+        int[] t = instance.getTriangles();
+        int[] h = instance.getHalfedges();
+        int hull = 0;
+        for (int e = 0; e < h.length; e++) {
+            if (h[e] == -1) {
+                hull++;
+            } else {
+                assertEquals(e, h[h[e]]);
+                assertEquals(t[e], t[h[e] % 3 == 2 ? h[e] - 2 : h[e] + 1]);
+            }
+        }
+        assertEquals(4, hull);
+    }
+
+    /**
+     * Test of getNeighbours method, of class V2D_Delaunay_d.
+     */
+    @Test
+    public void testGetNeighbours() {
+        System.out.println("getNeighbours");
+        V2D_Delaunay_d instance = new V2D_Delaunay_d(
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2, 0, 0));
+        assertEquals(4, instance.getNeighbours(4).length);
+        assertEquals(3, instance.getNeighbours(0).length);
+        assertNull(instance.getNeighbours(5));
+        instance = new V2D_Delaunay_d(getPoints(0, 0, 2, 2, 1, 1));
+        assertEquals(2, instance.getNeighbours(2).length);
+        assertEquals(1, instance.getNeighbours(1).length);
+    }
+
+    /**
+     * Test of getVoronoiCell method, of class V2D_Delaunay_d.
+     */
+    @Test
+    public void testGetVoronoiCell() {
+        System.out.println("getVoronoiCell");
+        V2D_Delaunay_d instance = new V2D_Delaunay_d(
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2));
+        double[] c = instance.getVoronoiCell(4, 0, 0, 4, 4);
+        assertEquals(8, c.length);
+        assertEquals(8d, getArea(c), epsilon);
+        c = instance.getVoronoiCell(0, 0, 0, 4, 4);
+        assertEquals(6, c.length);
+        assertEquals(2d, getArea(c), epsilon);
+        // Clipped away
+        assertEquals(0, instance.getVoronoiCell(0, 3, 3, 4, 4).length);
+        V2D_AABB_d bounds = new V2D_AABB_d(env, 0, 4, 0, 4);
+        V2D_ConvexArea_d ca = instance.getVoronoiCell(4, bounds, epsilon);
+        assertEquals(8d, ca.getArea(), epsilon);
+    }
+
+    /**
+     * Test of getVoronoiCells method, of class V2D_Delaunay_d.
+     */
+    @Test
+    public void testGetVoronoiCells() {
+        System.out.println("getVoronoiCells");
+        Random r = new Random(0);
+        V2D_Point_d[] pts = new V2D_Point_d[500];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point_d(env, r.nextDouble() * 10d,
+                    r.nextDouble() * 10d);
+        }
+        V2D_Delaunay_d instance = new V2D_Delaunay_d(pts);
+        V2D_AABB_d bounds = new V2D_AABB_d(env, 0, 10, 0, 10);
+        V2D_ConvexArea_d[] cells = instance.getVoronoiCells(bounds, epsilon);
+        double sum = 0d;
+        for (int i = 0; i < cells.length; i++) {
+            sum += cells[i].getArea();
+            assertTrue(cells[i].intersects(pts[i], epsilon));
+        }
+        assertEquals(100d, sum, 0.0001d);
+    }
+
+    /**
+     * @param c Interleaved coordinates of a polygon.
+     * @return The area.
+     */
+    private static double getArea(double[] c) {
+        double a = 0d;
+        for (int i = 0; i < c.length; i += 2) {
+            int j = (i + 2) % c.length;
+            a += c[i] * c[j + 1] - c[j] * c[i + 1];
+        }
+        return Math.abs(a) / 2d;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d.test;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Kernels_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
+
+/**
+ * Test class for V2D_Kernels_d. The arrays are not a multiple of any vector
+ * length and the first few elements are not used, so both the SIMD and
+ * scalar parts of the calculations are tested if SIMD is available.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Kernels_dTest extends V2D_Test_d {
+
+    /**
+     * The number of elements.
+     */
+    private static final int N = 37;
+
+    /**
+     * The index of the first element used.
+     */
+    private static final int FROM = 3;
+
+    public V2D_Kernels_dTest() {
+        super();
+    }
+
+    /**
+     * @param seed The seed.
+     * @return N random values in the range [-100, 100).
+     */
+    private static double[] getRandom(long seed) {
+        Random r = new Random(seed);
+        double[] a = new double[N];
+        for (int i = 0; i < N; i++) {
+            a[i] = r.nextDouble() * 200d - 100d;
+        }
+        return a;
+    }
+
+    /**
+     * Test of translate method, of class V2D_Kernels_d.
+     */
+    @Test
+    public void testTranslate() {
+        System.out.println("translate");
+        double[] x = getRandom(0);
+        double[] y = getRandom(1);
+        double[] x0 = x.clone();
+        double[] y0 = y.clone();
+        V2D_Kernels_d.translate(x, y, FROM, N, 1.5d, -2d);
+        for (int i = 0; i < N; i++) {
+            if (i < FROM) {
+                assertEquals(x0[i], x[i]);
+                assertEquals(y0[i], y[i]);
+            } else {
+                assertEquals(x0[i] + 1.5d, x[i]);
+                assertEquals(y0[i] - 2d, y[i]);
+            }
+        }
+    }
+
+    /**
+     * Test of rotate method, of class V2D_Kernels_d.
+     */
+    @Test
+    public void testRotate() {
+        System.out.println("rotate");
+        double[] x = getRandom(0);
+        double[] y = getRandom(1);
+        double[] x0 = x.clone();
+        double[] y0 = y.clone();
+        double theta = Math.PI / 5d;
+        V2D_Kernels_d.rotate(x, y, FROM, N, 1d, 2d, theta);
+        V2D_Point_d pt = new V2D_Point_d(env, 1d, 2d);
+        for (int i = FROM; i < N; i++) {
+            V2D_Point_d e = new V2D_Point_d(env, x0[i], y0[i]).rotate(pt,
+                    theta);
+            assertEquals(e.getX(), x[i], 1e-12);
+            assertEquals(e.getY(), y[i], 1e-12);
+        }
+    }
+
+    /**
+     * Test of getDotProducts method, of class V2D_Kernels_d.
+     */
+    @Test
+    public void testGetDotProducts() {
+        System.out.println("getDotProducts");
+        double[] ax = getRandom(0);
+        double[] ay = getRandom(1);
+        double[] bx = getRandom(2);
+        double[] by = getRandom(3);
+        double[] r = new double[N];
+        V2D_Kernels_d.getDotProducts(ax, ay, bx, by, FROM, N, r);
+        for (int i = 0; i < N; i++) {
+            double e = i < FROM ? 0d : new V2D_Vector_d(ax[i], ay[i])
+                    .getDotProduct(new V2D_Vector_d(bx[i], by[i]));
+            assertEquals(e, r[i]);
+        }
+    }
+
+    /**
+     * Test of getDeterminants method, of class V2D_Kernels_d.
+     */
+    @Test
+    public void testGetDeterminants() {
+        System.out.println("getDeterminants");
+        double[] ax = getRandom(0);
+        double[] ay = getRandom(1);
+        double[] bx = getRandom(2);
+        double[] by = getRandom(3);
+        double[] r = new double[N];
+        V2D_Kernels_d.getDeterminants(ax, ay, bx, by, FROM, N, r);
+        for (int i = FROM; i < N; i++) {
+            assertEquals(new V2D_Vector_d(ax[i], ay[i]).getDeterminant(
+                    new V2D_Vector_d(bx[i], by[i])), r[i]);
+        }
+    }
+
+    /**
+     * Test of getDistances method, of class V2D_Kernels_d.
+     */
+    @Test
+    public void testGetDistances() {
+        System.out.println("getDistances");
+        double[] x = getRandom(0);
+        double[] y = getRandom(1);
+        x[FROM] = 0d;
+        y[FROM] = 0d;
+        double[] r = new double[N];
+        V2D_Kernels_d.getDistances(x, y, FROM, N, 3d, -4d, r);
+        V2D_Point_d pt = new V2D_Point_d(env, 3d, -4d);
+        for (int i = FROM; i < N; i++) {
+            assertEquals(new V2D_Point_d(env, x[i], y[i]).getDistance(pt),
+                    r[i], 1e-12);
+        }
+        assertEquals(5d, r[FROM]);
+    }
+
+    /**
+     * Test of getOrientations method, of class V2D_Kernels_d.
+     */
+    @Test
+    public void testGetOrientations() {
+        System.out.println("getOrientations");
+        double[] x = getRandom(0);
+        double[] y = getRandom(1);
+        // Some points on the line y = x
+        for (int i = FROM; i < N; i += 4) {
+            y[i] = x[i];
+        }
+        int[] r = new int[N];
+        V2D_Kernels_d.getOrientations(x, y, FROM, N, 0d, 0d, 1d, 1d, 1e-9,
+                r);
+        for (int i = FROM; i < N; i++) {
+            int e = y[i] > x[i] ? 1 : y[i] < x[i] ? -1 : 0;
+            assertEquals(e, r[i]);
+        }
+    }
+}
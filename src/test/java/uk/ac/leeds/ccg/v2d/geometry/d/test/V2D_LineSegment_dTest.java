@@ -15,6 +15,8 @@
  */
 package uk.ac.leeds.ccg.v2d.geometry.d.test;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,6 +28,7 @@ import uk.ac.leeds.ccg.v2d.geometry.d.V2D_AABB_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Geometry_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Line_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegmentSweep_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
 import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
 
@@ -109,6 +112,27 @@ public class V2D_LineSegment_dTest extends V2D_Test_d {
         assertTrue(instance.intersects(p, epsilon));
     }
 
+    /**
+     * Test of intersects method for collections, of class V2D_LineSegment_d,
+     * for geometries without an environment.
+     */
+    @Test
+    public void testIntersects_Collection() {
+        System.out.println("intersects");
+        V2D_Point_d o = new V2D_Point_d(null, 0, 0);
+        V2D_LineSegment_d l = new V2D_LineSegment_d(o,
+                new V2D_Point_d(null, 2, 2));
+        List<V2D_LineSegment_d> ls = List.of(
+                new V2D_LineSegment_d(new V2D_Point_d(null, 0, 2),
+                        new V2D_Point_d(null, 2, 0)),
+                new V2D_LineSegment_d(new V2D_Point_d(null, 3, 0),
+                        new V2D_Point_d(null, 4, 0)));
+        assertTrue(V2D_LineSegment_d.intersects(0d, l, ls));
+        assertFalse(V2D_LineSegment_d.intersects(0d, l, ls.subList(1, 2)));
+        assertTrue(V2D_LineSegment_d.intersects(0d, o, List.of(l)));
+        assertFalse(V2D_LineSegment_d.intersects(0d, o, ls));
+    }
+
     /**
      * Test of equals method, of class V2D_LineSegment_d.
      */
@@ -508,4 +532,98 @@ public class V2D_LineSegment_dTest extends V2D_Test_d {
         result = l0.getLineOfIntersect(l1, epsilon);
         assertTrue(expResult.equalsIgnoreDirection(epsilon, result));
     }
+
+    /**
+     * Test of getIntersections method, of class V2D_LineSegment_d.
+     */
+    @Test
+    public void testGetIntersections() {
+        System.out.println("getIntersections");
+        double epsilon = 1d / 1000000d;
+        double[][] xy = {{0, 0, 4, 4}, {0, 4, 4, 0}, {2, 0, 2, 4},
+            {1, 0, 3, 0}, {2, 0, 5, 0}, {10, 10, 11, 11}};
+        List<V2D_LineSegment_d> ls = new ArrayList<>();
+        for (double[] c : xy) {
+            ls.add(new V2D_LineSegment_d(new V2D_Point_d(env, c[0], c[1]),
+                    new V2D_Point_d(env, c[2], c[3])));
+        }
+        ArrayList<V2D_LineSegmentSweep_d.Intersection> result
+                = V2D_LineSegment_d.getIntersections(epsilon, ls);
+        int[][] expResult = {{0, 1}, {0, 2}, {1, 2}, {1, 4}, {2, 3}, {2, 4},
+            {3, 4}};
+        assertEquals(expResult.length, result.size());
+        for (int k = 0; k < expResult.length; k++) {
+            V2D_LineSegmentSweep_d.Intersection x = result.get(k);
+            assertEquals(expResult[k][0], x.i);
+            assertEquals(expResult[k][1], x.j);
+            assertTrue(ls.get(x.i).intersects(ls.get(x.j), epsilon));
+        }
+        // The triple point
+        assertTrue(((V2D_Point_d) result.get(0).g).equals(
+                new V2D_Point_d(env, 2, 2), epsilon));
+        // The collinear overlap
+        assertTrue(((V2D_LineSegment_d) result.get(6).g).equalsIgnoreDirection(
+                epsilon, new V2D_LineSegment_d(new V2D_Point_d(env, 2, 0),
+                        new V2D_Point_d(env, 3, 0))));
+        // None
+        assertTrue(V2D_LineSegment_d.getIntersections(epsilon,
+                List.of(ls.get(0), ls.get(5))).isEmpty());
+    }
+
+    /**
+     * Test of getIntersections method, of class V2D_LineSegment_d, for line
+     * segments crossing collinear line segments at a point that is rounded.
+     */
+    @Test
+    public void testGetIntersections_Collinear() {
+        System.out.println("getIntersections_Collinear");
+        double epsilon = 0d;
+        double[][] xy = {{2, 0, 6, 7}, {5, 3, 2, 1}, {5, 0, 3, 2},
+            {5, 0, 1, 4}};
+        List<V2D_LineSegment_d> ls = new ArrayList<>();
+        for (double[] c : xy) {
+            ls.add(new V2D_LineSegment_d(new V2D_Point_d(env, c[0], c[1]),
+                    new V2D_Point_d(env, c[2], c[3])));
+        }
+        ArrayList<V2D_LineSegmentSweep_d.Intersection> result
+                = V2D_LineSegment_d.getIntersections(epsilon, ls);
+        int[][] expResult = {{0, 1}, {0, 2}, {0, 3}, {1, 2}, {1, 3}, {2, 3}};
+        assertEquals(expResult.length, result.size());
+        for (int k = 0; k < expResult.length; k++) {
+            V2D_LineSegmentSweep_d.Intersection x = result.get(k);
+            assertEquals(expResult[k][0], x.i);
+            assertEquals(expResult[k][1], x.j);
+            assertTrue(ls.get(x.i).intersects(ls.get(x.j), epsilon));
+        }
+    }
+
+    /**
+     * Test of getIntersections method, of class V2D_LineSegment_d, for line
+     * segments that all pass close to a point, so the rounded points where
+     * they intersect are in a different order on each of them.
+     */
+    @Test
+    public void testGetIntersections_Concurrent() {
+        System.out.println("getIntersections_Concurrent");
+        double epsilon = 0d;
+        int n = 24;
+        List<V2D_LineSegment_d> ls = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            double a = Math.PI * i / n + 0.1d;
+            double r0 = 0.2d + 0.3d * i / n;
+            double r1 = 0.5d - 0.3d * i / n;
+            ls.add(new V2D_LineSegment_d(
+                    new V2D_Point_d(env, 0.1d - r0 * Math.cos(a),
+                            0.7d - r0 * Math.sin(a)),
+                    new V2D_Point_d(env, 0.1d + r1 * Math.cos(a),
+                            0.7d + r1 * Math.sin(a))));
+        }
+        ArrayList<V2D_LineSegmentSweep_d.Intersection> result
+                = V2D_LineSegment_d.getIntersections(epsilon, ls);
+        assertFalse(result.isEmpty());
+        for (V2D_LineSegmentSweep_d.Intersection x : result) {
+            assertTrue(x.i < x.j);
+            assertTrue(ls.get(x.i).intersects(ls.get(x.j), epsilon));
+        }
+    }
 }
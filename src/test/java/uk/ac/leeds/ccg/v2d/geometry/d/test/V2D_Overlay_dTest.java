@@ -0,0 +1,310 @@
+/*
+ * Copyright 2020 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Overlay_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PolygonNoInternalHoles_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Polygon_d;
+
+/**
+ * Test class for V2D_Overlay_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Overlay_dTest extends V2D_Test_d {
+
+    double epsilon = 1d / 10000000d;
+
+    public V2D_Overlay_dTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return A polygon with the points.
+     */
+    private static V2D_PolygonNoInternalHoles_d getPolygon(double... xy) {
+        V2D_Point_d[] pts = new V2D_Point_d[xy.length / 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point_d(env, xy[2 * i], xy[2 * i + 1]);
+        }
+        return new V2D_PolygonNoInternalHoles_d(pts, 0d);
+    }
+
+    /**
+     * @param x0 Minimum x.
+     * @param y0 Minimum y.
+     * @param x1 Maximum x.
+     * @param y1 Maximum y.
+     * @return A square polygon with points in clockwise order.
+     */
+    private static V2D_PolygonNoInternalHoles_d getBox(double x0, double y0,
+            double x1, double y1) {
+        return getPolygon(x0, y0, x0, y1, x1, y1, x1, y0);
+    }
+
+    /**
+     * @param p A polygon.
+     * @return The area of the polygon calculated from the points.
+     */
+    private static double getArea(V2D_PolygonNoInternalHoles_d p) {
+        HashMap<Integer, V2D_Point_d> pts = p.getPoints();
+        double a = 0d;
+        for (int i = 0; i < pts.size(); i++) {
+            V2D_Point_d q = pts.get(i);
+            V2D_Point_d r = pts.get((i + 1) % pts.size());
+            a += q.getX() * r.getY() - r.getX() * q.getY();
+        }
+        a = Math.abs(a / 2d);
+        if (p instanceof V2D_Polygon_d pih) {
+            for (var h : pih.internalHoles.values()) {
+                a -= getArea(h);
+            }
+        }
+        return a;
+    }
+
+    /**
+     * @param ps Polygons.
+     * @return The total area.
+     */
+    private static double getArea(ArrayList<V2D_Polygon_d> ps) {
+        double a = 0d;
+        for (var p : ps) {
+            a += getArea(p);
+        }
+        return a;
+    }
+
+    /**
+     * @param rings Clockwise exterior rings and counter-clockwise holes.
+     * @return The total area.
+     */
+    private static double getRingArea(List<V2D_Overlay_d.Ring> rings) {
+        double a = 0d;
+        for (var r : rings) {
+            int n = r.xy.length / 2;
+            for (int i = 0; i < n; i++) {
+                int j = (i + 1) % n;
+                a -= r.xy[2 * i] * r.xy[2 * j + 1]
+                        - r.xy[2 * j] * r.xy[2 * i + 1];
+            }
+        }
+        return a / 2d;
+    }
+
+    /**
+     * Test of getIntersection method, of class V2D_Overlay_d.
+     */
+    @Test
+    public void testGetIntersection() {
+        System.out.println("getIntersection");
+        V2D_PolygonNoInternalHoles_d a = getBox(0d, 0d, 2d, 2d);
+        V2D_PolygonNoInternalHoles_d b = getBox(1d, 1d, 3d, 3d);
+        ArrayList<V2D_Polygon_d> result = V2D_Overlay_d.getIntersection(a, b,
+                epsilon);
+        assertEquals(1, result.size());
+        assertEquals(4, result.get(0).getPoints().size());
+        assertEquals(1d, getArea(result), epsilon);
+        assertTrue(result.get(0).getAABB().getXMin() == 1d);
+        assertTrue(result.get(0).getAABB().getYMax() == 2d);
+        // Disjoint
+        b = getBox(5d, 5d, 6d, 6d);
+        assertTrue(V2D_Overlay_d.getIntersection(a, b, epsilon).isEmpty());
+        // Touching along an edge
+        b = getBox(2d, 0d, 3d, 2d);
+        assertEquals(0d, getArea(V2D_Overlay_d.getIntersection(a, b,
+                epsilon)), epsilon);
+        // Concave with a triangle giving two parts
+        a = getPolygon(0d, 0d, 0d, 3d, 1d, 3d, 1d, 1d, 2d, 1d, 2d, 3d, 3d, 3d,
+                3d, 0d);
+        b = getBox(-1d, 2d, 4d, 4d);
+        result = a.getIntersection(b, epsilon);
+        assertEquals(2, result.size());
+        assertEquals(2d, getArea(result), epsilon);
+    }
+
+    /**
+     * Test of getUnion method, of class V2D_Overlay_d.
+     */
+    @Test
+    public void testGetUnion() {
+        System.out.println("getUnion");
+        V2D_PolygonNoInternalHoles_d a = getBox(0d, 0d, 2d, 2d);
+        V2D_PolygonNoInternalHoles_d b = getBox(1d, 1d, 3d, 3d);
+        ArrayList<V2D_Polygon_d> result = a.getUnion(b, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(8, result.get(0).getPoints().size());
+        assertEquals(7d, getArea(result), epsilon);
+        // Disjoint
+        b = getBox(5d, 5d, 6d, 6d);
+        result = a.getUnion(b, epsilon);
+        assertEquals(2, result.size());
+        assertEquals(5d, getArea(result), epsilon);
+        // Sharing an edge dissolves the edge
+        b = getBox(2d, 0d, 3d, 2d);
+        result = a.getUnion(b, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(4, result.get(0).getPoints().size());
+        assertEquals(6d, getArea(result), epsilon);
+        // A ring of four boxes enclosing a hole
+        ArrayList<V2D_PolygonNoInternalHoles_d> ps = new ArrayList<>();
+        ps.add(getBox(0d, 0d, 3d, 1d));
+        ps.add(getBox(0d, 2d, 3d, 3d));
+        ps.add(getBox(0d, 1d, 1d, 2d));
+        ps.add(getBox(2d, 1d, 3d, 2d));
+        result = V2D_Overlay_d.getUnion(ps, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).internalHoles.size());
+        assertEquals(8d, getArea(result), epsilon);
+    }
+
+    /**
+     * Test of getDifference method, of class V2D_Overlay_d.
+     */
+    @Test
+    public void testGetDifference() {
+        System.out.println("getDifference");
+        V2D_PolygonNoInternalHoles_d a = getBox(0d, 0d, 2d, 2d);
+        V2D_PolygonNoInternalHoles_d b = getBox(1d, 1d, 3d, 3d);
+        ArrayList<V2D_Polygon_d> result = a.getDifference(b, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(6, result.get(0).getPoints().size());
+        assertEquals(3d, getArea(result), epsilon);
+        // Hole
+        b = getBox(0.5d, 0.5d, 1.5d, 1.5d);
+        result = a.getDifference(b, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).internalHoles.size());
+        assertEquals(3d, getArea(result), epsilon);
+        // The difference of a polygon with a hole
+        V2D_Polygon_d c = result.get(0);
+        b = getBox(1d, -1d, 3d, 3d);
+        result = c.getDifference(b, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(1.5d, getArea(result), epsilon);
+        // Intersection of a polygon with a hole
+        result = c.getIntersection(b, epsilon);
+        assertEquals(1, result.size());
+        assertEquals(1.5d, getArea(result), epsilon);
+        // Removing everything
+        b = getBox(-1d, -1d, 3d, 3d);
+        assertTrue(a.getDifference(b, epsilon).isEmpty());
+    }
+
+    /**
+     * Test of getXor method, of class V2D_Overlay_d.
+     */
+    @Test
+    public void testGetXor() {
+        System.out.println("getXor");
+        V2D_PolygonNoInternalHoles_d a = getBox(0d, 0d, 2d, 2d);
+        V2D_PolygonNoInternalHoles_d b = getBox(1d, 1d, 3d, 3d);
+        ArrayList<V2D_Polygon_d> result = a.getXor(b, epsilon);
+        assertEquals(2, result.size());
+        assertEquals(6d, getArea(result), epsilon);
+        // Triangles crossing
+        a = getPolygon(0d, 0d, 2d, 4d, 4d, 0d);
+        b = getPolygon(0d, 3d, 4d, 3d, 2d, -1d);
+        result = V2D_Overlay_d.apply(List.of(a), List.of(b),
+                V2D_Overlay_d.Operation.INTERSECTION, epsilon);
+        double i = getArea(result);
+        result = a.getXor(b, epsilon);
+        assertEquals(8d + 8d - 2d * i, getArea(result), epsilon);
+    }
+
+    /**
+     * Test of apply method, of class V2D_Overlay_d, for polygons with points
+     * on the edges of the other and collinear edges using exact predicates.
+     */
+    @Test
+    public void testApply_Degenerate() {
+        System.out.println("apply");
+        V2D_PolygonNoInternalHoles_d a = getPolygon(4d, 0d, 2d, 1d, 3d, 2d,
+                1d, 1d, 0d, 2d, -2d, -1d, -1d, -2d, -1d, -4d, 5d, 0d);
+        V2D_PolygonNoInternalHoles_d b = getPolygon(5d, 1d, 3d, 1d, -1d, 2d,
+                0d, -1d, -3d, 0d, 1d, -3d);
+        double i = getArea(a.getIntersection(b, 0d));
+        assertEquals(13.15227d, i, 0.00001d);
+        ArrayList<V2D_Polygon_d> result = a.getUnion(b, 0d);
+        assertEquals(1, result.size());
+        assertEquals(21.34773d, getArea(result), 0.00001d);
+        assertEquals(18.5d + 16d - i, getArea(result), epsilon);
+        result = a.getDifference(b, 0d);
+        assertEquals(5.34773d, getArea(result), 0.00001d);
+        assertEquals(18.5d - i, getArea(result), epsilon);
+        result = a.getXor(b, 0d);
+        assertEquals(18.5d + 16d - 2d * i, getArea(result), epsilon);
+        // Test 2 an edge of b is split before it overlaps an edge of a.
+        a = getPolygon(-2d, -2d, 0d, -2d, 1d, -1d, 2d, -1d, 1d, 0d, 2d, 1d,
+                1d, 2d, 0d, 2d, -2d, 1d);
+        b = getPolygon(-1d, -2d, 2d, -1d, -1d, 2d, -2d, 0d);
+        i = getArea(a.getIntersection(b, 0d));
+        assertEquals(91d / 12d, i, epsilon);
+        result = a.getUnion(b, 0d);
+        assertEquals(1, result.size());
+        assertEquals(12d + 8d - i, getArea(result), epsilon);
+        assertEquals(12d - i, getArea(a.getDifference(b, 0d)), epsilon);
+        assertEquals(12d + 8d - 2d * i, getArea(a.getXor(b, 0d)), epsilon);
+    }
+
+    /**
+     * Test of apply method, of class V2D_Overlay_d, for polygons with
+     * crossing points that are not exactly representable and edges that are
+     * collinear but not exactly so using exact predicates.
+     */
+    @Test
+    public void testApply_Inexact() {
+        System.out.println("apply");
+        V2D_PolygonNoInternalHoles_d a = getPolygon(0.1d, 0.3d, 0.5d, 0.9d,
+                0.7d, 0.2d);
+        V2D_PolygonNoInternalHoles_d b = getPolygon(0.2d, 0.1d, 0.3d, 0.7d,
+                0.9d, 0.5d);
+        double aa = getArea(a);
+        double ab = getArea(b);
+        double i = getArea(a.getIntersection(b, 0d));
+        assertTrue(i > 0d);
+        assertEquals(aa + ab - i, getArea(a.getUnion(b, 0d)), epsilon);
+        assertEquals(aa - i, getArea(a.getDifference(b, 0d)), epsilon);
+        assertEquals(aa + ab - 2d * i, getArea(a.getXor(b, 0d)), epsilon);
+        // Test 2 edges on the lines y = x - 0.9 and y = x + 0.3.
+        List<double[]> c = List.of(new double[]{1.2d, 0.3d, 0.6d, -0.3d, 0d,
+            -0.1d, -0.5d, 0.3d, 0.2d, 0.4d, 0.8d, 1.2d});
+        List<double[]> d = List.of(new double[]{1.3d, 0.4d, 0.7d, -0.2d,
+            -0.1d, -0.4d, -0.4d, 0.4d, -0.1d, 1.2d, 0.9d, 1.2d});
+        aa = getRingArea(V2D_Overlay_d.apply(c, List.of(),
+                V2D_Overlay_d.Operation.UNION, 0d));
+        ab = getRingArea(V2D_Overlay_d.apply(d, List.of(),
+                V2D_Overlay_d.Operation.UNION, 0d));
+        i = getRingArea(V2D_Overlay_d.apply(c, d,
+                V2D_Overlay_d.Operation.INTERSECTION, 0d));
+        assertTrue(i > 0d);
+        assertEquals(aa + ab - i, getRingArea(V2D_Overlay_d.apply(c, d,
+                V2D_Overlay_d.Operation.UNION, 0d)), epsilon);
+        assertEquals(aa - i, getRingArea(V2D_Overlay_d.apply(c, d,
+                V2D_Overlay_d.Operation.DIFFERENCE, 0d)), epsilon);
+        assertEquals(aa + ab - 2d * i, getRingArea(V2D_Overlay_d.apply(c, d,
+                V2D_Overlay_d.Operation.XOR, 0d)), epsilon);
+    }
+}
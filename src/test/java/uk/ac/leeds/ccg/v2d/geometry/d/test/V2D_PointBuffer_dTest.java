@@ -0,0 +1,216 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d.test;
+
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_AABB_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+
+/**
+ * Test class for V2D_PointBuffer_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PointBuffer_dTest extends V2D_Test_d {
+
+    public V2D_PointBuffer_dTest() {
+        super();
+    }
+
+    /**
+     * Test of add method, of class V2D_PointBuffer_d.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        for (boolean offHeap : new boolean[]{false, true}) {
+            V2D_PointBuffer_d instance = new V2D_PointBuffer_d(env, 1, offHeap);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, instance.add(i, -i));
+            }
+            assertEquals(100, instance.size());
+            assertEquals(99d, instance.getX(99));
+            assertEquals(-99d, instance.getY(99));
+            assertTrue(instance.getPoint(5).equals(
+                    new V2D_Point_d(env, 5d, -5d)));
+        }
+        // Test 2 off heap capacity overflow.
+        V2D_PointBuffer_d instance = new V2D_PointBuffer_d(env, 1, true);
+        assertThrows(IllegalArgumentException.class, () -> instance
+                .ensureCapacity(V2D_PointBuffer_d.MAX_OFF_HEAP_CAPACITY + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new V2D_PointBuffer_d(env,
+                        V2D_PointBuffer_d.MAX_OFF_HEAP_CAPACITY + 1, true));
+    }
+
+    /**
+     * Test of the constructor of class V2D_PointBuffer_d with no points.
+     */
+    @Test
+    public void testConstructor_Empty() {
+        System.out.println("V2D_PointBuffer_d");
+        V2D_PointBuffer_d instance = new V2D_PointBuffer_d();
+        assertEquals(0, instance.size());
+        assertNull(instance.env);
+        assertEquals(0, instance.add(1d, 2d));
+        assertEquals(1, instance.size());
+        assertEquals(2d, instance.getY(0));
+        V2D_PointBuffer_d ring = new V2D_PointBuffer_d(pN2N2, pP2N2, pP2P2,
+                pN2P2);
+        assertTrue(instance.intersects(ring, 0d).get(0));
+    }
+
+    /**
+     * Test of translate and rotate methods, of class V2D_PointBuffer_d.
+     */
+    @Test
+    public void testTranslateRotate() {
+        System.out.println("translate");
+        V2D_PointBuffer_d instance = new V2D_PointBuffer_d(pP1P0, pP0P1,
+                pN1N1);
+        instance.translate(P1P1);
+        assertEquals(2d, instance.getX(0));
+        assertEquals(1d, instance.getY(0));
+        assertEquals(0d, instance.getX(2));
+        System.out.println("rotate");
+        double theta = Math.PI / 3d;
+        instance = new V2D_PointBuffer_d(pP1P0, pP0P1, pN1N1);
+        instance.rotate(pP1P1, theta);
+        V2D_Point_d[] pts = new V2D_Point_d[]{pP1P0, pP0P1, pN1N1};
+        for (int i = 0; i < pts.length; i++) {
+            V2D_Point_d e = pts[i].rotate(pP1P1, theta);
+            assertEquals(e.getX(), instance.getX(i), 1e-12);
+            assertEquals(e.getY(), instance.getY(i), 1e-12);
+        }
+        // More than one block
+        for (boolean offHeap : new boolean[]{false, true}) {
+            V2D_PointBuffer_d b = getRandom(offHeap);
+            double[] xs = b.getXs();
+            double[] ys = b.getYs();
+            b.translate(1d, -1d);
+            b.rotate(pP1P1, theta);
+            for (int i = 0; i < xs.length; i++) {
+                V2D_Point_d e = new V2D_Point_d(env, xs[i] + 1d, ys[i] - 1d)
+                        .rotate(pP1P1, theta);
+                assertEquals(e.getX(), b.getX(i), 1e-12);
+                assertEquals(e.getY(), b.getY(i), 1e-12);
+            }
+        }
+    }
+
+    /**
+     * @param offHeap Whether the buffer is off the heap.
+     * @return A buffer of random points with more than one block.
+     */
+    private static V2D_PointBuffer_d getRandom(boolean offHeap) {
+        Random r = new Random(0);
+        int n = V2D_PointBuffer_d.BLOCK * 2 + 3;
+        V2D_PointBuffer_d b = new V2D_PointBuffer_d(env, n, offHeap);
+        for (int i = 0; i < n; i++) {
+            b.add(r.nextDouble() * 20d - 10d, r.nextDouble() * 20d - 10d);
+        }
+        return b;
+    }
+
+    /**
+     * Test of getDistances method, of class V2D_PointBuffer_d.
+     */
+    @Test
+    public void testGetDistances() {
+        System.out.println("getDistances");
+        for (boolean offHeap : new boolean[]{false, true}) {
+            V2D_PointBuffer_d b = getRandom(offHeap);
+            double[] r = b.getDistances(pP1P1);
+            assertEquals(b.size(), r.length);
+            for (int i = 0; i < r.length; i++) {
+                assertEquals(b.getPoint(i).getDistance(pP1P1), r[i], 1e-12);
+            }
+        }
+    }
+
+    /**
+     * Test of getOrientations method, of class V2D_PointBuffer_d.
+     */
+    @Test
+    public void testGetOrientations() {
+        System.out.println("getOrientations");
+        for (boolean offHeap : new boolean[]{false, true}) {
+            V2D_PointBuffer_d b = getRandom(offHeap);
+            b.set(1, 2d, 2d);
+            int[] r = b.getOrientations(pP0P0, pP1P1, 0d);
+            assertEquals(0, r[1]);
+            for (int i = 0; i < r.length; i++) {
+                double x = b.getX(i);
+                double y = b.getY(i);
+                assertEquals(y > x ? 1 : y < x ? -1 : 0, r[i]);
+            }
+        }
+    }
+
+    /**
+     * Test of getAABB and getCentroid methods, of class V2D_PointBuffer_d.
+     */
+    @Test
+    public void testGetAABB() {
+        System.out.println("getAABB");
+        V2D_PointBuffer_d instance = new V2D_PointBuffer_d(pP2P0, pN1P1,
+                pP0N2);
+        V2D_AABB_d aabb = instance.getAABB();
+        assertEquals(-1d, aabb.getXMin());
+        assertEquals(2d, aabb.getXMax());
+        assertEquals(-2d, aabb.getYMin());
+        assertEquals(1d, aabb.getYMax());
+        System.out.println("getCentroid");
+        V2D_Point_d c = instance.getCentroid();
+        assertEquals(1d / 3d, c.getX(), 1e-15);
+        assertEquals(-1d / 3d, c.getY(), 1e-15);
+    }
+
+    /**
+     * Test of intersects method, of class V2D_PointBuffer_d.
+     */
+    @Test
+    public void testIntersects() {
+        System.out.println("intersects");
+        // A concave ring.
+        V2D_PointBuffer_d ring = new V2D_PointBuffer_d(pN2N2, pP2N2, pP2P2,
+                pP0P0, pN2P2);
+        assertTrue(ring.ringIntersects(0d, -1d, 0d));
+        assertFalse(ring.ringIntersects(0d, 1d, 0d));
+        // On an edge.
+        assertTrue(ring.ringIntersects(2d, 0d, 0d));
+        assertTrue(ring.ringIntersects(1d, 1d, 0d));
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(env, 4, true);
+        pts.add(0d, -1d);
+        pts.add(0d, 1d);
+        pts.add(3d, 0d);
+        pts.add(-1.5d, 1d);
+        BitSet r = pts.intersects(ring, 0d);
+        assertTrue(r.get(0));
+        assertFalse(r.get(1));
+        assertFalse(r.get(2));
+        assertTrue(r.get(3));
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointLocator_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
+
+/**
+ * Test class for V2D_PointLocator_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PointLocator_dTest extends V2D_Test_d {
+
+    double epsilon = 1d / 10000000d;
+
+    public V2D_PointLocator_dTest() {
+        super();
+    }
+
+    /**
+     * @return The rings of a square with a square hole.
+     */
+    private static List<double[]> getRings() {
+        List<double[]> rings = new ArrayList<>();
+        rings.add(new double[]{0, 0, 0, 4, 4, 4, 4, 0});
+        rings.add(new double[]{1, 1, 1, 2, 2, 2, 2, 1});
+        return rings;
+    }
+
+    /**
+     * Test of locate method, of class V2D_PointLocator_d.
+     */
+    @Test
+    public void testLocate() {
+        System.out.println("locate");
+        V2D_PointLocator_d instance = new V2D_PointLocator_d(env, getRings());
+        assertEquals(V2D_PointLocator_d.INSIDE, instance.locate(3, 3, epsilon));
+        assertEquals(V2D_PointLocator_d.INSIDE, instance.locate(2, 3, epsilon));
+        assertEquals(V2D_PointLocator_d.OUTSIDE,
+                instance.locate(1.5, 1.5, epsilon));
+        assertEquals(V2D_PointLocator_d.OUTSIDE, instance.locate(5, 2, epsilon));
+        assertEquals(V2D_PointLocator_d.OUTSIDE,
+                instance.locate(2, 4.5, epsilon));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(0, 2, epsilon));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(4, 4, epsilon));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(1.5, 2, epsilon));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(1d - epsilon / 2d, 1.5, epsilon));
+        assertEquals(V2D_PointLocator_d.INSIDE,
+                instance.locate(1d - epsilon / 2d, 1.5, 0d));
+        // An L shape
+        List<double[]> rings = new ArrayList<>();
+        rings.add(new double[]{0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0});
+        instance = new V2D_PointLocator_d(null, rings);
+        assertEquals(V2D_PointLocator_d.INSIDE,
+                instance.locate(0.5, 1.5, epsilon));
+        assertEquals(V2D_PointLocator_d.OUTSIDE,
+                instance.locate(1.5, 1.5, epsilon));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(1, 1.5, epsilon));
+    }
+
+    /**
+     * Test of locate method, of class V2D_PointLocator_d, for a polygon with
+     * many vertices compared with counting the edges crossed by a ray.
+     */
+    @Test
+    public void testLocate_Random() {
+        System.out.println("locate");
+        Random r = new Random(0);
+        int n = 1000;
+        double[] ring = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            double a = 2d * Math.PI * i / n;
+            double d = 5d + r.nextDouble() * 5d;
+            ring[2 * i] = d * Math.cos(a);
+            ring[2 * i + 1] = d * Math.sin(a);
+        }
+        List<double[]> rings = new ArrayList<>();
+        rings.add(ring);
+        V2D_PointLocator_d instance = new V2D_PointLocator_d(env, rings);
+        assertTrue(instance.getSize() < n * 2 * 11);
+        for (int i = 0; i < 10000; i++) {
+            double x = r.nextDouble() * 24d - 12d;
+            double y = r.nextDouble() * 24d - 12d;
+            boolean in = false;
+            for (int j = 0, k = n - 1; j < n; k = j++) {
+                double yj = ring[2 * j + 1];
+                double yk = ring[2 * k + 1];
+                if ((yj > y) != (yk > y) && x < ring[2 * j] + (y - yj)
+                        * (ring[2 * k] - ring[2 * j]) / (yk - yj)) {
+                    in = !in;
+                }
+            }
+            assertEquals(in ? V2D_PointLocator_d.INSIDE
+                    : V2D_PointLocator_d.OUTSIDE, instance.locate(x, y, 0d));
+        }
+    }
+
+    /**
+     * Test of locate method, of class V2D_PointLocator_d, for points exactly
+     * on edges and vertices with no tolerance.
+     */
+    @Test
+    public void testLocate_Boundary() {
+        System.out.println("locate_Boundary");
+        List<double[]> rings = new ArrayList<>();
+        rings.add(new double[]{14, 19, -11, 19, -11, -9, 14, -9});
+        V2D_PointLocator_d instance = new V2D_PointLocator_d(env, rings);
+        assertEquals(V2D_PointLocator_d.BOUNDARY, instance.locate(-4, 19, 0d));
+        assertEquals(V2D_PointLocator_d.BOUNDARY, instance.locate(7, 19, 0d));
+        assertEquals(V2D_PointLocator_d.BOUNDARY, instance.locate(14, 19, 0d));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(-11, -9, 0d));
+        assertEquals(V2D_PointLocator_d.INSIDE, instance.locate(-4, 18, 0d));
+        assertEquals(V2D_PointLocator_d.OUTSIDE, instance.locate(-4, 20, 0d));
+        // A triangle with an edge through points that are not at a fraction
+        // of the edge that is exactly representable
+        rings.set(0, new double[]{0, 0, 30, 9, 0, 9});
+        instance = new V2D_PointLocator_d(env, rings);
+        assertEquals(V2D_PointLocator_d.BOUNDARY, instance.locate(10, 3, 0d));
+        assertEquals(V2D_PointLocator_d.BOUNDARY, instance.locate(20, 6, 0d));
+        assertEquals(V2D_PointLocator_d.BOUNDARY, instance.locate(0, 0, 0d));
+        assertEquals(V2D_PointLocator_d.INSIDE, instance.locate(10, 4, 0d));
+        assertEquals(V2D_PointLocator_d.OUTSIDE, instance.locate(10, 2, 0d));
+    }
+
+    /**
+     * Test of translate method, of class V2D_PointLocator_d.
+     */
+    @Test
+    public void testTranslate() {
+        System.out.println("translate");
+        V2D_PointLocator_d instance = new V2D_PointLocator_d(env, getRings());
+        instance.translate(new V2D_Vector_d(10, 0));
+        assertEquals(V2D_PointLocator_d.OUTSIDE, instance.locate(3, 3, epsilon));
+        assertEquals(V2D_PointLocator_d.INSIDE, instance.locate(13, 3, epsilon));
+        assertEquals(V2D_PointLocator_d.BOUNDARY,
+                instance.locate(10, 2, epsilon));
+    }
+}
@@ -72,6 +72,23 @@ public class V2D_Point_dTest extends V2D_Test_d {
         assertTrue(instance.equals(p));
     }
 
+    /**
+     * Test of equalsAll and equalsAny methods, of class V2D_Point_d.
+     */
+    @Test
+    public void testEqualsAll() {
+        System.out.println("equalsAll");
+        ArrayList<V2D_Point_d> ps = new ArrayList<>();
+        ps.add(pP0P0);
+        ps.add(new V2D_Point_d(env, 0d, 0d));
+        assertTrue(pP0P0.equalsAll(ps, 0d));
+        // Test 2 ORIGIN has no environment.
+        assertTrue(V2D_Point_d.ORIGIN.equalsAll(ps, 0d));
+        ps.add(pP1P0);
+        assertFalse(V2D_Point_d.ORIGIN.equalsAll(ps, 0d));
+        assertTrue(V2D_Point_d.ORIGIN.equalsAny(ps, 0d));
+    }
+
     /**
      * Test of isBetween method, of class V2D_Point_d.
      */
@@ -507,6 +524,31 @@ public class V2D_Point_dTest extends V2D_Test_d {
         expResult.add(pP1P0);
         result = V2D_Point_d.getUnique(pts, epsilon);
         testContainsSamePoints(expResult, result, epsilon);
+        // Test 4 points within epsilon across grid cells
+        pts = new ArrayList<>();
+        pts.add(new V2D_Point_d(env, -epsilon / 4d, epsilon / 4d));
+        pts.add(new V2D_Point_d(env, epsilon / 4d, -epsilon / 4d));
+        pts.add(new V2D_Point_d(env, 3d * epsilon, 0d));
+        pts.add(new V2D_Point_d(env, -0d, 0d));
+        result = V2D_Point_d.getUnique(pts, epsilon);
+        assertEquals(2, result.size());
+        assertTrue(result.get(0) == pts.get(0));
+        assertTrue(result.get(1) == pts.get(2));
+        // Test 5 exact
+        pts = new ArrayList<>();
+        pts.add(new V2D_Point_d(env, 0d, 0d));
+        pts.add(new V2D_Point_d(env, -0d, 0d));
+        pts.add(new V2D_Point_d(env, Math.ulp(1d), 0d));
+        result = V2D_Point_d.getUnique(pts, 0d);
+        assertEquals(2, result.size());
+        // Test 6 many points
+        pts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pts.add(new V2D_Point_d(env, i % 100, i / 100));
+            pts.add(new V2D_Point_d(env, i % 100 + epsilon / 2d, i / 100));
+        }
+        result = V2D_Point_d.getUnique(pts, epsilon);
+        assertEquals(1000, result.size());
     }
 
     private void testContainsSamePoints(ArrayList<V2D_Point_d> expResult,
@@ -0,0 +1,340 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.d.test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PolygonNoInternalHoles_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Polygon_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Vector_d;
+
+/**
+ * Test class for V2D_Polygon_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Polygon_dTest extends V2D_Test_d {
+
+    double epsilon = 1d / 10000000d;
+
+    public V2D_Polygon_dTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return The points.
+     */
+    private static V2D_Point_d[] getPoints(double... xy) {
+        V2D_Point_d[] pts = new V2D_Point_d[xy.length / 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point_d(env, xy[2 * i], xy[2 * i + 1]);
+        }
+        return pts;
+    }
+
+    /**
+     * @param x0 Minimum x.
+     * @param y0 Minimum y.
+     * @param x1 Maximum x.
+     * @param y1 Maximum y.
+     * @return A square polygon with points in clockwise order.
+     */
+    private static V2D_PolygonNoInternalHoles_d getBox(double x0, double y0,
+            double x1, double y1) {
+        return new V2D_PolygonNoInternalHoles_d(
+                getPoints(x0, y0, x0, y1, x1, y1, x1, y0), 0d);
+    }
+
+    /**
+     * Test of isValid method, of class V2D_Polygon_d.
+     */
+    @Test
+    public void testIsValid() {
+        System.out.println("isValid");
+        assertTrue(getBox(0, 0, 2, 2).isValid(epsilon));
+        // Bowtie
+        V2D_PolygonNoInternalHoles_d p = new V2D_PolygonNoInternalHoles_d(
+                getPoints(0, 0, 2, 2, 2, 0, 0, 2), epsilon);
+        assertFalse(p.isValid(epsilon));
+        // A hole inside
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        assertTrue(ph.isValid(epsilon));
+        // A hole crossing the external edges
+        holes.put(1, getBox(3, 3, 5, 5));
+        assertFalse(ph.isValid(epsilon));
+    }
+
+    /**
+     * Test of getValidityErrors method, of class V2D_Polygon_d.
+     */
+    @Test
+    public void testGetValidityErrors() {
+        System.out.println("getValidityErrors");
+        assertTrue(getBox(0, 0, 2, 2).getValidityErrors(epsilon).isEmpty());
+        // Bowtie
+        V2D_PolygonNoInternalHoles_d p = new V2D_PolygonNoInternalHoles_d(
+                getPoints(0, 0, 2, 2, 2, 0, 0, 2), epsilon);
+        assertEquals(1, p.getValidityErrors(epsilon).size());
+        // A hole crossing the external edges twice
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(3, 3, 5, 5));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        ArrayList<String> errors = ph.getValidityErrors(epsilon);
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).contains("ring 1"));
+    }
+
+    /**
+     * Test of getValidityErrors method, of class V2D_Polygon_d, for a ring
+     * with edges crossing collinear edges at points that are rounded.
+     */
+    @Test
+    public void testGetValidityErrors_Collinear() {
+        System.out.println("getValidityErrors_Collinear");
+        double epsilon = 0d;
+        V2D_PolygonNoInternalHoles_d p = new V2D_PolygonNoInternalHoles_d(
+                getPoints(2, 0, 6, 7, 5, 3, 2, 1, 3, 2, 5, 0, 1, 4), epsilon);
+        assertFalse(p.isValid(epsilon));
+        ArrayList<String> errors = p.getValidityErrors(epsilon);
+        int[][] expResult = {{0, 2}, {0, 4}, {0, 5}, {2, 4}, {2, 5}, {3, 5}, {4, 5}};
+        assertEquals(expResult.length, errors.size());
+        for (int k = 0; k < expResult.length; k++) {
+            assertTrue(errors.get(k).startsWith("Edge " + expResult[k][0]
+                    + " of ring 0 intersects edge " + expResult[k][1]
+                    + " of ring 0"));
+        }
+    }
+
+    /**
+     * Test of getTriangulation method, of class V2D_Polygon_d.
+     */
+    @Test
+    public void testGetTriangulation() {
+        System.out.println("getTriangulation");
+        // An L shape
+        V2D_Point_d[] pts = getPoints(0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0);
+        V2D_PolygonNoInternalHoles_d p = new V2D_PolygonNoInternalHoles_d(pts,
+                epsilon);
+        int[] result = p.getTriangulation();
+        assertEquals(12, result.length);
+        assertEquals(3d, getArea(pts, result), epsilon);
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        result = ph.getTriangulation();
+        assertEquals(24, result.length);
+        pts = getPoints(0, 0, 0, 4, 4, 4, 4, 0, 1, 1, 1, 2, 2, 2, 2, 1);
+        assertEquals(15d, getArea(pts, result), epsilon);
+    }
+
+    /**
+     * Test of getArea method, of class V2D_Polygon_d.
+     */
+    @Test
+    public void testGetArea() {
+        System.out.println("getArea");
+        // An L shape
+        V2D_Point_d[] pts = getPoints(0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0);
+        V2D_PolygonNoInternalHoles_d p = new V2D_PolygonNoInternalHoles_d(pts,
+                epsilon);
+        assertEquals(3d, p.getArea(), epsilon);
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        assertEquals(15d, ph.getArea(), epsilon);
+        // Far from the origin
+        ph.translate(new V2D_Vector_d(1e8, -1e8));
+        assertEquals(15d, ph.getArea(), epsilon);
+    }
+
+    /**
+     * Test of getPerimeter method, of class V2D_Polygon_d.
+     */
+    @Test
+    public void testGetPerimeter() {
+        System.out.println("getPerimeter");
+        V2D_PolygonNoInternalHoles_d p = getBox(0, 0, 2, 3);
+        assertEquals(10d, p.getPerimeter(), epsilon);
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        assertEquals(20d, ph.getPerimeter(), epsilon);
+        ph.translate(new V2D_Vector_d(1, 1));
+        assertEquals(20d, ph.getPerimeter(), epsilon);
+    }
+
+    /**
+     * Test of getPointLocator method, of class V2D_Polygon_d.
+     */
+    @Test
+    public void testGetPointLocator() {
+        System.out.println("getPointLocator");
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        ph.getPointLocator();
+        assertTrue(ph.intersects(getPoints(3, 3)[0], epsilon));
+        assertTrue(ph.contains(getPoints(3, 3)[0], epsilon));
+        assertFalse(ph.intersects(getPoints(1.5, 1.5)[0], epsilon));
+        assertTrue(ph.intersects(getPoints(0, 2)[0], epsilon));
+        assertFalse(ph.contains(getPoints(0, 2)[0], epsilon));
+        assertFalse(ph.contains(getPoints(2, 1.5)[0], epsilon));
+        ph.translate(new V2D_Vector_d(1, 1));
+        assertFalse(ph.intersects(getPoints(0.5, 0.5)[0], epsilon));
+        assertTrue(ph.contains(getPoints(1.5, 1.5)[0], epsilon));
+        assertFalse(ph.contains(getPoints(2.5, 2.5)[0], epsilon));
+        // An L shape
+        V2D_PolygonNoInternalHoles_d p = new V2D_PolygonNoInternalHoles_d(
+                getPoints(0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0), epsilon);
+        p.getPointLocator();
+        assertTrue(p.contains(getPoints(0.5, 1.5)[0], epsilon));
+        assertFalse(p.intersects(getPoints(1.5, 1.5)[0], epsilon));
+    }
+
+    /**
+     * Test of contains and intersects methods, of class V2D_Polygon_d, for
+     * a buffer of points.
+     */
+    @Test
+    public void testContains_PointBuffer() {
+        System.out.println("contains");
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(getPoints(3, 3,
+                1.5, 1.5, 0, 2, 5, 5, 2, 1.5, 3.5, 0.5));
+        BitSet c = ph.contains(pts, epsilon);
+        assertEquals(2, c.cardinality());
+        assertTrue(c.get(0));
+        assertTrue(c.get(5));
+        BitSet i = ph.intersects(pts, epsilon);
+        assertEquals(4, i.cardinality());
+        assertTrue(i.get(2));
+        assertTrue(i.get(4));
+        // Many points compared with testing them one at a time
+        Random r = new Random(0);
+        int n = 1000;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int j = 0; j < n; j++) {
+            xs[j] = r.nextDouble() * 6d - 1d;
+            ys[j] = r.nextDouble() * 6d - 1d;
+        }
+        pts = new V2D_PointBuffer_d(env, xs, ys);
+        c = ph.contains(pts, epsilon);
+        holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon_d ph2 = new V2D_Polygon_d(getBox(0, 0, 4, 4), holes,
+                epsilon);
+        for (int j = 0; j < n; j++) {
+            assertEquals(ph2.contains(pts.getPoint(j), epsilon), c.get(j));
+        }
+    }
+
+    /**
+     * Test of intersects method, of class V2D_Polygon_d, for a polygon with
+     * many holes which are rejected using their Axis Aligned Bounding Boxes.
+     */
+    @Test
+    public void testIntersects_Holes() {
+        System.out.println("intersects");
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 10; j++) {
+                holes.put(holes.size(), getBox(2 * i + 1, 2 * j + 1,
+                        2 * i + 2, 2 * j + 2));
+            }
+        }
+        V2D_Polygon_d ph = new V2D_Polygon_d(getBox(0, 0, 21, 21), holes,
+                epsilon);
+        env.metrics.reset();
+        env.metrics.enabled = true;
+        try {
+            assertTrue(ph.intersects(getPoints(0.5, 0.5)[0], epsilon));
+            assertTrue(env.metrics.getSnapshot().aabbRejections >= 100);
+            assertFalse(ph.intersects(getPoints(15.5, 7.5)[0], epsilon));
+            assertTrue(ph.intersects(getPoints(15, 7.5)[0], epsilon));
+            env.metrics.reset();
+            V2D_Point_d[] l = getPoints(30, 30, 31, 31);
+            assertFalse(ph.intersects(new V2D_LineSegment_d(l[0], l[1]),
+                    epsilon));
+            assertEquals(1, env.metrics.getSnapshot().aabbTests);
+            assertEquals(1, env.metrics.getSnapshot().aabbRejections);
+            l = getPoints(0.5, 0.5, 0.5, 20.5);
+            assertTrue(ph.intersects(new V2D_LineSegment_d(l[0], l[1]),
+                    epsilon));
+            // A point far away is rejected with and without the locator.
+            env.metrics.reset();
+            assertFalse(ph.intersects(getPoints(30, 30)[0], epsilon));
+            assertEquals(1, env.metrics.getSnapshot().aabbTests);
+            assertEquals(1, env.metrics.getSnapshot().aabbRejections);
+            ph.getPointLocator();
+            env.metrics.reset();
+            assertFalse(ph.intersects(getPoints(30, 30)[0], epsilon));
+            assertFalse(ph.contains(getPoints(30, 30)[0], epsilon));
+            assertEquals(2, env.metrics.getSnapshot().aabbRejections);
+        } finally {
+            env.metrics.enabled = false;
+            env.metrics.reset();
+        }
+    }
+
+    /**
+     * @param pts The points.
+     * @param t Triples of indexes into pts.
+     * @return The total area of the triangles which is negative if any are
+     * not clockwise.
+     */
+    private static double getArea(V2D_Point_d[] pts, int[] t) {
+        double a = 0d;
+        for (int i = 0; i < t.length; i += 3) {
+            V2D_Point_d p = pts[t[i]];
+            V2D_Point_d q = pts[t[i + 1]];
+            V2D_Point_d r = pts[t[i + 2]];
+            double ta = ((q.getX() - p.getX()) * (r.getY() - p.getY())
+                    - (r.getX() - p.getX()) * (q.getY() - p.getY())) / 2d;
+            if (ta > 0d) {
+                return -1d;
+            }
+            a -= ta;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.test;
+
+import ch.obermuhlner.math.big.BigRational;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_AABB;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_ConvexArea;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Delaunay;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+
+/**
+ * Test class for V2D_Delaunay.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_DelaunayTest extends V2D_Test {
+
+    public V2D_DelaunayTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return The points.
+     */
+    private static V2D_Point[] getPoints(long... xy) {
+        V2D_Point[] pts = new V2D_Point[xy.length / 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point(env, xy[2 * i], xy[2 * i + 1]);
+        }
+        return pts;
+    }
+
+    /**
+     * Test of getTriangles method, of class V2D_Delaunay.
+     */
+    @Test
+    public void testGetTriangles() {
+        System.out.println("getTriangles");
+        // A square with a point in the middle
+        V2D_Delaunay instance = new V2D_Delaunay(env.oom, env.rm,
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2));
+        assertEquals(12, instance.getTriangles().length);
+        assertEquals(4, instance.getHull().length);
+        // Cocircular points on a grid
+        long[] xy = new long[2 * 25];
+        for (int i = 0; i < 25; i++) {
+            xy[2 * i] = i % 5;
+            xy[2 * i + 1] = i / 5;
+        }
+        instance = new V2D_Delaunay(env.oom, env.rm, getPoints(xy));
+        assertEquals(2 * 25 - 2 - 16, instance.getTriangles().length / 3);
+        assertEquals(16, instance.getHull().length);
+        // Duplicates are not triangulated
+        instance = new V2D_Delaunay(env.oom, env.rm,
+                getPoints(0, 0, 4, 0, 0, 0, 4, 4, 0, 4, 4, 4));
+        assertEquals(6, instance.getTriangles().length);
+        assertEquals(4, instance.getHull().length);
+        // Collinear
+        instance = new V2D_Delaunay(env.oom, env.rm,
+                getPoints(0, 0, 2, 2, 1, 1));
+        assertEquals(0, instance.getTriangles().length);
+        assertArrayEquals(new int[]{0, 2, 1}, instance.getHull());
+    }
+
+    /**
+     * Test of getNeighbours method, of class V2D_Delaunay.
+     */
+    @Test
+    public void testGetNeighbours() {
+        System.out.println("getNeighbours");
+        V2D_Delaunay instance = new V2D_Delaunay(env.oom, env.rm,
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2, 0, 0));
+        assertEquals(4, instance.getNeighbours(4).length);
+        assertEquals(3, instance.getNeighbours(0).length);
+        assertNull(instance.getNeighbours(5));
+    }
+
+    /**
+     * Test of getVoronoiCell method, of class V2D_Delaunay.
+     */
+    @Test
+    public void testGetVoronoiCell() {
+        System.out.println("getVoronoiCell");
+        V2D_Delaunay instance = new V2D_Delaunay(env.oom, env.rm,
+                getPoints(0, 0, 4, 0, 4, 4, 0, 4, 2, 2));
+        BigRational zero = BigRational.ZERO;
+        BigRational four = BigRational.valueOf(4);
+        BigRational[] c = instance.getVoronoiCell(4, zero, zero, four, four);
+        assertEquals(8, c.length);
+        V2D_AABB bounds = new V2D_AABB(env.oom, getPoints(0, 0, 4, 4));
+        V2D_ConvexArea ca = instance.getVoronoiCell(4, bounds, env.oom,
+                env.rm);
+        assertEquals(0, BigRational.valueOf(8).compareTo(
+                ca.getArea(env.oom, env.rm)));
+        V2D_ConvexArea[] cells = instance.getVoronoiCells(bounds, env.oom,
+                env.rm);
+        BigRational sum = BigRational.ZERO;
+        for (int i = 0; i < cells.length; i++) {
+            sum = sum.add(cells[i].getArea(env.oom, env.rm));
+            assertTrue(cells[i].intersects(instance.getPoint(i), env.oom,
+                    env.rm));
+        }
+        assertEquals(0, BigRational.valueOf(16).compareTo(sum));
+    }
+}
@@ -17,6 +17,8 @@ package uk.ac.leeds.ccg.v2d.geometry.test;
 
 import ch.obermuhlner.math.big.BigRational;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -30,6 +32,7 @@ import uk.ac.leeds.ccg.v2d.geometry.V2D_AABB;
 import uk.ac.leeds.ccg.v2d.geometry.V2D_Geometry;
 import uk.ac.leeds.ccg.v2d.geometry.V2D_Line;
 import uk.ac.leeds.ccg.v2d.geometry.V2D_LineSegment;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_LineSegmentSweep;
 import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
 import uk.ac.leeds.ccg.v2d.geometry.V2D_Vector;
 
@@ -117,6 +120,30 @@ public class V2D_LineSegmentTest extends V2D_Test {
         assertTrue(instance.intersects(p, oom, rm));
     }
 
+    /**
+     * Test of intersects method for collections, of class V2D_LineSegment,
+     * for geometries without an environment.
+     */
+    @Test
+    public void testIntersects_Collection() {
+        System.out.println("intersects");
+        int oom = -3;
+        RoundingMode rm = RoundingMode.HALF_UP;
+        V2D_LineSegment l = new V2D_LineSegment(V2D_Point.ORIGIN,
+                new V2D_Point(null, 2, 2), oom, rm);
+        List<V2D_LineSegment> ls = List.of(
+                new V2D_LineSegment(new V2D_Point(null, 0, 2),
+                        new V2D_Point(null, 2, 0), oom, rm),
+                new V2D_LineSegment(new V2D_Point(null, 3, 0),
+                        new V2D_Point(null, 4, 0), oom, rm));
+        assertTrue(V2D_LineSegment.intersects(oom, rm, l, ls));
+        assertFalse(V2D_LineSegment.intersects(oom, rm, l, ls.subList(1, 2)));
+        assertTrue(V2D_LineSegment.intersects(oom, rm, V2D_Point.ORIGIN,
+                List.of(l)));
+        assertFalse(V2D_LineSegment.intersects(oom, rm, V2D_Point.ORIGIN,
+                ls));
+    }
+
     /**
      * Test of equals method, of class V2D_LineSegment.
      */
@@ -558,4 +585,70 @@ public class V2D_LineSegmentTest extends V2D_Test {
         result = l0.getLineOfIntersect(l1, oom, rm);
         assertTrue(expResult.equalsIgnoreDirection(result, oom, rm));
     }
+
+    /**
+     * Test of getIntersections method, of class V2D_LineSegment.
+     */
+    @Test
+    public void testGetIntersections() {
+        System.out.println("getIntersections");
+        int oom = -6;
+        RoundingMode rm = RoundingMode.HALF_UP;
+        long[][] xy = {{0, 0, 4, 4}, {0, 4, 4, 0}, {2, 0, 2, 4},
+            {1, 0, 3, 0}, {2, 0, 5, 0}, {10, 10, 11, 11}};
+        List<V2D_LineSegment> ls = new ArrayList<>();
+        for (long[] c : xy) {
+            ls.add(new V2D_LineSegment(new V2D_Point(env, c[0], c[1]),
+                    new V2D_Point(env, c[2], c[3]), oom, rm));
+        }
+        ArrayList<V2D_LineSegmentSweep.Intersection> result
+                = V2D_LineSegment.getIntersections(oom, rm, ls);
+        int[][] expResult = {{0, 1}, {0, 2}, {1, 2}, {1, 4}, {2, 3}, {2, 4},
+            {3, 4}};
+        assertEquals(expResult.length, result.size());
+        for (int k = 0; k < expResult.length; k++) {
+            V2D_LineSegmentSweep.Intersection x = result.get(k);
+            assertEquals(expResult[k][0], x.i);
+            assertEquals(expResult[k][1], x.j);
+            assertTrue(ls.get(x.i).intersects(ls.get(x.j), oom, rm));
+        }
+        // The triple point
+        assertTrue(((V2D_Point) result.get(0).g).equals(
+                new V2D_Point(env, 2, 2), oom, rm));
+        // The collinear overlap
+        assertTrue(((V2D_LineSegment) result.get(6).g).equalsIgnoreDirection(
+                new V2D_LineSegment(new V2D_Point(env, 2, 0),
+                        new V2D_Point(env, 3, 0), oom, rm), oom, rm));
+        // None
+        assertTrue(V2D_LineSegment.getIntersections(oom, rm,
+                List.of(ls.get(0), ls.get(5))).isEmpty());
+    }
+
+    /**
+     * Test of getIntersections method, of class V2D_LineSegment, for line
+     * segments crossing collinear line segments.
+     */
+    @Test
+    public void testGetIntersections_Collinear() {
+        System.out.println("getIntersections_Collinear");
+        int oom = -6;
+        RoundingMode rm = RoundingMode.HALF_UP;
+        long[][] xy = {{2, 0, 6, 7}, {5, 3, 2, 1}, {5, 0, 3, 2},
+            {5, 0, 1, 4}};
+        List<V2D_LineSegment> ls = new ArrayList<>();
+        for (long[] c : xy) {
+            ls.add(new V2D_LineSegment(new V2D_Point(env, c[0], c[1]),
+                    new V2D_Point(env, c[2], c[3]), oom, rm));
+        }
+        ArrayList<V2D_LineSegmentSweep.Intersection> result
+                = V2D_LineSegment.getIntersections(oom, rm, ls);
+        int[][] expResult = {{0, 1}, {0, 2}, {0, 3}, {1, 2}, {1, 3}, {2, 3}};
+        assertEquals(expResult.length, result.size());
+        for (int k = 0; k < expResult.length; k++) {
+            V2D_LineSegmentSweep.Intersection x = result.get(k);
+            assertEquals(expResult[k][0], x.i);
+            assertEquals(expResult[k][1], x.j);
+            assertTrue(ls.get(x.i).intersects(ls.get(x.j), oom, rm));
+        }
+    }
 }
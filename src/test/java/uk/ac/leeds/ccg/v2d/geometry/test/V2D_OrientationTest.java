@@ -0,0 +1,95 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.test;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.math.BigInteger;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Orientation;
+
+/**
+ * Test class for V2D_Orientation.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_OrientationTest extends V2D_Test {
+
+    public V2D_OrientationTest() {
+        super();
+    }
+
+    /**
+     * Test of getOrientation method, of class V2D_Orientation.
+     */
+    @Test
+    public void testGetOrientation_V2D_Point() {
+        System.out.println("getOrientation");
+        assertEquals(1, V2D_Orientation.getOrientation(pP0P0, pP1P0, pP0P1,
+                env.oom, env.rm));
+        assertEquals(-1, V2D_Orientation.getOrientation(pP0P0, pP0P1, pP1P0,
+                env.oom, env.rm));
+        assertEquals(0, V2D_Orientation.getOrientation(pN1N1, pP0P0, pP2P2,
+                env.oom, env.rm));
+    }
+
+    /**
+     * Test of getOrientation method, of class V2D_Orientation, for nearly
+     * collinear points where the double evaluation is not reliable.
+     */
+    @Test
+    public void testGetOrientation_BigRational() {
+        System.out.println("getOrientation");
+        BigRational third = BigRational.ONE.divide(3);
+        BigRational big = BigRational.valueOf(1000000007);
+        // Collinear points on y = x / 3 that are not exact doubles.
+        BigRational ax = BigRational.ZERO;
+        BigRational ay = BigRational.ZERO;
+        BigRational bx = big;
+        BigRational by = big.multiply(third);
+        BigRational cx = big.multiply(big);
+        BigRational cy = cx.multiply(third);
+        assertEquals(0, V2D_Orientation.getOrientation(ax, ay, bx, by, cx,
+                cy));
+        // Tiny perturbations either side.
+        BigRational e = BigRational.valueOf(BigInteger.ONE,
+                BigInteger.TEN.pow(18));
+        assertEquals(1, V2D_Orientation.getOrientation(ax, ay, bx, by, cx,
+                cy.add(e)));
+        assertEquals(-1, V2D_Orientation.getOrientation(ax, ay, bx, by, cx,
+                cy.subtract(e)));
+        // Random comparison with the exact evaluation.
+        Random r = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            BigRational[] v = new BigRational[6];
+            for (int j = 0; j < 6; j++) {
+                v[j] = BigRational.valueOf(r.nextInt(2001) - 1000,
+                        r.nextInt(7) + 1);
+            }
+            // Make some nearly collinear.
+            if (i % 2 == 0) {
+                v[4] = v[0].add(v[2].subtract(v[0]).multiply(3));
+                v[5] = v[1].add(v[3].subtract(v[1]).multiply(3)).add(
+                        BigRational.valueOf(i % 3 - 1, 1000000007));
+            }
+            assertEquals(V2D_Orientation.getOrientationExact(v[0], v[1], v[2],
+                    v[3], v[4], v[5]), V2D_Orientation.getOrientation(v[0],
+                    v[1], v[2], v[3], v[4], v[5]));
+        }
+    }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.test;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Overlay;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Polygon;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_PolygonNoInternalHoles;
+
+/**
+ * Test class for V2D_Overlay.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_OverlayTest extends V2D_Test {
+
+    public V2D_OverlayTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return A polygon with the points.
+     */
+    private static V2D_PolygonNoInternalHoles getPolygon(long... xy) {
+        V2D_Point[] pts = new V2D_Point[xy.length / 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point(env, xy[2 * i], xy[2 * i + 1]);
+        }
+        return new V2D_PolygonNoInternalHoles(pts, env.oom, env.rm);
+    }
+
+    /**
+     * @param x0 Minimum x.
+     * @param y0 Minimum y.
+     * @param x1 Maximum x.
+     * @param y1 Maximum y.
+     * @return A square polygon with points in clockwise order.
+     */
+    private static V2D_PolygonNoInternalHoles getBox(long x0, long y0,
+            long x1, long y1) {
+        return getPolygon(x0, y0, x0, y1, x1, y1, x1, y0);
+    }
+
+    /**
+     * @param p A polygon.
+     * @return The area of the polygon calculated from the points.
+     */
+    private static BigRational getArea(V2D_PolygonNoInternalHoles p) {
+        HashMap<Integer, V2D_Point> pts = p.getPoints(env.oom, env.rm);
+        BigRational a = BigRational.ZERO;
+        for (int i = 0; i < pts.size(); i++) {
+            V2D_Point q = pts.get(i);
+            V2D_Point r = pts.get((i + 1) % pts.size());
+            a = a.add(q.getX(env.oom, env.rm).multiply(r.getY(env.oom, env.rm))
+                    .subtract(r.getX(env.oom, env.rm).multiply(
+                            q.getY(env.oom, env.rm))));
+        }
+        a = a.abs().divide(2);
+        if (p instanceof V2D_Polygon pih) {
+            for (var h : pih.internalHoles.values()) {
+                a = a.subtract(getArea(h));
+            }
+        }
+        return a;
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return A ring with the coordinates.
+     */
+    private static BigRational[] getRing(long... xy) {
+        BigRational[] r = new BigRational[xy.length];
+        for (int i = 0; i < xy.length; i++) {
+            r[i] = BigRational.valueOf(xy[i]);
+        }
+        return r;
+    }
+
+    /**
+     * @param xy The interleaved coordinates of a ring.
+     * @return The area of the ring.
+     */
+    private static BigRational getArea(BigRational[] xy) {
+        BigRational a = BigRational.ZERO;
+        int n = xy.length / 2;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            a = a.add(xy[2 * i].multiply(xy[2 * j + 1]).subtract(
+                    xy[2 * j].multiply(xy[2 * i + 1])));
+        }
+        return a.abs().divide(2);
+    }
+
+    /**
+     * @param rings Rings.
+     * @return The total area of the exterior rings less that of the holes.
+     */
+    private static BigRational getRingsArea(ArrayList<V2D_Overlay.Ring> rings) {
+        BigRational a = BigRational.ZERO;
+        for (var r : rings) {
+            a = r.isExterior() ? a.add(getArea(r.xy))
+                    : a.subtract(getArea(r.xy));
+        }
+        return a;
+    }
+
+    /**
+     * @param n The number of teeth.
+     * @param transpose If {@code true} x and y are swapped.
+     * @return A saw tooth ring with coordinates in thousandths each edge of
+     * which crosses many edges of the transposed ring.
+     */
+    private static BigRational[] getSaw(int n, boolean transpose) {
+        BigRational[] r = new BigRational[2 * n + 4];
+        for (int i = 0; i < n; i++) {
+            int x = 700 * i + 13 * i * i + (transpose ? 11 * i : 0);
+            int y = (i % 2 == 0) ? 100 + 3 * i : 9370 + 7 * i;
+            r[2 * i] = BigRational.valueOf(transpose ? y : x, 1000);
+            r[2 * i + 1] = BigRational.valueOf(transpose ? x : y, 1000);
+        }
+        int[] ends = {700 * n + 13 * n * n, -1000, -500, -1000};
+        for (int i = 0; i < 2; i++) {
+            r[2 * (n + i)] = BigRational.valueOf(
+                    ends[2 * i + (transpose ? 1 : 0)], 1000);
+            r[2 * (n + i) + 1] = BigRational.valueOf(
+                    ends[2 * i + (transpose ? 0 : 1)], 1000);
+        }
+        return r;
+    }
+
+    /**
+     * @param ps Polygons.
+     * @return The total area.
+     */
+    private static BigRational getArea(ArrayList<V2D_Polygon> ps) {
+        BigRational a = BigRational.ZERO;
+        for (var p : ps) {
+            a = a.add(getArea(p));
+        }
+        return a;
+    }
+
+    /**
+     * Test of getIntersection method, of class V2D_Overlay.
+     */
+    @Test
+    public void testGetIntersection() {
+        System.out.println("getIntersection");
+        V2D_PolygonNoInternalHoles a = getBox(0, 0, 2, 2);
+        V2D_PolygonNoInternalHoles b = getBox(1, 1, 3, 3);
+        ArrayList<V2D_Polygon> result = V2D_Overlay.getIntersection(a, b,
+                env.oom, env.rm);
+        assertEquals(1, result.size());
+        assertEquals(4, result.get(0).getPoints(env.oom, env.rm).size());
+        assertEquals(0, BigRational.ONE.compareTo(getArea(result)));
+        // Disjoint
+        b = getBox(5, 5, 6, 6);
+        assertTrue(V2D_Overlay.getIntersection(a, b, env.oom, env.rm)
+                .isEmpty());
+        // Touching along an edge
+        b = getBox(2, 0, 3, 2);
+        assertEquals(0, BigRational.ZERO.compareTo(getArea(
+                V2D_Overlay.getIntersection(a, b, env.oom, env.rm))));
+        // Triangles crossing at points with coordinates in thirds
+        BigRational[] t0 = getRing(0, 0, 1, 3, 2, 0);
+        BigRational[] t1 = getRing(0, 2, 2, 2, 1, -1);
+        ArrayList<V2D_Overlay.Ring> rings = V2D_Overlay.apply(
+                List.<BigRational[]>of(t0), List.<BigRational[]>of(t1),
+                V2D_Overlay.Operation.INTERSECTION);
+        assertEquals(1, rings.size());
+        BigRational[] xy = rings.get(0).xy;
+        assertEquals(12, xy.length);
+        BigRational third = BigRational.ONE.divide(3);
+        boolean found = false;
+        for (int i = 0; i < xy.length; i += 2) {
+            if (xy[i].compareTo(third) == 0
+                    && xy[i + 1].compareTo(BigRational.ONE) == 0) {
+                found = true;
+            }
+        }
+        assertTrue(found);
+        assertEquals(0, BigRational.TWO.compareTo(getArea(xy)));
+    }
+
+    /**
+     * Test of getUnion method, of class V2D_Overlay.
+     */
+    @Test
+    public void testGetUnion() {
+        System.out.println("getUnion");
+        V2D_PolygonNoInternalHoles a = getBox(0, 0, 2, 2);
+        V2D_PolygonNoInternalHoles b = getBox(1, 1, 3, 3);
+        ArrayList<V2D_Polygon> result = a.getUnion(b, env.oom, env.rm);
+        assertEquals(1, result.size());
+        assertEquals(8, result.get(0).getPoints(env.oom, env.rm).size());
+        assertEquals(0, BigRational.valueOf(7).compareTo(getArea(result)));
+        // Sharing an edge dissolves the edge
+        b = getBox(2, 0, 3, 2);
+        result = a.getUnion(b, env.oom, env.rm);
+        assertEquals(1, result.size());
+        assertEquals(4, result.get(0).getPoints(env.oom, env.rm).size());
+        // A ring of four boxes enclosing a hole
+        ArrayList<V2D_PolygonNoInternalHoles> ps = new ArrayList<>();
+        ps.add(getBox(0, 0, 3, 1));
+        ps.add(getBox(0, 2, 3, 3));
+        ps.add(getBox(0, 1, 1, 2));
+        ps.add(getBox(2, 1, 3, 2));
+        result = V2D_Overlay.getUnion(ps, env.oom, env.rm);
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).internalHoles.size());
+        assertEquals(0, BigRational.valueOf(8).compareTo(getArea(result)));
+    }
+
+    /**
+     * Test of getDifference method, of class V2D_Overlay.
+     */
+    @Test
+    public void testGetDifference() {
+        System.out.println("getDifference");
+        V2D_PolygonNoInternalHoles a = getBox(0, 0, 4, 4);
+        V2D_PolygonNoInternalHoles b = getBox(1, 1, 2, 2);
+        ArrayList<V2D_Polygon> result = a.getDifference(b, env.oom, env.rm);
+        assertEquals(1, result.size());
+        assertEquals(1, result.get(0).internalHoles.size());
+        assertEquals(0, BigRational.valueOf(15).compareTo(getArea(result)));
+        // The difference of a polygon with a hole
+        V2D_Polygon c = result.get(0);
+        b = getBox(2, -1, 5, 5);
+        result = c.getDifference(b, env.oom, env.rm);
+        assertEquals(1, result.size());
+        assertEquals(0, BigRational.valueOf(7).compareTo(getArea(result)));
+        // Removing everything
+        b = getBox(-1, -1, 5, 5);
+        assertTrue(a.getDifference(b, env.oom, env.rm).isEmpty());
+    }
+
+    /**
+     * Test of getXor method, of class V2D_Overlay.
+     */
+    @Test
+    public void testGetXor() {
+        System.out.println("getXor");
+        V2D_PolygonNoInternalHoles a = getBox(0, 0, 2, 2);
+        V2D_PolygonNoInternalHoles b = getBox(1, 1, 3, 3);
+        ArrayList<V2D_Polygon> result = a.getXor(b, env.oom, env.rm);
+        assertEquals(2, result.size());
+        assertEquals(0, BigRational.valueOf(6).compareTo(getArea(result)));
+        // Triangles crossing
+        ArrayList<V2D_Overlay.Ring> rings = V2D_Overlay.apply(
+                List.<BigRational[]>of(getRing(0, 0, 1, 3, 2, 0)),
+                List.<BigRational[]>of(getRing(0, 2, 2, 2, 1, -1)),
+                V2D_Overlay.Operation.XOR);
+        assertEquals(6, rings.size());
+        BigRational area = BigRational.ZERO;
+        for (var r : rings) {
+            area = area.add(getArea(r.xy));
+        }
+        assertEquals(0, BigRational.TWO.compareTo(area));
+    }
+
+    /**
+     * Test of apply method, of class V2D_Overlay, for rings with coordinates
+     * that are not integers and edges that are each divided many times.
+     */
+    @Test
+    public void testApply_NonInteger() {
+        System.out.println("apply_NonInteger");
+        List<BigRational[]> a = List.<BigRational[]>of(getSaw(16, false));
+        List<BigRational[]> b = List.<BigRational[]>of(getSaw(16, true));
+        BigRational[] areas = new BigRational[4];
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () -> {
+            for (var op : V2D_Overlay.Operation.values()) {
+                areas[op.ordinal()] = getRingsArea(
+                        V2D_Overlay.apply(a, b, op));
+            }
+        });
+        BigRational aa = getArea(a.get(0));
+        BigRational ba = getArea(b.get(0));
+        BigRational i = areas[V2D_Overlay.Operation.INTERSECTION.ordinal()];
+        BigRational u = areas[V2D_Overlay.Operation.UNION.ordinal()];
+        assertEquals(1, i.compareTo(BigRational.ZERO));
+        assertEquals(0, aa.add(ba).compareTo(i.add(u)));
+        assertEquals(0, aa.subtract(i).compareTo(
+                areas[V2D_Overlay.Operation.DIFFERENCE.ordinal()]));
+        assertEquals(0, u.subtract(i).compareTo(
+                areas[V2D_Overlay.Operation.XOR.ordinal()]));
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.test;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_PointLocator;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Vector;
+
+/**
+ * Test class for V2D_PointLocator.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PointLocatorTest extends V2D_Test {
+
+    public V2D_PointLocatorTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return The coordinates as BigRational values.
+     */
+    private static BigRational[] getRing(long... xy) {
+        BigRational[] r = new BigRational[xy.length];
+        for (int i = 0; i < xy.length; i++) {
+            r[i] = BigRational.valueOf(xy[i]);
+        }
+        return r;
+    }
+
+    /**
+     * @return The rings of a square with a square hole.
+     */
+    private static List<BigRational[]> getRings() {
+        List<BigRational[]> rings = new ArrayList<>();
+        rings.add(getRing(0, 0, 0, 4, 4, 4, 4, 0));
+        rings.add(getRing(1, 1, 1, 2, 2, 2, 2, 1));
+        return rings;
+    }
+
+    /**
+     * @param instance The instance to test.
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The result of locating (x, y).
+     */
+    private static int locate(V2D_PointLocator instance, double x, double y) {
+        return instance.locate(BigRational.valueOf(x), BigRational.valueOf(y));
+    }
+
+    /**
+     * Test of locate method, of class V2D_PointLocator.
+     */
+    @Test
+    public void testLocate() {
+        System.out.println("locate");
+        V2D_PointLocator instance = new V2D_PointLocator(env, getRings());
+        assertEquals(V2D_PointLocator.INSIDE, locate(instance, 3, 3));
+        assertEquals(V2D_PointLocator.INSIDE, locate(instance, 2, 3));
+        assertEquals(V2D_PointLocator.OUTSIDE, locate(instance, 1.5, 1.5));
+        assertEquals(V2D_PointLocator.OUTSIDE, locate(instance, 5, 2));
+        assertEquals(V2D_PointLocator.OUTSIDE, locate(instance, 2, 4.5));
+        assertEquals(V2D_PointLocator.BOUNDARY, locate(instance, 0, 2));
+        assertEquals(V2D_PointLocator.BOUNDARY, locate(instance, 4, 4));
+        assertEquals(V2D_PointLocator.BOUNDARY, locate(instance, 1.5, 2));
+        assertEquals(V2D_PointLocator.BOUNDARY, locate(instance, 1, 1.5));
+        // Just outside the hole
+        assertEquals(V2D_PointLocator.INSIDE, instance.locate(
+                BigRational.ONE.subtract(BigRational.valueOf(1, 1000000000)),
+                BigRational.valueOf(3, 2)));
+        // An L shape
+        List<BigRational[]> rings = new ArrayList<>();
+        rings.add(getRing(0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0));
+        instance = new V2D_PointLocator(null, rings);
+        assertEquals(V2D_PointLocator.INSIDE, locate(instance, 0.5, 1.5));
+        assertEquals(V2D_PointLocator.OUTSIDE, locate(instance, 1.5, 1.5));
+        assertEquals(V2D_PointLocator.BOUNDARY, locate(instance, 1, 1.5));
+    }
+
+    /**
+     * Test of translate method, of class V2D_PointLocator.
+     */
+    @Test
+    public void testTranslate() {
+        System.out.println("translate");
+        V2D_PointLocator instance = new V2D_PointLocator(env, getRings());
+        instance.translate(new V2D_Vector(10, 0), env.oom, env.rm);
+        assertEquals(V2D_PointLocator.OUTSIDE, locate(instance, 3, 3));
+        assertEquals(V2D_PointLocator.INSIDE, locate(instance, 13, 3));
+        assertEquals(V2D_PointLocator.BOUNDARY, locate(instance, 10, 2));
+    }
+}
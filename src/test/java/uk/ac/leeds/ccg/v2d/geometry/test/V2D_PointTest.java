@@ -81,6 +81,25 @@ public class V2D_PointTest extends V2D_Test {
     }
 
       /**
+     * Test of equalsAll and equalsAny methods, of class V2D_Point.
+     */
+    @Test
+    public void testEqualsAll() {
+        System.out.println("equalsAll");
+        int oom = -3;
+        RoundingMode rm = RoundingMode.HALF_UP;
+        ArrayList<V2D_Point> ps = new ArrayList<>();
+        ps.add(pP0P0);
+        ps.add(new V2D_Point(env, 0d, 0d));
+        assertTrue(pP0P0.equalsAll(ps, oom, rm));
+        // Test 2 ORIGIN has no environment.
+        assertTrue(V2D_Point.ORIGIN.equalsAll(ps, oom, rm));
+        ps.add(pP1P0);
+        assertFalse(V2D_Point.ORIGIN.equalsAll(ps, oom, rm));
+        assertTrue(V2D_Point.ORIGIN.equalsAny(ps, oom, rm));
+    }
+
+    /**
      * Test of isBetween method, of class V2D_Point.
      */
     @Test
@@ -285,6 +304,26 @@ public class V2D_PointTest extends V2D_Test {
         assertTrue(expResult.compareTo(result) == 0);
     }
 
+    /**
+     * Test of getXDouble and getYDouble methods, of class V2D_Point.
+     */
+    @Test
+    public void testGetXDouble() {
+        System.out.println("getXDouble");
+        int oom = -6;
+        RoundingMode rm = RoundingMode.HALF_UP;
+        V2D_Point instance = new V2D_Point(env, BigRational.valueOf(1, 4),
+                BigRational.valueOf(-3, 8));
+        assertEquals(0.25d, instance.getXDouble(oom, rm));
+        assertEquals(-0.375d, instance.getYDouble(oom, rm));
+        // The cached approximations are cleared when the point moves.
+        instance.translate(new V2D_Vector(1, 1), oom, rm);
+        assertEquals(1.25d, instance.getXDouble(oom, rm));
+        assertEquals(0.625d, instance.getYDouble(oom, rm));
+        assertEquals(instance.getX(oom, rm).toDouble(),
+                instance.getXDouble(oom - 1, rm));
+    }
+
     /**
      * Test of isOrigin method, of class V2D_Point.
      */
@@ -421,6 +460,18 @@ public class V2D_PointTest extends V2D_Test {
         offset = N2N2;
         instance.translate(offset, oom, rm);
         assertTrue(instance.equals(pN2N1, oom, rm));
+        // Test 3 the cached coordinates are updated.
+        instance = new V2D_Point(pP0P0);
+        assertTrue(instance.getX(oom, rm).compareTo(BigRational.ZERO) == 0);
+        assertTrue(instance.getY(oom, rm).compareTo(BigRational.ZERO) == 0);
+        instance.translate(P1P2, oom, rm);
+        assertTrue(instance.getX(oom, rm).compareTo(BigRational.ONE) == 0);
+        assertTrue(instance.getY(oom, rm).compareTo(BigRational.TWO) == 0);
+        instance.setRel(P0P0, oom, rm);
+        assertTrue(instance.getX(oom, rm).compareTo(BigRational.ONE) == 0);
+        instance.setOffset(P1P1, oom, rm);
+        assertTrue(instance.getY(oom, rm).compareTo(BigRational.TWO) == 0);
+        assertTrue(instance.getX(oom - 2, rm).compareTo(BigRational.ONE) == 0);
     }
 
     /**
@@ -505,6 +556,22 @@ public class V2D_PointTest extends V2D_Test {
         expResult.add(pP1P0);
         result = V2D_Point.getUnique(pts, oom, rm);
         testContainsSamePoints(expResult, result, oom, rm);
+        // Test 4 equal values with different representations
+        pts = new ArrayList<>();
+        pts.add(new V2D_Point(env, BigRational.valueOf(1, 2),
+                BigRational.valueOf(-2, 3)));
+        pts.add(new V2D_Point(env, BigRational.valueOf(2, 4),
+                BigRational.valueOf(4, -6)));
+        pts.add(new V2D_Point(env, BigRational.valueOf(1, 2),
+                BigRational.valueOf(2, 3)));
+        pts.add(new V2D_Point(env, BigRational.ZERO, BigRational.ZERO));
+        pts.add(new V2D_Point(env, BigRational.valueOf(0, 5),
+                BigRational.ZERO.negate()));
+        result = V2D_Point.getUnique(pts, oom, rm);
+        assertEquals(3, result.size());
+        assertTrue(result.get(0) == pts.get(0));
+        assertTrue(result.get(1) == pts.get(2));
+        assertTrue(result.get(2) == pts.get(3));
     }
 
     private void testContainsSamePoints(ArrayList<V2D_Point> expResult,
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.geometry.test;
+
+import ch.obermuhlner.math.big.BigRational;
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.math.arithmetic.Math_BigRational;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Point;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_PolygonNoInternalHoles;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Polygon;
+import uk.ac.leeds.ccg.v2d.geometry.V2D_Vector;
+
+/**
+ * Test class for V2D_Polygon.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_PolygonTest extends V2D_Test {
+
+    public V2D_PolygonTest() {
+        super();
+    }
+
+    /**
+     * @param xy Interleaved coordinates.
+     * @return The points.
+     */
+    private static V2D_Point[] getPoints(long... xy) {
+        V2D_Point[] pts = new V2D_Point[xy.length / 2];
+        for (int i = 0; i < pts.length; i++) {
+            pts[i] = new V2D_Point(env, xy[2 * i], xy[2 * i + 1]);
+        }
+        return pts;
+    }
+
+    /**
+     * @param x0 Minimum x.
+     * @param y0 Minimum y.
+     * @param x1 Maximum x.
+     * @param y1 Maximum y.
+     * @return A square polygon with points in clockwise order.
+     */
+    private static V2D_PolygonNoInternalHoles getBox(long x0, long y0,
+            long x1, long y1) {
+        return new V2D_PolygonNoInternalHoles(
+                getPoints(x0, y0, x0, y1, x1, y1, x1, y0), env.oom, env.rm);
+    }
+
+    /**
+     * Test of isValid method, of class V2D_Polygon.
+     */
+    @Test
+    public void testIsValid() {
+        System.out.println("isValid");
+        assertTrue(getBox(0, 0, 2, 2).isValid(env.oom, env.rm));
+        // Bowtie
+        V2D_PolygonNoInternalHoles p = new V2D_PolygonNoInternalHoles(
+                getPoints(0, 0, 2, 2, 2, 0, 0, 2), env.oom, env.rm);
+        assertFalse(p.isValid(env.oom, env.rm));
+        // A hole inside
+        HashMap<Integer, V2D_PolygonNoInternalHoles> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon ph = new V2D_Polygon(getBox(0, 0, 4, 4), holes,
+                env.oom, env.rm);
+        assertTrue(ph.isValid(env.oom, env.rm));
+        // A hole crossing the external edges
+        holes.put(1, getBox(3, 3, 5, 5));
+        assertFalse(ph.isValid(env.oom, env.rm));
+    }
+
+    /**
+     * Test of getValidityErrors method, of class V2D_Polygon.
+     */
+    @Test
+    public void testGetValidityErrors() {
+        System.out.println("getValidityErrors");
+        assertTrue(getBox(0, 0, 2, 2).getValidityErrors(env.oom, env.rm).isEmpty());
+        // Bowtie
+        V2D_PolygonNoInternalHoles p = new V2D_PolygonNoInternalHoles(
+                getPoints(0, 0, 2, 2, 2, 0, 0, 2), env.oom, env.rm);
+        assertEquals(1, p.getValidityErrors(env.oom, env.rm).size());
+        // A hole crossing the external edges twice
+        HashMap<Integer, V2D_PolygonNoInternalHoles> holes = new HashMap<>();
+        holes.put(0, getBox(3, 3, 5, 5));
+        V2D_Polygon ph = new V2D_Polygon(getBox(0, 0, 4, 4), holes,
+                env.oom, env.rm);
+        ArrayList<String> errors = ph.getValidityErrors(env.oom, env.rm);
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(0).contains("ring 1"));
+    }
+
+    /**
+     * Test of getValidityErrors method, of class V2D_Polygon, for a ring
+     * with edges crossing collinear edges.
+     */
+    @Test
+    public void testGetValidityErrors_Collinear() {
+        System.out.println("getValidityErrors_Collinear");
+        V2D_PolygonNoInternalHoles p = new V2D_PolygonNoInternalHoles(
+                getPoints(2, 0, 6, 7, 5, 3, 2, 1, 3, 2, 5, 0, 1, 4), env.oom,
+                env.rm);
+        assertFalse(p.isValid(env.oom, env.rm));
+        ArrayList<String> errors = p.getValidityErrors(env.oom, env.rm);
+        int[][] expResult = {{0, 2}, {0, 4}, {0, 5}, {2, 4}, {2, 5}, {3, 5}, {4, 5}};
+        assertEquals(expResult.length, errors.size());
+        for (int k = 0; k < expResult.length; k++) {
+            assertTrue(errors.get(k).startsWith("Edge " + expResult[k][0]
+                    + " of ring 0 intersects edge " + expResult[k][1]
+                    + " of ring 0"));
+        }
+    }
+
+    /**
+     * Test of getTriangulation method, of class V2D_Polygon.
+     */
+    @Test
+    public void testGetTriangulation() {
+        System.out.println("getTriangulation");
+        // An L shape
+        V2D_Point[] pts = getPoints(0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0);
+        V2D_PolygonNoInternalHoles p = new V2D_PolygonNoInternalHoles(pts,
+                env.oom, env.rm);
+        int[] result = p.getTriangulation(env.oom, env.rm);
+        assertEquals(12, result.length);
+        assertEquals(0, BigRational.valueOf(3).compareTo(
+                getArea(pts, result)));
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon ph = new V2D_Polygon(getBox(0, 0, 4, 4), holes,
+                env.oom, env.rm);
+        result = ph.getTriangulation(env.oom, env.rm);
+        assertEquals(24, result.length);
+        pts = getPoints(0, 0, 0, 4, 4, 4, 4, 0, 1, 1, 1, 2, 2, 2, 2, 1);
+        assertEquals(0, BigRational.valueOf(15).compareTo(
+                getArea(pts, result)));
+    }
+
+    /**
+     * Test of getArea method, of class V2D_Polygon.
+     */
+    @Test
+    public void testGetArea() {
+        System.out.println("getArea");
+        // An L shape
+        V2D_Point[] pts = getPoints(0, 0, 0, 2, 1, 2, 1, 1, 2, 1, 2, 0);
+        V2D_PolygonNoInternalHoles p = new V2D_PolygonNoInternalHoles(pts,
+                env.oom, env.rm);
+        assertEquals(0, BigRational.valueOf(3).compareTo(
+                p.getArea(env.oom, env.rm)));
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon ph = new V2D_Polygon(getBox(0, 0, 4, 4), holes,
+                env.oom, env.rm);
+        assertEquals(0, BigRational.valueOf(15).compareTo(
+                ph.getArea(env.oom, env.rm)));
+        // Far from the origin
+        ph.translate(new V2D_Vector(100000000L, -100000000L), env.oom, env.rm);
+        assertEquals(0, BigRational.valueOf(15).compareTo(
+                ph.getArea(env.oom, env.rm)));
+    }
+
+    /**
+     * Test of getPerimeter method, of class V2D_Polygon.
+     */
+    @Test
+    public void testGetPerimeter() {
+        System.out.println("getPerimeter");
+        int oom = -3;
+        V2D_PolygonNoInternalHoles p = getBox(0, 0, 2, 3);
+        assertTrue(Math_BigRational.equals(BigRational.valueOf(10),
+                p.getPerimeter(oom, env.rm), oom));
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles> holes = new HashMap<>();
+        holes.put(0, getBox(1, 1, 2, 2));
+        V2D_Polygon ph = new V2D_Polygon(getBox(0, 0, 4, 4), holes,
+                env.oom, env.rm);
+        assertTrue(Math_BigRational.equals(BigRational.valueOf(20),
+                ph.getPerimeter(oom, env.rm), oom));
+        ph.translate(new V2D_Vector(1, 1), env.oom, env.rm);
+        assertTrue(Math_BigRational.equals(BigRational.valueOf(20),
+                ph.getPerimeter(oom, env.rm), oom));
+    }
+
+    /**
+     * Test of getPointLocator method, of class V2D_Polygon.
+     */
+    @Test
+    public void testGetPointLocator() {
+        System.out.println("getPointLocator");
+        // A square with a square hole
+        HashMap<Integer, V2D_PolygonNoInternalHoles> holes = new HashMap<>();
+        holes.put(0, getBox(2, 2, 4, 4));
+        V2D_Polygon ph = new V2D_Polygon(getBox(0, 0, 8, 8), holes,
+                env.oom, env.rm);
+        ph.getPointLocator(env.oom, env.rm);
+        assertTrue(ph.intersects(getPoints(6, 6)[0], env.oom, env.rm));
+        assertTrue(ph.contains(getPoints(6, 6)[0], env.oom, env.rm));
+        assertFalse(ph.intersects(getPoints(3, 3)[0], env.oom, env.rm));
+        assertTrue(ph.intersects(getPoints(0, 4)[0], env.oom, env.rm));
+        assertFalse(ph.contains(getPoints(0, 4)[0], env.oom, env.rm));
+        assertFalse(ph.contains(getPoints(4, 3)[0], env.oom, env.rm));
+        ph.translate(new V2D_Vector(2, 2), env.oom, env.rm);
+        assertFalse(ph.intersects(getPoints(1, 1)[0], env.oom, env.rm));
+        assertTrue(ph.contains(getPoints(3, 3)[0], env.oom, env.rm));
+        assertFalse(ph.contains(getPoints(5, 5)[0], env.oom, env.rm));
+        // An L shape
+        V2D_PolygonNoInternalHoles p = new V2D_PolygonNoInternalHoles(
+                getPoints(0, 0, 0, 4, 2, 4, 2, 2, 4, 2, 4, 0), env.oom,
+                env.rm);
+        p.getPointLocator(env.oom, env.rm);
+        assertTrue(p.contains(getPoints(1, 3)[0], env.oom, env.rm));
+        assertFalse(p.intersects(getPoints(3, 3)[0], env.oom, env.rm));
+    }
+
+    /**
+     * @param pts The points.
+     * @param t Triples of indexes into pts.
+     * @return The total area of the triangles which is negative if any are
+     * not clockwise.
+     */
+    private static BigRational getArea(V2D_Point[] pts, int[] t) {
+        BigRational a = BigRational.ZERO;
+        for (int i = 0; i < t.length; i += 3) {
+            V2D_Point p = pts[t[i]];
+            V2D_Point q = pts[t[i + 1]];
+            V2D_Point r = pts[t[i + 2]];
+            BigRational px = p.getX(env.oom, env.rm);
+            BigRational py = p.getY(env.oom, env.rm);
+            BigRational ta = q.getX(env.oom, env.rm).subtract(px).multiply(
+                    r.getY(env.oom, env.rm).subtract(py)).subtract(
+                    r.getX(env.oom, env.rm).subtract(px).multiply(
+                            q.getY(env.oom, env.rm).subtract(py)))
+                    .divide(2);
+            if (ta.signum() > 0) {
+                return BigRational.ONE.negate();
+            }
+            a = a.subtract(ta);
+        }
+        return a;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d.test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import uk.ac.leeds.ccg.v2d.projection.d.V2D_Ellipsoid_d;
+
+/**
+ * Test class for V2D_Ellipsoid_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Ellipsoid_dTest {
+
+    public V2D_Ellipsoid_dTest() {
+    }
+
+    /**
+     * Test of the constructor, of class V2D_Ellipsoid_d.
+     */
+    @Test
+    public void testConstructor() {
+        System.out.println("V2D_Ellipsoid_d");
+        assertEquals(0.00669438, V2D_Ellipsoid_d.WGS84.e2, 1e-8);
+        assertEquals(0.00667054, V2D_Ellipsoid_d.AIRY1830.e2, 1e-8);
+        V2D_Ellipsoid_d s = new V2D_Ellipsoid_d(1d, 1d);
+        assertEquals(0d, s.e2);
+        assertEquals(0d, s.n);
+        assertThrows(IllegalArgumentException.class,
+                () -> new V2D_Ellipsoid_d(1d, 2d));
+        assertThrows(IllegalArgumentException.class,
+                () -> new V2D_Ellipsoid_d(1d, 0d));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.projection.d.V2D_GridShift_d;
+
+/**
+ * Test class for V2D_GridShift_d. A synthetic grid is used with shifts that
+ * vary linearly so that bilinear interpolation reproduces them.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_GridShift_dTest {
+
+    static final int NCOLS = 51;
+    static final int NROWS = 41;
+    static final double X0 = 1000d;
+    static final double Y0 = 2000d;
+    static final double DX = 100d;
+    static final double DY = 50d;
+
+    static Path file;
+
+    public V2D_GridShift_dTest() {
+    }
+
+    @BeforeAll
+    public static void setUpClass() throws IOException {
+        file = Files.createTempFile("V2D_GridShift_dTest", ".grid");
+        float[] sx = new float[NCOLS * NROWS];
+        float[] sy = new float[NCOLS * NROWS];
+        for (int r = 0; r < NROWS; r++) {
+            for (int c = 0; c < NCOLS; c++) {
+                double x = X0 + c * DX;
+                double y = Y0 + r * DY;
+                sx[r * NCOLS + c] = (float) getSX(x, y);
+                sy[r * NCOLS + c] = (float) getSY(x, y);
+            }
+        }
+        V2D_GridShift_d.write(file, NCOLS, NROWS, X0, Y0, DX, DY, sx, sy);
+    }
+
+    @AfterAll
+    public static void tearDownClass() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static double getSX(double x, double y) {
+        return 90d + 0.001 * x - 0.002 * y;
+    }
+
+    private static double getSY(double x, double y) {
+        return -80d + 0.003 * x + 0.001 * y;
+    }
+
+    /**
+     * Test of the constructor, of class V2D_GridShift_d.
+     */
+    @Test
+    public void testConstructor() throws IOException {
+        System.out.println("V2D_GridShift_d");
+        V2D_GridShift_d instance = new V2D_GridShift_d(file);
+        assertEquals(NCOLS, instance.ncols);
+        assertEquals(NROWS, instance.nrows);
+        assertEquals(X0, instance.x0);
+        assertEquals(Y0, instance.y0);
+        assertEquals(DX, instance.dx);
+        assertEquals(DY, instance.dy);
+        // Truncated
+        Path f = Files.createTempFile("V2D_GridShift_dTest", ".grid");
+        try {
+            byte[] b = Files.readAllBytes(file);
+            Files.write(f, Arrays.copyOf(b, b.length - 1));
+            assertThrows(IOException.class, () -> new V2D_GridShift_d(f));
+            b[0] = 0;
+            Files.write(f, b);
+            assertThrows(IOException.class, () -> new V2D_GridShift_d(f));
+        } finally {
+            Files.deleteIfExists(f);
+        }
+        assertThrows(IllegalArgumentException.class, ()
+                -> V2D_GridShift_d.write(f, 2, 2, 0d, 0d, 1d, 1d,
+                        new float[4], new float[3]));
+    }
+
+    /**
+     * Test of getShift method, of class V2D_GridShift_d.
+     */
+    @Test
+    public void testGetShift() throws IOException {
+        System.out.println("getShift");
+        V2D_GridShift_d instance = new V2D_GridShift_d(file);
+        Random r = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            double x = X0 + r.nextDouble() * (NCOLS - 1) * DX;
+            double y = Y0 + r.nextDouble() * (NROWS - 1) * DY;
+            double[] s = instance.getShift(x, y);
+            assertEquals(getSX(x, y), s[0], 1e-4);
+            assertEquals(getSY(x, y), s[1], 1e-4);
+        }
+        // Nodes and the far edges.
+        double[] s = instance.getShift(X0, Y0);
+        assertEquals((float) getSX(X0, Y0), s[0]);
+        assertEquals((float) getSY(X0, Y0), s[1]);
+        double xMax = X0 + (NCOLS - 1) * DX;
+        double yMax = Y0 + (NROWS - 1) * DY;
+        s = instance.getShift(xMax, yMax);
+        assertEquals((float) getSX(xMax, yMax), s[0]);
+        assertEquals((float) getSY(xMax, yMax), s[1]);
+        // Outside
+        assertTrue(Double.isNaN(instance.getShift(X0 - 1d, Y0)[0]));
+        assertTrue(Double.isNaN(instance.getShift(X0, yMax + 1d)[1]));
+        assertTrue(Double.isNaN(instance.getShift(Double.NaN, Y0)[0]));
+    }
+
+    /**
+     * Test of apply and applyInverse methods, of class V2D_GridShift_d.
+     */
+    @Test
+    public void testApply() throws IOException {
+        System.out.println("apply");
+        V2D_GridShift_d instance = new V2D_GridShift_d(file);
+        Random r = new Random(1);
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = X0 + 200d + r.nextDouble() * (NCOLS - 5) * DX;
+            y[i] = Y0 + 200d + r.nextDouble() * (NROWS - 9) * DY;
+        }
+        double[] rx = new double[n];
+        double[] ry = new double[n];
+        instance.apply(x, y, rx, ry, new V2D_Execution(true, 1));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(instance.apply(x[i], y[i]),
+                    new double[]{rx[i], ry[i]});
+            assertEquals(x[i] + getSX(x[i], y[i]), rx[i], 1e-4);
+        }
+        double[] sx = new double[n];
+        double[] sy = new double[n];
+        instance.getShifts(x, y, sx, sy, new V2D_Execution(false, 1));
+        for (int i = 0; i < n; i++) {
+            assertEquals(rx[i], x[i] + sx[i]);
+            assertEquals(ry[i], y[i] + sy[i]);
+        }
+        System.out.println("applyInverse");
+        double[] ux = new double[n];
+        double[] uy = new double[n];
+        instance.applyInverse(rx, ry, ux, uy, new V2D_Execution(true, 1));
+        for (int i = 0; i < n; i++) {
+            assertEquals(x[i], ux[i], 1e-6);
+            assertEquals(y[i], uy[i], 1e-6);
+            assertArrayEquals(instance.applyInverse(rx[i], ry[i]),
+                    new double[]{ux[i], uy[i]});
+        }
+        // Point buffers
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(
+                new V2D_Environment_d(1e-9), x, y);
+        instance.apply(pts);
+        assertArrayEquals(rx, pts.getXs());
+        assertArrayEquals(ry, pts.getYs());
+        instance.applyInverse(pts);
+        assertArrayEquals(ux, pts.getXs());
+        assertArrayEquals(uy, pts.getYs());
+        assertThrows(IllegalArgumentException.class, () -> instance
+                .apply(x, y, rx, new double[1], new V2D_Execution()));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d.test;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.projection.d.V2D_Ellipsoid_d;
+import uk.ac.leeds.ccg.v2d.projection.d.V2D_Helmert_d;
+
+/**
+ * Test class for V2D_Helmert_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_Helmert_dTest {
+
+    public V2D_Helmert_dTest() {
+    }
+
+    /**
+     * Test of transform method, of class V2D_Helmert_d.
+     */
+    @Test
+    public void testTransform() {
+        System.out.println("transform");
+        V2D_Ellipsoid_d w = V2D_Ellipsoid_d.WGS84;
+        // Identity
+        V2D_Helmert_d instance = new V2D_Helmert_d(w, w, 0d, 0d, 0d, 0d, 0d,
+                0d, 0d);
+        double[] r = instance.transform(52.5, -1.5);
+        assertEquals(52.5, r[0], 1e-12);
+        assertEquals(-1.5, r[1], 1e-12);
+        // A translation along x moves a point on the equator at 90E west.
+        instance = new V2D_Helmert_d(w, w, 100d, 0d, 0d, 0d, 0d, 0d, 0d);
+        r = instance.transform(0d, 90d);
+        assertEquals(0d, r[0], 1e-12);
+        assertEquals(90d - Math.toDegrees(Math.atan2(100d, w.a)), r[1],
+                1e-12);
+        // A rotation about z moves a point on the equator east.
+        instance = new V2D_Helmert_d(w, w, 0d, 0d, 0d, 0d, 0d, 0d, 1d);
+        r = instance.transform(0d, 0d);
+        assertEquals(0d, r[0], 1e-12);
+        assertEquals(1d / 3600d, r[1], 1e-12);
+        // A scale change does not change latitude or longitude on a sphere.
+        V2D_Ellipsoid_d s = new V2D_Ellipsoid_d(6371000d, 6371000d);
+        instance = new V2D_Helmert_d(s, s, 0d, 0d, 0d, 10d, 0d, 0d, 0d);
+        r = instance.transform(45d, 45d);
+        assertEquals(45d, r[0], 1e-12);
+        assertEquals(45d, r[1], 1e-12);
+        // WGS84 to OSGB36 and back.
+        r = V2D_Helmert_d.WGS84_TO_OSGB36.transform(51.477811, 0d);
+        assertEquals(0.0016, r[1], 0.0001);
+        r = V2D_Helmert_d.OSGB36_TO_WGS84.transform(r[0], r[1]);
+        assertEquals(51.477811, r[0], 1e-7);
+        assertEquals(0d, r[1], 1e-7);
+    }
+
+    /**
+     * Test of transform method for arrays and point buffers, of class
+     * V2D_Helmert_d.
+     */
+    @Test
+    public void testTransform_Arrays() {
+        System.out.println("transform");
+        V2D_Helmert_d instance = V2D_Helmert_d.WGS84_TO_OSGB36;
+        int n = 500;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 50d + i / 100d;
+            lon[i] = -6d + i / 50d;
+        }
+        double[] rlat = new double[n];
+        double[] rlon = new double[n];
+        instance.transform(lat, lon, rlat, rlon, new V2D_Execution(true, 1));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(instance.transform(lat[i], lon[i]),
+                    new double[]{rlat[i], rlon[i]});
+        }
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(
+                new V2D_Environment_d(1e-9), lon, lat);
+        instance.transform(pts);
+        assertArrayEquals(rlon, pts.getXs());
+        assertArrayEquals(rlat, pts.getYs());
+    }
+}
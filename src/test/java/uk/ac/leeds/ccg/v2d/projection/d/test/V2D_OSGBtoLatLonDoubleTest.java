@@ -17,6 +17,10 @@ package uk.ac.leeds.ccg.v2d.projection.d.test;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,6 +29,15 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 import uk.ac.leeds.ccg.math.geometry.Math_AngleDouble;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_FiniteGeometry_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PolygonNoInternalHoles_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Polygon_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Triangle_d;
 import uk.ac.leeds.ccg.v2d.projection.d.V2D_OSGBtoLatLonDouble;
 
 /**
@@ -85,6 +98,179 @@ public class V2D_OSGBtoLatLonDoubleTest {
         assertArrayEquals(expResult, result);
     }
 
+    /**
+     * Test of latlon2osgb and osgb2latlon methods for arrays and point
+     * buffers, of class V2D_OSGBtoLatLon.
+     */
+    @Test
+    public void testLatlon2osgb_Arrays() {
+        System.out.println("latlon2osgb");
+        Random r = new Random(0);
+        int n = 1000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 50d + r.nextDouble() * 8d;
+            lon[i] = -6d + r.nextDouble() * 8d;
+        }
+        double[] e = new double[n];
+        double[] no = new double[n];
+        V2D_OSGBtoLatLonDouble.latlon2osgb(lat, lon, e, no,
+                new V2D_Execution(true, 1));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(V2D_OSGBtoLatLonDouble.latlon2osgb(lat[i],
+                    lon[i]), new double[]{e[i], no[i]});
+        }
+        System.out.println("osgb2latlon");
+        double[] la = new double[n];
+        double[] lo = new double[n];
+        V2D_OSGBtoLatLonDouble.osgb2latlon(e, no, la, lo,
+                new V2D_Execution(false, 1));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(V2D_OSGBtoLatLonDouble.osgb2latlon(e[i], no[i]),
+                    new double[]{la[i], lo[i]});
+        }
+        // Point buffers
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(
+                new V2D_Environment_d(1e-9), lon, lat);
+        V2D_OSGBtoLatLonDouble.latlon2osgb(pts);
+        assertArrayEquals(e, pts.getXs());
+        assertArrayEquals(no, pts.getYs());
+        V2D_OSGBtoLatLonDouble.osgb2latlon(pts);
+        assertArrayEquals(lo, pts.getXs());
+        assertArrayEquals(la, pts.getYs());
+        assertThrows(IllegalArgumentException.class, ()
+                -> V2D_OSGBtoLatLonDouble.latlon2osgb(lat, lon, e,
+                        new double[1], new V2D_Execution()));
+    }
+
+    /**
+     * Test of latlon2osgb and osgb2latlon methods for geometries and
+     * environments, of class V2D_OSGBtoLatLonDouble.
+     */
+    @Test
+    public void testLatlon2osgb_Geometries() {
+        System.out.println("latlon2osgb");
+        V2D_Environment_d env = new V2D_Environment_d(1e-9);
+        V2D_Polygon_d hole = new V2D_Polygon_d(new V2D_Point_d[]{
+            new V2D_Point_d(env, -1.8, 52.2), new V2D_Point_d(env, -1.8, 52.8),
+            new V2D_Point_d(env, -1.2, 52.8), new V2D_Point_d(env, -1.2, 52.2)},
+                new HashMap<>(), 0d);
+        HashMap<Integer, V2D_PolygonNoInternalHoles_d> holes = new HashMap<>();
+        holes.put(0, hole);
+        V2D_Point_d a = new V2D_Point_d(env, -1d, 53d);
+        V2D_Point_d b = new V2D_Point_d(env, -1d, 52d);
+        V2D_Polygon_d p = new V2D_Polygon_d(new V2D_Point_d[]{
+            new V2D_Point_d(env, -2d, 52d), new V2D_Point_d(env, -2d, 53d),
+            a, b}, holes, 0d);
+        // Shares vertices with p.
+        V2D_Triangle_d t = new V2D_Triangle_d(a, b,
+                new V2D_Point_d(env, 0d, 52.5));
+        V2D_LineSegment_d l = new V2D_LineSegment_d(b,
+                new V2D_Point_d(env, 0d, 52.5));
+        double epsilon = 1e-6;
+        ArrayList<V2D_FiniteGeometry_d> r = V2D_OSGBtoLatLonDouble
+                .latlon2osgb(List.of(p, t, l), epsilon,
+                        new V2D_Execution(true, 1));
+        assertEquals(3, r.size());
+        assertTrue(r.get(0) instanceof V2D_Polygon_d);
+        assertTrue(r.get(1) instanceof V2D_Triangle_d);
+        assertTrue(r.get(2) instanceof V2D_LineSegment_d);
+        assertConverted(p, r.get(0));
+        assertConverted(hole, ((V2D_Polygon_d) r.get(0)).internalHoles.get(0));
+        assertConverted(t, r.get(1));
+        assertConverted(l, r.get(2));
+        assertConverted(l, V2D_OSGBtoLatLonDouble.latlon2osgb(l));
+        V2D_Polygon_d rp = V2D_OSGBtoLatLonDouble.latlon2osgb(p, epsilon);
+        assertConverted(p, rp);
+        double[] in = V2D_OSGBtoLatLonDouble.latlon2osgb(52.5, -1.9);
+        double[] inHole = V2D_OSGBtoLatLonDouble.latlon2osgb(52.5, -1.5);
+        assertTrue(rp.intersects(new V2D_Point_d(env, in[0], in[1]),
+                epsilon));
+        assertFalse(rp.intersects(new V2D_Point_d(env, inHole[0], inHole[1]),
+                epsilon));
+        // Environments
+        int pid = env.add(p);
+        int tid = env.add(t);
+        V2D_OSGBtoLatLonDouble.latlon2osgb(env, epsilon);
+        assertConverted(p, env.shapes.get(pid));
+        assertConverted(t, env.shapes.get(tid));
+        assertTrue(env.getIds(new V2D_Point_d(env, in[0], in[1]))
+                .contains(pid));
+        System.out.println("osgb2latlon");
+        V2D_OSGBtoLatLonDouble.osgb2latlon(env, 1e-9);
+        V2D_Point_d c = new V2D_Point_d(env, -1.9, 52.5);
+        assertTrue(env.getIds(c).contains(pid));
+        assertTrue(env.shapes.get(pid).getAABB().getXMin() < -1.99);
+    }
+
+    /**
+     * Test of latlon2osgb method for an environment from which a shape has
+     * been removed, of class V2D_OSGBtoLatLonDouble.
+     */
+    @Test
+    public void testLatlon2osgb_Environment() {
+        System.out.println("latlon2osgb");
+        V2D_Environment_d env = new V2D_Environment_d(1e-9);
+        env.execution = new V2D_Execution(true, 1);
+        int n = 64;
+        V2D_Triangle_d[] ts = new V2D_Triangle_d[n];
+        for (int i = 0; i < n; i++) {
+            double x = -2d + i / (double) n;
+            ts[i] = new V2D_Triangle_d(new V2D_Point_d(env, x, 52d),
+                    new V2D_Point_d(env, x, 53d),
+                    new V2D_Point_d(env, x + 0.01d, 52.5d));
+            assertEquals(i, env.add(ts[i]));
+        }
+        env.remove(1);
+        env.remove(5);
+        V2D_OSGBtoLatLonDouble.latlon2osgb(env, 1e-6);
+        assertEquals(n - 2, env.shapes.size());
+        for (int i = 0; i < n; i++) {
+            if (i == 1 || i == 5) {
+                assertFalse(env.shapes.containsKey(i));
+            } else {
+                assertConverted(ts[i], env.shapes.get(i));
+                assertEquals(i, env.shapes.get(i).getID());
+            }
+        }
+        // The removed ids are reused and no shape is replaced.
+        V2D_Triangle_d t = new V2D_Triangle_d(new V2D_Point_d(env, 0, 0),
+                new V2D_Point_d(env, 0, 1), new V2D_Point_d(env, 1, 0));
+        int id = env.add(t);
+        assertTrue(id == 1 || id == 5);
+        assertEquals(6 - id, env.add(new V2D_Triangle_d(t)));
+        assertEquals(n, env.add(new V2D_Triangle_d(t)));
+        assertEquals(n + 1, env.shapes.size());
+        for (int i = 0; i < n; i++) {
+            if (i != 1 && i != 5) {
+                assertConverted(ts[i], env.shapes.get(i));
+            }
+        }
+    }
+
+    /**
+     * @param g A geometry with longitude as x and latitude as y.
+     * @param r The geometry converted to easting and northing.
+     */
+    private static void assertConverted(V2D_FiniteGeometry_d g,
+            V2D_FiniteGeometry_d r) {
+        V2D_Point_d[] gps = g.getPointsArray();
+        V2D_Point_d[] rps = r.getPointsArray();
+        assertEquals(gps.length, rps.length);
+        for (V2D_Point_d gp : gps) {
+            double[] e = V2D_OSGBtoLatLonDouble.latlon2osgb(gp.getY(),
+                    gp.getX());
+            boolean found = false;
+            for (V2D_Point_d rp : rps) {
+                if (rp.getX() == e[0] && rp.getY() == e[1]) {
+                    found = true;
+                }
+            }
+            assertTrue(found);
+        }
+    }
+
     /**
      * Test of toRadians method, of class V2D_OSGBtoLatLon.
      */
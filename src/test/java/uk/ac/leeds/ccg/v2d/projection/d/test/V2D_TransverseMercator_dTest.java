@@ -0,0 +1,162 @@
+/*
+ * Copyright 2025 Andy Turner, University of Leeds.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.ac.leeds.ccg.v2d.projection.d.test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import uk.ac.leeds.ccg.v2d.core.V2D_Execution;
+import uk.ac.leeds.ccg.v2d.core.d.V2D_Environment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_FiniteGeometry_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_LineSegment_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_PointBuffer_d;
+import uk.ac.leeds.ccg.v2d.geometry.d.V2D_Point_d;
+import uk.ac.leeds.ccg.v2d.projection.d.V2D_TransverseMercator_d;
+
+/**
+ * Test class for V2D_TransverseMercator_d.
+ *
+ * @author Andy Turner
+ * @version 1.0
+ */
+public class V2D_TransverseMercator_dTest {
+
+    public V2D_TransverseMercator_dTest() {
+    }
+
+    /**
+     * Test of latlon2grid method, of class V2D_TransverseMercator_d, using the
+     * worked example in the Ordnance Survey publication "A guide to
+     * coordinate systems in Great Britain".
+     */
+    @Test
+    public void testLatlon2grid() {
+        System.out.println("latlon2grid");
+        double lat = 52d + 39d / 60d + 27.2531 / 3600d;
+        double lon = 1d + 43d / 60d + 4.5177 / 3600d;
+        double[] r = V2D_TransverseMercator_d.OSGB.latlon2grid(lat, lon);
+        assertEquals(651409.903, r[0], 0.001);
+        assertEquals(313177.270, r[1], 0.001);
+        // UTM
+        r = V2D_TransverseMercator_d.getUTM(31, true).latlon2grid(0d, 3d);
+        assertEquals(500000d, r[0], 1e-9);
+        assertEquals(0d, r[1], 1e-9);
+        r = V2D_TransverseMercator_d.getUTM(31, false).latlon2grid(-1d, 3d);
+        assertEquals(500000d, r[0], 1e-9);
+        assertTrue(r[1] < 10000000d && r[1] > 9800000d);
+    }
+
+    /**
+     * Test of grid2latlon method, of class V2D_TransverseMercator_d.
+     */
+    @Test
+    public void testGrid2latlon() {
+        System.out.println("grid2latlon");
+        double[] r = V2D_TransverseMercator_d.OSGB.grid2latlon(651409.903,
+                313177.270);
+        assertEquals(52d + 39d / 60d + 27.2531 / 3600d, r[0], 1e-8);
+        assertEquals(1d + 43d / 60d + 4.5177 / 3600d, r[1], 1e-8);
+        // Round trips across a UTM zone.
+        V2D_TransverseMercator_d z = V2D_TransverseMercator_d.getUTM(30,
+                true);
+        for (double lat = -80d; lat <= 84d; lat += 4d) {
+            for (double lon = -6d; lon <= 0d; lon += 0.5) {
+                double[] g = z.latlon2grid(lat, lon);
+                r = z.grid2latlon(g[0], g[1]);
+                assertEquals(lat, r[0], 1e-8);
+                assertEquals(lon, r[1], 1e-8);
+            }
+        }
+    }
+
+    /**
+     * Test of getUTM method, of class V2D_TransverseMercator_d.
+     */
+    @Test
+    public void testGetUTM() {
+        System.out.println("getUTM");
+        assertSame(V2D_TransverseMercator_d.getUTM(30, true),
+                V2D_TransverseMercator_d.getUTM(30, true));
+        assertEquals(-3d, V2D_TransverseMercator_d.getUTM(30, true).lon0);
+        assertEquals(10000000d,
+                V2D_TransverseMercator_d.getUTM(60, false).n0);
+        assertThrows(IllegalArgumentException.class,
+                () -> V2D_TransverseMercator_d.getUTM(0, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> V2D_TransverseMercator_d.getUTM(61, false));
+    }
+
+    /**
+     * Test of latlon2grid and grid2latlon methods for arrays, point buffers
+     * and geometries, of class V2D_TransverseMercator_d.
+     */
+    @Test
+    public void testLatlon2grid_Arrays() {
+        System.out.println("latlon2grid");
+        V2D_TransverseMercator_d instance = V2D_TransverseMercator_d.OSGB;
+        Random r = new Random(0);
+        int n = 1000;
+        double[] lat = new double[n];
+        double[] lon = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 50d + r.nextDouble() * 8d;
+            lon[i] = -6d + r.nextDouble() * 8d;
+        }
+        double[] e = new double[n];
+        double[] no = new double[n];
+        instance.latlon2grid(lat, lon, e, no, new V2D_Execution(true, 1));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(instance.latlon2grid(lat[i], lon[i]),
+                    new double[]{e[i], no[i]});
+        }
+        System.out.println("grid2latlon");
+        double[] la = new double[n];
+        double[] lo = new double[n];
+        instance.grid2latlon(e, no, la, lo, new V2D_Execution(false, 1));
+        for (int i = 0; i < n; i++) {
+            assertArrayEquals(instance.grid2latlon(e[i], no[i]),
+                    new double[]{la[i], lo[i]});
+        }
+        // Point buffers
+        V2D_Environment_d env = new V2D_Environment_d(1e-9);
+        V2D_PointBuffer_d pts = new V2D_PointBuffer_d(env, lon, lat);
+        instance.latlon2grid(pts);
+        assertArrayEquals(e, pts.getXs());
+        assertArrayEquals(no, pts.getYs());
+        instance.grid2latlon(pts);
+        assertArrayEquals(lo, pts.getXs());
+        assertArrayEquals(la, pts.getYs());
+        // Geometries
+        V2D_LineSegment_d l = new V2D_LineSegment_d(
+                new V2D_Point_d(env, lon[0], lat[0]),
+                new V2D_Point_d(env, lon[1], lat[1]));
+        ArrayList<V2D_FiniteGeometry_d> gs = instance.latlon2grid(List.of(l),
+                1e-6, env.execution);
+        V2D_LineSegment_d gl = (V2D_LineSegment_d) gs.get(0);
+        assertEquals(e[0], gl.getP().getX());
+        assertEquals(no[0], gl.getP().getY());
+        assertEquals(e[1], gl.getQ().getX());
+        assertEquals(no[1], gl.getQ().getY());
+        assertThrows(IllegalArgumentException.class, () -> instance
+                .latlon2grid(lat, lon, e, new double[1], env.execution));
+    }
+}